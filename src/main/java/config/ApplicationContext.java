@@ -0,0 +1,223 @@
+package config;
+
+import java.util.Map;
+
+import controller.AdminController;
+import controller.CustomerController;
+import controller.FoodController;
+import controller.OrderController;
+import controller.PaymentController;
+import repository.impl.AdminRepository;
+import repository.impl.CustomerRepository;
+import repository.impl.FoodRepository;
+import repository.impl.OrderRepository;
+import repository.impl.PaymentMethodRepository;
+import repository.impl.PaymentTransactionRepository;
+import repository.interfaces.IAdminRepository;
+import repository.interfaces.ICustomerRepository;
+import repository.interfaces.IFoodRepository;
+import repository.interfaces.IOrderRepository;
+import repository.interfaces.IPaymentMethodRepository;
+import repository.interfaces.IPaymentTransactionRepository;
+import service.impl.AdminService;
+import service.impl.CustomerService;
+import service.impl.FoodService;
+import service.impl.OrderService;
+import service.impl.PaymentLedgerService;
+import service.impl.PaymentService;
+import service.impl.SessionService;
+import service.interfaces.IAdminService;
+import service.interfaces.ICustomerService;
+import service.interfaces.IFoodService;
+import service.interfaces.IOrderService;
+import service.interfaces.IPaymentLedgerService;
+import service.interfaces.IPaymentGateway;
+import service.interfaces.IPaymentService;
+import service.interfaces.ISessionService;
+import util.LoginThrottle;
+
+/**
+ * Application Context
+ * Builds exactly one repository, service and controller of each kind over a
+ * single ConnectionProvider, so the console, session server and HTTP API
+ * all share the same instances (and whatever caches or pools sit behind them).
+ * Everything is created in the constructor and held in final fields, so a
+ * context is safe to publish and use from any number of threads.
+ */
+public class ApplicationContext {
+
+    private static final Object DEFAULT_LOCK = new Object();
+    private static volatile ApplicationContext defaultContext;
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private final ConnectionProvider connectionProvider;
+
+    // Repositories
+    private final IAdminRepository adminRepository;
+    private final ICustomerRepository customerRepository;
+    private final IFoodRepository foodRepository;
+    private final IOrderRepository orderRepository;
+    private final IPaymentMethodRepository paymentMethodRepository;
+    private final IPaymentTransactionRepository paymentTransactionRepository;
+
+    // Services
+    private final IAdminService adminService;
+    private final ICustomerService customerService;
+    private final IFoodService foodService;
+    private final IPaymentService paymentService;
+    private final IOrderService orderService;
+    private final IPaymentLedgerService paymentLedgerService;
+    private final ISessionService sessionService;
+    // One set of attempt buckets for customer, admin and payment logins (keys are prefixed by kind)
+    private final LoginThrottle<String> loginThrottle;
+    // Payment providers by upper-case payment type; empty unless gateways are configured
+    private final Map<String, IPaymentGateway> paymentGateways;
+
+    // Controllers
+    private final AdminController adminController;
+    private final CustomerController customerController;
+    private final FoodController foodController;
+    private final OrderController orderController;
+    private final PaymentController paymentController;
+
+    public ApplicationContext(ConnectionProvider connectionProvider) {
+        if (connectionProvider == null) {
+            throw new IllegalArgumentException("Connection provider cannot be null");
+        }
+        this.connectionProvider = connectionProvider;
+
+        this.adminRepository = new AdminRepository(connectionProvider);
+        this.customerRepository = new CustomerRepository(connectionProvider);
+        this.foodRepository = new FoodRepository(connectionProvider);
+        this.orderRepository = new OrderRepository(connectionProvider);
+        this.paymentMethodRepository = new PaymentMethodRepository(connectionProvider);
+        this.paymentTransactionRepository = new PaymentTransactionRepository(connectionProvider);
+
+        this.loginThrottle = new LoginThrottle<>();
+        this.adminService = new AdminService(adminRepository, loginThrottle);
+        this.customerService = new CustomerService(customerRepository, loginThrottle);
+        this.sessionService = new SessionService();
+        this.foodService = new FoodService(foodRepository);
+        this.paymentGateways = PaymentGatewayConfig.fromSystemProperties();
+        this.paymentService = new PaymentService(paymentMethodRepository, paymentGateways, loginThrottle);
+        this.orderService = new OrderService(orderRepository, customerRepository,
+                paymentService, foodRepository, sessionService);
+        this.paymentLedgerService = new PaymentLedgerService(paymentTransactionRepository, paymentMethodRepository);
+
+        this.adminController = new AdminController(adminService);
+        this.customerController = new CustomerController(customerService, sessionService);
+        this.foodController = new FoodController(foodService);
+        this.orderController = new OrderController(orderService);
+        this.paymentController = new PaymentController(paymentService);
+    }
+
+    //Shared context used by default constructors; created on first use over a ConnectionPool
+    //(sized by app.db.poolSize) so it can be shared by any number of threads
+    public static ApplicationContext getDefault() {
+        ApplicationContext context = defaultContext;
+        if (context == null) {
+            synchronized (DEFAULT_LOCK) {
+                context = defaultContext;
+                if (context == null) {
+                    context = new ApplicationContext(ConnectionPool.createDefault(
+                            Integer.getInteger("app.db.poolSize", DEFAULT_POOL_SIZE)));
+                    defaultContext = context;
+                }
+            }
+        }
+        return context;
+    }
+
+    //Replace the shared context (e.g. with a pooled one in server modes); returns the previous one
+    public static ApplicationContext setDefault(ApplicationContext context) {
+        synchronized (DEFAULT_LOCK) {
+            ApplicationContext previous = defaultContext;
+            defaultContext = context;
+            return previous;
+        }
+    }
+
+    public ConnectionProvider getConnectionProvider() {
+        return connectionProvider;
+    }
+
+    public IAdminRepository getAdminRepository() {
+        return adminRepository;
+    }
+
+    public ICustomerRepository getCustomerRepository() {
+        return customerRepository;
+    }
+
+    public IFoodRepository getFoodRepository() {
+        return foodRepository;
+    }
+
+    public IOrderRepository getOrderRepository() {
+        return orderRepository;
+    }
+
+    public IPaymentMethodRepository getPaymentMethodRepository() {
+        return paymentMethodRepository;
+    }
+
+    public IPaymentTransactionRepository getPaymentTransactionRepository() {
+        return paymentTransactionRepository;
+    }
+
+    public IAdminService getAdminService() {
+        return adminService;
+    }
+
+    public ICustomerService getCustomerService() {
+        return customerService;
+    }
+
+    public IFoodService getFoodService() {
+        return foodService;
+    }
+
+    public IPaymentService getPaymentService() {
+        return paymentService;
+    }
+
+    public IOrderService getOrderService() {
+        return orderService;
+    }
+
+    public IPaymentLedgerService getPaymentLedgerService() {
+        return paymentLedgerService;
+    }
+
+    public ISessionService getSessionService() {
+        return sessionService;
+    }
+
+    public LoginThrottle<String> getLoginThrottle() {
+        return loginThrottle;
+    }
+
+    public Map<String, IPaymentGateway> getPaymentGateways() {
+        return paymentGateways;
+    }
+
+    public AdminController getAdminController() {
+        return adminController;
+    }
+
+    public CustomerController getCustomerController() {
+        return customerController;
+    }
+
+    public FoodController getFoodController() {
+        return foodController;
+    }
+
+    public OrderController getOrderController() {
+        return orderController;
+    }
+
+    public PaymentController getPaymentController() {
+        return paymentController;
+    }
+}
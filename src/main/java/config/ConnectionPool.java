@@ -0,0 +1,200 @@
+package config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import util.logging.Logger;
+import util.logging.LoggerFactory;
+
+/**
+ * Bounded, thread-safe ConnectionProvider.
+ * Repositories close every connection they borrow (try-with-resources), so
+ * each caller gets a lightweight proxy whose close() hands the physical
+ * connection back to the pool instead of closing it. Unlike the singleton
+ * DatabaseConnection, concurrent callers never share a physical connection.
+ */
+public class ConnectionPool implements ConnectionProvider, AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConnectionPool.class);
+
+    private static final long DEFAULT_ACQUIRE_TIMEOUT_MILLIS = 10_000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final Semaphore permits;
+    private final ConcurrentLinkedQueue<Connection> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger physicalCount = new AtomicInteger();
+
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, String user, String password, int maxSize) {
+        this(url, user, password, maxSize, DEFAULT_ACQUIRE_TIMEOUT_MILLIS);
+    }
+
+    public ConnectionPool(String url, String user, String password, int maxSize, long acquireTimeoutMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    //Pool against the default production database
+    public static ConnectionPool createDefault(int maxSize) {
+        return new ConnectionPool(DatabaseConnection.DB_URL, DatabaseConnection.DB_USER,
+                DatabaseConnection.DB_PASSWORD, maxSize);
+    }
+
+    //Borrow a connection, waiting up to the acquire timeout when all are in use
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        try {
+            return wrap(takeOrCreate());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    //Physical connections currently open (idle or borrowed)
+    public int getPhysicalCount() {
+        return physicalCount.get();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Connection physical;
+        while ((physical = idle.poll()) != null) {
+            closeQuietly(physical);
+        }
+    }
+
+    private Connection takeOrCreate() throws SQLException {
+        Connection physical;
+        while ((physical = idle.poll()) != null) {
+            if (!physical.isClosed()) {
+                return physical;
+            }
+            physicalCount.decrementAndGet();
+        }
+        physical = DriverManager.getConnection(url, user, password);
+        physicalCount.incrementAndGet();
+        return physical;
+    }
+
+    private void release(Connection physical) {
+        try {
+            if (physical.isClosed()) {
+                physicalCount.decrementAndGet();
+                return;
+            }
+            // Never hand a half-finished transaction to the next borrower
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (closed) {
+                closeQuietly(physical);
+            } else {
+                idle.offer(physical);
+            }
+        } catch (SQLException e) {
+            LOG.warn("Discarding pooled connection: {}", e.getMessage());
+            closeQuietly(physical);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void closeQuietly(Connection physical) {
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            LOG.warn("Error closing pooled connection: {}", e.getMessage());
+        }
+        physicalCount.decrementAndGet();
+    }
+
+    private Connection wrap(Connection physical) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new PooledConnectionHandler(physical));
+    }
+
+    //Routes calls to the physical connection until the borrower closes it
+    private final class PooledConnectionHandler implements InvocationHandler {
+
+        private final Connection physical;
+        private final AtomicBoolean returned = new AtomicBoolean();
+
+        PooledConnectionHandler(Connection physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) {
+                        release(physical);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned.get() || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + "]";
+                default:
+                    if (returned.get()) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                    try {
+                        return method.invoke(physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
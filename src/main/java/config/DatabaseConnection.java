@@ -4,11 +4,18 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 
+import util.logging.Logger;
+import util.logging.LoggerFactory;
+
 public class DatabaseConnection implements ConnectionProvider {
     
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/BMSE3014";
-    private static final String DB_USER = "root";
-    private static final String DB_PASSWORD = "root";
+    private static final Logger LOG = LoggerFactory.getLogger(DatabaseConnection.class);
+    
+    // useCursorFetch makes Connector/J honour setFetchSize with a server-side cursor;
+    // without it MySQL ignores the fetch size and buffers the whole result set
+    static final String DB_URL = "jdbc:mysql://localhost:3306/BMSE3014?useCursorFetch=true";
+    static final String DB_USER = "root";
+    static final String DB_PASSWORD = "root";
     
     private static DatabaseConnection instance;
     private Connection connection;
@@ -39,9 +46,9 @@ public class DatabaseConnection implements ConnectionProvider {
             }
             this.connection = DriverManager.getConnection(url, user, password);
         } catch (ClassNotFoundException e) {
-            System.err.println("JDBC Driver not found: " + e.getMessage());
+            LOG.error("JDBC Driver not found: {}", e.getMessage());
         } catch (SQLException e) {
-            System.err.println("Database connection failed: " + e.getMessage());
+            LOG.error("Database connection failed: {}", e.getMessage());
         }
     }
     
@@ -0,0 +1,52 @@
+package config;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import service.impl.ResilientPaymentGateway;
+import service.impl.SimulatedPaymentGateway;
+import service.interfaces.IPaymentGateway;
+import util.CircuitBreaker;
+
+/**
+ * Payment Gateway Configuration
+ * Builds one gateway per payment type from system properties. With
+ * app.gateway.simulate unset no gateways are created and payments stay a
+ * local balance update. With it set, each type gets a simulated provider
+ * behind a timeout, bulkhead and circuit breaker, tuned per type through
+ * app.gateway.{tng|grab|bank}.{latencyMs|jitterMs|failureRate|timeoutMs|
+ * maxConcurrent|breakerThreshold|breakerOpenMs}.
+ */
+public final class PaymentGatewayConfig {
+
+    private static final String[] PAYMENT_TYPES = {"TNG", "GRAB", "BANK"};
+
+    private PaymentGatewayConfig() {
+    }
+
+    //Gateways keyed by upper-case payment type; empty when simulation is off
+    public static Map<String, IPaymentGateway> fromSystemProperties() {
+        if (!Boolean.getBoolean("app.gateway.simulate")) {
+            return Collections.emptyMap();
+        }
+        Map<String, IPaymentGateway> gateways = new LinkedHashMap<>();
+        for (String type : PAYMENT_TYPES) {
+            gateways.put(type, simulated(type));
+        }
+        return gateways;
+    }
+
+    static IPaymentGateway simulated(String type) {
+        String prefix = "app.gateway." + type.toLowerCase() + ".";
+        SimulatedPaymentGateway simulator = new SimulatedPaymentGateway(type,
+                Long.getLong(prefix + "latencyMs", 50),
+                Long.getLong(prefix + "jitterMs", 20),
+                Double.parseDouble(System.getProperty(prefix + "failureRate", "0")));
+        return new ResilientPaymentGateway(simulator,
+                Long.getLong(prefix + "timeoutMs", 2000),
+                Integer.getInteger(prefix + "maxConcurrent", 32),
+                new CircuitBreaker(Integer.getInteger(prefix + "breakerThreshold", 5),
+                        Long.getLong(prefix + "breakerOpenMs", 10_000)));
+    }
+}
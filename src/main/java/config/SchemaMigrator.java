@@ -0,0 +1,132 @@
+package config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import util.logging.Logger;
+import util.logging.LoggerFactory;
+
+/**
+ * Versioned schema migrations.
+ * Each change to the production schema ships as a numbered script under
+ * src/main/resources/db/migration (V&lt;n&gt;__&lt;description&gt;.sql) and is listed
+ * in MIGRATIONS. migrate() applies the scripts the database has not seen yet,
+ * in order, and records each one in schema_version. A shipped script is never
+ * edited; a later change gets the next number.
+ */
+public class SchemaMigrator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    static final String LOCATION = "/db/migration/";
+    //Applied in this order; the number in the name is the version recorded in schema_version
+    static final List<String> MIGRATIONS = List.of(
+            "V1__payment_transactions.sql",
+            "V2__orders_idempotency_key.sql",
+            "V3__customers_unique_phone_number.sql",
+            "V4__menu_version.sql",
+            "V5__foods_updated_at.sql",
+            "V6__order_line_snapshots.sql");
+
+    private static final String CREATE_VERSION_TABLE =
+            "CREATE TABLE IF NOT EXISTS schema_version (" +
+            "version INT PRIMARY KEY, " +
+            "description VARCHAR(200) NOT NULL, " +
+            "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+            ")";
+    private static final String FIND_APPLIED = "SELECT version FROM schema_version";
+    private static final String INSERT_APPLIED =
+            "INSERT INTO schema_version (version, description) VALUES (?, ?)";
+
+    private final ConnectionProvider connectionProvider;
+
+    public SchemaMigrator(ConnectionProvider connectionProvider) {
+        this.connectionProvider = connectionProvider;
+    }
+
+    //Apply every pending migration; returns how many were applied.
+    //MySQL commits DDL implicitly, so a script that fails halfway must be repaired by hand before rerunning.
+    public int migrate() throws SQLException {
+        try (Connection conn = connectionProvider.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(CREATE_VERSION_TABLE);
+            }
+            Set<Integer> applied = new HashSet<>();
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(FIND_APPLIED)) {
+                while (rs.next()) {
+                    applied.add(rs.getInt(1));
+                }
+            }
+
+            int count = 0;
+            for (String script : MIGRATIONS) {
+                int version = versionOf(script);
+                if (applied.contains(version)) {
+                    continue;
+                }
+                LOG.info("Applying schema migration {}", script);
+                try (Statement stmt = conn.createStatement()) {
+                    for (String sql : statements(load(script))) {
+                        stmt.execute(sql);
+                    }
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(INSERT_APPLIED)) {
+                    stmt.setInt(1, version);
+                    stmt.setString(2, descriptionOf(script));
+                    stmt.executeUpdate();
+                }
+                count++;
+            }
+            return count;
+        }
+    }
+
+    //"V12__add_thing.sql" -> 12
+    static int versionOf(String script) {
+        return Integer.parseInt(script.substring(1, script.indexOf("__")));
+    }
+
+    //"V12__add_thing.sql" -> "add thing"
+    static String descriptionOf(String script) {
+        return script.substring(script.indexOf("__") + 2, script.lastIndexOf('.')).replace('_', ' ');
+    }
+
+    //Split a script into statements on ';', dropping "--" comment lines
+    static List<String> statements(String script) {
+        StringBuilder body = new StringBuilder();
+        for (String line : script.split("\\R")) {
+            if (!line.trim().startsWith("--")) {
+                body.append(line).append('\n');
+            }
+        }
+        List<String> statements = new ArrayList<>();
+        for (String sql : body.toString().split(";")) {
+            if (!sql.isBlank()) {
+                statements.add(sql.trim());
+            }
+        }
+        return statements;
+    }
+
+    private static String load(String script) throws SQLException {
+        try (InputStream in = SchemaMigrator.class.getResourceAsStream(LOCATION + script)) {
+            if (in == null) {
+                throw new SQLException("Migration script not found: " + script);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Could not read migration " + script + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package controller;
 
-import repository.impl.AdminRepository;
-import service.impl.AdminService;
+import config.ApplicationContext;
 import service.interfaces.IAdminService;
 
 public class AdminController {
@@ -13,8 +12,9 @@ public class AdminController {
     }
 
 
+    //Uses the shared application context
     public AdminController() {
-        this.adminService = new AdminService(new AdminRepository());
+        this(ApplicationContext.getDefault().getAdminService());
     }
 
 
@@ -2,17 +2,31 @@ package controller;
 
 import java.util.Optional;
 
+import config.ApplicationContext;
 import model.Customer;
-import repository.impl.CustomerRepository;
-import service.impl.CustomerService;
 import service.interfaces.ICustomerService;
+import service.interfaces.ISessionService;
 
 public class CustomerController {
 
     private final ICustomerService customerService;
+    private final ISessionService sessionService;
 
+    //Uses the shared application context
     public CustomerController() {
-        this.customerService = new CustomerService(new CustomerRepository());
+        this(ApplicationContext.getDefault().getCustomerService(),
+                ApplicationContext.getDefault().getSessionService());
+    }
+
+    //Constructor for Dependency Injection (logins do not open sessions)
+    public CustomerController(ICustomerService customerService) {
+        this(customerService, null);
+    }
+
+    //Constructor for Dependency Injection; each login opens a session
+    public CustomerController(ICustomerService customerService, ISessionService sessionService) {
+        this.customerService = customerService;
+        this.sessionService = sessionService;
     }
 
     public Customer registerCustomer(Customer customer) {
@@ -24,11 +38,24 @@ public class CustomerController {
         }
     }
 
+    //Returns the customer with getSessionToken() set when sessions are enabled
     public Customer login(int customerId, String password) {
         Optional<Customer> customerOpt = customerService.login(customerId, password);
+        if (sessionService != null) {
+            customerOpt.ifPresent(customer -> customer.setSessionToken(sessionService.open(customer)));
+        }
         return customerOpt.orElse(null);
     }
 
+    //Customer behind a session token, verified from memory; null if unknown or expired
+    public Customer getSessionCustomer(String sessionToken) {
+        return sessionService == null ? null : sessionService.authenticate(sessionToken).orElse(null);
+    }
+
+    public boolean logout(String sessionToken) {
+        return sessionService != null && sessionService.close(sessionToken);
+    }
+
     public boolean validateName(String name) {
         return customerService.validateName(name);
     }
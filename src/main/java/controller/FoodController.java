@@ -1,17 +1,21 @@
 package controller;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
+import config.ApplicationContext;
 import model.Food;
+import model.MenuChanges;
 import service.interfaces.IFoodService;
 
 public class FoodController {
     
     private final IFoodService foodService;
     
+    //Uses the shared application context
     public FoodController() {
-        this.foodService = new service.impl.FoodService(new repository.impl.FoodRepository());
+        this(ApplicationContext.getDefault().getFoodService());
     }
     
     //Constructor
@@ -59,6 +63,21 @@ public class FoodController {
         return foodService.getAllFoods();
     }
     
+    //Get the current menu version
+    public long getMenuVersion() {
+        return foodService.getMenuVersion();
+    }
+    
+    //Get foods changed since a menu version
+    public MenuChanges getMenuChangesSince(long version) {
+        return foodService.getMenuChangesSince(version);
+    }
+    
+    //Get foods written at or after a time
+    public List<Food> getFoodsChangedSince(Instant since) {
+        return foodService.getFoodsChangedSince(since);
+    }
+    
     //Get food by ID
     public Food getFoodById(int foodId) {
         Optional<Food> foodOpt = foodService.getFoodById(foodId);
@@ -2,14 +2,10 @@ package controller;
 
 import java.util.List;
 
+import config.ApplicationContext;
 import model.Order;
 import model.OrderDetails;
-import repository.impl.CustomerRepository;
-import repository.impl.FoodRepository;
-import repository.impl.OrderRepository;
-import repository.impl.PaymentMethodRepository;
-import service.impl.OrderService;
-import service.impl.PaymentService;
+import model.OrderSummary;
 import service.interfaces.IOrderService;
 
 /**
@@ -25,15 +21,9 @@ public class OrderController {
         this.orderService = orderService;
     }
     
-    // Default constructor wiring services and repositories
+    // Default constructor using the shared application context
     public OrderController() {
-        this(new OrderService(
-                new OrderRepository(),
-                new CustomerRepository(),
-                new PaymentMethodRepository(),
-                new PaymentService(new PaymentMethodRepository()),
-                new FoodRepository()
-        ));
+        this(ApplicationContext.getDefault().getOrderService());
     }
     
     /**
@@ -56,6 +46,23 @@ public class OrderController {
         }
     }
     
+    /**
+     * Create a new order that is safe to resubmit
+     * 
+     * @param idempotencyKey Key identifying this checkout; resubmitting it returns the original order
+     * @return Created (or previously created) order if successful, null if creation fails
+     */
+    public Order createOrder(int customerId, List<OrderDetails> orderDetailsList, 
+                           String paymentType, String identifier, String password, String idempotencyKey) {
+        try {
+            return orderService.createOrder(customerId, orderDetailsList, paymentType, identifier, password,
+                    idempotencyKey);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Order creation failed: " + e.getMessage());
+            return null;
+        }
+    }
+    
     /**
      * Get all orders
      * 
@@ -65,6 +72,33 @@ public class OrderController {
         return orderService.getAllOrders();
     }
     
+    /**
+     * Get a summary of every order for reports
+     * 
+     * @return Order ID, customer ID, payment type and total per order
+     */
+    public List<OrderSummary> getOrderSummaries() {
+        return orderService.getOrderSummaries();
+    }
+    
+    /**
+     * Create a new order for the customer behind a login session
+     * 
+     * @param sessionToken Token issued at login
+     * @param idempotencyKey Key identifying this checkout; resubmitting it returns the original order
+     * @return Created (or previously created) order if successful, null if creation fails
+     */
+    public Order createOrderInSession(String sessionToken, List<OrderDetails> orderDetailsList, 
+                           String paymentType, String identifier, String password, String idempotencyKey) {
+        try {
+            return orderService.createOrderInSession(sessionToken, orderDetailsList, paymentType, identifier,
+                    password, idempotencyKey);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Order creation failed: " + e.getMessage());
+            return null;
+        }
+    }
+    
     /**
      * Get orders by customer ID
      * 
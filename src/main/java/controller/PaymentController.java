@@ -1,8 +1,7 @@
 package controller;
 
+import config.ApplicationContext;
 import model.Payment;
-import repository.impl.PaymentMethodRepository;
-import service.impl.PaymentService;
 import service.interfaces.IPaymentService;
 
 public class PaymentController {
@@ -14,15 +13,16 @@ public class PaymentController {
         this.paymentService = paymentService;
     }
     
+    //Uses the shared application context
     public PaymentController() {
-        this(new PaymentService(new PaymentMethodRepository()));
+        this(ApplicationContext.getDefault().getPaymentService());
     }
     
     //Process a user payment with authentication.
     public Payment processPayment(String paymentType, String identifier, 
                                  String password, double amount) {
         try {
-            return paymentService.processPayment(paymentType, identifier, password, amount);
+            return paymentService.processPayment(paymentType, identifier, password, amount).getPayment();
         } catch (RuntimeException e) {
             System.out.println("Payment Processing Error: " + e.getMessage());
             return null;
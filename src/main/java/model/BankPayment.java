@@ -2,28 +2,32 @@ package model;
 
 public class BankPayment implements Payment {
     
-    private static final double TRANSACTION_FEE = 1.00;
-    private double balance;
+    private static final Money TRANSACTION_FEE = Money.ofCents(100);
+    private Money balance;
     
     public BankPayment(double balance) {
+        this(Money.of(balance));
+    }
+
+    public BankPayment(Money balance) {
         this.balance = balance;
     }
     
     @Override
-    public boolean checkAmount(double amount) {
-        return balance >= (amount + TRANSACTION_FEE);
+    public boolean checkAmount(Money amount) {
+        return balance.isGreaterThanOrEqual(amount.plus(TRANSACTION_FEE));
     }
     
     @Override
-    public double makePayment(double amount) {
+    public Money makePayment(Money amount) {
         if (checkAmount(amount)) {
-            balance -= (amount + TRANSACTION_FEE);
+            balance = balance.minus(amount.plus(TRANSACTION_FEE));
         }
         return balance;
     }
     
     @Override
-    public double getBalance() {
+    public Money getBalanceMoney() {
         return balance;
     }
     
@@ -34,6 +38,11 @@ public class BankPayment implements Payment {
     
     //Get transaction fee
     public double getTransactionFee() {
+        return TRANSACTION_FEE.toDouble();
+    }
+
+    //Get transaction fee as Money
+    public Money getTransactionFeeMoney() {
         return TRANSACTION_FEE;
     }
 }
@@ -10,6 +10,8 @@ public class Customer {
     private String phoneNumber;
     private String gender;
     private String password;
+    // Token of the login session this customer object came from; not persisted
+    private String sessionToken;
     
     public Customer() {
     }
@@ -82,6 +84,14 @@ public class Customer {
         this.password = password;
     }
     
+    public String getSessionToken() {
+        return sessionToken;
+    }
+    
+    public void setSessionToken(String sessionToken) {
+        this.sessionToken = sessionToken;
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
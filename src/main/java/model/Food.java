@@ -1,6 +1,7 @@
 package model;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Objects;
 
 public class Food {
@@ -10,6 +11,8 @@ public class Food {
     private BigDecimal foodPrice;
     private String foodType;
     private int quantity; 
+    // Last write to the row, by the database clock (null if not loaded from the database)
+    private Instant updatedAt;
     
     public Food() {
     }
@@ -48,6 +51,16 @@ public class Food {
         this.quantity = quantity;
     }
     
+    // Copy constructor
+    public Food(Food other) {
+        this.foodId = other.foodId;
+        this.foodName = other.foodName;
+        this.foodPrice = other.foodPrice;
+        this.foodType = other.foodType;
+        this.quantity = other.quantity;
+        this.updatedAt = other.updatedAt;
+    }
+    
     // Getters
     public int getFoodId() {
         return foodId;
@@ -74,6 +87,10 @@ public class Food {
     }
     
     // Setters
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+    
     public void setFoodId(int foodId) {
         this.foodId = foodId;
     }
@@ -85,6 +102,10 @@ public class Food {
     public void setFoodPrice(double foodPrice) {
         this.foodPrice = BigDecimal.valueOf(foodPrice);
     }
+
+    public void setFoodPriceDecimal(BigDecimal foodPrice) {
+        this.foodPrice = foodPrice;
+    }
     
     public void setFoodType(String foodType) {
         this.foodType = foodType;
@@ -94,6 +115,10 @@ public class Food {
         this.quantity = quantity;
     }
     
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
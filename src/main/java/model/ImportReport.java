@@ -0,0 +1,54 @@
+package model;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a bulk CSV import: how many data rows were read, how many
+ * were stored and how many were rejected (and written to the rejects file).
+ */
+public class ImportReport {
+
+    private final long rowsRead;
+    private final long imported;
+    private final long rejected;
+    private final int chunks;
+    private final long elapsedNanos;
+
+    public ImportReport(long rowsRead, long imported, long rejected, int chunks, long elapsedNanos) {
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.chunks = chunks;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    //Transactions committed (one per chunk of rows)
+    public int getChunks() {
+        return chunks;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "Rows read: " + rowsRead
+                + ", imported: " + imported
+                + ", rejected: " + rejected
+                + ", chunks: " + chunks
+                + ", time: " + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + " ms";
+    }
+}
@@ -0,0 +1,53 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Foods changed since a menu version.
+ * Normally a delta: merge the foods by ID into the menu already held.
+ * When foods were removed since that version (or the version is unknown),
+ * it is the whole menu instead and replaces what the caller holds.
+ */
+public class MenuChanges {
+
+    //Version reported by a store that does not track versions; callers reload the whole menu every time
+    public static final long UNVERSIONED = -1;
+
+    private final long version;
+    private final boolean fullReload;
+    private final List<Food> foods;
+
+    private MenuChanges(long version, boolean fullReload, List<Food> foods) {
+        this.version = version;
+        this.fullReload = fullReload;
+        this.foods = List.copyOf(foods);
+    }
+
+    //Foods changed after the caller's version
+    public static MenuChanges delta(long version, List<Food> foods) {
+        return new MenuChanges(version, false, foods);
+    }
+
+    //Every food on the menu
+    public static MenuChanges full(long version, List<Food> foods) {
+        return new MenuChanges(version, true, foods);
+    }
+
+    //Menu version the caller is up to date with after applying these changes
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isFullReload() {
+        return fullReload;
+    }
+
+    public List<Food> getFoods() {
+        return foods;
+    }
+
+    @Override
+    public String toString() {
+        return "MenuChanges{version=" + version + ", fullReload=" + fullReload + ", foods=" + foods.size() + "}";
+    }
+}
@@ -11,9 +11,10 @@ public class Order {
     private Date orderDate;
     private Customer customer;
     private List<OrderDetails> orderDetails;
-    private BigDecimal totalPrice;
+    private Money totalPrice;
     private PaymentMethod paymentMethod;
     private String status;
+    private String idempotencyKey;
     
     public Order() {
         this.orderDate = new Date();
@@ -26,7 +27,7 @@ public class Order {
         this.orderDate = orderDate != null ? orderDate : new Date();
         this.customer = customer;
         this.orderDetails = orderDetails;
-        this.totalPrice = BigDecimal.valueOf(totalPrice);
+        this.totalPrice = Money.of(totalPrice);
         this.paymentMethod = paymentMethod;
         this.status = "COMPLETED";
     }
@@ -48,10 +49,14 @@ public class Order {
     }
     
     public double getTotalPrice() {
-        return totalPrice.doubleValue();
+        return totalPrice.toDouble();
     }
     
     public BigDecimal getTotalPriceDecimal() {
+        return totalPrice != null ? totalPrice.toBigDecimal() : null;
+    }
+
+    public Money getTotalPriceMoney() {
         return totalPrice;
     }
     
@@ -59,6 +64,11 @@ public class Order {
         return paymentMethod;
     }
     
+    //Client-supplied key that makes resubmitting the same checkout return this order
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+    
     public String getStatus() {
         return status;
     }
@@ -80,13 +90,21 @@ public class Order {
     }
     
     public void setTotalPrice(double totalPrice) {
-        this.totalPrice = BigDecimal.valueOf(totalPrice);
+        this.totalPrice = Money.of(totalPrice);
+    }
+
+    public void setTotalPrice(Money totalPrice) {
+        this.totalPrice = totalPrice;
     }
     
     public void setPaymentMethod(PaymentMethod paymentMethod) {
         this.paymentMethod = paymentMethod;
     }
     
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+    
     public void setStatus(String status) {
         this.status = status;
     }
@@ -124,10 +142,12 @@ public class Order {
         public Builder orderDate(Date d) { o.setOrderDate(d); return this; }
         public Builder customer(Customer c) { o.setCustomer(c); return this; }
         public Builder orderDetails(List<OrderDetails> details) { o.setOrderDetails(details); return this; }
-        public Builder totalPrice(BigDecimal total) { o.totalPrice = total; return this; }
+        public Builder totalPrice(BigDecimal total) { o.totalPrice = total != null ? Money.of(total) : null; return this; }
+        public Builder totalPrice(Money total) { o.setTotalPrice(total); return this; }
         public Builder totalPrice(double total) { o.setTotalPrice(total); return this; }
         public Builder paymentMethod(PaymentMethod pm) { o.setPaymentMethod(pm); return this; }
         public Builder status(String s) { o.setStatus(s); return this; }
+        public Builder idempotencyKey(String key) { o.setIdempotencyKey(key); return this; }
         public Order build() { return o; }
     }
 }
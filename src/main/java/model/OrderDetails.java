@@ -8,14 +8,17 @@ public class OrderDetails {
     private int orderDetailId;
     private Food food;
     private int quantity;
-    private BigDecimal unitPrice;
-    private BigDecimal subtotal;
+    private Money unitPrice;
+    private Money subtotal;
+    //Food name and type as ordered; the food itself may be renamed or deleted later
+    private String foodName;
+    private String foodType;
     
     // Constructor
     public OrderDetails(Food food, int quantity) {
         this.food = food;
         this.quantity = quantity;
-        this.unitPrice = food != null ? food.getFoodPriceDecimal() : BigDecimal.ZERO;
+        this.unitPrice = food != null ? Money.of(food.getFoodPriceDecimal()) : Money.ZERO;
         calculateSubtotal();
     }
     
@@ -24,27 +27,32 @@ public class OrderDetails {
         this.orderDetailId = orderDetailId;
         this.food = food;
         this.quantity = quantity;
-        this.unitPrice = unitPrice;
+        this.unitPrice = toMoney(unitPrice);
         calculateSubtotal();
     }
     
     // Calculate subtotal for this order detail
     public void calculateSubtotal() {
         if (food != null && quantity > 0) {
-            this.subtotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+            this.subtotal = unitPrice.times(quantity);
         } else {
-            this.subtotal = BigDecimal.ZERO;
+            this.subtotal = Money.ZERO;
         }
     }
     
     //Get calculated total price
     public double calculateEachTotalPrice() {
-        return subtotal.doubleValue();
+        return subtotal.toDouble();
     }
     
     public void setSubtotal(BigDecimal subtotal) {
-    this.subtotal = subtotal;
-}
+        this.subtotal = toMoney(subtotal);
+    }
+
+    public void setSubtotalMoney(Money subtotal) {
+        this.subtotal = subtotal;
+    }
+
     public int getOrderDetailId() {
         return orderDetailId;
     }
@@ -58,20 +66,44 @@ public class OrderDetails {
     }
     
     public double getUnitPrice() {
-        return unitPrice.doubleValue();
+        return unitPrice.toDouble();
     }
     
     public BigDecimal getUnitPriceDecimal() {
+        return unitPrice != null ? unitPrice.toBigDecimal() : null;
+    }
+
+    public Money getUnitPriceMoney() {
         return unitPrice;
     }
     
     public double getSubtotal() {
-        return subtotal.doubleValue();
+        return subtotal.toDouble();
     }
     
     public BigDecimal getSubtotalDecimal() {
+        return subtotal != null ? subtotal.toBigDecimal() : null;
+    }
+
+    public Money getSubtotalMoney() {
         return subtotal;
     }
+
+    //Name as ordered, or the food's own name if the line has no snapshot yet
+    public String getFoodName() {
+        if (foodName != null || food == null) {
+            return foodName;
+        }
+        return food.getFoodName();
+    }
+
+    //Type as ordered, or the food's own type if the line has no snapshot yet
+    public String getFoodType() {
+        if (foodType != null || food == null) {
+            return foodType;
+        }
+        return food.getFoodType();
+    }
     
     public void setOrderDetailId(int orderDetailId) {
         this.orderDetailId = orderDetailId;
@@ -80,7 +112,7 @@ public class OrderDetails {
     public void setFood(Food food) {
         this.food = food;
         if (food != null) {
-            this.unitPrice = food.getFoodPriceDecimal();
+            this.unitPrice = Money.of(food.getFoodPriceDecimal());
             calculateSubtotal();
         }
     }
@@ -90,10 +122,26 @@ public class OrderDetails {
         calculateSubtotal();
     }
     
+    public void setFoodName(String foodName) {
+        this.foodName = foodName;
+    }
+
+    public void setFoodType(String foodType) {
+        this.foodType = foodType;
+    }
+    
     public void setUnitPrice(BigDecimal unitPrice) {
+        setUnitPriceMoney(toMoney(unitPrice));
+    }
+
+    public void setUnitPriceMoney(Money unitPrice) {
         this.unitPrice = unitPrice;
         calculateSubtotal();
     }
+
+    private static Money toMoney(BigDecimal amount) {
+        return amount != null ? Money.of(amount) : null;
+    }
     
     @Override
     public boolean equals(Object o) {
@@ -115,9 +163,9 @@ public class OrderDetails {
         }
         return String.format("%d\t %s\t\t %.2f\t %d\t\t %.2f",
                 food.getFoodId(),
-                food.getFoodName(),
-                unitPrice.doubleValue(),
+                getFoodName(),
+                unitPrice.toDouble(),
                 quantity,
-                subtotal.doubleValue());
+                subtotal.toDouble());
     }
 }
@@ -0,0 +1,19 @@
+package model;
+
+import java.math.BigDecimal;
+
+/**
+ * One row of an order list: the four columns a report shows, read without
+ * the customer, payment method or order lines behind them.
+ */
+public record OrderSummary(int orderId, int customerId, String paymentType, BigDecimal totalPrice) {
+
+    //Summary of an order already loaded in full
+    public static OrderSummary of(Order order) {
+        return new OrderSummary(
+                order.getOrderId(),
+                order.getCustomer() != null ? order.getCustomer().getCustomerId() : 0,
+                order.getPaymentMethod() != null ? order.getPaymentMethod().getPaymentType() : null,
+                order.getTotalPriceDecimal());
+    }
+}
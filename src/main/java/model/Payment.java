@@ -3,14 +3,29 @@ package model;
 public interface Payment {
     
     //Check if balance is sufficient for payment
-    boolean checkAmount(double amount);
+    boolean checkAmount(Money amount);
     
     //Process payment and return new balance
-    double makePayment(double amount);
+    Money makePayment(Money amount);
     
     //Get current balance
-    double getBalance();
+    Money getBalanceMoney();
     
     //Get payment method name
     String paymentName();
+
+    //Check if balance is sufficient for payment (double amount)
+    default boolean checkAmount(double amount) {
+        return checkAmount(Money.of(amount));
+    }
+
+    //Process payment and return new balance (double amount)
+    default double makePayment(double amount) {
+        return makePayment(Money.of(amount)).toDouble();
+    }
+
+    //Get current balance as double
+    default double getBalance() {
+        return getBalanceMoney().toDouble();
+    }
 }
@@ -61,6 +61,10 @@ public class PaymentMethod {
     public BigDecimal getBalanceDecimal() {
         return balance;
     }
+
+    public Money getBalanceMoney() {
+        return Money.of(balance);
+    }
     
     public String getCardNumber() {
         return cardNumber;
@@ -94,6 +98,10 @@ public class PaymentMethod {
     public void setBalanceDecimal(BigDecimal balance) {
         this.balance = balance;
     }
+
+    public void setBalance(Money balance) {
+        this.balance = balance.toBigDecimal();
+    }
     
     public void setCardNumber(String cardNumber) {
         this.cardNumber = cardNumber;
@@ -0,0 +1,55 @@
+package model;
+
+/**
+ * Outcome of a successful debit: the payment method that was authenticated
+ * (with its balance already set to the post-debit value), the payment
+ * strategy that performed the debit, and the ledger entry it recorded.
+ * The ledger entry is what a refund needs to undo the charge.
+ */
+public class PaymentResult {
+
+    private final PaymentMethod paymentMethod;
+    private final Payment payment;
+    private final PaymentTransaction transaction;
+
+    public PaymentResult(PaymentMethod paymentMethod, Payment payment, PaymentTransaction transaction) {
+        if (paymentMethod == null || payment == null || transaction == null) {
+            throw new IllegalArgumentException("Payment method, payment and transaction are required");
+        }
+        this.paymentMethod = paymentMethod;
+        this.payment = payment;
+        this.transaction = transaction;
+    }
+
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public Payment getPayment() {
+        return payment;
+    }
+
+    public PaymentTransaction getTransaction() {
+        return transaction;
+    }
+
+    //Total taken from the account, including any fee
+    public Money getAmountCharged() {
+        return transaction.getAmount();
+    }
+
+    //Balance left on the payment method after this debit
+    public Money getNewBalance() {
+        return transaction.getBalanceAfter();
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentResult{" +
+                "paymentMethodId=" + paymentMethod.getPaymentMethodId() +
+                ", payment=" + payment.paymentName() +
+                ", charged=" + getAmountCharged() +
+                ", newBalance=" + getNewBalance() +
+                '}';
+    }
+}
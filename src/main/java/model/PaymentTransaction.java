@@ -0,0 +1,111 @@
+package model;
+
+import java.util.Date;
+
+/**
+ * One immutable entry in the payment ledger.
+ * Every debit or credit records the amount moved and the balance it left,
+ * so each account's entries form a chain that can be checked end to end.
+ */
+public class PaymentTransaction {
+
+    public static final String TYPE_DEBIT = "DEBIT";
+    public static final String TYPE_CREDIT = "CREDIT";
+    //First entry for an account that already had a balance before the ledger existed
+    public static final String TYPE_OPENING = "OPENING";
+
+    private long transactionId;
+    private final int paymentMethodId;
+    private final String transactionType;
+    private final Money amount;
+    private final Money balanceAfter;
+    private final String reference;
+    private Date createdAt;
+
+    public PaymentTransaction(int paymentMethodId, String transactionType, Money amount,
+                              Money balanceAfter, String reference) {
+        if (!TYPE_DEBIT.equals(transactionType) && !TYPE_CREDIT.equals(transactionType)
+                && !TYPE_OPENING.equals(transactionType)) {
+            throw new IllegalArgumentException("Unknown transaction type: " + transactionType);
+        }
+        if (amount == null || amount.isNegative() || balanceAfter == null) {
+            throw new IllegalArgumentException("Amount must be non-negative and balance is required");
+        }
+        this.paymentMethodId = paymentMethodId;
+        this.transactionType = transactionType;
+        this.amount = amount;
+        this.balanceAfter = balanceAfter;
+        this.reference = reference;
+    }
+
+    public static PaymentTransaction debit(int paymentMethodId, Money amount, Money balanceAfter, String reference) {
+        return new PaymentTransaction(paymentMethodId, TYPE_DEBIT, amount, balanceAfter, reference);
+    }
+
+    public static PaymentTransaction credit(int paymentMethodId, Money amount, Money balanceAfter, String reference) {
+        return new PaymentTransaction(paymentMethodId, TYPE_CREDIT, amount, balanceAfter, reference);
+    }
+
+    public static PaymentTransaction opening(int paymentMethodId, Money balance) {
+        return new PaymentTransaction(paymentMethodId, TYPE_OPENING, balance, balance, "Opening balance");
+    }
+
+    public long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public int getPaymentMethodId() {
+        return paymentMethodId;
+    }
+
+    public String getTransactionType() {
+        return transactionType;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public Money getBalanceAfter() {
+        return balanceAfter;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public boolean isOpening() {
+        return TYPE_OPENING.equals(transactionType);
+    }
+
+    //Balance the account held before this entry was applied
+    public Money getBalanceBefore() {
+        if (isOpening()) {
+            return Money.ZERO;
+        }
+        return TYPE_DEBIT.equals(transactionType) ? balanceAfter.plus(amount) : balanceAfter.minus(amount);
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentTransaction{" +
+                "transactionId=" + transactionId +
+                ", paymentMethodId=" + paymentMethodId +
+                ", type=" + transactionType +
+                ", amount=" + amount +
+                ", balanceAfter=" + balanceAfter +
+                '}';
+    }
+}
@@ -0,0 +1,97 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of checking the payment ledger against payment_methods.balance.
+ * Accounts with no ledger entries yet are listed separately rather than
+ * treated as discrepancies, since they predate the ledger.
+ */
+public class ReconciliationReport {
+
+    private final int accountsChecked;
+    private final long entriesScanned;
+    private final List<Integer> unledgeredAccounts;
+    private final List<Discrepancy> discrepancies;
+
+    public ReconciliationReport(int accountsChecked, long entriesScanned,
+                                List<Integer> unledgeredAccounts, List<Discrepancy> discrepancies) {
+        this.accountsChecked = accountsChecked;
+        this.entriesScanned = entriesScanned;
+        this.unledgeredAccounts = Collections.unmodifiableList(new ArrayList<>(unledgeredAccounts));
+        this.discrepancies = Collections.unmodifiableList(new ArrayList<>(discrepancies));
+    }
+
+    public int getAccountsChecked() {
+        return accountsChecked;
+    }
+
+    public long getEntriesScanned() {
+        return entriesScanned;
+    }
+
+    public List<Integer> getUnledgeredAccounts() {
+        return unledgeredAccounts;
+    }
+
+    public List<Discrepancy> getDiscrepancies() {
+        return discrepancies;
+    }
+
+    public boolean isBalanced() {
+        return discrepancies.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Accounts checked: ").append(accountsChecked)
+          .append(", ledger entries: ").append(entriesScanned)
+          .append(", unledgered accounts: ").append(unledgeredAccounts.size())
+          .append(", discrepancies: ").append(discrepancies.size());
+        for (Discrepancy discrepancy : discrepancies) {
+            sb.append(System.lineSeparator()).append("  ").append(discrepancy);
+        }
+        return sb.toString();
+    }
+
+    //One account (or ledger entry) whose numbers do not add up
+    public static final class Discrepancy {
+
+        private final int paymentMethodId;
+        private final String reason;
+        private final Money expected;
+        private final Money actual;
+
+        public Discrepancy(int paymentMethodId, String reason, Money expected, Money actual) {
+            this.paymentMethodId = paymentMethodId;
+            this.reason = reason;
+            this.expected = expected;
+            this.actual = actual;
+        }
+
+        public int getPaymentMethodId() {
+            return paymentMethodId;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public Money getExpected() {
+            return expected;
+        }
+
+        public Money getActual() {
+            return actual;
+        }
+
+        @Override
+        public String toString() {
+            return "Payment method " + paymentMethodId + ": " + reason +
+                    " (expected " + expected + ", actual " + actual + ")";
+        }
+    }
+}
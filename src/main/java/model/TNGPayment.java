@@ -2,27 +2,31 @@ package model;
 
 public class TNGPayment implements Payment {
     
-    private double balance;
+    private Money balance;
     
     public TNGPayment(double balance) {
+        this(Money.of(balance));
+    }
+
+    public TNGPayment(Money balance) {
         this.balance = balance;
     }
     
     @Override
-    public boolean checkAmount(double amount) {
-        return balance >= amount;
+    public boolean checkAmount(Money amount) {
+        return balance.isGreaterThanOrEqual(amount);
     }
     
     @Override
-    public double makePayment(double amount) {
+    public Money makePayment(Money amount) {
         if (checkAmount(amount)) {
-            balance -= amount;
+            balance = balance.minus(amount);
         }
         return balance;
     }
     
     @Override
-    public double getBalance() {
+    public Money getBalanceMoney() {
         return balance;
     }
     
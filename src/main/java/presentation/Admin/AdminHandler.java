@@ -30,7 +30,15 @@ public class AdminHandler {
     public void handleAdminMenu(OrderHandler orderHandler, model.Customer currentCustomer) {
 
         //Check Login before showing the menu
-        if (!performLogin()) {
+        boolean loggedIn;
+        try {
+            loggedIn = performLogin();
+        } catch (RuntimeException e) {
+            //The credentials could not be read; the password was not judged wrong
+            System.out.println("\n!!! Login is unavailable right now, please try again later !!!\n");
+            return;
+        }
+        if (!loggedIn) {
             System.out.println("\n!!! Access Denied: Wrong Username or Password !!!\n");
             return; 
         }
@@ -78,7 +86,7 @@ public class AdminHandler {
     }
 
     public void handleOrderReport() {
-        MenuDisplay.displayOrderReport(orderController.getAllOrders());
+        MenuDisplay.displayOrderSummaries(orderController.getOrderSummaries());
     }
 
     private void handleFoodManagement() {
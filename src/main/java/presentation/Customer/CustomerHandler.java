@@ -39,6 +39,10 @@ public class CustomerHandler {
         } catch (UserCancelledException e) {
             System.out.println("\n>> Login Cancelled.\n");
             return null;
+        } catch (RuntimeException e) {
+            //The credentials could not be read; the password was not judged wrong
+            System.out.println("\n>> Login is unavailable right now, please try again later.\n");
+            return null;
         }
 
         return null;
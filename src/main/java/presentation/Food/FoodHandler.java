@@ -1,6 +1,7 @@
 package presentation.Food;
 
 import model.Food;
+import model.MenuChanges;
 import controller.FoodController;
 import presentation.General.UserInputHandler;
 import presentation.General.UserCancelledException;
@@ -129,8 +130,13 @@ public class FoodHandler {
     
     //Handle display all foods
     public void handleDisplayAllFoods() {
+        // A version that did not move while the foods were read describes them exactly
+        long version = foodController.getMenuVersion();
         List<Food> foods = foodController.getAllFoods();
-        MenuDisplay.displayAllFoods(foods);
+        if (foodController.getMenuVersion() != version) {
+            version = MenuChanges.UNVERSIONED;
+        }
+        MenuDisplay.displayAllFoods(foods, version);
         waitForExit();
     }
 
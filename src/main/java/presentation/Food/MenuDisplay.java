@@ -3,13 +3,20 @@ package presentation.Food;
 import java.util.List;
 
 import model.Food;
+import model.MenuChanges;
 import model.Order;
+import model.OrderSummary;
 
 import presentation.Admin.AdminMenuOption;
+import presentation.General.FrameCache;
 import presentation.General.MainMenuOption;
+import presentation.General.ScreenRenderer;
 
 public class MenuDisplay {
     
+    //Rendered food lists, reused until the menu version changes
+    private static final FrameCache FRAMES = new FrameCache(32);
+    
     //Display main menu
     public static void displayMainMenu() {
         MainMenuOption.displayMenu();
@@ -22,64 +29,95 @@ public class MenuDisplay {
     
     //Display food admin sub menu
     public static void displayFoodAdminMenu() {
-        System.out.println("\n[]===============================[]");
-        System.out.println("[]        Food Management        []");
-        System.out.println("[]===============================[]");
+        ScreenRenderer screen = ScreenRenderer.begin();
+        screen.line("\n[]===============================[]");
+        screen.line("[]        Food Management        []");
+        screen.line("[]===============================[]");
         for (FoodManagementOption option : FoodManagementOption.values()) {
             if (option.getCode() != 0) {
                 String optionText = option.getCode() + "." + option.getLabel();
-                String formattedLine = String.format("        %-25s", optionText);
-                System.out.println(formattedLine);
+                screen.format("        %-25s%n", optionText);
             }
         }
-        System.out.println("[]===============================[]");
-        String exitOption = "0.Back to Admin Menu";
-        String exitLine = String.format("        %-25s", exitOption);
-        System.out.println(exitLine);
-        System.out.println("[]===============================[]\n");
+        screen.line("[]===============================[]");
+        screen.format("        %-25s%n", "0.Back to Admin Menu");
+        screen.line("[]===============================[]\n");
+        screen.render();
     }
     
     //Display food menu
     public static void displayFoodMenu(List<Food> foods) {
-        System.out.println("============================ []Menu[] ======================");
-        System.out.printf("%-5s %-10s %-22s %-10s %-10s%n", "No.", "Food Id", "Food Name", "Price", "Available");
+        displayFoodMenu(foods, MenuChanges.UNVERSIONED);
+    }
+    
+    //Display food menu read at an exact menu version, reusing its frame
+    public static void displayFoodMenu(List<Food> foods, long menuVersion) {
+        ScreenRenderer screen = ScreenRenderer.begin();
+        screen.append(FRAMES.get("food-menu", menuVersion, () -> renderFoodMenu(foods)));
+        screen.render();
+    }
+    
+    private static String renderFoodMenu(List<Food> foods) {
+        ScreenRenderer frame = new ScreenRenderer();
+        frame.line("============================ []Menu[] ======================");
+        frame.format("%-5s %-10s %-22s %-10s %-10s%n", "No.", "Food Id", "Food Name", "Price", "Available");
         int index = 1;
         for (Food food : foods) {
             String availability = food.getQuantity() > 0 ? String.valueOf(food.getQuantity()) : "Out of Stock";
-            System.out.printf("%-5d %-10d %-22s RM %-6.2f %-10s%n", 
-                             index++, food.getFoodId(), food.getFoodName(), food.getFoodPrice(), availability);
+            frame.format("%-5d %-10d %-22s RM %-6.2f %-10s%n", 
+                         index++, food.getFoodId(), food.getFoodName(), food.getFoodPrice(), availability);
         }
-        System.out.println("0. Exit Order");
-        System.out.println("==============================================================");
+        frame.line("0. Exit Order");
+        frame.line("==============================================================");
+        return frame.drain();
     }
     
-    //Display order report
+    //Display order report from fully loaded orders
     public static void displayOrderReport(List<Order> orders) {
-        System.out.println("=================================================================================");
-        System.out.println("                                        Order Report                             ");
-        System.out.println("=================================================================================");
-        System.out.println("Order ID\t\tCustomer Id\t\tPayment Method\t\tTotal Price");
-        System.out.println("=================================================================================");
+        displayOrderSummaries(orders.stream().map(OrderSummary::of).toList());
+    }
+    
+    //Display order report
+    public static void displayOrderSummaries(List<OrderSummary> orders) {
+        ScreenRenderer screen = ScreenRenderer.begin();
+        screen.line("=================================================================================");
+        screen.line("                                        Order Report                             ");
+        screen.line("=================================================================================");
+        screen.line("Order ID\t\tCustomer Id\t\tPayment Method\t\tTotal Price");
+        screen.line("=================================================================================");
         
-        for (Order order : orders) {
-            System.out.println(order.getOrderId() + "\t\t" + 
-                             order.getCustomer().getCustomerId() + "\t\t\t" + 
-                             order.getPaymentMethod().getPaymentType() + "\t\t\t" + 
-                             "RM " + String.format("%.2f", order.getTotalPrice()));
+        for (OrderSummary order : orders) {
+            screen.append(String.valueOf(order.orderId())).append("\t\t")
+                  .append(String.valueOf(order.customerId())).append("\t\t\t")
+                  .append(String.valueOf(order.paymentType())).append("\t\t\t")
+                  .format("RM %.2f%n", order.totalPrice());
         }
         
-        System.out.println("=================================================================================");
+        screen.line("=================================================================================");
+        screen.render();
     }
     
     //Display all foods
     public static void displayAllFoods(List<Food> foods) {
-        System.out.println("================================================================");
-        System.out.println("                         All Food Details                      ");
-        System.out.println("================================================================");
-        System.out.printf("%-5s %-10s %-22s %-14s %-12s %-10s%n", "No", "Food Id", "Food Name", "Food Price", "Food Type", "Quantity");
+        displayAllFoods(foods, MenuChanges.UNVERSIONED);
+    }
+    
+    //Display all foods read at an exact menu version, reusing its frame
+    public static void displayAllFoods(List<Food> foods, long menuVersion) {
+        ScreenRenderer screen = ScreenRenderer.begin();
+        screen.append(FRAMES.get("all-foods", menuVersion, () -> renderAllFoods(foods)));
+        screen.render();
+    }
+    
+    private static String renderAllFoods(List<Food> foods) {
+        ScreenRenderer frame = new ScreenRenderer();
+        frame.line("================================================================");
+        frame.line("                         All Food Details                      ");
+        frame.line("================================================================");
+        frame.format("%-5s %-10s %-22s %-14s %-12s %-10s%n", "No", "Food Id", "Food Name", "Food Price", "Food Type", "Quantity");
         int index = 1;
         for (Food food : foods) {
-            System.out.printf("%-5d %-10d %-22s %-14.2f %-12s %-10d%n",
+            frame.format("%-5d %-10d %-22s %-14.2f %-12s %-10d%n",
                     index++,
                     food.getFoodId(),
                     food.getFoodName(),
@@ -87,6 +125,7 @@ public class MenuDisplay {
                     food.getFoodType(),
                     food.getQuantity());
         }
-        System.out.println("================================================================");
+        frame.line("================================================================");
+        return frame.drain();
     }
 }
@@ -3,6 +3,8 @@ package presentation.General;
 import java.util.List;
 import java.util.Scanner;
 
+import config.ApplicationContext;
+
 // Controllers
 import controller.AdminController;
 import controller.CustomerController;
@@ -39,14 +41,40 @@ public class Application {
     Customer currentCustomer;
     
     public Application() {
-        this.scanner = new Scanner(System.in);
-        this.inputHandler = new UserInputHandler(scanner);
+        this(new Scanner(System.in), ApplicationContext.getDefault());
+    }
+
+    //Console session over the controllers of the given context
+    public Application(Scanner scanner, ApplicationContext context) {
+        this(scanner, context.getAdminController(), context.getCustomerController(),
+                context.getFoodController(), context.getOrderController());
+    }
+
+    //Console session using the local terminal for password masking
+    public Application(Scanner scanner,
+                       AdminController adminController,
+                       CustomerController customerController,
+                       FoodController foodController,
+                       OrderController orderController) {
+        this(scanner, new UserInputHandler(scanner), adminController, customerController,
+                foodController, orderController);
+    }
+
+    //Session with its own input handler; controllers may be shared between sessions
+    public Application(Scanner scanner,
+                       UserInputHandler inputHandler,
+                       AdminController adminController,
+                       CustomerController customerController,
+                       FoodController foodController,
+                       OrderController orderController) {
+        this.scanner = scanner;
+        this.inputHandler = inputHandler;
         
         // Initialize controllers
-        this.foodController = new FoodController();
-        this.customerController = new CustomerController();
-        this.orderController = new OrderController();
-        this.adminController = new AdminController();
+        this.foodController = foodController;
+        this.customerController = customerController;
+        this.orderController = orderController;
+        this.adminController = adminController;
         
         // Initialize handlers
         this.foodHandler = new FoodHandler(foodController, inputHandler);
@@ -74,6 +102,10 @@ public class Application {
                     currentCustomer = customerHandler.handleLogin();
                     if (currentCustomer != null) {
                         orderHandler.handleOrder(currentCustomer);
+                        //Leaving the order menu ends the login session
+                        if (currentCustomer.getSessionToken() != null) {
+                            customerController.logout(currentCustomer.getSessionToken());
+                        }
                     }
                     break;
                 case REGISTER:
@@ -0,0 +1,74 @@
+package presentation.General;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import util.LruCache;
+
+/**
+ * Pre-rendered screens keyed by name and menu version.
+ * Formatting a menu of many foods costs far more than writing it, and most
+ * redraws show exactly the same menu, so a frame is built once per version
+ * and reused until the version changes. Anything else the frame shows (e.g.
+ * the stock a session holds in its cart) goes into the key as a variant, so
+ * several variants of one version can be cached at once. A negative version
+ * means the data is not versioned; such frames are rendered every time.
+ */
+public final class FrameCache {
+
+    private final LruCache<String, String> frames;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public FrameCache(int maxFrames) {
+        this.frames = new LruCache<>(maxFrames);
+    }
+
+    /**
+     * Get a frame, rendering it if this version is not cached.
+     *
+     * @param name Which screen (e.g. "order-menu")
+     * @param version Version of the data the frame shows
+     * @param render Builds the frame text
+     */
+    public String get(String name, long version, Supplier<String> render) {
+        return get(name, version, "", render);
+    }
+
+    /**
+     * Get a frame, rendering it if this version and variant are not cached.
+     *
+     * @param name Which screen (e.g. "order-menu")
+     * @param version Version of the data the frame shows
+     * @param variant Everything else the frame depends on; its toString() is part of the key
+     * @param render Builds the frame text
+     */
+    public String get(String name, long version, Object variant, Supplier<String> render) {
+        if (version < 0) {
+            misses.increment();
+            return render.get();
+        }
+        String key = name + '@' + version + '#' + variant;
+        String frame = frames.get(key).orElse(null);
+        if (frame != null) {
+            hits.increment();
+            return frame;
+        }
+        misses.increment();
+        frame = render.get();
+        frames.put(key, frame);
+        return frame;
+    }
+
+    public void clear() {
+        frames.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+}
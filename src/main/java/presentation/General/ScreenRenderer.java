@@ -0,0 +1,119 @@
+package presentation.General;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Formatter;
+
+/**
+ * Composes a whole screen in memory and writes it with one call.
+ * Printing a menu line by line takes the PrintStream lock (and flushes)
+ * once per line, and over a remote session every one of those is a separate
+ * network write. A renderer appends lines and printf-style rows to a reusable
+ * buffer; render() hands the finished screen to the output in one write.
+ * Without an explicit Writer the output is whatever System.out is at render
+ * time, so SessionConsole routing and redirected streams keep working.
+ * Instances are not thread-safe; begin() gives each thread its own.
+ */
+public final class ScreenRenderer {
+
+    private static final ThreadLocal<ScreenRenderer> CURRENT = ThreadLocal.withInitial(ScreenRenderer::new);
+
+    private static final int INITIAL_CAPACITY = 4096;
+    //A buffer that grew past this (e.g. for a long report) is dropped after rendering instead of kept per thread
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    private static final String NEWLINE = System.lineSeparator();
+
+    private StringBuilder buffer;
+    private Formatter formatter;
+    private Writer output;
+
+    //Renders to System.out
+    public ScreenRenderer() {
+        this(null);
+    }
+
+    //Renders to the given writer (null means System.out)
+    public ScreenRenderer(Writer output) {
+        this.output = output;
+        allocate();
+    }
+
+    //Start a screen on this thread's renderer; anything left by a screen that failed halfway is discarded
+    public static ScreenRenderer begin() {
+        ScreenRenderer renderer = CURRENT.get();
+        renderer.reset();
+        return renderer;
+    }
+
+    public void setOutput(Writer output) {
+        this.output = output;
+    }
+
+    public ScreenRenderer line(String text) {
+        buffer.append(text).append(NEWLINE);
+        return this;
+    }
+
+    public ScreenRenderer line() {
+        buffer.append(NEWLINE);
+        return this;
+    }
+
+    //Same formatting as PrintStream.printf
+    public ScreenRenderer format(String format, Object... args) {
+        formatter.format(format, args);
+        return this;
+    }
+
+    public ScreenRenderer append(CharSequence text) {
+        buffer.append(text);
+        return this;
+    }
+
+    public int length() {
+        return buffer.length();
+    }
+
+    //Take the composed text without writing it (e.g. to cache a frame); clears the buffer
+    public String drain() {
+        String text = buffer.toString();
+        reset();
+        return text;
+    }
+
+    //Write the composed screen in one call, flush, and clear the buffer
+    public void render() {
+        if (buffer.length() == 0) {
+            return;
+        }
+        String text = buffer.toString();
+        reset();
+        if (output == null) {
+            PrintStream out = System.out;
+            out.print(text);
+            out.flush();
+            return;
+        }
+        try {
+            output.write(text);
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to render screen", e);
+        }
+    }
+
+    private void reset() {
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            allocate();
+        } else {
+            buffer.setLength(0);
+        }
+    }
+
+    private void allocate() {
+        buffer = new StringBuilder(INITIAL_CAPACITY);
+        formatter = new Formatter(buffer);
+    }
+}
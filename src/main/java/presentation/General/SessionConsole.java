@@ -0,0 +1,231 @@
+package presentation.General;
+
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * Per-thread routing of System.out.
+ * The console handlers print straight to System.out. To let several
+ * Application sessions run in one JVM, install() replaces System.out with a
+ * stream that forwards to whatever PrintStream the current thread has bound,
+ * falling back to the original console for unbound threads.
+ */
+public final class SessionConsole {
+
+    private static final ThreadLocal<PrintStream> CURRENT = new ThreadLocal<>();
+
+    private static RoutingPrintStream router;
+
+    private SessionConsole() {
+    }
+
+    //Install the router as System.out (idempotent)
+    public static synchronized void install() {
+        if (router == null || System.out != router) {
+            router = new RoutingPrintStream(System.out);
+            System.setOut(router);
+        }
+    }
+
+    //Check if the router is the active System.out
+    public static synchronized boolean isInstalled() {
+        return router != null && System.out == router;
+    }
+
+    //Route this thread's System.out output to the given stream
+    public static void bind(PrintStream out) {
+        CURRENT.set(out);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    //Stream this thread currently writes to
+    public static PrintStream current() {
+        PrintStream bound = CURRENT.get();
+        if (bound != null) {
+            return bound;
+        }
+        RoutingPrintStream active = router;
+        return active != null && System.out == active ? active.fallback : System.out;
+    }
+
+    //Forwards every PrintStream operation to the calling thread's target
+    private static final class RoutingPrintStream extends PrintStream {
+
+        private final PrintStream fallback;
+
+        RoutingPrintStream(PrintStream fallback) {
+            super(fallback, true);
+            this.fallback = fallback;
+        }
+
+        private PrintStream target() {
+            PrintStream bound = CURRENT.get();
+            return bound != null ? bound : fallback;
+        }
+
+        @Override
+        public void flush() {
+            target().flush();
+        }
+
+        @Override
+        public void close() {
+            target().flush();
+        }
+
+        @Override
+        public boolean checkError() {
+            return target().checkError();
+        }
+
+        @Override
+        public void write(int b) {
+            target().write(b);
+        }
+
+        @Override
+        public void write(byte[] buf, int off, int len) {
+            target().write(buf, off, len);
+        }
+
+        @Override
+        public void print(boolean b) {
+            target().print(b);
+        }
+
+        @Override
+        public void print(char c) {
+            target().print(c);
+        }
+
+        @Override
+        public void print(int i) {
+            target().print(i);
+        }
+
+        @Override
+        public void print(long l) {
+            target().print(l);
+        }
+
+        @Override
+        public void print(float f) {
+            target().print(f);
+        }
+
+        @Override
+        public void print(double d) {
+            target().print(d);
+        }
+
+        @Override
+        public void print(char[] s) {
+            target().print(s);
+        }
+
+        @Override
+        public void print(String s) {
+            target().print(s);
+        }
+
+        @Override
+        public void print(Object obj) {
+            target().print(obj);
+        }
+
+        @Override
+        public void println() {
+            target().println();
+        }
+
+        @Override
+        public void println(boolean x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(char x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(int x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(long x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(float x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(double x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(char[] x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(String x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(Object x) {
+            target().println(x);
+        }
+
+        @Override
+        public PrintStream printf(String format, Object... args) {
+            target().printf(format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream printf(Locale l, String format, Object... args) {
+            target().printf(l, format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream format(String format, Object... args) {
+            target().format(format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream format(Locale l, String format, Object... args) {
+            target().format(l, format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream append(CharSequence csq) {
+            target().append(csq);
+            return this;
+        }
+
+        @Override
+        public PrintStream append(CharSequence csq, int start, int end) {
+            target().append(csq, start, end);
+            return this;
+        }
+
+        @Override
+        public PrintStream append(char c) {
+            target().append(c);
+            return this;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package presentation.General;
 
 public class UserCancelledException extends RuntimeException {
     
+    private static final long serialVersionUID = 1L;
+    
     public UserCancelledException() {
         super("Operation cancelled by user");
     }
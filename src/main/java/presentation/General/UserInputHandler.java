@@ -8,8 +8,13 @@ public class UserInputHandler {
     private final Console console;
 
     public UserInputHandler(Scanner scanner) {
+        this(scanner, System.console());
+    }
+
+    //Console may be null, e.g. for remote sessions where masking is not possible
+    public UserInputHandler(Scanner scanner, Console console) {
         this.scanner = scanner;
-        this.console = System.console();
+        this.console = console;
     }
 
     //User can enter 'X' or 'x' to cancel
@@ -0,0 +1,504 @@
+package presentation.Http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.net.URLDecoder;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import config.ApplicationContext;
+import config.ConnectionProvider;
+import controller.CustomerController;
+import controller.FoodController;
+import controller.OrderController;
+import model.Customer;
+import model.Food;
+import model.Order;
+import model.OrderDetails;
+import presentation.General.SessionConsole;
+import service.impl.ResilientPaymentGateway;
+import util.Json;
+import util.LatencyRecorder;
+import util.ThreadSupport;
+import util.logging.Logger;
+import util.logging.LoggerFactory;
+
+/**
+ * JSON over HTTP front end for kiosks and the mobile app.
+ * Built on the JDK's com.sun.net.httpserver with a per-request executor
+ * (virtual threads where available) and backed by the same controllers
+ * the console uses. Routes:
+ *
+ *   GET  /api/menu                        list foods
+ *   GET  /api/menu?changedSince=<instant>  foods written since an ISO-8601 time
+ *                                         (deleted foods are not reported; reload the full menu for those)
+ *   POST /api/customers                   register
+ *   POST /api/customers/login             login (returns a session token)
+ *   POST /api/customers/logout            end the session
+ *   GET  /api/customers/{id}/orders       order history
+ *   POST /api/orders                      create order
+ *   GET  /metrics                         per-route latency, plus any registered counters
+ *                                         (login throttling and payment gateway health
+ *                                         when built from a context)
+ *
+ * Order history and order creation require "Authorization: Bearer <token>"
+ * from login (401 without a live session). The token is checked in memory,
+ * identifies the customer for orders and must match the customer whose
+ * history is read (403 otherwise).
+ */
+public class HttpApiServer implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HttpApiServer.class);
+
+    private static final Pattern CUSTOMER_ORDERS = Pattern.compile("^/api/customers/(\\d+)/orders$");
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final int requestedPort;
+    private final FoodController foodController;
+    private final CustomerController customerController;
+    private final OrderController orderController;
+    private final LatencyRecorder latency = new LatencyRecorder();
+    //Extra /metrics entries by name, read on each request
+    private final Map<String, Supplier<Map<String, Object>>> metricSources = new ConcurrentHashMap<>();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public HttpApiServer(int port, FoodController foodController,
+                         CustomerController customerController,
+                         OrderController orderController) {
+        this.requestedPort = port;
+        this.foodController = foodController;
+        this.customerController = customerController;
+        this.orderController = orderController;
+    }
+
+    //Wire one shared set of controllers over a thread-safe connection provider
+    public static HttpApiServer create(int port, ConnectionProvider connectionProvider) {
+        return create(port, new ApplicationContext(connectionProvider));
+    }
+
+    //Serve the controllers of an existing context, reporting its login throttling
+    //and payment gateways on /metrics
+    public static HttpApiServer create(int port, ApplicationContext context) {
+        HttpApiServer server = new HttpApiServer(port,
+                context.getFoodController(),
+                context.getCustomerController(),
+                context.getOrderController());
+        server.addMetrics("loginThrottle", context.getLoginThrottle()::getStats);
+        context.getPaymentGateways().forEach((type, gateway) -> {
+            if (gateway instanceof ResilientPaymentGateway) {
+                server.addMetrics("gateway." + type, ((ResilientPaymentGateway) gateway)::getStats);
+            }
+        });
+        return server;
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Server already started");
+        }
+        // Controllers report failures on System.out; route that per request so it can be returned
+        SessionConsole.install();
+        executor = ThreadSupport.newPerTaskExecutor("http");
+        server = HttpServer.create(new InetSocketAddress(requestedPort), 0);
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+        server.createContext("/metrics", this::handle);
+        server.start();
+        LOG.info("HTTP API listening on port {}", getPort());
+    }
+
+    public int getPort() {
+        return server != null ? server.getAddress().getPort() : requestedPort;
+    }
+
+    public LatencyRecorder getLatencyRecorder() {
+        return latency;
+    }
+
+    //Report a set of counters on /metrics under the given name, next to the route latencies
+    public void addMetrics(String name, Supplier<Map<String, Object>> source) {
+        metricSources.put(name, source);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        String route = "unmatched";
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        SessionConsole.bind(new PrintStream(captured, true, StandardCharsets.UTF_8));
+        try {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            Matcher customerOrders = CUSTOMER_ORDERS.matcher(path);
+
+            if (path.equals("/api/menu")) {
+                route = "GET /api/menu";
+                requireMethod(method, "GET");
+                respond(exchange, 200, listMenu(queryParam(exchange, "changedSince")));
+            } else if (path.equals("/api/customers")) {
+                route = "POST /api/customers";
+                requireMethod(method, "POST");
+                register(exchange, captured);
+            } else if (path.equals("/api/customers/login")) {
+                route = "POST /api/customers/login";
+                requireMethod(method, "POST");
+                login(exchange);
+            } else if (path.equals("/api/customers/logout")) {
+                route = "POST /api/customers/logout";
+                requireMethod(method, "POST");
+                logout(exchange);
+            } else if (customerOrders.matches()) {
+                route = "GET /api/customers/{id}/orders";
+                requireMethod(method, "GET");
+                int customerId = Integer.parseInt(customerOrders.group(1));
+                Customer session = requireSession(exchange);
+                if (session.getCustomerId() != customerId) {
+                    throw new AccessDeniedException(403, "Session does not belong to this customer");
+                }
+                respond(exchange, 200, orderHistory(customerId));
+            } else if (path.equals("/api/orders")) {
+                route = "POST /api/orders";
+                requireMethod(method, "POST");
+                createOrder(exchange, captured);
+            } else if (path.equals("/metrics")) {
+                route = "GET /metrics";
+                requireMethod(method, "GET");
+                respond(exchange, 200, metrics());
+            } else {
+                respondError(exchange, 404, "Not found");
+            }
+        } catch (MethodNotAllowedException e) {
+            respondError(exchange, 405, "Method not allowed");
+        } catch (AccessDeniedException e) {
+            respondError(exchange, e.status, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            respondError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            LOG.error("Unhandled error on {}: {}", route, e.toString());
+            respondError(exchange, 500, "Internal server error");
+        } finally {
+            SessionConsole.unbind();
+            exchange.close();
+            latency.record(route, System.nanoTime() - start);
+        }
+    }
+
+    private List<Object> listMenu(String changedSince) {
+        List<Food> menu;
+        if (changedSince == null) {
+            menu = foodController.getAllFoods();
+        } else {
+            try {
+                menu = foodController.getFoodsChangedSince(Instant.parse(changedSince));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("changedSince must be an ISO-8601 instant");
+            }
+        }
+        List<Object> foods = new ArrayList<>();
+        for (Food food : menu) {
+            foods.add(foodJson(food));
+        }
+        return foods;
+    }
+
+    private void register(HttpExchange exchange, ByteArrayOutputStream captured) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        Customer customer = new Customer();
+        customer.setName(optionalString(body, "name"));
+        customer.setAge(requireInt(body, "age"));
+        customer.setPhoneNumber(optionalString(body, "phoneNumber"));
+        customer.setGender(optionalString(body, "gender"));
+        customer.setPassword(optionalString(body, "password"));
+
+        Customer registered = customerController.registerCustomer(customer);
+        if (registered == null) {
+            respondError(exchange, 400, failureMessage(captured, "Registration failed"));
+            return;
+        }
+        respond(exchange, 201, customerJson(registered));
+    }
+
+    private void login(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        Customer customer = customerController.login(requireInt(body, "customerId"),
+                requireString(body, "password"));
+        if (customer == null) {
+            respondError(exchange, 401, "Invalid customer ID or password");
+            return;
+        }
+        Map<String, Object> json = customerJson(customer);
+        if (customer.getSessionToken() != null) {
+            json.put("token", customer.getSessionToken());
+        }
+        respond(exchange, 200, json);
+    }
+
+    private void logout(HttpExchange exchange) throws IOException {
+        String token = bearerToken(exchange);
+        if (token == null || !customerController.logout(token)) {
+            throw new AccessDeniedException(401, "Not logged in");
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("loggedOut", true);
+        respond(exchange, 200, json);
+    }
+
+    //Customer behind the request's bearer token; 401 without a live session
+    private Customer requireSession(HttpExchange exchange) {
+        String token = bearerToken(exchange);
+        if (token == null) {
+            throw new AccessDeniedException(401, "Authentication required");
+        }
+        Customer customer = customerController.getSessionCustomer(token);
+        if (customer == null) {
+            throw new AccessDeniedException(401, "Session expired or invalid");
+        }
+        return customer;
+    }
+
+    private static String bearerToken(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return null;
+        }
+        String token = header.substring(BEARER_PREFIX.length()).trim();
+        return token.isEmpty() ? null : token;
+    }
+
+    private Map<String, Object> metrics() {
+        Map<String, Object> metrics = latency.snapshot();
+        metricSources.forEach((name, source) -> metrics.put(name, source.get()));
+        return metrics;
+    }
+
+    private List<Object> orderHistory(int customerId) {
+        List<Object> orders = new ArrayList<>();
+        for (Order order : orderController.getOrdersByCustomerId(customerId)) {
+            orders.add(orderJson(order));
+        }
+        return orders;
+    }
+
+    private void createOrder(HttpExchange exchange, ByteArrayOutputStream captured) throws IOException {
+        Customer session = requireSession(exchange);
+        Map<String, Object> body = readBody(exchange);
+        // The customer comes from the token; a customerId in the body must agree with it
+        int customerId = body.containsKey("customerId")
+                ? requireInt(body, "customerId") : session.getCustomerId();
+        if (session.getCustomerId() != customerId) {
+            throw new AccessDeniedException(403, "Session does not belong to this customer");
+        }
+        Object items = body.get("items");
+        if (!(items instanceof List<?> itemList) || itemList.isEmpty()) {
+            throw new IllegalArgumentException("items must be a non-empty array");
+        }
+
+        List<OrderDetails> details = new ArrayList<>();
+        for (Object item : itemList) {
+            if (!(item instanceof Map<?, ?>)) {
+                throw new IllegalArgumentException("Each item must be an object");
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> line = (Map<String, Object>) item;
+            int foodId = requireInt(line, "foodId");
+            Food food = foodController.getFoodById(foodId);
+            if (food == null) {
+                throw new IllegalArgumentException("Food item not found: " + foodId);
+            }
+            details.add(new OrderDetails(food, requireInt(line, "quantity")));
+        }
+
+        String idempotencyKey = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+        Order order = orderController.createOrderInSession(session.getSessionToken(), details,
+                requireString(body, "paymentType"),
+                requireString(body, "identifier"),
+                requireString(body, "password"),
+                idempotencyKey);
+        if (order == null) {
+            respondError(exchange, 400, failureMessage(captured, "Order creation failed"));
+            return;
+        }
+        respond(exchange, 201, orderJson(order));
+    }
+
+    private static Map<String, Object> foodJson(Food food) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("foodId", food.getFoodId());
+        json.put("name", food.getFoodName());
+        json.put("price", food.getFoodPriceDecimal());
+        json.put("type", food.getFoodType());
+        json.put("quantity", food.getQuantity());
+        if (food.getUpdatedAt() != null) {
+            json.put("updatedAt", food.getUpdatedAt().toString());
+        }
+        return json;
+    }
+
+    //First value of a query parameter, or null
+    private static String queryParam(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            if (URLDecoder.decode(key, StandardCharsets.UTF_8).equals(name)) {
+                return eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, Object> customerJson(Customer customer) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("customerId", customer.getCustomerId());
+        json.put("name", customer.getName());
+        json.put("age", customer.getAge());
+        json.put("phoneNumber", customer.getPhoneNumber());
+        json.put("gender", customer.getGender());
+        return json;
+    }
+
+    private static Map<String, Object> orderJson(Order order) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("orderId", order.getOrderId());
+        json.put("orderDate", order.getOrderDate() != null
+                ? Instant.ofEpochMilli(order.getOrderDate().getTime()).toString() : null);
+        json.put("customerId", order.getCustomer() != null ? order.getCustomer().getCustomerId() : null);
+        json.put("status", order.getStatus());
+        json.put("totalPrice", order.getTotalPriceDecimal());
+        json.put("paymentType", order.getPaymentMethod() != null
+                ? order.getPaymentMethod().getPaymentType() : null);
+        List<Object> items = new ArrayList<>();
+        if (order.getOrderDetails() != null) {
+            for (OrderDetails detail : order.getOrderDetails()) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("foodId", detail.getFood() != null ? detail.getFood().getFoodId() : null);
+                item.put("foodName", detail.getFoodName());
+                item.put("quantity", detail.getQuantity());
+                item.put("unitPrice", detail.getUnitPriceDecimal());
+                item.put("subtotal", detail.getSubtotalDecimal());
+                items.add(item);
+            }
+        }
+        json.put("items", items);
+        return json;
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new IllegalArgumentException("Request body too large");
+            }
+            return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String optionalString(Map<String, Object> body, String field) {
+        Object value = body.get(field);
+        return value == null ? null : value.toString();
+    }
+
+    private static String requireString(Map<String, Object> body, String field) {
+        Object value = body.get(field);
+        if (!(value instanceof String s)) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return s;
+    }
+
+    private static int requireInt(Map<String, Object> body, String field) {
+        Object value = body.get(field);
+        if (!(value instanceof BigDecimal number)) {
+            throw new IllegalArgumentException(field + " must be a number");
+        }
+        try {
+            return number.intValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(field + " must be a whole number");
+        }
+    }
+
+    private static void requireMethod(String actual, String expected) {
+        if (!expected.equals(actual)) {
+            throw new MethodNotAllowedException();
+        }
+    }
+
+    //Controllers print "<operation> failed: <reason>"; surface that reason to the client
+    private static String failureMessage(ByteArrayOutputStream captured, String fallback) {
+        String text = captured.toString(StandardCharsets.UTF_8).trim();
+        return text.isEmpty() ? fallback : text;
+    }
+
+    private static void respondError(HttpExchange exchange, int status, String message) throws IOException {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("error", message);
+        respond(exchange, status, json);
+    }
+
+    private static void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static final class MethodNotAllowedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+
+    //401 for a missing or stale session, 403 for a session used on someone else's data
+    private static final class AccessDeniedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        private final int status;
+
+        AccessDeniedException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
@@ -1,11 +1,252 @@
 package presentation;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import config.ApplicationContext;
+import config.ConnectionPool;
+import config.SchemaMigrator;
+import model.ImportReport;
 import presentation.General.Application;
+import presentation.Http.HttpApiServer;
+import presentation.Replay.ReplayScript;
+import presentation.Replay.ReplayResult;
+import presentation.Replay.SessionReplayer;
+import presentation.Server.SessionServer;
+import service.interfaces.IFoodService;
+import service.interfaces.IPaymentLedgerService;
 
 public class Main {
     public static void main(String[] args) {
+        if (!migrateSchema()) {
+            return;
+        }
+        if (args != null && args.length > 0 && "--migrate".equals(args[0])) {
+            return;
+        }
+        if (args != null && args.length > 0 && "--server".equals(args[0])) {
+            runSessionServer(args);
+            return;
+        }
+        if (args != null && args.length > 0 && "--http".equals(args[0])) {
+            runHttpServer(args);
+            return;
+        }
+        if (args != null && args.length > 0 && "--replay".equals(args[0])) {
+            runReplay(args);
+            return;
+        }
+        if (args != null && args.length > 0 && "--reconcile".equals(args[0])) {
+            runReconciliation(args);
+            return;
+        }
+        if (args != null && args.length > 0 && args[0].startsWith("--import-")) {
+            runImport(args);
+            return;
+        }
+        if (args != null && args.length > 0 && "--change-prices".equals(args[0])) {
+            runPriceChange(args);
+            return;
+        }
+        if (args != null && args.length > 0 && "--restock".equals(args[0])) {
+            runRestock(args);
+            return;
+        }
+        if (args != null && args.length > 0 && "--backfill-order-lines".equals(args[0])) {
+            runOrderLineBackfill();
+            return;
+        }
         Application app = new Application();
         app.run();
     }
-}
 
+    //Runs before every mode; --migrate stops after it. Nothing starts against an outdated schema.
+    private static boolean migrateSchema() {
+        try (ConnectionPool pool = ConnectionPool.createDefault(1)) {
+            int applied = new SchemaMigrator(pool).migrate();
+            if (applied > 0) {
+                System.out.println("Schema migrations applied: " + applied);
+            }
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Schema migration failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    //Usage: --server [port]; pool and session limits come from app.db.poolSize / app.server.maxSessions
+    private static void runSessionServer(String[] args) {
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 5050;
+        ConnectionPool pool = ConnectionPool.createDefault(Integer.getInteger("app.db.poolSize", 10));
+        ApplicationContext context = new ApplicationContext(pool);
+        ApplicationContext.setDefault(context);
+        try (SessionServer server = SessionServer.create(port, Integer.getInteger("app.server.maxSessions", 200), context)) {
+            server.start();
+            server.awaitTermination();
+        } catch (Exception e) {
+            System.err.println("Session server stopped: " + e.getMessage());
+        } finally {
+            pool.close();
+        }
+    }
+
+    //Usage: --http [port]; pool size comes from app.db.poolSize
+    private static void runHttpServer(String[] args) {
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+        ConnectionPool pool = ConnectionPool.createDefault(Integer.getInteger("app.db.poolSize", 10));
+        ApplicationContext context = new ApplicationContext(pool);
+        ApplicationContext.setDefault(context);
+        HttpApiServer server = HttpApiServer.create(port, context);
+        try {
+            server.start();
+            Thread.currentThread().join();
+        } catch (Exception e) {
+            System.err.println("HTTP server stopped: " + e.getMessage());
+        } finally {
+            server.close();
+            pool.close();
+        }
+    }
+
+    //Usage: --replay <script-or-directory>...; parallelism comes from app.replay.parallelism
+    private static void runReplay(String[] args) {
+        int parallelism = Integer.getInteger("app.replay.parallelism", Runtime.getRuntime().availableProcessors());
+        ConnectionPool pool = ConnectionPool.createDefault(Integer.getInteger("app.db.poolSize", parallelism));
+        try {
+            List<ReplayScript> scripts = new ArrayList<>();
+            for (int i = 1; i < args.length; i++) {
+                Path path = Paths.get(args[i]);
+                if (Files.isDirectory(path)) {
+                    try (Stream<Path> files = Files.list(path)) {
+                        for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile).sorted()::iterator) {
+                            scripts.add(ReplayScript.load(file));
+                        }
+                    }
+                } else {
+                    scripts.add(ReplayScript.load(path));
+                }
+            }
+            SessionReplayer replayer = new SessionReplayer(new ApplicationContext(pool), parallelism, false);
+            long start = System.nanoTime();
+            List<ReplayResult> results = replayer.replay(scripts);
+            System.out.print(SessionReplayer.formatReport(results, System.nanoTime() - start));
+        } catch (Exception e) {
+            System.err.println("Replay failed: " + e.getMessage());
+        } finally {
+            pool.close();
+        }
+    }
+
+    //Usage: --import-customers|--import-payment-methods|--import-foods <csv> [rejects-csv]; rejects default to <csv>.rejects.csv
+    private static void runImport(String[] args) {
+        if (!List.of("--import-customers", "--import-payment-methods", "--import-foods").contains(args[0])) {
+            System.err.println("Unknown import: " + args[0]);
+            return;
+        }
+        if (args.length < 2) {
+            System.err.println("Usage: " + args[0] + " <csv> [rejects-csv]");
+            return;
+        }
+        Path source = Paths.get(args[1]);
+        Path rejects = Paths.get(args.length > 2 ? args[2] : args[1] + ".rejects.csv");
+        ApplicationContext context = ApplicationContext.getDefault();
+        try (Reader in = Files.newBufferedReader(source, StandardCharsets.UTF_8);
+             Writer out = Files.newBufferedWriter(rejects, StandardCharsets.UTF_8)) {
+            ImportReport report;
+            switch (args[0]) {
+                case "--import-customers":
+                    report = context.getCustomerService().importCustomers(in, out);
+                    break;
+                case "--import-payment-methods":
+                    report = context.getPaymentService().importPaymentMethods(in, out);
+                    break;
+                default:
+                    report = context.getFoodService().importFoods(in, out);
+            }
+            System.out.println(report);
+            if (report.getRejected() > 0) {
+                System.out.println("Rejected rows written to " + rejects);
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Import failed: " + e.getMessage());
+        }
+    }
+
+    //Usage: --change-prices <percent> [food-id...]; every food when no IDs are given
+    private static void runPriceChange(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: --change-prices <percent> [food-id...]");
+            return;
+        }
+        IFoodService foodService = ApplicationContext.getDefault().getFoodService();
+        try {
+            List<Integer> foodIds = new ArrayList<>();
+            for (int i = 2; i < args.length; i++) {
+                foodIds.add(Integer.parseInt(args[i]));
+            }
+            if (foodIds.isEmpty()) {
+                foodService.getAllFoods().forEach(food -> foodIds.add(food.getFoodId()));
+            }
+            int changed = foodService.changePrices(foodIds, Double.parseDouble(args[1]));
+            System.out.println("Prices changed: " + changed);
+        } catch (RuntimeException e) {
+            System.err.println("Price change failed: " + e.getMessage());
+        }
+    }
+
+    //Usage: --restock <food-id>=<quantity>...
+    private static void runRestock(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: --restock <food-id>=<quantity>...");
+            return;
+        }
+        try {
+            Map<Integer, Integer> quantities = new LinkedHashMap<>();
+            for (int i = 1; i < args.length; i++) {
+                String[] parts = args[i].split("=", 2);
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Expected <food-id>=<quantity>: " + args[i]);
+                }
+                quantities.merge(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()), Integer::sum);
+            }
+            int changed = ApplicationContext.getDefault().getFoodService().restockFoods(quantities);
+            System.out.println("Foods restocked: " + changed);
+        } catch (RuntimeException e) {
+            System.err.println("Restock failed: " + e.getMessage());
+        }
+    }
+
+    //Usage: --backfill-order-lines; safe to run again, only blank lines are touched
+    private static void runOrderLineBackfill() {
+        try {
+            int filled = ApplicationContext.getDefault().getOrderService().backfillOrderLineSnapshots();
+            System.out.println("Order lines backfilled: " + filled);
+        } catch (RuntimeException e) {
+            System.err.println("Backfill failed: " + e.getMessage());
+        }
+    }
+
+    //Usage: --reconcile [--open]; --open first writes opening entries for accounts with no ledger rows
+    private static void runReconciliation(String[] args) {
+        IPaymentLedgerService ledger = ApplicationContext.getDefault().getPaymentLedgerService();
+        try {
+            if (args.length > 1 && "--open".equals(args[1])) {
+                System.out.println("Opened " + ledger.openUnledgeredAccounts() + " account(s) in the ledger");
+            }
+            System.out.println(ledger.reconcile());
+        } catch (RuntimeException e) {
+            System.err.println("Reconciliation failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package presentation.Order;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import controller.FoodController;
+import model.Food;
+import model.MenuChanges;
+
+/**
+ * A session's copy of the menu, kept current through the menu version.
+ * refresh() costs one version read when nothing changed and fetches only
+ * the changed foods when something did; the whole menu is reloaded only
+ * when foods were removed or versions are not tracked. Foods are handed out
+ * as copies, so callers may adjust them (e.g. for stock held in a cart).
+ * One snapshot per session; not thread-safe.
+ */
+public class MenuSnapshot {
+
+    private final FoodController foodController;
+    // Ordered by food ID, like FoodRepository.findAll
+    private final Map<Integer, Food> foods = new TreeMap<>();
+    private long version = MenuChanges.UNVERSIONED;
+    // Whether the foods hold exactly what was written up to version, and nothing newer
+    private boolean exact;
+    private boolean loaded;
+
+    public MenuSnapshot(FoodController foodController) {
+        this.foodController = foodController;
+    }
+
+    //Bring the snapshot up to date and return a copy of the menu
+    public List<Food> refresh() {
+        long current = foodController.getMenuVersion();
+        if (!loaded || current == MenuChanges.UNVERSIONED) {
+            foods.clear();
+            merge(foodController.getAllFoods());
+            // Read before the foods, so a write in between is fetched again next time
+            version = current;
+            loaded = true;
+            exact = isUnchangedSince(version);
+        } else if (current != version) {
+            MenuChanges changes = foodController.getMenuChangesSince(version);
+            if (changes.isFullReload()) {
+                foods.clear();
+            }
+            merge(changes.getFoods());
+            version = changes.getVersion();
+            exact = isUnchangedSince(version);
+        }
+        List<Food> copy = new ArrayList<>(foods.size());
+        for (Food food : foods.values()) {
+            copy.add(new Food(food));
+        }
+        return copy;
+    }
+
+    //Menu version the snapshot is up to date with
+    public long getVersion() {
+        return version;
+    }
+
+    //Version the foods last returned match exactly, or UNVERSIONED if a write landed while they were
+    //read (they may then hold part of it); safe to key frames shared with other sessions by
+    public long getExactVersion() {
+        return exact ? version : MenuChanges.UNVERSIONED;
+    }
+
+    //The version is read before the foods; if it has not moved since, nothing newer was read
+    private boolean isUnchangedSince(long readVersion) {
+        return readVersion != MenuChanges.UNVERSIONED && foodController.getMenuVersion() == readVersion;
+    }
+
+    private void merge(List<Food> changed) {
+        for (Food food : changed) {
+            foods.put(food.getFoodId(), food);
+        }
+    }
+}
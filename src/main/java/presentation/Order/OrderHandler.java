@@ -9,6 +9,7 @@ import model.PaymentMethod;
 import model.Customer;
 
 
+import presentation.General.ScreenRenderer;
 import presentation.General.UserInputHandler;
 import presentation.Payment.PaymentOption;
 
@@ -16,6 +17,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Handles order flow and payment selection.
@@ -25,12 +27,16 @@ public class OrderHandler {
     private final FoodController foodController;
     private final OrderController orderController;
     private final UserInputHandler inputHandler;
+    // This session's menu; refreshed from the menu version instead of reloaded every loop
+    private final MenuSnapshot menu;
+
     public OrderHandler(FoodController foodController,
                         OrderController orderController,
                         UserInputHandler inputHandler) {
         this.foodController = foodController;
         this.orderController = orderController;
         this.inputHandler = inputHandler;
+        this.menu = new MenuSnapshot(foodController);
     }
 
     public void handleOrder(Customer currentCustomer) {
@@ -52,8 +58,8 @@ public class OrderHandler {
             isNewOrderCycle = false; // Reset flag after clearing
         }
 
-        // Refresh food list from database (always get fresh data)
-        List<Food> foods = foodController.getAllFoods();
+        // Refresh the menu: only foods changed since the last loop are fetched
+        List<Food> foods = menu.refresh();
         if (foods.isEmpty()) {
             System.out.println("No food items available");
             return;
@@ -66,7 +72,7 @@ public class OrderHandler {
         }
         
         // ✅ 改成使用 OrderMenuDisplay
-        OrderMenuDisplay.displayOrderMenu(foods);
+        OrderMenuDisplay.displayOrderMenu(foods, menu.getExactVersion(), tempQuantityReductions);
 
         int foodChoice = inputHandler.readInt("Choose a food item (1 to " + foods.size() + "): ");
 
@@ -108,10 +114,8 @@ public class OrderHandler {
                     // Sum up the quantities
                     int newQuantity = existingDetail.getQuantity() + quantity;
                     existingDetail.setQuantity(newQuantity);
-                    // Recalculate subtotal using BigDecimal
-                    java.math.BigDecimal unitPrice = existingDetail.getUnitPriceDecimal();
-                    java.math.BigDecimal newSubtotal = unitPrice.multiply(java.math.BigDecimal.valueOf(newQuantity));
-                    existingDetail.setSubtotal(newSubtotal);
+                    // Recalculate subtotal in exact sen
+                    existingDetail.setSubtotalMoney(existingDetail.getUnitPriceMoney().times(newQuantity));
                     System.out.println("\n✅ Updated " + selectedFood.getFoodName() + " quantity to: " + newQuantity + " qty(s)\n");
                     foundExisting = true;
                     break;
@@ -131,13 +135,15 @@ public class OrderHandler {
         }
 
         // Ask user what to do next
-        System.out.println("\n╔═══════════════════════════════════════════════════════════╗");
-        System.out.println("║              What would you like to do next?              ║");
-        System.out.println("╠═══════════════════════════════════════════════════════════╣");
-        System.out.println("║  Y = Continue adding items                                ║");
-        System.out.println("║  N = Continue to payment                                  ║");
-        System.out.println("║  X = Cancel order                                         ║");
-        System.out.println("╚═══════════════════════════════════════════════════════════╝");
+        ScreenRenderer.begin()
+                .line("\n╔═══════════════════════════════════════════════════════════╗")
+                .line("║              What would you like to do next?              ║")
+                .line("╠═══════════════════════════════════════════════════════════╣")
+                .line("║  Y = Continue adding items                                ║")
+                .line("║  N = Continue to payment                                  ║")
+                .line("║  X = Cancel order                                         ║")
+                .line("╚═══════════════════════════════════════════════════════════╝")
+                .render();
         
         String choice = inputHandler.readString("Your choice (Y/N/X): ").trim().toUpperCase();
         
@@ -189,6 +195,9 @@ public class OrderHandler {
 
         OrderMenuDisplay.displayOrderSummary(orderDetailsList);
 
+        // One key per checkout: if an attempt actually went through, retrying returns that order
+        String idempotencyKey = UUID.randomUUID().toString();
+
         // Payment retry loop - allow user to try different payment methods on failure
         boolean paymentSuccess = false;
         while (!paymentSuccess) {
@@ -233,14 +242,13 @@ public class OrderHandler {
                 continue;
             }
 
-            // Create order with wallet_id/card_number and password
-            Order order = orderController.createOrder(
-                    currentCustomer.getCustomerId(),
-                    orderDetailsList,
-                    paymentType,
-                    identifier,
-                    password
-            );
+            // Create order with wallet_id/card_number and password; a logged-in session skips the customer lookup
+            String sessionToken = currentCustomer.getSessionToken();
+            Order order = sessionToken != null
+                    ? orderController.createOrderInSession(sessionToken, orderDetailsList,
+                            paymentType, identifier, password, idempotencyKey)
+                    : orderController.createOrder(currentCustomer.getCustomerId(), orderDetailsList,
+                            paymentType, identifier, password, idempotencyKey);
 
             if (order != null) {
                 displayReceipt(order);
@@ -259,37 +267,39 @@ public class OrderHandler {
      * @param order Order to display
      */
     public static void displayReceipt(Order order) {
-        System.out.println("\n╔═══════════════════════════════════════════════════════════════════════════════╗");
-        System.out.println("║                                    RECEIPT                                    ║");
-        System.out.println("╠═══════════════════════════════════════════════════════════════════════════════╣");
-        System.out.printf("║ Order ID    : %-63d ║%n", order.getOrderId());
-        System.out.printf("║ Date        : %-63s ║%n", order.getOrderDate());
-        System.out.printf("║ Customer ID : %-63d ║%n", order.getCustomer().getCustomerId());
-        System.out.println("╠═══════════════════════════════════════════════════════════════════════════════╣");
-        System.out.printf("║ %-6s │ %-30s │ %10s │ %6s │ %13s ║%n", "ID", "Food Name", "Unit Price", "Qty", "Subtotal");
-        System.out.println("╠═══════════════════════════════════════════════════════════════════════════════╣");
+        ScreenRenderer screen = ScreenRenderer.begin();
+        screen.line("\n╔═══════════════════════════════════════════════════════════════════════════════╗");
+        screen.line("║                                    RECEIPT                                    ║");
+        screen.line("╠═══════════════════════════════════════════════════════════════════════════════╣");
+        screen.format("║ Order ID    : %-63d ║%n", order.getOrderId());
+        screen.format("║ Date        : %-63s ║%n", order.getOrderDate());
+        screen.format("║ Customer ID : %-63d ║%n", order.getCustomer().getCustomerId());
+        screen.line("╠═══════════════════════════════════════════════════════════════════════════════╣");
+        screen.format("║ %-6s │ %-30s │ %10s │ %6s │ %13s ║%n", "ID", "Food Name", "Unit Price", "Qty", "Subtotal");
+        screen.line("╠═══════════════════════════════════════════════════════════════════════════════╣");
         
         for (OrderDetails detail : order.getOrderDetails()) {
             if (detail != null && detail.getFood() != null) {
-                System.out.printf("║ %6d │ %-30s │ RM %7.2f │ %6d │ RM %10.2f ║%n",
+                screen.format("║ %6d │ %-30s │ RM %7.2f │ %6d │ RM %10.2f ║%n",
                         detail.getFood().getFoodId(),
-                        detail.getFood().getFoodName(),
+                        detail.getFoodName(),
                         detail.getUnitPrice(),
                         detail.getQuantity(),
                         detail.getSubtotal());
             }
         }
         
-        System.out.println("╠═══════════════════════════════════════════════════════════════════════════════╣");
-        System.out.printf("║ %-64s RM %9.2f ║%n", "SUBTOTAL:", order.getTotalPrice());
+        screen.line("╠═══════════════════════════════════════════════════════════════════════════════╣");
+        screen.format("║ %-64s RM %9.2f ║%n", "SUBTOTAL:", order.getTotalPrice());
         
         PaymentMethod paymentMethod = order.getPaymentMethod();
-        System.out.printf("║ %-64s RM %9.2f ║%n", 
+        screen.format("║ %-64s RM %9.2f ║%n", 
                          paymentMethod.getPaymentType() + " Balance:", 
                          paymentMethod.getBalance());
         
-        System.out.println("╚═══════════════════════════════════════════════════════════════════════════════╝");
-        System.out.println("\n                    Thank you for your order! 🙏\n");
+        screen.line("╚═══════════════════════════════════════════════════════════════════════════════╝");
+        screen.line("\n                    Thank you for your order! 🙏\n");
+        screen.render();
     }
 
     //Display payment options
@@ -1,23 +1,48 @@
 package presentation.Order;
 
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import model.Food;
 import model.OrderDetails;
+import presentation.General.FrameCache;
+import presentation.General.ScreenRenderer;
 
 public final class OrderMenuDisplay {
 
+    //Rendered order menus, reused while the foods (and the cart's stock adjustments) are unchanged
+    private static final FrameCache FRAMES = new FrameCache(64);
+
     private OrderMenuDisplay() {}
 
     /**
      * Display the selectable food menu used during ordering (index, name, price, quantity).
+     *
+     * @param foods The menu as shown, cart adjustments already applied
+     * @param menuVersion Menu version the foods exactly match (see MenuSnapshot.getExactVersion)
+     * @param cartAdjustments Stock held in the cart per food ID, already subtracted from foods
      */
-    public static void displayOrderMenu(List<Food> foods) {
-        System.out.println("\n╔═══════════════════════════════════════════════════════════════════════════════╗");
-        System.out.println("║                                   ORDER MENU                                  ║");
-        System.out.println("╠═══════════════════════════════════════════════════════════════════════════════╣");
-        System.out.printf("║ %-4s │ %-35s │ %12s │ %17s ║%n", "No.", "Food Name", "Price (RM)", "Available");
-        System.out.println("╠═══════════════════════════════════════════════════════════════════════════════╣");
+    public static void displayOrderMenu(List<Food> foods, long menuVersion, Map<Integer, Integer> cartAdjustments) {
+        // Sorted, without zero entries, so equal carts give equal keys
+        Map<Integer, Integer> held = new TreeMap<>();
+        cartAdjustments.forEach((foodId, quantity) -> {
+            if (quantity != 0) {
+                held.put(foodId, quantity);
+            }
+        });
+        ScreenRenderer screen = ScreenRenderer.begin();
+        screen.append(FRAMES.get("order-menu", menuVersion, held, () -> renderOrderMenu(foods)));
+        screen.render();
+    }
+
+    private static String renderOrderMenu(List<Food> foods) {
+        ScreenRenderer frame = new ScreenRenderer();
+        frame.line("\n╔═══════════════════════════════════════════════════════════════════════════════╗");
+        frame.line("║                                   ORDER MENU                                  ║");
+        frame.line("╠═══════════════════════════════════════════════════════════════════════════════╣");
+        frame.format("║ %-4s │ %-35s │ %12s │ %17s ║%n", "No.", "Food Name", "Price (RM)", "Available");
+        frame.line("╠═══════════════════════════════════════════════════════════════════════════════╣");
         
         int index = 1;
         for (Food food : foods) {
@@ -33,39 +58,42 @@ public final class OrderMenuDisplay {
             } else if (availability.length() > 12) {
                 availability = availability.substring(0, 12);
             }
-            System.out.printf("║ %3d. │ %-35s │ %12.2f │ %17s ║%n", 
-                            index++, foodName, food.getFoodPrice(), availability);
+            frame.format("║ %3d. │ %-35s │ %12.2f │ %17s ║%n", 
+                         index++, foodName, food.getFoodPrice(), availability);
         }
         
-        System.out.println("╠═══════════════════════════════════════════════════════════════════════════════╣");
-        System.out.println("║   0. Exit Order                                                               ║");
-        System.out.println("╚═══════════════════════════════════════════════════════════════════════════════╝\n");
+        frame.line("╠═══════════════════════════════════════════════════════════════════════════════╣");
+        frame.line("║   0. Exit Order                                                               ║");
+        frame.line("╚═══════════════════════════════════════════════════════════════════════════════╝\n");
+        return frame.drain();
     }
 
     /**
      * Display a short order summary (line items + subtotal)
      */
     public static void displayOrderSummary(List<OrderDetails> details) {
-        System.out.println("\n╔═══════════════════════════════════════════════════════════════════════════════╗");
-        System.out.println("║                             ORDER SUMMARY                                     ║");
-        System.out.println("╠═══════════════════════════════════════════════════════════════════════════════╣");
-        System.out.printf("║ %-6s │ %-30s │ %10s │ %6s │ %13s ║%n", "ID", "Food Name", "Unit Price", "Qty", "Subtotal");
-        System.out.println("╠═══════════════════════════════════════════════════════════════════════════════╣");
+        ScreenRenderer screen = ScreenRenderer.begin();
+        screen.line("\n╔═══════════════════════════════════════════════════════════════════════════════╗");
+        screen.line("║                             ORDER SUMMARY                                     ║");
+        screen.line("╠═══════════════════════════════════════════════════════════════════════════════╣");
+        screen.format("║ %-6s │ %-30s │ %10s │ %6s │ %13s ║%n", "ID", "Food Name", "Unit Price", "Qty", "Subtotal");
+        screen.line("╠═══════════════════════════════════════════════════════════════════════════════╣");
         
         double total = 0.0;
         for (OrderDetails d : details) {
             if (d == null || d.getFood() == null) continue;
-            System.out.printf("║ %6d │ %-30s │ RM %7.2f │ %4d │ RM %12.2f ║%n",
+            screen.format("║ %6d │ %-30s │ RM %7.2f │ %4d │ RM %12.2f ║%n",
                     d.getFood().getFoodId(), 
                     d.getFood().getFoodName(), 
-                    d.getUnitPriceDecimal().doubleValue(), 
+                    d.getUnitPrice(), 
                     d.getQuantity(), 
                     d.getSubtotal());
             total += d.getSubtotal();
         }
         
-        System.out.println("╠═══════════════════════════════════════════════════════════════════════════════╣");
-        System.out.printf("║ %-64s RM %9.2f ║%n", "TOTAL:", total);
-        System.out.println("╚═══════════════════════════════════════════════════════════════════════════════╝\n");
+        screen.line("╠═══════════════════════════════════════════════════════════════════════════════╣");
+        screen.format("║ %-64s RM %9.2f ║%n", "TOTAL:", total);
+        screen.line("╚═══════════════════════════════════════════════════════════════════════════════╝\n");
+        screen.render();
     }
 }
@@ -0,0 +1,55 @@
+package presentation.Replay;
+
+/**
+ * Outcome and timing of one replayed script.
+ */
+public final class ReplayResult {
+
+    private final String scriptName;
+    private final long elapsedNanos;
+    private final boolean completed;
+    private final String error;
+    private final String output;
+    private final long outputBytes;
+
+    ReplayResult(String scriptName, long elapsedNanos, boolean completed,
+                 String error, String output, long outputBytes) {
+        this.scriptName = scriptName;
+        this.elapsedNanos = elapsedNanos;
+        this.completed = completed;
+        this.error = error;
+        this.output = output;
+        this.outputBytes = outputBytes;
+    }
+
+    public String getScriptName() {
+        return scriptName;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getElapsedMillis() {
+        return elapsedNanos / 1_000_000.0;
+    }
+
+    //True when the script drove the session all the way to Exit
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    //Why the session ended early, or null
+    public String getError() {
+        return error;
+    }
+
+    //Captured console output, or null when output was suppressed
+    public String getOutput() {
+        return output;
+    }
+
+    public long getOutputBytes() {
+        return outputBytes;
+    }
+}
@@ -0,0 +1,42 @@
+package presentation.Replay;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * One recorded console session: the exact lines a user typed, in order.
+ */
+public final class ReplayScript {
+
+    private final String name;
+    private final String input;
+
+    public ReplayScript(String name, String input) {
+        if (name == null || input == null) {
+            throw new IllegalArgumentException("Script name and input are required");
+        }
+        this.name = name;
+        this.input = input;
+    }
+
+    //Build a script from individual input lines
+    public static ReplayScript ofLines(String name, String... lines) {
+        return new ReplayScript(name, String.join("\n", lines) + "\n");
+    }
+
+    //Load a script file; each line is one answer to a prompt
+    public static ReplayScript load(Path file) throws IOException {
+        return new ReplayScript(file.getFileName().toString(),
+                Files.readString(file, StandardCharsets.UTF_8));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getInput() {
+        return input;
+    }
+}
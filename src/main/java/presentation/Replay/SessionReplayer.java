@@ -0,0 +1,161 @@
+package presentation.Replay;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import config.ApplicationContext;
+import presentation.General.Application;
+import presentation.General.SessionConsole;
+import presentation.General.UserInputHandler;
+import util.ThreadSupport;
+
+/**
+ * Replays recorded input scripts through the real console flow.
+ * Each script gets its own Scanner, UserInputHandler and Application over
+ * the shared controllers of an ApplicationContext, runs at full speed with
+ * its output captured or discarded, and reports how long it took.
+ */
+public class SessionReplayer {
+
+    private final ApplicationContext context;
+    private final int parallelism;
+    private final boolean captureOutput;
+
+    public SessionReplayer(ApplicationContext context, int parallelism, boolean captureOutput) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.context = context;
+        this.parallelism = parallelism;
+        this.captureOutput = captureOutput;
+    }
+
+    //Replay every script, up to `parallelism` at a time; results keep the input order
+    public List<ReplayResult> replay(List<ReplayScript> scripts) throws InterruptedException {
+        SessionConsole.install();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, ThreadSupport.daemonFactory("replay"));
+        try {
+            List<Callable<ReplayResult>> tasks = new ArrayList<>();
+            for (ReplayScript script : scripts) {
+                tasks.add(() -> replayOne(script));
+            }
+            List<ReplayResult> results = new ArrayList<>();
+            for (Future<ReplayResult> future : executor.invokeAll(tasks)) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    // replayOne never throws, so this only happens if the task itself broke
+                    throw new IllegalStateException("Replay task failed", e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    //Replay one script on the calling thread
+    public ReplayResult replayOne(ReplayScript script) {
+        SessionConsole.install();
+        ByteArrayOutputStream captured = captureOutput ? new ByteArrayOutputStream() : null;
+        CountingOutputStream counter = new CountingOutputStream(captured);
+        PrintStream out = new PrintStream(counter, false, StandardCharsets.UTF_8);
+        Scanner scanner = new Scanner(new ByteArrayInputStream(
+                script.getInput().getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+
+        boolean completed = false;
+        String error = null;
+        SessionConsole.bind(out);
+        long start = System.nanoTime();
+        try {
+            new Application(scanner, new UserInputHandler(scanner, null),
+                    context.getAdminController(), context.getCustomerController(),
+                    context.getFoodController(), context.getOrderController()).run();
+            completed = true;
+        } catch (NoSuchElementException | IllegalStateException e) {
+            error = "Script ended before the session exited";
+        } catch (RuntimeException e) {
+            error = e.toString();
+        } finally {
+            SessionConsole.unbind();
+        }
+        long elapsed = System.nanoTime() - start;
+        out.flush();
+        return new ReplayResult(script.getName(), elapsed, completed, error,
+                captured != null ? captured.toString(StandardCharsets.UTF_8) : null,
+                counter.count);
+    }
+
+    //Per-script timings followed by totals and latency percentiles
+    public static String formatReport(List<ReplayResult> results, long wallNanos) {
+        StringBuilder sb = new StringBuilder();
+        long[] times = new long[results.size()];
+        int completed = 0;
+        for (int i = 0; i < results.size(); i++) {
+            ReplayResult result = results.get(i);
+            times[i] = result.getElapsedNanos();
+            if (result.isCompleted()) {
+                completed++;
+            }
+            sb.append(String.format("%-30s %10.2f ms  %s%n", result.getScriptName(), result.getElapsedMillis(),
+                    result.isCompleted() ? "OK" : "FAILED (" + result.getError() + ")"));
+        }
+        Arrays.sort(times);
+        double wallSeconds = wallNanos / 1e9;
+        sb.append(String.format("Scripts: %d, completed: %d, wall time: %.2f ms, throughput: %.1f scripts/s%n",
+                results.size(), completed, wallNanos / 1e6,
+                wallSeconds > 0 ? results.size() / wallSeconds : 0.0));
+        sb.append(String.format("Per-script p50: %.2f ms, p95: %.2f ms, max: %.2f ms%n",
+                percentile(times, 50) / 1e6, percentile(times, 95) / 1e6,
+                times.length == 0 ? 0.0 : times[times.length - 1] / 1e6));
+        return sb.toString();
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(sorted.length * percentile / 100.0) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    //Counts bytes written and forwards them only when capturing
+    private static final class CountingOutputStream extends OutputStream {
+
+        private final ByteArrayOutputStream target;
+        private long count;
+
+        CountingOutputStream(ByteArrayOutputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) {
+            count++;
+            if (target != null) {
+                target.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+            if (target != null) {
+                target.write(b, off, len);
+            }
+        }
+    }
+}
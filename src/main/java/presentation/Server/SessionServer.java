@@ -0,0 +1,367 @@
+package presentation.Server;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import config.ApplicationContext;
+import config.ConnectionProvider;
+import controller.AdminController;
+import controller.CustomerController;
+import controller.FoodController;
+import controller.OrderController;
+import presentation.General.Application;
+import presentation.General.SessionConsole;
+import presentation.General.UserInputHandler;
+import util.ThreadSupport;
+import util.logging.Logger;
+import util.logging.LoggerFactory;
+
+/**
+ * Multi-session TCP front end for the console application.
+ * Every accepted connection runs its own Application (own Scanner,
+ * UserInputHandler and output stream) on a per-task thread, while the
+ * controllers and everything below them are shared by all sessions.
+ */
+public class SessionServer implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SessionServer.class);
+
+    private static final String BUSY_MESSAGE = "Server busy, please try again later.";
+
+    //Telnet (RFC 854/857) bytes used to switch the client's local echo off around password prompts
+    private static final int IAC = 255;
+    private static final int WILL = 251;
+    private static final int WONT = 252;
+    private static final int DONT = 254;
+    private static final int SB = 250;
+    private static final int SE = 240;
+    private static final int ECHO = 1;
+
+    private final int requestedPort;
+    private final int maxSessions;
+    private final AdminController adminController;
+    private final CustomerController customerController;
+    private final FoodController foodController;
+    private final OrderController orderController;
+    private final Semaphore sessionPermits;
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final AtomicInteger completedSessions = new AtomicInteger();
+
+    private ServerSocket serverSocket;
+    private ExecutorService sessionExecutor;
+    private Thread acceptThread;
+    private volatile boolean running;
+
+    public SessionServer(int port, int maxSessions,
+                         AdminController adminController,
+                         CustomerController customerController,
+                         FoodController foodController,
+                         OrderController orderController) {
+        if (maxSessions < 1) {
+            throw new IllegalArgumentException("maxSessions must be at least 1");
+        }
+        this.requestedPort = port;
+        this.maxSessions = maxSessions;
+        this.adminController = adminController;
+        this.customerController = customerController;
+        this.foodController = foodController;
+        this.orderController = orderController;
+        this.sessionPermits = new Semaphore(maxSessions);
+    }
+
+    //Wire one shared set of controllers over a thread-safe connection provider
+    public static SessionServer create(int port, int maxSessions, ConnectionProvider connectionProvider) {
+        return create(port, maxSessions, new ApplicationContext(connectionProvider));
+    }
+
+    //Serve the controllers of an existing context
+    public static SessionServer create(int port, int maxSessions, ApplicationContext context) {
+        return new SessionServer(port, maxSessions,
+                context.getAdminController(),
+                context.getCustomerController(),
+                context.getFoodController(),
+                context.getOrderController());
+    }
+
+    //Bind the listening socket and start accepting sessions in the background
+    public synchronized void start() throws IOException {
+        if (running) {
+            throw new IllegalStateException("Server already started");
+        }
+        serverSocket = new ServerSocket(requestedPort);
+        SessionConsole.install();
+        sessionExecutor = ThreadSupport.newPerTaskExecutor("session");
+        running = true;
+        acceptThread = new Thread(this::acceptLoop, "session-acceptor");
+        acceptThread.start();
+        LOG.info("Session server listening on port {} (max {} sessions)", getPort(), maxSessions);
+    }
+
+    //Block until the server is closed
+    public void awaitTermination() throws InterruptedException {
+        Thread thread = acceptThread;
+        if (thread != null) {
+            thread.join();
+        }
+    }
+
+    public int getPort() {
+        return serverSocket != null ? serverSocket.getLocalPort() : requestedPort;
+    }
+
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    public int getCompletedSessions() {
+        return completedSessions.get();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            LOG.warn("Error closing server socket: {}", e.getMessage());
+        }
+        sessionExecutor.shutdown();
+        try {
+            if (!sessionExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                sessionExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            sessionExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (running) {
+                    LOG.error("Error accepting session: {}", e.getMessage());
+                }
+                continue;
+            }
+            if (!sessionPermits.tryAcquire()) {
+                rejectBusy(socket);
+                continue;
+            }
+            sessionExecutor.execute(() -> {
+                try {
+                    runSession(socket);
+                } finally {
+                    sessionPermits.release();
+                }
+            });
+        }
+    }
+
+    private void runSession(Socket socket) {
+        activeSessions.incrementAndGet();
+        try (Socket client = socket) {
+            client.setTcpNoDelay(true);
+            PrintStream out = new PrintStream(new BufferedOutputStream(client.getOutputStream()),
+                    false, StandardCharsets.UTF_8);
+            Scanner scanner = new Scanner(new FlushBeforeReadInputStream(
+                    new TelnetCommandFilterInputStream(client.getInputStream()), out),
+                    StandardCharsets.UTF_8);
+            SessionConsole.bind(out);
+            try {
+                new Application(scanner, new RemoteInputHandler(scanner, out),
+                        adminController, customerController, foodController, orderController).run();
+            } catch (NoSuchElementException | IllegalStateException e) {
+                // Client hung up mid-prompt; nothing left to serve
+            } finally {
+                out.flush();
+                SessionConsole.unbind();
+            }
+        } catch (SocketException e) {
+            LOG.debug("Session connection dropped: {}", e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            LOG.error("Session ended with error: {}", e.toString());
+        } finally {
+            activeSessions.decrementAndGet();
+            completedSessions.incrementAndGet();
+        }
+    }
+
+    private void rejectBusy(Socket socket) {
+        try (Socket client = socket) {
+            client.getOutputStream().write((BUSY_MESSAGE + System.lineSeparator())
+                    .getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LOG.debug("Could not notify rejected session: {}", e.getMessage());
+        }
+    }
+
+    //A remote client has no Console to mask with, and a telnet client echoes what is typed
+    //locally. Announce that the server will echo (and then echo nothing) while a password
+    //is read, so the client stops echoing; hand echo back once the line is in.
+    private static final class RemoteInputHandler extends UserInputHandler {
+
+        private final PrintStream out;
+
+        RemoteInputHandler(Scanner scanner, PrintStream out) {
+            super(scanner, null);
+            this.out = out;
+        }
+
+        @Override
+        public String readPassword(String prompt) {
+            out.write(new byte[] {(byte) IAC, (byte) WILL, ECHO}, 0, 3);
+            try {
+                return super.readPassword(prompt);
+            } finally {
+                out.write(new byte[] {(byte) IAC, (byte) WONT, ECHO}, 0, 3);
+                //The Enter key was not echoed either
+                out.println();
+            }
+        }
+    }
+
+    //Drops telnet commands (e.g. the client's DO ECHO reply) so only typed text reaches the Scanner.
+    //Plain TCP clients never send IAC, so their input passes through unchanged.
+    private static final class TelnetCommandFilterInputStream extends FilterInputStream {
+
+        private static final int DATA = 0;
+        private static final int COMMAND = 1;
+        private static final int OPTION = 2;
+        private static final int SUBNEGOTIATION = 3;
+        private static final int SUBNEGOTIATION_IAC = 4;
+        private static final int CARRIAGE_RETURN = 5;
+
+        private int state = DATA;
+
+        TelnetCommandFilterInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            while (true) {
+                int b = super.read();
+                if (b < 0) {
+                    return b;
+                }
+                int data = accept(b);
+                if (data >= 0) {
+                    return data;
+                }
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            while (true) {
+                int n = super.read(b, off, len);
+                if (n <= 0) {
+                    return n;
+                }
+                int kept = 0;
+                for (int i = 0; i < n; i++) {
+                    int data = accept(b[off + i] & 0xFF);
+                    if (data >= 0) {
+                        b[off + kept++] = (byte) data;
+                    }
+                }
+                if (kept > 0) {
+                    return kept;
+                }
+            }
+        }
+
+        //Feed one byte through the parser; returns it if it is user data, -1 if consumed
+        private int accept(int b) {
+            switch (state) {
+                case COMMAND:
+                    if (b == IAC) {
+                        state = DATA;
+                        return IAC;
+                    }
+                    state = b == SB ? SUBNEGOTIATION : b >= WILL && b <= DONT ? OPTION : DATA;
+                    return -1;
+                case OPTION:
+                    state = DATA;
+                    return -1;
+                case SUBNEGOTIATION:
+                    if (b == IAC) {
+                        state = SUBNEGOTIATION_IAC;
+                    }
+                    return -1;
+                case SUBNEGOTIATION_IAC:
+                    state = b == SE ? DATA : SUBNEGOTIATION;
+                    return -1;
+                case CARRIAGE_RETURN:
+                    state = DATA;
+                    //Telnet sends Enter as CR NUL or CR LF; drop the NUL padding
+                    if (b == 0) {
+                        return -1;
+                    }
+                    return accept(b);
+                default:
+                    if (b == IAC) {
+                        state = COMMAND;
+                        return -1;
+                    }
+                    if (b == '\r') {
+                        state = CARRIAGE_RETURN;
+                    }
+                    return b;
+            }
+        }
+    }
+
+    //Session output is buffered and pushed to the client only when we wait for input.
+    //Closing the Scanner must not close the socket before the last output is flushed.
+    private static final class FlushBeforeReadInputStream extends FilterInputStream {
+
+        private final PrintStream out;
+
+        FlushBeforeReadInputStream(InputStream in, PrintStream out) {
+            super(in);
+            this.out = out;
+        }
+
+        @Override
+        public int read() throws IOException {
+            out.flush();
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            out.flush();
+            return super.read(b, off, len);
+        }
+
+        @Override
+        public void close() {
+            out.flush();
+        }
+    }
+}
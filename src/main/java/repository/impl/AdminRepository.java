@@ -1,29 +1,63 @@
 package repository.impl;
 
 import repository.interfaces.IAdminRepository;
+import util.logging.Logger;
+import util.logging.LoggerFactory;
+import config.ConnectionProvider;
 import config.DatabaseConnection; 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Optional;
 
 public class AdminRepository implements IAdminRepository {
 
+    private static final Logger LOG = LoggerFactory.getLogger(AdminRepository.class);
+
+    private final ConnectionProvider connectionProvider;
+
+    //Constructor with dependency injection
+    public AdminRepository(ConnectionProvider connectionProvider) {
+        this.connectionProvider = connectionProvider;
+    }
+
+    public AdminRepository() {
+        this(DatabaseConnection.getInstance());
+    }
+
     @Override
-    public boolean authenticate(String name, String password) {
-        String sql = "SELECT * FROM admins WHERE name = ? AND password = ?";
-        
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+    public Optional<String> findPasswordHash(String name) {
+        String sql = "SELECT password FROM admins WHERE name = ?";
+
+        try (Connection conn = connectionProvider.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
+
             pstmt.setString(1, name);
-            pstmt.setString(2, password);
-            
+
             try (ResultSet rs = pstmt.executeQuery()) {
-                return rs.next(); 
+                return rs.next() ? Optional.ofNullable(rs.getString("password")) : Optional.empty();
             }
         } catch (SQLException e) {
+            //Not "no such admin": the credential cache would remember that
+            LOG.error("Error loading admin credentials: {}", e.getMessage());
+            throw new RuntimeException("Failed to load admin credentials", e);
+        }
+    }
+
+    @Override
+    public boolean updatePassword(String name, String passwordHash) {
+        String sql = "UPDATE admins SET password = ? WHERE name = ?";
+
+        try (Connection conn = connectionProvider.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, passwordHash);
+            pstmt.setString(2, name);
+            return pstmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            LOG.error("Error updating admin password: {}", e.getMessage());
             return false;
         }
     }
-}
\ No newline at end of file
+}
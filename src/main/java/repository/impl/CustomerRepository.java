@@ -1,22 +1,43 @@
 package repository.impl;
 
 import java.sql.*;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import config.ConnectionProvider;
 import config.DatabaseConnection;
 import model.Customer;
+import repository.interfaces.DuplicatePhoneNumberException;
 import repository.interfaces.ICustomerRepository;
+import util.logging.Logger;
+import util.logging.LoggerFactory;
 
 
 public class CustomerRepository implements ICustomerRepository {
     
-    private static final String FIND_BY_ID = "SELECT * FROM customers WHERE customer_id = ?";
-    private static final String FIND_BY_PHONE = "SELECT * FROM customers WHERE phone_number = ?";
-    private static final String AUTHENTICATE = "SELECT * FROM customers WHERE customer_id = ? AND password = ?";
+    private static final Logger LOG = LoggerFactory.getLogger(CustomerRepository.class);
+    
+    //Columns read by CUSTOMER_MAPPER, in index order
+    private static final String CUSTOMER_COLUMNS = "customer_id, name, age, phone_number, gender, password";
+    private static final int COL_ID = 1;
+    private static final int COL_NAME = 2;
+    private static final int COL_AGE = 3;
+    private static final int COL_PHONE = 4;
+    private static final int COL_GENDER = 5;
+    private static final int COL_PASSWORD = 6;
+    
+    private static final String FIND_BY_ID = "SELECT " + CUSTOMER_COLUMNS + " FROM customers WHERE customer_id = ?";
+    private static final String FIND_BY_PHONE = "SELECT " + CUSTOMER_COLUMNS + " FROM customers WHERE phone_number = ?";
+    private static final String FIND_PASSWORD_HASH = "SELECT password FROM customers WHERE customer_id = ?";
+    private static final String UPDATE_PASSWORD = "UPDATE customers SET password = ? WHERE customer_id = ?";
     private static final String INSERT = "INSERT INTO customers (name, age, phone_number, gender, password) VALUES (?, ?, ?, ?, ?)";
     private static final String GET_MAX_ID = "SELECT MAX(customer_id) as max_id FROM customers";
-    private static final String EXISTS_BY_PHONE = "SELECT COUNT(*) FROM customers WHERE phone_number = ?";
+    private static final String EXISTS_BY_PHONE = "SELECT 1 FROM customers WHERE phone_number = ? LIMIT 1";
+    private static final String ALL_PHONE_NUMBERS = "SELECT phone_number FROM customers";
+    //Rows fetched per round trip while streaming phone numbers; MySQL only honours this
+    //because the production URL sets useCursorFetch=true (see DatabaseConnection)
+    private static final int PHONE_FETCH_SIZE = 1000;
     
     private final ConnectionProvider connectionProvider;
     
@@ -39,10 +60,10 @@ public class CustomerRepository implements ICustomerRepository {
             ResultSet rs = stmt.executeQuery();
             
             if (rs.next()) {
-                return Optional.of(mapResultSetToCustomer(rs));
+                return Optional.of(CUSTOMER_MAPPER.map(rs));
             }
         } catch (SQLException e) {
-            System.err.println("Error finding customer by ID: " + e.getMessage());
+            LOG.error("Error finding customer by ID: {}", e.getMessage());
         }
         return Optional.empty();
     }
@@ -56,32 +77,47 @@ public class CustomerRepository implements ICustomerRepository {
             ResultSet rs = stmt.executeQuery();
             
             if (rs.next()) {
-                return Optional.of(mapResultSetToCustomer(rs));
+                return Optional.of(CUSTOMER_MAPPER.map(rs));
             }
         } catch (SQLException e) {
-            System.err.println("Error finding customer by phone: " + e.getMessage());
+            LOG.error("Error finding customer by phone: {}", e.getMessage());
         }
         return Optional.empty();
     }
     
     @Override
-    public Optional<Customer> authenticate(int customerId, String password) {
+    public Optional<String> findPasswordHash(int customerId) {
         try (Connection conn = connectionProvider.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(AUTHENTICATE)) {
+             PreparedStatement stmt = conn.prepareStatement(FIND_PASSWORD_HASH)) {
             
             stmt.setInt(1, customerId);
-            stmt.setString(2, password);
             ResultSet rs = stmt.executeQuery();
             
             if (rs.next()) {
-                return Optional.of(mapResultSetToCustomer(rs));
+                return Optional.ofNullable(rs.getString("password"));
             }
         } catch (SQLException e) {
-            System.err.println("Error authenticating customer: " + e.getMessage());
+            //Not "no such customer": the credential cache would remember that
+            LOG.error("Error loading customer credentials: {}", e.getMessage());
+            throw new RuntimeException("Failed to load customer credentials", e);
         }
         return Optional.empty();
     }
     
+    @Override
+    public boolean updatePassword(int customerId, String passwordHash) {
+        try (Connection conn = connectionProvider.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_PASSWORD)) {
+            
+            stmt.setString(1, passwordHash);
+            stmt.setInt(2, customerId);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            LOG.error("Error updating customer password: {}", e.getMessage());
+            return false;
+        }
+    }
+    
     @Override
     public Customer save(Customer customer) {
         try (Connection conn = connectionProvider.getConnection();
@@ -101,13 +137,79 @@ public class CustomerRepository implements ICustomerRepository {
                     customer.setCustomerId(generatedKeys.getInt(1));
                 }
             }
+        } catch (SQLIntegrityConstraintViolationException e) {
+            // uk_customers_phone_number: someone registered this number first
+            throw new DuplicatePhoneNumberException(customer.getPhoneNumber());
         } catch (SQLException e) {
-            System.err.println("Error saving customer: " + e.getMessage());
+            LOG.error("Error saving customer: {}", e.getMessage());
             throw new RuntimeException("Failed to save customer", e);
         }
         return customer;
     }
     
+    @Override
+    public List<Customer> saveAll(List<Customer> customers) {
+        Connection conn = null;
+        try {
+            conn = connectionProvider.getConnection();
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                for (Customer customer : customers) {
+                    stmt.setString(1, customer.getName());
+                    stmt.setInt(2, customer.getAge());
+                    stmt.setString(3, customer.getPhoneNumber());
+                    stmt.setString(4, customer.getGender());
+                    stmt.setString(5, customer.getPassword());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    for (Customer customer : customers) {
+                        if (generatedKeys.next()) {
+                            customer.setCustomerId(generatedKeys.getInt(1));
+                        }
+                    }
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    LOG.error("Error rolling back transaction: {}", rollbackEx.getMessage());
+                }
+            }
+            if (isConstraintViolation(e)) {
+                throw new DuplicatePhoneNumberException(null);
+            }
+            LOG.error("Error saving customers: {}", e.getMessage());
+            throw new RuntimeException("Failed to save customers", e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    LOG.error("Error resetting auto-commit: {}", e.getMessage());
+                }
+            }
+        }
+        return customers;
+    }
+    
+    //Batches report a violation as a BatchUpdateException, with the real cause chained
+    private static boolean isConstraintViolation(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLIntegrityConstraintViolationException
+                    || (t instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("23"))) {
+                return true;
+            }
+        }
+        SQLException next = e.getNextException();
+        return next != null && next != e && isConstraintViolation(next);
+    }
+    
     @Override
     public int getNextCustomerId() {
         try (Connection conn = connectionProvider.getConnection();
@@ -115,11 +217,11 @@ public class CustomerRepository implements ICustomerRepository {
              ResultSet rs = stmt.executeQuery()) {
             
             if (rs.next()) {
-                int maxId = rs.getInt("max_id");
+                int maxId = rs.getInt(1);
                 return maxId >= 1000 ? maxId + 1 : 1000;
             }
         } catch (SQLException e) {
-            System.err.println("Error getting next customer ID: " + e.getMessage());
+            LOG.error("Error getting next customer ID: {}", e.getMessage());
         }
         return 1000;
     }
@@ -132,23 +234,39 @@ public class CustomerRepository implements ICustomerRepository {
             stmt.setString(1, phoneNumber);
             ResultSet rs = stmt.executeQuery();
             
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
-            }
+            return rs.next();
         } catch (SQLException e) {
-            System.err.println("Error checking phone number existence: " + e.getMessage());
+            LOG.error("Error checking phone number existence: {}", e.getMessage());
         }
         return false;
     }
     
-    private Customer mapResultSetToCustomer(ResultSet rs) throws SQLException {
+    @Override
+    public void forEachPhoneNumber(Consumer<String> action) {
+        try (Connection conn = connectionProvider.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(ALL_PHONE_NUMBERS)) {
+            
+            stmt.setFetchSize(PHONE_FETCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    action.accept(rs.getString(1));
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("Error reading phone numbers: {}", e.getMessage());
+            throw new RuntimeException("Failed to read phone numbers", e);
+        }
+    }
+    
+    //Map a row of CUSTOMER_COLUMNS to a Customer
+    private static final RowMapper<Customer> CUSTOMER_MAPPER = rs -> {
         Customer customer = new Customer();
-        customer.setCustomerId(rs.getInt("customer_id"));
-        customer.setName(rs.getString("name"));
-        customer.setAge(rs.getInt("age"));
-        customer.setPhoneNumber(rs.getString("phone_number"));
-        customer.setGender(rs.getString("gender"));
-        customer.setPassword(rs.getString("password"));
+        customer.setCustomerId(rs.getInt(COL_ID));
+        customer.setName(rs.getString(COL_NAME));
+        customer.setAge(rs.getInt(COL_AGE));
+        customer.setPhoneNumber(rs.getString(COL_PHONE));
+        customer.setGender(rs.getString(COL_GENDER));
+        customer.setPassword(rs.getString(COL_PASSWORD));
         return customer;
-    }
+    };
 }
@@ -1,30 +1,67 @@
 package repository.impl;
 
+import java.math.BigDecimal;
 import java.sql.*;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import config.ConnectionProvider;
 import config.DatabaseConnection;
 import model.Food;
+import model.MenuChanges;
 import repository.interfaces.IFoodRepository;
+import util.logging.Logger;
+import util.logging.LoggerFactory;
 
 public class FoodRepository implements IFoodRepository {
     
-    private static final String FIND_BY_ID = "SELECT * FROM foods WHERE food_id = ?";
-    private static final String FIND_BY_NAME = "SELECT * FROM foods WHERE LOWER(food_name) = LOWER(?)";
-    private static final String FIND_ALL = "SELECT * FROM foods ORDER BY food_id";
-    private static final String INSERT = "INSERT INTO foods (food_name, food_price, food_type, quantity) VALUES (?, ?, ?, ?)";
-    private static final String UPDATE = "UPDATE foods SET food_name = ?, food_price = ?, food_type = ?, quantity = ? WHERE food_id = ?";
+    private static final Logger LOG = LoggerFactory.getLogger(FoodRepository.class);
+    
+    //Columns read by FOOD_MAPPER, in index order
+    private static final String FOOD_COLUMNS = "food_id, food_name, food_price, food_type, quantity, updated_at";
+    private static final int COL_ID = 1;
+    private static final int COL_NAME = 2;
+    private static final int COL_PRICE = 3;
+    private static final int COL_TYPE = 4;
+    private static final int COL_QUANTITY = 5;
+    private static final int COL_UPDATED_AT = 6;
+    
+    private static final String FIND_BY_ID = "SELECT " + FOOD_COLUMNS + " FROM foods WHERE food_id = ?";
+    private static final String FIND_BY_NAME = "SELECT " + FOOD_COLUMNS + " FROM foods WHERE LOWER(food_name) = LOWER(?)";
+    private static final String FIND_ALL = "SELECT " + FOOD_COLUMNS + " FROM foods ORDER BY food_id";
+    private static final String FIND_CHANGED_SINCE_VERSION = "SELECT " + FOOD_COLUMNS + " FROM foods WHERE version > ? ORDER BY food_id";
+    private static final String FIND_CHANGED_SINCE = "SELECT " + FOOD_COLUMNS + " FROM foods WHERE updated_at >= ? ORDER BY food_id";
+    private static final String INSERT = "INSERT INTO foods (food_name, food_price, food_type, quantity, version, updated_at) VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP(3))";
+    private static final String UPDATE = "UPDATE foods SET food_name = ?, food_price = ?, food_type = ?, quantity = ?, version = ?, updated_at = CURRENT_TIMESTAMP(3) WHERE food_id = ?";
     private static final String DELETE = "DELETE FROM foods WHERE food_id = ?";
     private static final String GET_MAX_ID = "SELECT MAX(food_id) as max_id FROM foods";
     private static final String EXISTS = "SELECT COUNT(*) FROM foods WHERE food_id = ?";
     private static final String EXISTS_BY_NAME = "SELECT COUNT(*) FROM foods WHERE LOWER(food_name) = LOWER(?)";
-    private static final String UPDATE_QUANTITY = "UPDATE foods SET quantity = quantity - ? WHERE food_id = ? AND quantity >= ?";
+    private static final String UPDATE_QUANTITY = "UPDATE foods SET quantity = quantity - ?, version = ?, updated_at = CURRENT_TIMESTAMP(3) WHERE food_id = ? AND quantity >= ?";
+    private static final String INCREMENT_QUANTITY = "UPDATE foods SET quantity = quantity + ?, version = ?, updated_at = CURRENT_TIMESTAMP(3) WHERE food_id = ?";
+    // Set-based bulk updates; %s is filled with one placeholder per food
+    private static final String MULTIPLY_PRICES = "UPDATE foods SET food_price = GREATEST(ROUND(food_price * ?, 2), 0.01), version = ?, updated_at = CURRENT_TIMESTAMP(3) WHERE food_id IN (%s)";
+    private static final String RESTOCK = "UPDATE foods SET quantity = quantity + CASE food_id %s END, version = ?, updated_at = CURRENT_TIMESTAMP(3) WHERE food_id IN (%s)";
+    // Menu version row: version is bumped by every foods write, removed_version records the last delete
+    private static final String BUMP_VERSION = "UPDATE menu_version SET version = version + 1 WHERE id = 1";
+    private static final String INSERT_VERSION = "INSERT INTO menu_version (id, version, removed_version) VALUES (1, 1, 0)";
+    private static final String GET_VERSION = "SELECT version FROM menu_version WHERE id = 1";
+    private static final String GET_VERSIONS = "SELECT version, removed_version FROM menu_version WHERE id = 1";
+    private static final String MARK_REMOVED = "UPDATE menu_version SET removed_version = ? WHERE id = 1";
     
     private final ConnectionProvider connectionProvider;
     
+    //A write to foods run inside the version bump's transaction; returns the number of foods changed
+    @FunctionalInterface
+    private interface VersionedWrite {
+        int apply(Connection conn, long version) throws SQLException;
+    }
+    
     public FoodRepository() {
         this(DatabaseConnection.getInstance());
     }
@@ -44,10 +81,10 @@ public class FoodRepository implements IFoodRepository {
             ResultSet rs = stmt.executeQuery();
             
             if (rs.next()) {
-                return Optional.of(mapResultSetToFood(rs));
+                return Optional.of(FOOD_MAPPER.map(rs));
             }
         } catch (SQLException e) {
-            System.err.println("Error finding food by ID: " + e.getMessage());
+            LOG.error("Error finding food by ID: {}", e.getMessage());
         }
         return Optional.empty();
     }
@@ -62,10 +99,10 @@ public class FoodRepository implements IFoodRepository {
             ResultSet rs = stmt.executeQuery();
             
             if (rs.next()) {
-                return Optional.of(mapResultSetToFood(rs));
+                return Optional.of(FOOD_MAPPER.map(rs));
             }
         } catch (SQLException e) {
-            System.err.println("Error finding food by name: " + e.getMessage());
+            LOG.error("Error finding food by name: {}", e.getMessage());
         }
         return Optional.empty();
     }
@@ -78,11 +115,9 @@ public class FoodRepository implements IFoodRepository {
              PreparedStatement stmt = conn.prepareStatement(FIND_ALL);
              ResultSet rs = stmt.executeQuery()) {
             
-            while (rs.next()) {
-                foods.add(mapResultSetToFood(rs));
-            }
+            foods.addAll(FOOD_MAPPER.mapAll(rs));
         } catch (SQLException e) {
-            System.err.println("Error finding all foods: " + e.getMessage());
+            LOG.error("Error finding all foods: {}", e.getMessage());
         }
         return foods;
     }
@@ -90,44 +125,83 @@ public class FoodRepository implements IFoodRepository {
     //Save new food to database
     @Override
     public Food save(Food food) {
-        try (Connection conn = connectionProvider.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
-            
-            stmt.setString(1, food.getFoodName());
-            stmt.setBigDecimal(2, food.getFoodPriceDecimal());
-            stmt.setString(3, food.getFoodType());
-            stmt.setInt(4, food.getQuantity());
-            
-            int affectedRows = stmt.executeUpdate();
-            
-            if (affectedRows > 0) {
-                ResultSet generatedKeys = stmt.getGeneratedKeys();
-                if (generatedKeys.next()) {
-                    food.setFoodId(generatedKeys.getInt(1));
+        try {
+            writeVersioned((conn, version) -> {
+                try (PreparedStatement stmt = conn.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                    stmt.setString(1, food.getFoodName());
+                    stmt.setBigDecimal(2, food.getFoodPriceDecimal());
+                    stmt.setString(3, food.getFoodType());
+                    stmt.setInt(4, food.getQuantity());
+                    stmt.setLong(5, version);
+                    
+                    int affectedRows = stmt.executeUpdate();
+                    
+                    if (affectedRows > 0) {
+                        ResultSet generatedKeys = stmt.getGeneratedKeys();
+                        if (generatedKeys.next()) {
+                            food.setFoodId(generatedKeys.getInt(1));
+                        }
+                    }
+                    return affectedRows;
                 }
-            }
+            }, false);
         } catch (SQLException e) {
-            System.err.println("Error saving food: " + e.getMessage());
+            LOG.error("Error saving food: {}", e.getMessage());
             throw new RuntimeException("Failed to save food", e);
         }
         return food;
     }
     
+    //Insert foods as one JDBC batch in a single transaction (with one version bump)
+    @Override
+    public List<Food> saveAll(List<Food> foods) {
+        try {
+            writeVersioned((conn, version) -> {
+                try (PreparedStatement stmt = conn.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                    for (Food food : foods) {
+                        stmt.setString(1, food.getFoodName());
+                        stmt.setBigDecimal(2, food.getFoodPriceDecimal());
+                        stmt.setString(3, food.getFoodType());
+                        stmt.setInt(4, food.getQuantity());
+                        stmt.setLong(5, version);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                    try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                        for (Food food : foods) {
+                            if (generatedKeys.next()) {
+                                food.setFoodId(generatedKeys.getInt(1));
+                            }
+                        }
+                    }
+                    return foods.size();
+                }
+            }, false);
+        } catch (SQLException e) {
+            LOG.error("Error saving foods: {}", e.getMessage());
+            throw new RuntimeException("Failed to save foods", e);
+        }
+        return foods;
+    }
+    
     //Update existing food in database
     @Override
     public Food update(Food food) {
-        try (Connection conn = connectionProvider.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(UPDATE)) {
-            
-            stmt.setString(1, food.getFoodName());
-            stmt.setBigDecimal(2, food.getFoodPriceDecimal());
-            stmt.setString(3, food.getFoodType());
-            stmt.setInt(4, food.getQuantity());
-            stmt.setInt(5, food.getFoodId());
-            
-            stmt.executeUpdate();
+        try {
+            writeVersioned((conn, version) -> {
+                try (PreparedStatement stmt = conn.prepareStatement(UPDATE)) {
+                    stmt.setString(1, food.getFoodName());
+                    stmt.setBigDecimal(2, food.getFoodPriceDecimal());
+                    stmt.setString(3, food.getFoodType());
+                    stmt.setInt(4, food.getQuantity());
+                    stmt.setLong(5, version);
+                    stmt.setInt(6, food.getFoodId());
+                    
+                    return stmt.executeUpdate();
+                }
+            }, false);
         } catch (SQLException e) {
-            System.err.println("Error updating food: " + e.getMessage());
+            LOG.error("Error updating food: {}", e.getMessage());
             throw new RuntimeException("Failed to update food", e);
         }
         return food;
@@ -136,13 +210,15 @@ public class FoodRepository implements IFoodRepository {
     //Delete food by ID    
     @Override
     public boolean deleteById(int foodId) {
-        try (Connection conn = connectionProvider.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(DELETE)) {
-            
-            stmt.setInt(1, foodId);
-            return stmt.executeUpdate() > 0;
+        try {
+            return writeVersioned((conn, version) -> {
+                try (PreparedStatement stmt = conn.prepareStatement(DELETE)) {
+                    stmt.setInt(1, foodId);
+                    return stmt.executeUpdate();
+                }
+            }, true) > 0;
         } catch (SQLException e) {
-            System.err.println("Error deleting food: " + e.getMessage());
+            LOG.error("Error deleting food: {}", e.getMessage());
             return false;
         }
     }
@@ -155,11 +231,11 @@ public class FoodRepository implements IFoodRepository {
              ResultSet rs = stmt.executeQuery()) {
             
             if (rs.next()) {
-                int maxId = rs.getInt("max_id");
+                int maxId = rs.getInt(1);
                 return maxId >= 2000 ? maxId + 1 : 2000;
             }
         } catch (SQLException e) {
-            System.err.println("Error getting next food ID: " + e.getMessage());
+            LOG.error("Error getting next food ID: {}", e.getMessage());
         }
         return 2000;
     }
@@ -177,7 +253,7 @@ public class FoodRepository implements IFoodRepository {
                 return rs.getInt(1) > 0;
             }
         } catch (SQLException e) {
-            System.err.println("Error checking food existence: " + e.getMessage());
+            LOG.error("Error checking food existence: {}", e.getMessage());
         }
         return false;
     }
@@ -195,42 +271,230 @@ public class FoodRepository implements IFoodRepository {
                 return rs.getInt(1) > 0;
             }
         } catch (SQLException e) {
-            System.err.println("Error checking food name existence: " + e.getMessage());
+            LOG.error("Error checking food name existence: {}", e.getMessage());
         }
         return false;
     }
     
     //Decrement food quantity when order is placed
     public boolean decrementQuantity(int foodId, int quantityToDeduct) {
+        try {
+            return writeVersioned((conn, version) -> {
+                try (PreparedStatement stmt = conn.prepareStatement(UPDATE_QUANTITY)) {
+                    stmt.setInt(1, quantityToDeduct);
+                    stmt.setLong(2, version);
+                    stmt.setInt(3, foodId);
+                    stmt.setInt(4, quantityToDeduct); // Check that quantity >= quantityToDeduct
+                    return stmt.executeUpdate();
+                }
+            }, false) > 0;
+        } catch (SQLException e) {
+            LOG.error("Error decrementing food quantity: {}", e.getMessage());
+            return false;
+        }
+    }
+    
+    @Override
+    public boolean incrementQuantity(int foodId, int quantityToAdd) {
+        try {
+            return writeVersioned((conn, version) -> {
+                try (PreparedStatement stmt = conn.prepareStatement(INCREMENT_QUANTITY)) {
+                    stmt.setInt(1, quantityToAdd);
+                    stmt.setLong(2, version);
+                    stmt.setInt(3, foodId);
+                    return stmt.executeUpdate();
+                }
+            }, false) > 0;
+        } catch (SQLException e) {
+            LOG.error("Error incrementing food quantity: {}", e.getMessage());
+            return false;
+        }
+    }
+    
+    //One UPDATE for the whole set of foods
+    @Override
+    public int multiplyPrices(Collection<Integer> foodIds, BigDecimal factor) {
+        if (foodIds.isEmpty()) {
+            return 0;
+        }
+        String sql = String.format(MULTIPLY_PRICES, placeholders(foodIds.size()));
+        try {
+            return writeVersioned((conn, version) -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setBigDecimal(1, factor);
+                    stmt.setLong(2, version);
+                    int index = 3;
+                    for (int foodId : foodIds) {
+                        stmt.setInt(index++, foodId);
+                    }
+                    return stmt.executeUpdate();
+                }
+            }, false);
+        } catch (SQLException e) {
+            LOG.error("Error changing food prices: {}", e.getMessage());
+            throw new RuntimeException("Failed to change food prices", e);
+        }
+    }
+    
+    //One UPDATE for the whole set: quantity + CASE food_id WHEN ? THEN ? ... END
+    @Override
+    public int restock(Map<Integer, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return 0;
+        }
+        String sql = String.format(RESTOCK,
+                String.join(" ", Collections.nCopies(quantities.size(), "WHEN ? THEN ?")),
+                placeholders(quantities.size()));
+        try {
+            return writeVersioned((conn, version) -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    int index = 1;
+                    for (Map.Entry<Integer, Integer> entry : quantities.entrySet()) {
+                        stmt.setInt(index++, entry.getKey());
+                        stmt.setInt(index++, entry.getValue());
+                    }
+                    stmt.setLong(index++, version);
+                    for (int foodId : quantities.keySet()) {
+                        stmt.setInt(index++, foodId);
+                    }
+                    return stmt.executeUpdate();
+                }
+            }, false);
+        } catch (SQLException e) {
+            LOG.error("Error restocking foods: {}", e.getMessage());
+            throw new RuntimeException("Failed to restock foods", e);
+        }
+    }
+    
+    //Range scan on the updated_at index
+    @Override
+    public List<Food> findChangedSince(Instant since) {
+        List<Food> foods = new ArrayList<>();
         try (Connection conn = connectionProvider.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(UPDATE_QUANTITY)) {
+             PreparedStatement stmt = conn.prepareStatement(FIND_CHANGED_SINCE)) {
             
-            stmt.setInt(1, quantityToDeduct);
-            stmt.setInt(2, foodId);
-            stmt.setInt(3, quantityToDeduct); // Check that quantity >= quantityToDeduct
+            stmt.setTimestamp(1, Timestamp.from(since));
+            try (ResultSet rs = stmt.executeQuery()) {
+                foods.addAll(FOOD_MAPPER.mapAll(rs));
+            }
+        } catch (SQLException e) {
+            LOG.error("Error finding changed foods: {}", e.getMessage());
+        }
+        return foods;
+    }
+    
+    //Read from the version row only
+    @Override
+    public long getMenuVersion() {
+        try (Connection conn = connectionProvider.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(GET_VERSION);
+             ResultSet rs = stmt.executeQuery()) {
             
-            int affectedRows = stmt.executeUpdate();
-            return affectedRows > 0;
+            return rs.next() ? rs.getLong(1) : 0;
         } catch (SQLException e) {
-            System.err.println("Error decrementing food quantity: " + e.getMessage());
-            return false;
+            LOG.error("Error reading menu version: {}", e.getMessage());
+            return MenuChanges.UNVERSIONED;
         }
     }
     
-    //Map ResultSet to Food object
-    private Food mapResultSetToFood(ResultSet rs) throws SQLException {
-        Food food = new Food();
-        food.setFoodId(rs.getInt("food_id"));
-        food.setFoodName(rs.getString("food_name"));
-        food.setFoodPrice(rs.getBigDecimal("food_price").doubleValue());
-        food.setFoodType(rs.getString("food_type"));
-        // Handle quantity - use default 0 if column doesn't exist (for backward compatibility)
-        try {
-            food.setQuantity(rs.getInt("quantity"));
+    //Version first, then foods: a write landing in between is fetched again next time, never missed
+    @Override
+    public MenuChanges findMenuChanges(long sinceVersion) {
+        try (Connection conn = connectionProvider.getConnection()) {
+            long version = 0;
+            long removedVersion = 0;
+            try (PreparedStatement stmt = conn.prepareStatement(GET_VERSIONS);
+                 ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    version = rs.getLong(1);
+                    removedVersion = rs.getLong(2);
+                }
+            }
+            // Deleted foods leave nothing to fetch, and a version from the future means the data was reset
+            boolean fullReload = sinceVersion < 0 || removedVersion > sinceVersion || sinceVersion > version;
+            List<Food> foods = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(fullReload ? FIND_ALL : FIND_CHANGED_SINCE_VERSION)) {
+                if (!fullReload) {
+                    stmt.setLong(1, sinceVersion);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    foods.addAll(FOOD_MAPPER.mapAll(rs));
+                }
+            }
+            return fullReload ? MenuChanges.full(version, foods) : MenuChanges.delta(version, foods);
         } catch (SQLException e) {
-            // Column might not exist in older schemas
-            food.setQuantity(0);
+            LOG.error("Error finding menu changes: {}", e.getMessage());
+            return MenuChanges.full(MenuChanges.UNVERSIONED, findAll());
         }
-        return food;
     }
+    
+    //Bump the menu version and run the write in one transaction; nothing is bumped if no food changed
+    private int writeVersioned(VersionedWrite write, boolean removesFoods) throws SQLException {
+        try (Connection conn = connectionProvider.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                long version = nextVersion(conn);
+                int changed = write.apply(conn, version);
+                if (changed > 0 && removesFoods) {
+                    try (PreparedStatement stmt = conn.prepareStatement(MARK_REMOVED)) {
+                        stmt.setLong(1, version);
+                        stmt.executeUpdate();
+                    }
+                }
+                if (changed > 0) {
+                    conn.commit();
+                } else {
+                    conn.rollback();
+                }
+                return changed;
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    LOG.error("Error rolling back transaction: {}", rollbackEx.getMessage());
+                }
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+    
+    //Locks the version row until commit, so versions are handed out in commit order
+    private long nextVersion(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(BUMP_VERSION)) {
+            if (stmt.executeUpdate() == 0) {
+                // Version row not created yet (older schema)
+                try (PreparedStatement insert = conn.prepareStatement(INSERT_VERSION)) {
+                    insert.executeUpdate();
+                }
+                return 1;
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(GET_VERSION);
+             ResultSet rs = stmt.executeQuery()) {
+            if (!rs.next()) {
+                throw new SQLException("Menu version row missing");
+            }
+            return rs.getLong(1);
+        }
+    }
+    
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+    
+    //Map a row of FOOD_COLUMNS to a Food
+    private static final RowMapper<Food> FOOD_MAPPER = rs -> {
+        Food food = new Food();
+        food.setFoodId(rs.getInt(COL_ID));
+        food.setFoodName(rs.getString(COL_NAME));
+        food.setFoodPriceDecimal(rs.getBigDecimal(COL_PRICE));
+        food.setFoodType(rs.getString(COL_TYPE));
+        food.setQuantity(rs.getInt(COL_QUANTITY));
+        Timestamp updatedAt = rs.getTimestamp(COL_UPDATED_AT);
+        food.setUpdatedAt(updatedAt == null ? null : updatedAt.toInstant());
+        return food;
+    };
 }
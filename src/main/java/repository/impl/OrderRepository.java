@@ -1,5 +1,6 @@
 package repository.impl;
 
+import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -9,24 +10,65 @@ import config.ConnectionProvider;
 import config.DatabaseConnection;
 import model.Customer;
 import model.Food;
+import model.Money;
 import model.Order;
 import model.OrderDetails;
+import model.OrderSummary;
 import model.PaymentMethod;
+import repository.interfaces.DuplicateOrderException;
 import repository.interfaces.IOrderRepository;
+import util.logging.Logger;
+import util.logging.LoggerFactory;
 
 public class OrderRepository implements IOrderRepository {
     
-    private static final String FIND_BY_ID = "SELECT * FROM orders WHERE order_id = ?";
-    private static final String FIND_BY_CUSTOMER_ID = "SELECT * FROM orders WHERE customer_id = ? ORDER BY order_date DESC";
-    private static final String FIND_ALL = "SELECT * FROM orders ORDER BY order_date DESC";
+    private static final Logger LOG = LoggerFactory.getLogger(OrderRepository.class);
+    
+    //Columns read by ORDER_MAPPER, in index order
+    private static final String ORDER_COLUMNS = 
+            "order_id, order_date, customer_id, total_price, status, idempotency_key, payment_method_id, payment_type";
+    private static final int COL_ORDER_ID = 1;
+    private static final int COL_ORDER_DATE = 2;
+    private static final int COL_CUSTOMER_ID = 3;
+    private static final int COL_TOTAL_PRICE = 4;
+    private static final int COL_STATUS = 5;
+    private static final int COL_IDEMPOTENCY_KEY = 6;
+    private static final int COL_PAYMENT_METHOD_ID = 7;
+    private static final int COL_PAYMENT_TYPE = 8;
+    
+    private static final String FIND_BY_ID = "SELECT " + ORDER_COLUMNS + " FROM orders WHERE order_id = ?";
+    private static final String FIND_BY_CUSTOMER_ID = "SELECT " + ORDER_COLUMNS + " FROM orders WHERE customer_id = ? ORDER BY order_date DESC";
+    private static final String FIND_ALL = "SELECT " + ORDER_COLUMNS + " FROM orders ORDER BY order_date DESC";
+    private static final String FIND_ALL_SUMMARIES = 
+            "SELECT order_id, customer_id, payment_type, total_price FROM orders ORDER BY order_date DESC";
+    private static final String FIND_BY_IDEMPOTENCY_KEY = "SELECT " + ORDER_COLUMNS + " FROM orders WHERE idempotency_key = ?";
     private static final String INSERT_ORDER = 
-            "INSERT INTO orders (customer_id, total_price, payment_method_id, payment_type, status) VALUES (?, ?, ?, ?, ?)";
+            "INSERT INTO orders (customer_id, total_price, payment_method_id, payment_type, status, idempotency_key) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
     private static final String INSERT_ORDER_DETAIL = 
-            "INSERT INTO order_details (order_id, food_id, quantity, unit_price, subtotal) VALUES (?, ?, ?, ?, ?)";
+            "INSERT INTO order_details (order_id, food_id, quantity, unit_price, subtotal, food_name, food_type) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
     private static final String GET_MAX_ID = "SELECT MAX(order_id) as max_id FROM orders";
+    //Lines carry the food name and type as ordered, so history never reads the foods table
+    private static final int COL_DETAIL_ID = 1;
+    private static final int COL_DETAIL_FOOD_ID = 2;
+    private static final int COL_DETAIL_QUANTITY = 3;
+    private static final int COL_DETAIL_UNIT_PRICE = 4;
+    private static final int COL_DETAIL_FOOD_NAME = 5;
+    private static final int COL_DETAIL_FOOD_TYPE = 6;
     private static final String FIND_ORDER_DETAILS = 
-            "SELECT od.*, f.food_name, f.food_price, f.food_type FROM order_details od " +
-            "INNER JOIN foods f ON od.food_id = f.food_id WHERE od.order_id = ?";
+            "SELECT order_detail_id, food_id, quantity, unit_price, food_name, food_type " +
+            "FROM order_details WHERE order_id = ? ORDER BY order_detail_id";
+    private static final String DETAIL_ID_RANGE = 
+            "SELECT MIN(order_detail_id) AS min_id, MAX(order_detail_id) AS max_id FROM order_details WHERE food_name IS NULL";
+    private static final String BACKFILL_LINE_SNAPSHOTS = 
+            "UPDATE order_details SET " +
+            "food_name = (SELECT f.food_name FROM foods f WHERE f.food_id = order_details.food_id), " +
+            "food_type = (SELECT f.food_type FROM foods f WHERE f.food_id = order_details.food_id) " +
+            "WHERE food_name IS NULL AND order_detail_id BETWEEN ? AND ? " +
+            "AND EXISTS (SELECT 1 FROM foods f WHERE f.food_id = order_details.food_id)";
+    //Lines per backfill statement, so each update holds its row locks only briefly
+    private static final int BACKFILL_BATCH_SIZE = 500;
     
     private final ConnectionProvider connectionProvider;
     
@@ -51,12 +93,12 @@ public class OrderRepository implements IOrderRepository {
             ResultSet rs = stmt.executeQuery();
             
             if (rs.next()) {
-                Order order = mapResultSetToOrder(rs);
-                order.setOrderDetails(findOrderDetails(orderId));
+                Order order = ORDER_MAPPER.map(rs);
+                order.setOrderDetails(findOrderDetails(conn, orderId));
                 return Optional.of(order);
             }
         } catch (SQLException e) {
-            System.err.println("Error finding order by ID: " + e.getMessage());
+            LOG.error("Error finding order by ID: {}", e.getMessage());
         }
         return Optional.empty();
     }
@@ -71,11 +113,11 @@ public class OrderRepository implements IOrderRepository {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Order order = mapResultSetToOrder(rs);
+                Order order = ORDER_MAPPER.map(rs);
                 orders.add(order);
             }
         } catch (SQLException e) {
-            System.err.println("Error finding orders by customer ID: " + e.getMessage());
+            LOG.error("Error finding orders by customer ID: {}", e.getMessage());
             return orders;
         }
 
@@ -84,7 +126,7 @@ public class OrderRepository implements IOrderRepository {
             try {
                 order.setOrderDetails(findOrderDetails(order.getOrderId()));
             } catch (SQLException e) {
-                System.err.println("Error finding order details for order " + order.getOrderId() + ": " + e.getMessage());
+                LOG.error("Error finding order details for order {}: {}", order.getOrderId(), e.getMessage());
             }
         }
         return orders;
@@ -98,11 +140,11 @@ public class OrderRepository implements IOrderRepository {
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                Order order = mapResultSetToOrder(rs);
+                Order order = ORDER_MAPPER.map(rs);
                 orders.add(order);
             }
         } catch (SQLException e) {
-            System.err.println("Error finding all orders: " + e.getMessage());
+            LOG.error("Error finding all orders: {}", e.getMessage());
             return orders;
         }
 
@@ -111,12 +153,48 @@ public class OrderRepository implements IOrderRepository {
             try {
                 order.setOrderDetails(findOrderDetails(order.getOrderId()));
             } catch (SQLException e) {
-                System.err.println("Error finding order details for order " + order.getOrderId() + ": " + e.getMessage());
+                LOG.error("Error finding order details for order {}: {}", order.getOrderId(), e.getMessage());
             }
         }
         return orders;
     }
     
+    //One query and one record per order; no order details are read
+    @Override
+    public List<OrderSummary> findAllSummaries() {
+        List<OrderSummary> summaries = new ArrayList<>();
+        try (Connection conn = connectionProvider.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(FIND_ALL_SUMMARIES);
+             ResultSet rs = stmt.executeQuery()) {
+
+            summaries.addAll(SUMMARY_MAPPER.mapAll(rs));
+        } catch (SQLException e) {
+            LOG.error("Error finding order summaries: {}", e.getMessage());
+        }
+        return summaries;
+    }
+    
+    @Override
+    public Optional<Order> findByIdempotencyKey(String idempotencyKey) {
+        try (Connection conn = connectionProvider.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(FIND_BY_IDEMPOTENCY_KEY)) {
+            
+            stmt.setString(1, idempotencyKey);
+            ResultSet rs = stmt.executeQuery();
+            
+            if (rs.next()) {
+                Order order = ORDER_MAPPER.map(rs);
+                order.setOrderDetails(findOrderDetails(conn, order.getOrderId()));
+                return Optional.of(order);
+            }
+        } catch (SQLException e) {
+            //Not "no order with this key": checkout would charge again
+            LOG.error("Error finding order by idempotency key: {}", e.getMessage());
+            throw new RuntimeException("Failed to find order by idempotency key", e);
+        }
+        return Optional.empty();
+    }
+    
     @Override
     public Order save(Order order) {
         Connection conn = null;
@@ -131,6 +209,7 @@ public class OrderRepository implements IOrderRepository {
                 orderStmt.setInt(3, order.getPaymentMethod().getPaymentMethodId());
                 orderStmt.setString(4, order.getPaymentMethod().getPaymentType());
                 orderStmt.setString(5, order.getStatus());
+                orderStmt.setString(6, order.getIdempotencyKey());
                 
                 orderStmt.executeUpdate();
                 
@@ -149,6 +228,8 @@ public class OrderRepository implements IOrderRepository {
                         detailStmt.setInt(3, detail.getQuantity());
                         detailStmt.setBigDecimal(4, detail.getUnitPriceDecimal());
                         detailStmt.setBigDecimal(5, detail.getSubtotalDecimal());
+                        detailStmt.setString(6, detail.getFoodName());
+                        detailStmt.setString(7, detail.getFoodType());
                         detailStmt.addBatch();
                     }
                     detailStmt.executeBatch();
@@ -161,10 +242,13 @@ public class OrderRepository implements IOrderRepository {
                 try {
                     conn.rollback();
                 } catch (SQLException rollbackEx) {
-                    System.err.println("Error rolling back transaction: " + rollbackEx.getMessage());
+                    LOG.error("Error rolling back transaction: {}", rollbackEx.getMessage());
                 }
             }
-            System.err.println("Error saving order: " + e.getMessage());
+            if (order.getIdempotencyKey() != null && e instanceof SQLIntegrityConstraintViolationException) {
+                throw new DuplicateOrderException(order.getIdempotencyKey());
+            }
+            LOG.error("Error saving order: {}", e.getMessage());
             throw new RuntimeException("Failed to save order", e);
         } finally {
             if (conn != null) {
@@ -172,7 +256,7 @@ public class OrderRepository implements IOrderRepository {
                     conn.setAutoCommit(true);
                     conn.close();
                 } catch (SQLException e) {
-                    System.err.println("Error resetting auto-commit: " + e.getMessage());
+                    LOG.error("Error resetting auto-commit: {}", e.getMessage());
                 }
             }
         }
@@ -186,68 +270,121 @@ public class OrderRepository implements IOrderRepository {
              ResultSet rs = stmt.executeQuery()) {
             
             if (rs.next()) {
-                int maxId = rs.getInt("max_id");
+                int maxId = rs.getInt(1);
                 return maxId >= 1 ? maxId + 1 : 1;
             }
         } catch (SQLException e) {
-            System.err.println("Error getting next order ID: " + e.getMessage());
+            LOG.error("Error getting next order ID: {}", e.getMessage());
         }
         return 1;
     }
     
+    @Override
+    public int backfillLineSnapshots() {
+        int filled = 0;
+        try (Connection conn = connectionProvider.getConnection()) {
+            int[] range;
+            try (PreparedStatement stmt = conn.prepareStatement(DETAIL_ID_RANGE);
+                 ResultSet rs = stmt.executeQuery()) {
+                range = rs.next() ? ID_RANGE_MAPPER.map(rs) : null;
+            }
+            if (range == null) {
+                return 0;
+            }
+            int minId = range[0];
+            int maxId = range[1];
+            //One ID range per statement (auto-commit), so an interrupted run keeps what it filled
+            try (PreparedStatement stmt = conn.prepareStatement(BACKFILL_LINE_SNAPSHOTS)) {
+                for (long from = minId; from <= maxId; from += BACKFILL_BATCH_SIZE) {
+                    stmt.setInt(1, (int) from);
+                    stmt.setInt(2, (int) Math.min(maxId, from + BACKFILL_BATCH_SIZE - 1));
+                    filled += stmt.executeUpdate();
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("Error backfilling order line snapshots: {}", e.getMessage());
+            throw new RuntimeException("Failed to backfill order lines", e);
+        }
+        return filled;
+    }
+    
     /**
-     * Map ResultSet to Order object
+     * Map a row of ORDER_COLUMNS to an Order (without its details)
      */
-    private Order mapResultSetToOrder(ResultSet rs) throws SQLException {
+    private static final RowMapper<Order> ORDER_MAPPER = rs -> {
         Order order = new Order();
-        order.setOrderId(rs.getInt("order_id"));
-        order.setOrderDate(rs.getTimestamp("order_date"));
+        order.setOrderId(rs.getInt(COL_ORDER_ID));
+        order.setOrderDate(rs.getTimestamp(COL_ORDER_DATE));
         
         // Set customer (minimal info)
         Customer customer = new Customer();
-        customer.setCustomerId(rs.getInt("customer_id"));
+        customer.setCustomerId(rs.getInt(COL_CUSTOMER_ID));
         order.setCustomer(customer);
         
-        order.setTotalPrice(rs.getBigDecimal("total_price").doubleValue());
-        order.setStatus(rs.getString("status"));
+        order.setTotalPrice(Money.of(rs.getBigDecimal(COL_TOTAL_PRICE)));
+        order.setStatus(rs.getString(COL_STATUS));
+        order.setIdempotencyKey(rs.getString(COL_IDEMPOTENCY_KEY));
         
         // Set payment method (minimal info)
         PaymentMethod paymentMethod = new PaymentMethod();
-        paymentMethod.setPaymentMethodId(rs.getInt("payment_method_id"));
-        paymentMethod.setPaymentType(rs.getString("payment_type"));
+        paymentMethod.setPaymentMethodId(rs.getInt(COL_PAYMENT_METHOD_ID));
+        paymentMethod.setPaymentType(rs.getString(COL_PAYMENT_TYPE));
         order.setPaymentMethod(paymentMethod);
         
         return order;
-    }
+    };
+    
+    /**
+     * Map a row of FIND_ALL_SUMMARIES (its columns are in OrderSummary's component order)
+     */
+    private static final RowMapper<OrderSummary> SUMMARY_MAPPER = rs -> new OrderSummary(
+            rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getBigDecimal(4));
+    
+    /**
+     * Map the row of DETAIL_ID_RANGE to {min, max}, or null when no line is blank
+     */
+    private static final RowMapper<int[]> ID_RANGE_MAPPER = rs -> {
+        int minId = rs.getInt(1);
+        return rs.wasNull() ? null : new int[] {minId, rs.getInt(2)};
+    };
+    
+    /**
+     * Map a row of FIND_ORDER_DETAILS: the food as it was ordered, priced at what was paid
+     */
+    private static final RowMapper<OrderDetails> DETAIL_MAPPER = rs -> {
+        BigDecimal unitPrice = rs.getBigDecimal(COL_DETAIL_UNIT_PRICE);
+        Food food = new Food();
+        food.setFoodId(rs.getInt(COL_DETAIL_FOOD_ID));
+        food.setFoodName(rs.getString(COL_DETAIL_FOOD_NAME));
+        food.setFoodPriceDecimal(unitPrice);
+        food.setFoodType(rs.getString(COL_DETAIL_FOOD_TYPE));
+        OrderDetails detail = new OrderDetails(rs.getInt(COL_DETAIL_ID), food, rs.getInt(COL_DETAIL_QUANTITY), unitPrice);
+        detail.setFoodName(food.getFoodName());
+        detail.setFoodType(food.getFoodType());
+        return detail;
+    };
     
     /**
      * Find order details for an order
      */
     private List<OrderDetails> findOrderDetails(int orderId) throws SQLException {
+        try (Connection conn = connectionProvider.getConnection()) {
+            return findOrderDetails(conn, orderId);
+        }
+    }
+    
+    /**
+     * Find order details for an order on a connection the caller already holds,
+     * so a lookup never waits on the pool for a second connection
+     */
+    private List<OrderDetails> findOrderDetails(Connection conn, int orderId) throws SQLException {
         List<OrderDetails> details = new ArrayList<>();
-        try (Connection conn = connectionProvider.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(FIND_ORDER_DETAILS)) {
+        try (PreparedStatement stmt = conn.prepareStatement(FIND_ORDER_DETAILS)) {
             
             stmt.setInt(1, orderId);
             ResultSet rs = stmt.executeQuery();
             
-            while (rs.next()) {
-                // Build Food domain object from joined columns
-                Food food = new Food();
-                food.setFoodId(rs.getInt("food_id"));
-                food.setFoodName(rs.getString("food_name"));
-                food.setFoodPrice(rs.getBigDecimal("food_price").doubleValue());
-                food.setFoodType(rs.getString("food_type"));
-                
-                // Create OrderDetails
-                OrderDetails detail = new OrderDetails(
-                    rs.getInt("order_detail_id"),
-                    food,
-                    rs.getInt("quantity"),
-                    rs.getBigDecimal("unit_price")
-                );
-                details.add(detail);
-            }
+            details.addAll(DETAIL_MAPPER.mapAll(rs));
         }
         return details;
     }
@@ -2,26 +2,49 @@ package repository.impl;
 
 import java.math.BigDecimal;
 import java.sql.*;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 import config.ConnectionProvider;
 import config.DatabaseConnection;
+import model.Money;
 import model.PaymentMethod;
+import model.PaymentTransaction;
 import repository.interfaces.IPaymentMethodRepository;
+import util.logging.Logger;
+import util.logging.LoggerFactory;
 
 public class PaymentMethodRepository implements IPaymentMethodRepository {
     
-    private static final String FIND_BY_ID = "SELECT * FROM payment_methods WHERE payment_method_id = ?";
-    private static final String FIND_BY_WALLET_ID = "SELECT * FROM payment_methods WHERE wallet_id = ?";
-    private static final String FIND_BY_CARD_NUMBER = "SELECT * FROM payment_methods WHERE card_number = ?";
-    private static final String AUTH_BY_WALLET_ID = 
-            "SELECT * FROM payment_methods WHERE wallet_id = ? AND password = ?";
-    private static final String AUTH_BY_CARD_NUMBER = 
-            "SELECT * FROM payment_methods WHERE card_number = ? AND password = ?";
+    private static final Logger LOG = LoggerFactory.getLogger(PaymentMethodRepository.class);
+    
+    //Columns read by PAYMENT_METHOD_MAPPER, in index order
+    private static final String PAYMENT_METHOD_COLUMNS =
+            "payment_method_id, password, payment_type, wallet_id, balance, card_number, expiry_date";
+    private static final int COL_ID = 1;
+    private static final int COL_PASSWORD = 2;
+    private static final int COL_TYPE = 3;
+    private static final int COL_WALLET_ID = 4;
+    private static final int COL_BALANCE = 5;
+    private static final int COL_CARD_NUMBER = 6;
+    private static final int COL_EXPIRY_DATE = 7;
+    
+    private static final String FIND_BY_ID = "SELECT " + PAYMENT_METHOD_COLUMNS + " FROM payment_methods WHERE payment_method_id = ?";
+    private static final String FIND_BY_WALLET_ID = "SELECT " + PAYMENT_METHOD_COLUMNS + " FROM payment_methods WHERE wallet_id = ?";
+    private static final String FIND_BY_CARD_NUMBER = "SELECT " + PAYMENT_METHOD_COLUMNS + " FROM payment_methods WHERE card_number = ?";
     private static final String INSERT = 
             "INSERT INTO payment_methods (password, payment_type, wallet_id, balance, card_number, expiry_date) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_PASSWORD = 
+            "UPDATE payment_methods SET password = ? WHERE payment_method_id = ?";
     private static final String UPDATE_BALANCE = 
             "UPDATE payment_methods SET balance = ? WHERE payment_method_id = ?";
+    //Only moves the balance if nobody changed it since it was read
+    private static final String APPLY_TRANSACTION = 
+            "UPDATE payment_methods SET balance = ? WHERE payment_method_id = ? AND balance = ?";
+    private static final String FIND_ALL_BALANCES = 
+            "SELECT payment_method_id, balance FROM payment_methods";
     
     private final ConnectionProvider connectionProvider;
     
@@ -42,10 +65,10 @@ public class PaymentMethodRepository implements IPaymentMethodRepository {
             ResultSet rs = stmt.executeQuery();
             
             if (rs.next()) {
-                return Optional.of(mapResultSetToPaymentMethod(rs));
+                return Optional.of(PAYMENT_METHOD_MAPPER.map(rs));
             }
         } catch (SQLException e) {
-            System.err.println("Error finding payment method by ID: " + e.getMessage());
+            LOG.error("Error finding payment method by ID: {}", e.getMessage());
         }
         return Optional.empty();
     }
@@ -59,10 +82,12 @@ public class PaymentMethodRepository implements IPaymentMethodRepository {
             ResultSet rs = stmt.executeQuery();
             
             if (rs.next()) {
-                return Optional.of(mapResultSetToPaymentMethod(rs));
+                return Optional.of(PAYMENT_METHOD_MAPPER.map(rs));
             }
         } catch (SQLException e) {
-            System.err.println("Error finding payment method by wallet ID: " + e.getMessage());
+            //Not "no such wallet": the credential cache would remember that
+            LOG.error("Error finding payment method by wallet ID: {}", e.getMessage());
+            throw new RuntimeException("Failed to find payment method by wallet ID", e);
         }
         return Optional.empty();
     }
@@ -76,46 +101,12 @@ public class PaymentMethodRepository implements IPaymentMethodRepository {
             ResultSet rs = stmt.executeQuery();
             
             if (rs.next()) {
-                return Optional.of(mapResultSetToPaymentMethod(rs));
-            }
-        } catch (SQLException e) {
-            System.err.println("Error finding payment method by card number: " + e.getMessage());
-        }
-        return Optional.empty();
-    }
-    
-    @Override
-    public Optional<PaymentMethod> authenticateByWalletId(String walletId, String hashedPassword) {
-        try (Connection conn = connectionProvider.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(AUTH_BY_WALLET_ID)) {
-            
-            stmt.setString(1, walletId);
-            stmt.setString(2, hashedPassword);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return Optional.of(mapResultSetToPaymentMethod(rs));
-            }
-        } catch (SQLException e) {
-            System.err.println("Error authenticating by wallet ID: " + e.getMessage());
-        }
-        return Optional.empty();
-    }
-    
-    @Override
-    public Optional<PaymentMethod> authenticateByCardNumber(String cardNumber, String hashedPassword) {
-        try (Connection conn = connectionProvider.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(AUTH_BY_CARD_NUMBER)) {
-            
-            stmt.setString(1, cardNumber);
-            stmt.setString(2, hashedPassword);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return Optional.of(mapResultSetToPaymentMethod(rs));
+                return Optional.of(PAYMENT_METHOD_MAPPER.map(rs));
             }
         } catch (SQLException e) {
-            System.err.println("Error authenticating by card number: " + e.getMessage());
+            //Not "no such card": the credential cache would remember that
+            LOG.error("Error finding payment method by card number: {}", e.getMessage());
+            throw new RuntimeException("Failed to find payment method by card number", e);
         }
         return Optional.empty();
     }
@@ -141,39 +132,177 @@ public class PaymentMethodRepository implements IPaymentMethodRepository {
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Error saving payment method: " + e.getMessage());
+            LOG.error("Error saving payment method: {}", e.getMessage());
             throw new RuntimeException("Failed to save payment method", e);
         }
         return paymentMethod;
     }
     
+    @Override
+    public List<PaymentMethod> saveAll(List<PaymentMethod> paymentMethods) {
+        Connection conn = null;
+        try {
+            conn = connectionProvider.getConnection();
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                for (PaymentMethod paymentMethod : paymentMethods) {
+                    stmt.setString(1, paymentMethod.getPassword());
+                    stmt.setString(2, paymentMethod.getPaymentType());
+                    stmt.setString(3, paymentMethod.getWalletId());
+                    stmt.setBigDecimal(4, paymentMethod.getBalanceDecimal());
+                    stmt.setString(5, paymentMethod.getCardNumber());
+                    stmt.setString(6, paymentMethod.getExpiryDate());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    for (PaymentMethod paymentMethod : paymentMethods) {
+                        if (generatedKeys.next()) {
+                            paymentMethod.setPaymentMethodId(generatedKeys.getInt(1));
+                        }
+                    }
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    LOG.error("Error rolling back transaction: {}", rollbackEx.getMessage());
+                }
+            }
+            LOG.error("Error saving payment methods: {}", e.getMessage());
+            throw new RuntimeException("Failed to save payment methods", e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    LOG.error("Error resetting auto-commit: {}", e.getMessage());
+                }
+            }
+        }
+        return paymentMethods;
+    }
+    
+    @Override
+    public boolean updatePassword(int paymentMethodId, String passwordHash) {
+        try (Connection conn = connectionProvider.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_PASSWORD)) {
+            
+            stmt.setString(1, passwordHash);
+            stmt.setInt(2, paymentMethodId);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            LOG.error("Error updating payment method password: {}", e.getMessage());
+            return false;
+        }
+    }
+    
     @Override
     public boolean updateBalance(int paymentMethodId, double newBalance) {
+        return updateBalance(paymentMethodId, Money.of(newBalance));
+    }
+
+    @Override
+    public boolean updateBalance(int paymentMethodId, Money newBalance) {
         try (Connection conn = connectionProvider.getConnection();
              PreparedStatement stmt = conn.prepareStatement(UPDATE_BALANCE)) {
             
-            stmt.setBigDecimal(1, BigDecimal.valueOf(newBalance));
+            stmt.setBigDecimal(1, newBalance.toBigDecimal());
             stmt.setInt(2, paymentMethodId);
             
             return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
-            System.err.println("Error updating payment method balance: " + e.getMessage());
+            LOG.error("Error updating payment method balance: {}", e.getMessage());
+            return false;
+        }
+    }
+    
+    @Override
+    public boolean applyTransaction(PaymentTransaction transaction) {
+        Connection conn = null;
+        try {
+            conn = connectionProvider.getConnection();
+            conn.setAutoCommit(false);
+            
+            // Balance update and ledger row commit or roll back together
+            try (PreparedStatement updateStmt = conn.prepareStatement(APPLY_TRANSACTION);
+                 PreparedStatement ledgerStmt = conn.prepareStatement(
+                         PaymentTransactionRepository.INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                updateStmt.setBigDecimal(1, transaction.getBalanceAfter().toBigDecimal());
+                updateStmt.setInt(2, transaction.getPaymentMethodId());
+                updateStmt.setBigDecimal(3, transaction.getBalanceBefore().toBigDecimal());
+                if (updateStmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    LOG.warn("Balance of payment method {} changed before {} could be applied",
+                            transaction.getPaymentMethodId(), transaction.getTransactionType());
+                    return false;
+                }
+                PaymentTransactionRepository.insert(ledgerStmt, transaction);
+            }
+            
+            conn.commit();
+            return true;
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    LOG.error("Error rolling back transaction: {}", rollbackEx.getMessage());
+                }
+            }
+            LOG.error("Error applying payment transaction: {}", e.getMessage());
             return false;
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    LOG.error("Error resetting auto-commit: {}", e.getMessage());
+                }
+            }
+        }
+    }
+    
+    @Override
+    public Map<Integer, Money> findAllBalances() {
+        Map<Integer, Money> balances = new TreeMap<>();
+        try (Connection conn = connectionProvider.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(FIND_ALL_BALANCES)) {
+            
+            ResultSet rs = stmt.executeQuery();
+            for (Map.Entry<Integer, Money> balance : BALANCE_MAPPER.mapAll(rs)) {
+                balances.put(balance.getKey(), balance.getValue());
+            }
+        } catch (SQLException e) {
+            LOG.error("Error reading payment method balances: {}", e.getMessage());
+            throw new RuntimeException("Failed to read payment method balances", e);
         }
+        return balances;
     }
     
     /**
-     * Map ResultSet to PaymentMethod object
+     * Map a row of FIND_ALL_BALANCES to its payment method ID and balance
      */
-    private PaymentMethod mapResultSetToPaymentMethod(ResultSet rs) throws SQLException {
+    private static final RowMapper<Map.Entry<Integer, Money>> BALANCE_MAPPER = rs -> Map.entry(
+            rs.getInt(1), Money.of(rs.getBigDecimal(2)));
+    
+    /**
+     * Map a row of PAYMENT_METHOD_COLUMNS to a PaymentMethod
+     */
+    private static final RowMapper<PaymentMethod> PAYMENT_METHOD_MAPPER = rs -> {
         PaymentMethod paymentMethod = new PaymentMethod();
-        paymentMethod.setPaymentMethodId(rs.getInt("payment_method_id"));
-        paymentMethod.setPassword(rs.getString("password"));
-        paymentMethod.setPaymentType(rs.getString("payment_type"));
-        paymentMethod.setWalletId(rs.getString("wallet_id"));
-        paymentMethod.setBalance(rs.getBigDecimal("balance").doubleValue());
-        paymentMethod.setCardNumber(rs.getString("card_number"));
-        paymentMethod.setExpiryDate(rs.getString("expiry_date"));
+        paymentMethod.setPaymentMethodId(rs.getInt(COL_ID));
+        paymentMethod.setPassword(rs.getString(COL_PASSWORD));
+        paymentMethod.setPaymentType(rs.getString(COL_TYPE));
+        paymentMethod.setWalletId(rs.getString(COL_WALLET_ID));
+        paymentMethod.setBalanceDecimal(rs.getBigDecimal(COL_BALANCE));
+        paymentMethod.setCardNumber(rs.getString(COL_CARD_NUMBER));
+        paymentMethod.setExpiryDate(rs.getString(COL_EXPIRY_DATE));
         return paymentMethod;
-    }
+    };
 }
@@ -0,0 +1,177 @@
+package repository.impl;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import config.ConnectionProvider;
+import config.DatabaseConnection;
+import model.Money;
+import model.PaymentTransaction;
+import repository.interfaces.IPaymentTransactionRepository;
+import util.logging.Logger;
+import util.logging.LoggerFactory;
+
+public class PaymentTransactionRepository implements IPaymentTransactionRepository {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PaymentTransactionRepository.class);
+
+    static final String INSERT =
+            "INSERT INTO payment_transactions (payment_method_id, transaction_type, amount, balance_after, reference) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    //Columns read by TRANSACTION_MAPPER, in index order
+    private static final String TRANSACTION_COLUMNS =
+            "transaction_id, payment_method_id, transaction_type, amount, balance_after, reference, created_at";
+    private static final int COL_ID = 1;
+    private static final int COL_PAYMENT_METHOD_ID = 2;
+    private static final int COL_TYPE = 3;
+    private static final int COL_AMOUNT = 4;
+    private static final int COL_BALANCE_AFTER = 5;
+    private static final int COL_REFERENCE = 6;
+    private static final int COL_CREATED_AT = 7;
+    
+    private static final String FIND_BY_PAYMENT_METHOD_ID =
+            "SELECT " + TRANSACTION_COLUMNS + " FROM payment_transactions WHERE payment_method_id = ? ORDER BY transaction_id";
+    private static final String FIND_ALL_IN_ACCOUNT_ORDER =
+            "SELECT " + TRANSACTION_COLUMNS + " FROM payment_transactions ORDER BY payment_method_id, transaction_id";
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private final ConnectionProvider connectionProvider;
+
+    public PaymentTransactionRepository(ConnectionProvider connectionProvider) {
+        this.connectionProvider = connectionProvider;
+    }
+
+    public PaymentTransactionRepository() {
+        this(DatabaseConnection.getInstance());
+    }
+
+    @Override
+    public PaymentTransaction append(PaymentTransaction transaction) {
+        try (Connection conn = connectionProvider.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            insert(stmt, transaction);
+        } catch (SQLException e) {
+            LOG.error("Error appending payment transaction: {}", e.getMessage());
+            throw new RuntimeException("Failed to append payment transaction", e);
+        }
+        return transaction;
+    }
+
+    @Override
+    public int appendAll(List<PaymentTransaction> transactions) {
+        if (transactions == null || transactions.isEmpty()) {
+            return 0;
+        }
+        Connection conn = null;
+        try {
+            conn = connectionProvider.getConnection();
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT)) {
+                for (PaymentTransaction transaction : transactions) {
+                    bind(stmt, transaction);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            conn.commit();
+            return transactions.size();
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    LOG.error("Error rolling back ledger batch: {}", rollbackEx.getMessage());
+                }
+            }
+            LOG.error("Error appending payment transaction batch: {}", e.getMessage());
+            return 0;
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    LOG.error("Error resetting auto-commit: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<PaymentTransaction> findByPaymentMethodId(int paymentMethodId) {
+        List<PaymentTransaction> transactions = new ArrayList<>();
+        try (Connection conn = connectionProvider.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(FIND_BY_PAYMENT_METHOD_ID)) {
+
+            stmt.setInt(1, paymentMethodId);
+            ResultSet rs = stmt.executeQuery();
+
+            transactions.addAll(TRANSACTION_MAPPER.mapAll(rs));
+        } catch (SQLException e) {
+            LOG.error("Error finding payment transactions: {}", e.getMessage());
+        }
+        return transactions;
+    }
+
+    @Override
+    public void forEachInAccountOrder(Consumer<PaymentTransaction> action) {
+        try (Connection conn = connectionProvider.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(FIND_ALL_IN_ACCOUNT_ORDER,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            // Forward-only with a fetch size: over the production URL (useCursorFetch=true) MySQL
+            // streams STREAM_FETCH_SIZE rows per round trip instead of buffering the whole ledger
+            stmt.setFetchSize(STREAM_FETCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    action.accept(TRANSACTION_MAPPER.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("Error streaming payment transactions: {}", e.getMessage());
+            throw new RuntimeException("Failed to read payment ledger", e);
+        }
+    }
+
+    /**
+     * Insert one entry with a statement prepared from INSERT (with generated keys);
+     * shared with PaymentMethodRepository so a debit and its ledger row commit together
+     */
+    static void insert(PreparedStatement stmt, PaymentTransaction transaction) throws SQLException {
+        bind(stmt, transaction);
+        stmt.executeUpdate();
+        try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+            if (generatedKeys.next()) {
+                transaction.setTransactionId(generatedKeys.getLong(1));
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement stmt, PaymentTransaction transaction) throws SQLException {
+        stmt.setInt(1, transaction.getPaymentMethodId());
+        stmt.setString(2, transaction.getTransactionType());
+        stmt.setBigDecimal(3, transaction.getAmount().toBigDecimal());
+        stmt.setBigDecimal(4, transaction.getBalanceAfter().toBigDecimal());
+        stmt.setString(5, transaction.getReference());
+    }
+
+    /**
+     * Map a row of TRANSACTION_COLUMNS to a PaymentTransaction
+     */
+    private static final RowMapper<PaymentTransaction> TRANSACTION_MAPPER = rs -> {
+        PaymentTransaction transaction = new PaymentTransaction(
+                rs.getInt(COL_PAYMENT_METHOD_ID),
+                rs.getString(COL_TYPE),
+                Money.of(rs.getBigDecimal(COL_AMOUNT)),
+                Money.of(rs.getBigDecimal(COL_BALANCE_AFTER)),
+                rs.getString(COL_REFERENCE));
+        transaction.setTransactionId(rs.getLong(COL_ID));
+        Timestamp createdAt = rs.getTimestamp(COL_CREATED_AT);
+        if (createdAt != null) {
+            transaction.setCreatedAt(new java.util.Date(createdAt.getTime()));
+        }
+        return transaction;
+    };
+}
@@ -0,0 +1,28 @@
+package repository.impl;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds one object from the current row of a ResultSet.
+ * Repositories select an explicit column list and read it by position
+ * (JDBC indices start at 1), so no column name is resolved per row and a
+ * missing column fails when the statement is prepared, not once per row.
+ * Keep each mapper next to the column list it reads.
+ */
+@FunctionalInterface
+interface RowMapper<T> {
+
+    T map(ResultSet rs) throws SQLException;
+
+    //Map every remaining row
+    default List<T> mapAll(ResultSet rs) throws SQLException {
+        List<T> rows = new ArrayList<>();
+        while (rs.next()) {
+            rows.add(map(rs));
+        }
+        return rows;
+    }
+}
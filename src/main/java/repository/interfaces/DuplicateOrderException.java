@@ -0,0 +1,21 @@
+package repository.interfaces;
+
+/**
+ * Raised by IOrderRepository.save when another order already holds the
+ * same idempotency key (the unique index rejected the insert).
+ */
+public class DuplicateOrderException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String idempotencyKey;
+
+    public DuplicateOrderException(String idempotencyKey) {
+        super("An order with idempotency key " + idempotencyKey + " already exists");
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+}
@@ -0,0 +1,23 @@
+package repository.interfaces;
+
+/**
+ * Raised by ICustomerRepository.save when another customer already has the
+ * phone number (the unique index rejected the insert). From saveAll the
+ * offending number is not known, so getPhoneNumber() is null.
+ */
+public class DuplicatePhoneNumberException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String phoneNumber;
+
+    public DuplicatePhoneNumberException(String phoneNumber) {
+        super(phoneNumber == null ? "A phone number in this batch is already registered"
+                : "Phone number " + phoneNumber + " is already registered");
+        this.phoneNumber = phoneNumber;
+    }
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+}
@@ -1,5 +1,12 @@
 package repository.interfaces;
 
+import java.util.Optional;
+
 public interface IAdminRepository {
-    boolean authenticate(String name, String password);
+    //Stored password hash for the admin, if the name exists; verified by the caller, never compared in SQL.
+    //Throws if the database cannot be read, so a failure is never taken for an unknown name
+    Optional<String> findPasswordHash(String name);
+
+    //Replace the stored password hash (e.g. upgrading its format after login)
+    boolean updatePassword(String name, String passwordHash);
 }
\ No newline at end of file
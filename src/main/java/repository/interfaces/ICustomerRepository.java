@@ -1,6 +1,8 @@
 package repository.interfaces;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import model.Customer;
 
@@ -12,15 +14,28 @@ public interface ICustomerRepository {
     //find customer by phone number
     Optional<Customer> findByPhoneNumber(String phoneNumber);
     
-    //authenticate customer
-    Optional<Customer> authenticate(int customerId, String password);
+    //stored password hash for login, verified by the caller (never compared in SQL);
+    //throws if the database cannot be read, so a failure is never taken for an unknown customer
+    Optional<String> findPasswordHash(int customerId);
     
-    //save customer
+    //replace the stored password hash (e.g. upgrading its format after login)
+    boolean updatePassword(int customerId, String passwordHash);
+    
+    //save customer; throws DuplicatePhoneNumberException if the phone number is taken
     Customer save(Customer customer);
     
+    //save many customers in one transaction (all or none), setting their generated IDs
+    default List<Customer> saveAll(List<Customer> customers) {
+        customers.forEach(this::save);
+        return customers;
+    }
+    
     //get next customer ID
     int getNextCustomerId();
     
     //check phone number exists or not
     boolean existsByPhoneNumber(String phoneNumber);
+    
+    //stream every registered phone number (e.g. to build an in-memory filter)
+    void forEachPhoneNumber(Consumer<String> action);
 }
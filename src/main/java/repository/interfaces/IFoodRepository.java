@@ -1,11 +1,18 @@
 package repository.interfaces;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import model.Food;
+import model.MenuChanges;
 
 public interface IFoodRepository {
+
     //Find food by ID
     Optional<Food> findById(int foodId);
     
@@ -18,6 +25,12 @@ public interface IFoodRepository {
     //Save food (create or update)
     Food save(Food food);
     
+    //Save many foods in one transaction (all or none), setting their generated IDs
+    default List<Food> saveAll(List<Food> foods) {
+        foods.forEach(this::save);
+        return foods;
+    }
+    
     //Update food
     Food update(Food food);
     
@@ -35,4 +48,48 @@ public interface IFoodRepository {
     
     //Decrement food quantity when order is placed
     boolean decrementQuantity(int foodId, int quantityToDeduct);
+    
+    //Put quantity back, e.g. when a checkout is rolled back
+    boolean incrementQuantity(int foodId, int quantityToAdd);
+    
+    //Multiply the prices of the given foods by a factor (rounded to cents, never below 0.01); returns rows changed
+    default int multiplyPrices(Collection<Integer> foodIds, BigDecimal factor) {
+        int changed = 0;
+        for (int foodId : foodIds) {
+            Optional<Food> food = findById(foodId);
+            if (food.isPresent()) {
+                BigDecimal price = food.get().getFoodPriceDecimal().multiply(factor).setScale(2, RoundingMode.HALF_UP);
+                food.get().setFoodPrice(price.max(new BigDecimal("0.01")).doubleValue());
+                update(food.get());
+                changed++;
+            }
+        }
+        return changed;
+    }
+    
+    //Current menu version, bumped by every write to foods (stock changes included); read from a single row
+    default long getMenuVersion() {
+        return MenuChanges.UNVERSIONED;
+    }
+    
+    //Foods changed since a menu version, or the whole menu if foods were removed since (see MenuChanges)
+    default MenuChanges findMenuChanges(long sinceVersion) {
+        return MenuChanges.full(getMenuVersion(), findAll());
+    }
+    
+    //Foods written at or after a time (inclusive, ordered by ID); deleted foods are not reported
+    default List<Food> findChangedSince(Instant since) {
+        return findAll();
+    }
+    
+    //Add stock to many foods at once (food ID to quantity added); returns rows changed
+    default int restock(Map<Integer, Integer> quantities) {
+        int changed = 0;
+        for (Map.Entry<Integer, Integer> entry : quantities.entrySet()) {
+            if (incrementQuantity(entry.getKey(), entry.getValue())) {
+                changed++;
+            }
+        }
+        return changed;
+    }
 }
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 
 import model.Order;
+import model.OrderSummary;
 
 public interface IOrderRepository {
     
@@ -16,9 +17,20 @@ public interface IOrderRepository {
     //Find all orders
     List<Order> findAll();
     
-    //Save order (create)
+    //Summaries of all orders, newest first, for list screens (no customers, payment methods or lines)
+    default List<OrderSummary> findAllSummaries() {
+        return findAll().stream().map(OrderSummary::of).toList();
+    }
+    
+    //Find the order created with a client-supplied idempotency key; throws if the database cannot be read
+    Optional<Order> findByIdempotencyKey(String idempotencyKey);
+    
+    //Save order (create); throws DuplicateOrderException if its idempotency key is taken
     Order save(Order order);
     
     //Get next available order ID
     int getNextOrderId();
+    
+    //Copy food name and type onto order lines saved before lines stored them; returns lines filled
+    int backfillLineSnapshots();
 }
@@ -1,8 +1,12 @@
 package repository.interfaces;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import model.Money;
 import model.PaymentMethod;
+import model.PaymentTransaction;
 
 public interface IPaymentMethodRepository {
     
@@ -12,32 +16,56 @@ public interface IPaymentMethodRepository {
     Optional<PaymentMethod> findById(int paymentMethodId);
     
     /**
-     * Find payment method by wallet ID (for TNG/Grab)
+     * Find payment method by wallet ID (for TNG/Grab).
+     * Throws if the database cannot be read; empty means the wallet does not exist
      */
     Optional<PaymentMethod> findByWalletId(String walletId);
     
     /**
-     * Find payment method by card number (for Bank)
+     * Find payment method by card number (for Bank).
+     * Throws if the database cannot be read; empty means the card does not exist
      */
     Optional<PaymentMethod> findByCardNumber(String cardNumber);
     
     /**
-     * Authenticate payment method by wallet ID and password
+     * Save payment method (create or update)
      */
-    Optional<PaymentMethod> authenticateByWalletId(String walletId, String hashedPassword);
-    
+    PaymentMethod save(PaymentMethod paymentMethod);
+
     /**
-     * Authenticate payment method by card number and password
+     * Save many payment methods in one transaction (all or none), setting their generated IDs
      */
-    Optional<PaymentMethod> authenticateByCardNumber(String cardNumber, String hashedPassword);
+    default List<PaymentMethod> saveAll(List<PaymentMethod> paymentMethods) {
+        paymentMethods.forEach(this::save);
+        return paymentMethods;
+    }
     
     /**
-     * Save payment method (create or update)
+     * Replace the stored password hash (e.g. upgrading its format after login)
      */
-    PaymentMethod save(PaymentMethod paymentMethod);
+    boolean updatePassword(int paymentMethodId, String passwordHash);
     
     /**
      * Update payment method balance
      */
     boolean updateBalance(int paymentMethodId, double newBalance);
+
+    /**
+     * Update payment method balance with an exact amount
+     */
+    default boolean updateBalance(int paymentMethodId, Money newBalance) {
+        return updateBalance(paymentMethodId, newBalance.toDouble());
+    }
+
+    /**
+     * Move the balance from transaction.getBalanceBefore() to getBalanceAfter() and record
+     * the ledger entry, both or neither. Returns false (changing nothing) if the stored
+     * balance is no longer getBalanceBefore().
+     */
+    boolean applyTransaction(PaymentTransaction transaction);
+
+    /**
+     * Current balance of every payment method, keyed by payment method ID
+     */
+    Map<Integer, Money> findAllBalances();
 }
@@ -0,0 +1,30 @@
+package repository.interfaces;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import model.PaymentTransaction;
+
+public interface IPaymentTransactionRepository {
+
+    /**
+     * Append a single ledger entry
+     */
+    PaymentTransaction append(PaymentTransaction transaction);
+
+    /**
+     * Append many ledger entries as one JDBC batch in one transaction
+     * Returns the number of entries written (0 if the batch was rolled back)
+     */
+    int appendAll(List<PaymentTransaction> transactions);
+
+    /**
+     * Ledger entries for one payment method, oldest first
+     */
+    List<PaymentTransaction> findByPaymentMethodId(int paymentMethodId);
+
+    /**
+     * Stream the whole ledger ordered by payment method then entry, one row at a time
+     */
+    void forEachInAccountOrder(Consumer<PaymentTransaction> action);
+}
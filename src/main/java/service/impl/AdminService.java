@@ -2,14 +2,25 @@ package service.impl;
 
 import service.interfaces.IAdminService;
 import repository.interfaces.IAdminRepository;
+import util.CredentialCache;
+import util.LoginThrottle;
 import util.PasswordUtil;
 
 public class AdminService implements IAdminService {
     
     private final IAdminRepository adminRepository;
+    // Stored hashes by admin name; wrong passwords are rejected here without a query
+    private final CredentialCache<String> credentials = new CredentialCache<>();
+    // Attempts per "ADMIN:" + name, refused before the hash is loaded or checked
+    private final LoginThrottle<String> throttle;
 
     public AdminService(IAdminRepository adminRepository) {
+        this(adminRepository, new LoginThrottle<>());
+    }
+
+    public AdminService(IAdminRepository adminRepository, LoginThrottle<String> throttle) {
         this.adminRepository = adminRepository;
+        this.throttle = throttle;
     }
 
     @Override
@@ -17,8 +28,22 @@ public class AdminService implements IAdminService {
         if (name == null || password == null) {
             return false;
         }
-        //Hash the input password before authentication
-        String hashedPassword = PasswordUtil.hashPassword(password);
-        return adminRepository.authenticate(name, hashedPassword);
+        String throttleKey = "ADMIN:" + name;
+        if (!throttle.tryAcquire(throttleKey)) {
+            return false;
+        }
+        //Verify in Java against the cached hash, whichever format it is in
+        if (!credentials.verify(name, password, () -> adminRepository.findPasswordHash(name))) {
+            return false;
+        }
+        throttle.refund(throttleKey);
+        //Replace a legacy or weaker hash now that the plain password is known
+        if (credentials.needsRehash(name)) {
+            String upgraded = PasswordUtil.hash(password);
+            if (adminRepository.updatePassword(name, upgraded)) {
+                credentials.update(name, upgraded);
+            }
+        }
+        return true;
     }
 }
\ No newline at end of file
@@ -1,70 +1,176 @@
 package service.impl;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import model.Customer;
+import model.ImportReport;
+import repository.interfaces.DuplicatePhoneNumberException;
 import repository.interfaces.ICustomerRepository;
 import service.interfaces.ICustomerService;
+import util.BloomFilter;
+import util.CredentialCache;
+import util.ImportPipeline;
+import util.LoginThrottle;
 import util.PasswordUtil;
+import util.validation.Validator;
+import util.validation.Validators;
 
 public class CustomerService implements ICustomerService {
 
     private final ICustomerRepository customerRepository;
+    // Stored hashes by customer ID; wrong passwords are rejected here without a query
+    private final CredentialCache<Integer> credentials = new CredentialCache<>();
+    // Attempts per "CUSTOMER:" + ID, refused before the hash is loaded or checked
+    private final LoginThrottle<String> throttle;
+    // Registered phone numbers, loaded on first use and kept current on save. A miss
+    // means "not registered" without a query; a hit is confirmed against the database,
+    // and the unique index on customers.phone_number settles any race
+    private volatile BloomFilter phoneFilter;
+    private final Object phoneFilterLock = new Object();
 
     private static final int MIN_AGE = 18;
     private static final int MAX_AGE = 79;
     private static final int MIN_PASSWORD_LENGTH = 5;
     private static final int PHONE_MIN_LENGTH = 10;
     private static final int PHONE_MAX_LENGTH = 11;
+    private static final long MIN_PHONE_FILTER_CAPACITY = 100_000;
+    private static final double PHONE_FILTER_FALSE_POSITIVE_RATE = 0.01;
+    private static final String PHONE_TAKEN = "Phone number already registered! Please use a different number.";
+
+    // Precompiled rules, shared by single registrations and bulk imports
+    static final Validator<String> NAME =
+            Validators.lettersAndSpaces("Name must contain only letters and spaces!");
+    static final Validator<String> PHONE_NUMBER = Validators.mobileNumber(
+            "Phone number invalid! Must start with 01 and be " + PHONE_MIN_LENGTH + " to " + PHONE_MAX_LENGTH + " digits.");
+    static final Validator<String> GENDER =
+            Validators.oneOfIgnoreCase("Gender must be 'Male' or 'Female'!", "Male", "Female");
+    static final Validator<String> PASSWORD =
+            Validators.minLength(MIN_PASSWORD_LENGTH, "Password must be at least " + MIN_PASSWORD_LENGTH + " characters!");
 
     public CustomerService(ICustomerRepository customerRepository) {
+        this(customerRepository, new LoginThrottle<>());
+    }
+
+    public CustomerService(ICustomerRepository customerRepository, LoginThrottle<String> throttle) {
         this.customerRepository = customerRepository;
+        this.throttle = throttle;
     }
 
     @Override
     public Customer registerCustomer(Customer customer) throws IllegalArgumentException {
-        //validate all fields
+        //validate all fields (checkPhoneNumber also rejects a registered number)
         checkName(customer.getName());
         checkAge(customer.getAge());
         checkPhoneNumber(customer.getPhoneNumber()); 
         checkGender(customer.getGender());
         checkPassword(customer.getPassword());
-        //Check phone number exists or not
-        if (customerRepository.existsByPhoneNumber(customer.getPhoneNumber())) {
-            throw new IllegalArgumentException("Phone number already registered");
-        }
 
         //Generate customer ID
         customer.setCustomerId(customerRepository.getNextCustomerId());
 
-        //Hash password before saving
-        String hashedPassword = PasswordUtil.hashPassword(customer.getPassword());
+        //Hash password (salted PBKDF2) before saving
+        String hashedPassword = PasswordUtil.hash(customer.getPassword());
         customer.setPassword(hashedPassword);
 
-        //save customer
-        return customerRepository.save(customer);
+        //save customer; the ID may have been tried (and cached as unknown) before it existed
+        Customer saved;
+        try {
+            saved = customerRepository.save(customer);
+        } catch (DuplicatePhoneNumberException e) {
+            // Registered by someone else since the check above
+            throw new IllegalArgumentException(PHONE_TAKEN);
+        }
+        if (saved != null) {
+            credentials.invalidate(saved.getCustomerId());
+            BloomFilter filter = phoneFilter;
+            if (filter != null) {
+                filter.add(saved.getPhoneNumber());
+            }
+        }
+        return saved;
+    }
+
+    @Override
+    public ImportReport importCustomers(Reader source, Writer rejects) throws IOException {
+        // Numbers seen earlier in this file; the filter and database cover everything before it
+        Set<String> seenPhones = new HashSet<>();
+        ImportPipeline<Customer> pipeline = new ImportPipeline<Customer>(
+                List.of("name", "age", "phone_number", "gender", "password"), ImportPipeline.DEFAULT_CHUNK_SIZE)
+                .redact("password");
+        return pipeline.run(source, rejects, row -> {
+            Customer customer = new Customer();
+            customer.setName(row.get("name"));
+            customer.setAge(row.getInt("age"));
+            customer.setPhoneNumber(row.get("phone_number"));
+            customer.setGender(row.get("gender"));
+            customer.setPassword(row.get("password"));
+            NAME.check(customer.getName());
+            checkAge(customer.getAge());
+            PHONE_NUMBER.check(customer.getPhoneNumber());
+            GENDER.check(customer.getGender());
+            PASSWORD.check(customer.getPassword());
+            if (seenPhones.contains(customer.getPhoneNumber()) || isPhoneNumberRegistered(customer.getPhoneNumber())) {
+                throw new IllegalArgumentException(PHONE_TAKEN);
+            }
+            seenPhones.add(customer.getPhoneNumber());
+            return customer;
+        }, this::storeImported);
+    }
+
+    //Hash a chunk's passwords on all cores (PBKDF2 dominates the cost), then insert it as one batch
+    private void storeImported(List<Customer> chunk) {
+        chunk.parallelStream().forEach(customer -> customer.setPassword(PasswordUtil.hash(customer.getPassword())));
+        customerRepository.saveAll(chunk);
+        BloomFilter filter = phoneFilter;
+        for (Customer customer : chunk) {
+            credentials.invalidate(customer.getCustomerId());
+            if (filter != null) {
+                filter.add(customer.getPhoneNumber());
+            }
+        }
     }
 
     @Override
     public Optional<Customer> login(int customerId, String password) {
-        //Hash the input password before authentication
-        String hashedPassword = PasswordUtil.hashPassword(password);
-        return customerRepository.authenticate(customerId, hashedPassword);
+        String throttleKey = "CUSTOMER:" + customerId;
+        if (!throttle.tryAcquire(throttleKey)) {
+            return Optional.empty();
+        }
+        //Verify in Java against the cached hash; only a successful login loads the customer
+        if (!credentials.verify(customerId, password, () -> customerRepository.findPasswordHash(customerId))) {
+            return Optional.empty();
+        }
+        throttle.refund(throttleKey);
+        Optional<Customer> customer = customerRepository.findById(customerId);
+        customer.ifPresent(c -> upgradePassword(c, password));
+        return customer;
+    }
+
+    //Replace a legacy or weaker hash now that the plain password is known
+    private void upgradePassword(Customer customer, String password) {
+        if (credentials.needsRehash(customer.getCustomerId())) {
+            String upgraded = PasswordUtil.hash(password);
+            if (customerRepository.updatePassword(customer.getCustomerId(), upgraded)) {
+                customer.setPassword(upgraded);
+                credentials.update(customer.getCustomerId(), upgraded);
+            }
+        }
     }
 
     @Override
     public boolean validateName(String name) {
-        if (name == null || name.trim().isEmpty()) {
-            return false;
-        }
-        return name.matches("^[a-zA-Z\\s]+$");
+        return NAME.isValid(name);
     }
 
     @Override
     public void checkName(String name) throws IllegalArgumentException {
-        if (!validateName(name)) {
-            throw new IllegalArgumentException("Name must contain only letters and spaces!");
-        }
+        NAME.check(name);
     }
 
     @Override
@@ -81,48 +187,36 @@ public class CustomerService implements ICustomerService {
 
     @Override
     public boolean validatePhoneNumber(String phoneNumber) {
-        if (phoneNumber == null) {
-            return false;
-        }
-        return phoneNumber.matches("^01\\d{8,9}$");
+        return PHONE_NUMBER.isValid(phoneNumber);
     }
 
     @Override
     public void checkPhoneNumber(String phoneNumber) throws IllegalArgumentException {
-        if (!validatePhoneNumber(phoneNumber)) {
-            throw new IllegalArgumentException("Phone number invalid! Must start with 01 and be " + PHONE_MIN_LENGTH + " to " + PHONE_MAX_LENGTH + " digits.");
-        }
+        PHONE_NUMBER.check(phoneNumber);
         
-        if (customerRepository.existsByPhoneNumber(phoneNumber)) {
-            throw new IllegalArgumentException("Phone number already registered! Please use a different number.");
+        if (isPhoneNumberRegistered(phoneNumber)) {
+            throw new IllegalArgumentException(PHONE_TAKEN);
         }
     }
 
     @Override
     public boolean validateGender(String gender) {
-        if (gender == null) {
-            return false;
-        }
-        return "Male".equalsIgnoreCase(gender) || "Female".equalsIgnoreCase(gender);
+        return GENDER.isValid(gender);
     }
 
     @Override
     public void checkGender(String gender) throws IllegalArgumentException {
-        if (!validateGender(gender)) {
-            throw new IllegalArgumentException("Gender must be 'Male' or 'Female'!");
-        }
+        GENDER.check(gender);
     }
 
     @Override
     public boolean validatePassword(String password) {
-        return password != null && password.length() >= MIN_PASSWORD_LENGTH;
+        return PASSWORD.isValid(password);
     }
 
     @Override
     public void checkPassword(String password) throws IllegalArgumentException {
-        if (!validatePassword(password)) {
-            throw new IllegalArgumentException("Password must be at least " + MIN_PASSWORD_LENGTH + " characters!");
-        }
+        PASSWORD.check(password);
     }
 
     @Override
@@ -139,6 +233,38 @@ public class CustomerService implements ICustomerService {
 
     @Override
     public boolean isPhoneNumberRegistered(String phoneNumber) {
+        if (phoneNumber == null) {
+            return false;
+        }
+        BloomFilter filter = phoneFilter();
+        if (filter != null && !filter.mightContain(phoneNumber)) {
+            return false;
+        }
         return customerRepository.existsByPhoneNumber(phoneNumber);
     }
+
+    //Load the filter on first use, and rebuild it larger once it holds more numbers than it was sized for
+    private BloomFilter phoneFilter() {
+        BloomFilter filter = phoneFilter;
+        if (filter != null && !filter.isSaturated()) {
+            return filter;
+        }
+        synchronized (phoneFilterLock) {
+            filter = phoneFilter;
+            if (filter == null || filter.isSaturated()) {
+                long capacity = filter == null ? MIN_PHONE_FILTER_CAPACITY
+                        : Math.max(MIN_PHONE_FILTER_CAPACITY, filter.getInsertions() * 2);
+                BloomFilter loaded = new BloomFilter(capacity, PHONE_FILTER_FALSE_POSITIVE_RATE);
+                try {
+                    customerRepository.forEachPhoneNumber(loaded::add);
+                } catch (RuntimeException e) {
+                    // Without a filter every check goes to the database, as before
+                    return filter;
+                }
+                phoneFilter = loaded;
+                filter = loaded;
+            }
+            return filter;
+        }
+    }
 }
\ No newline at end of file
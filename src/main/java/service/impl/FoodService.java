@@ -1,11 +1,30 @@
 package service.impl;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import model.Food;
+import model.ImportReport;
+import model.MenuChanges;
 import repository.interfaces.IFoodRepository;
 import service.interfaces.IFoodService;
+import util.ImportPipeline;
+import util.validation.DoubleValidator;
+import util.validation.Validator;
+import util.validation.Validators;
 
 public class FoodService implements IFoodService {
     
@@ -13,6 +32,18 @@ public class FoodService implements IFoodService {
     
     // Validation constants
     private static final double MIN_PRICE = 0.01;
+    // Foods per bulk statement or transaction (keeps IN lists and batches bounded)
+    private static final int BATCH_SIZE = ImportPipeline.DEFAULT_CHUNK_SIZE;
+    //How far before the requested time a change query reaches, to catch writes that committed late
+    private static final Duration CHANGE_OVERLAP = Duration.ofSeconds(2);
+    
+    // Precompiled rules, shared by single edits and bulk imports
+    static final Validator<String> FOOD_NAME =
+            Validators.lettersAndSpaces("Food name must contain only letters");
+    static final DoubleValidator FOOD_PRICE =
+            Validators.atLeast(MIN_PRICE, "Food price must be at least RM " + MIN_PRICE);
+    static final Validator<String> FOOD_TYPE =
+            Validators.oneOfIgnoreCase("Food type must be 'Set' or 'A la carte'", "Set", "A la carte");
     
     // Initialize FoodService with repository dependency
     public FoodService(IFoodRepository foodRepository) {
@@ -45,17 +76,89 @@ public class FoodService implements IFoodService {
         return foodRepository.update(food);
     }
 
-    // Validate all food fields
-    private void validateAllFields(Food food) throws IllegalArgumentException {
-        if (!validateFoodName(food.getFoodName())) {
-            throw new IllegalArgumentException("Food name must contain only letters");
+    // Import new foods; each chunk is one batched insert
+    @Override
+    public ImportReport importFoods(Reader source, Writer rejects) throws IOException {
+        // Names seen earlier in this file (case-insensitive, like findByName)
+        Set<String> seenNames = new HashSet<>();
+        ImportPipeline<Food> pipeline = new ImportPipeline<>(
+                List.of("food_name", "food_price", "food_type"), BATCH_SIZE);
+        return pipeline.run(source, rejects, row -> {
+            Food food = new Food();
+            food.setFoodName(row.get("food_name"));
+            food.setFoodPrice(parsePrice(row.get("food_price")));
+            food.setFoodType(row.get("food_type"));
+            food.setQuantity(row.get("quantity").isEmpty() ? 0 : row.getInt("quantity"));
+            validateAllFields(food);
+            if (food.getQuantity() < 0) {
+                throw new IllegalArgumentException("Quantity cannot be negative");
+            }
+            if (!seenNames.add(food.getFoodName().toLowerCase(Locale.ROOT))
+                    || foodRepository.existsByName(food.getFoodName())) {
+                throw new IllegalArgumentException("Food name already exists");
+            }
+            return food;
+        }, foodRepository::saveAll);
+    }
+
+    private static double parsePrice(String value) {
+        try {
+            return new BigDecimal(value).doubleValue();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("food_price must be a number: '" + value + "'");
+        }
+    }
+
+    // Change prices by a percentage, one UPDATE per batch of foods
+    @Override
+    public int changePrices(Collection<Integer> foodIds, double percent) throws IllegalArgumentException {
+        if (!Double.isFinite(percent) || percent <= -100) {
+            throw new IllegalArgumentException("Price change must be greater than -100%");
         }
-        if (!validateFoodPrice(food.getFoodPrice())) {
-            throw new IllegalArgumentException("Food price must be at least RM " + MIN_PRICE);
+        BigDecimal factor = BigDecimal.ONE.add(BigDecimal.valueOf(percent).movePointLeft(2));
+        int changed = 0;
+        List<Integer> batch = new ArrayList<>(Math.min(foodIds.size(), BATCH_SIZE));
+        for (int foodId : foodIds) {
+            batch.add(foodId);
+            if (batch.size() == BATCH_SIZE) {
+                changed += foodRepository.multiplyPrices(batch, factor);
+                batch.clear();
+            }
         }
-        if (!validateFoodType(food.getFoodType())) {
-            throw new IllegalArgumentException("Food type must be 'Set' or 'A la carte'");
+        if (!batch.isEmpty()) {
+            changed += foodRepository.multiplyPrices(batch, factor);
         }
+        return changed;
+    }
+
+    // Add stock, one UPDATE per batch of foods
+    @Override
+    public int restockFoods(Map<Integer, Integer> quantities) throws IllegalArgumentException {
+        for (Map.Entry<Integer, Integer> entry : quantities.entrySet()) {
+            if (entry.getValue() == null || entry.getValue() <= 0) {
+                throw new IllegalArgumentException("Restock quantity for food " + entry.getKey() + " must be positive");
+            }
+        }
+        int changed = 0;
+        Map<Integer, Integer> batch = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Integer> entry : quantities.entrySet()) {
+            batch.put(entry.getKey(), entry.getValue());
+            if (batch.size() == BATCH_SIZE) {
+                changed += foodRepository.restock(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            changed += foodRepository.restock(batch);
+        }
+        return changed;
+    }
+
+    // Validate all food fields
+    private void validateAllFields(Food food) throws IllegalArgumentException {
+        FOOD_NAME.check(food.getFoodName());
+        FOOD_PRICE.check(food.getFoodPrice());
+        FOOD_TYPE.check(food.getFoodType());
     }
 
     // Generate unique food ID from repository
@@ -82,6 +185,28 @@ public class FoodService implements IFoodService {
         return foodRepository.findAll();
     }
     
+    // Read the menu version (one row)
+    @Override
+    public long getMenuVersion() {
+        return foodRepository.getMenuVersion();
+    }
+    
+    // Retrieve only what changed since a menu version
+    @Override
+    public MenuChanges getMenuChangesSince(long version) {
+        return foodRepository.findMenuChanges(version);
+    }
+    
+    // Retrieve only what was written since a time
+    @Override
+    public List<Food> getFoodsChangedSince(Instant since) {
+        if (since == null) {
+            throw new IllegalArgumentException("Change time cannot be null");
+        }
+        //A row is stamped when its statement runs but only visible once it commits, so look back a little
+        return foodRepository.findChangedSince(since.minus(CHANGE_OVERLAP));
+    }
+    
      // Retrieve food by ID
     @Override
     public Optional<Food> getFoodById(int foodId) {
@@ -97,26 +222,20 @@ public class FoodService implements IFoodService {
      // Validate food name format
     @Override
     public boolean validateFoodName(String foodName) {
-        if (foodName == null || foodName.trim().isEmpty()) {
-            return false;
-        }
-        // Check if food name contains only letters and spaces
-        return foodName.matches("^[a-zA-Z\\s]+$");
+        // Letters and spaces only, not blank
+        return FOOD_NAME.isValid(foodName);
     }
     
      // Validate food price value
     @Override
     public boolean validateFoodPrice(double foodPrice) {
-        return foodPrice >= MIN_PRICE;
+        return FOOD_PRICE.isValid(foodPrice);
     }
     
     // Validate food type value
     @Override
     public boolean validateFoodType(String foodType) {
-        if (foodType == null) {
-            return false;
-        }
-        return "Set".equalsIgnoreCase(foodType) || "A la carte".equalsIgnoreCase(foodType);
+        return FOOD_TYPE.isValid(foodType);
     }
     
     // Check food name is unique or not
@@ -1,56 +1,170 @@
 package service.impl;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import model.*;
+import repository.interfaces.DuplicateOrderException;
 import repository.interfaces.ICustomerRepository;
 import repository.interfaces.IFoodRepository;
 import repository.interfaces.IOrderRepository;
-import repository.interfaces.IPaymentMethodRepository;
 import service.interfaces.IOrderService;
 import service.interfaces.IPaymentService;
+import service.interfaces.ISessionService;
+import util.LruCache;
+import util.Saga;
+import util.logging.Logger;
+import util.logging.LoggerFactory;
 
 public class OrderService implements IOrderService {
 
+    private static final Logger LOG = LoggerFactory.getLogger(OrderService.class);
+
     private final IOrderRepository orderRepository;
     private final ICustomerRepository customerRepository;
-    private final IPaymentMethodRepository paymentMethodRepository;
     private final IPaymentService paymentService;
     private final IFoodRepository foodRepository;
+    private final ISessionService sessionService;
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
+    private static final int RECENT_KEYS = 10_000;
+
+    // Recently created orders by idempotency key, so a resubmission is answered without a query
+    private final LruCache<String, Order> recentOrders = new LruCache<>(RECENT_KEYS);
+    // Checkouts still running, so a concurrent duplicate waits for the first instead of paying again
+    private final ConcurrentHashMap<String, CompletableFuture<Order>> inFlight = new ConcurrentHashMap<>();
 
     public OrderService(IOrderRepository orderRepository, 
                             ICustomerRepository customerRepository, 
-                            IPaymentMethodRepository paymentMethodRepository, 
                             IPaymentService paymentService,
                             IFoodRepository foodRepository) {
+        this(orderRepository, customerRepository, paymentService, foodRepository, null);
+    }
+
+    public OrderService(IOrderRepository orderRepository, 
+                            ICustomerRepository customerRepository, 
+                            IPaymentService paymentService,
+                            IFoodRepository foodRepository,
+                            ISessionService sessionService) {
         this.orderRepository = orderRepository;
         this.customerRepository = customerRepository;
-        this.paymentMethodRepository = paymentMethodRepository;
         this.paymentService = paymentService;
         this.foodRepository = foodRepository;
+        this.sessionService = sessionService;
     }
 
     @Override
-    public Order createOrder(int customerId, List<OrderDetails> orderDetailsList, 
-                             String paymentType, String identifier, String password) throws IllegalArgumentException {
-        // Validate customer exists
-        Optional<Customer> customerOpt = customerRepository.findById(customerId);
-        if (customerOpt.isEmpty()) {
-            throw new IllegalArgumentException("Customer not found");
+    public Order createOrder(int customerId, List<OrderDetails> orderDetailsList,
+                             String paymentType, String identifier, String password,
+                             String idempotencyKey) throws IllegalArgumentException {
+        return submit(customerId, () -> findCustomer(customerId),
+                orderDetailsList, paymentType, identifier, password, idempotencyKey);
+    }
+
+    @Override
+    public Order createOrderInSession(String sessionToken, List<OrderDetails> orderDetailsList,
+                                      String paymentType, String identifier, String password,
+                                      String idempotencyKey) throws IllegalArgumentException {
+        if (sessionService == null) {
+            throw new IllegalArgumentException("Sessions are not enabled");
+        }
+        // Verified from memory: no customer lookup on this path
+        Customer customer = sessionService.authenticate(sessionToken)
+            .orElseThrow(() -> new IllegalArgumentException("Session expired or invalid, please log in again"));
+        return submit(customer.getCustomerId(), () -> customer,
+                orderDetailsList, paymentType, identifier, password, idempotencyKey);
+    }
+
+    private Customer findCustomer(int customerId) {
+        return customerRepository.findById(customerId)
+            .orElseThrow(() -> new IllegalArgumentException("Customer not found"));
+    }
+
+    private Order submit(int customerId, Supplier<Customer> customer, List<OrderDetails> orderDetailsList,
+                         String paymentType, String identifier, String password, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return checkout(customer, orderDetailsList, paymentType, identifier, password, null);
+        }
+        String key = idempotencyKey.trim();
+        if (key.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                "Idempotency key must be at most " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+
+        Optional<Order> previous = findPreviousOrder(key, customerId, true);
+        if (previous.isPresent()) {
+            return previous.get();
+        }
+
+        CompletableFuture<Order> attempt = new CompletableFuture<>();
+        CompletableFuture<Order> running = inFlight.putIfAbsent(key, attempt);
+        if (running != null) {
+            return awaitOriginal(running, customerId);
+        }
+        try {
+            // The first attempt may have finished between the lookup and putIfAbsent
+            Order order = findPreviousOrder(key, customerId, false)
+                .orElseGet(() -> checkout(customer, orderDetailsList, paymentType, identifier, password, key));
+            recentOrders.put(key, order);
+            attempt.complete(order);
+            return order;
+        } catch (RuntimeException e) {
+            // Failed attempts are not remembered, so the same key can be retried
+            attempt.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, attempt);
+        }
+    }
+
+    private Optional<Order> findPreviousOrder(String key, int customerId, boolean checkDatabase) {
+        Optional<Order> previous = recentOrders.get(key);
+        if (previous.isEmpty() && checkDatabase) {
+            previous = orderRepository.findByIdempotencyKey(key);
+            previous.ifPresent(order -> recentOrders.put(key, order));
+        }
+        previous.ifPresent(order -> requireSameCustomer(order, customerId));
+        return previous;
+    }
+
+    private Order awaitOriginal(CompletableFuture<Order> running, int customerId) {
+        try {
+            Order order = running.join();
+            requireSameCustomer(order, customerId);
+            return order;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static void requireSameCustomer(Order order, int customerId) {
+        if (order.getCustomer() == null || order.getCustomer().getCustomerId() != customerId) {
+            throw new IllegalArgumentException("Idempotency key has already been used for another order");
         }
-        Customer customer = customerOpt.get();
+    }
+
+    private Order checkout(Supplier<Customer> customerSource, List<OrderDetails> orderDetailsList,
+                           String paymentType, String identifier, String password,
+                           String idempotencyKey) {
+        // Validate customer exists
+        Customer customer = customerSource.get();
+        int customerId = customer.getCustomerId();
 
         // Validate order details
         if (orderDetailsList == null || orderDetailsList.isEmpty()) {
             throw new IllegalArgumentException("Order must contain at least one item");
         }
 
-        // Recompute authoritative total using BigDecimal and validate details
-        BigDecimal computedTotal = BigDecimal.ZERO;
+        // Recompute authoritative total in exact sen and validate details
+        Money computedTotal = Money.ZERO;
         for (OrderDetails detail : orderDetailsList) {
             if (detail == null)
                 throw new IllegalArgumentException("Order detail cannot be null");
@@ -73,6 +187,9 @@ public class OrderService implements IOrderService {
             }
             
             Food food = foodOpt.get();
+            //The line keeps the stored name and type as ordered, whatever the caller's Food says
+            detail.setFoodName(food.getFoodName());
+            detail.setFoodType(food.getFoodType());
             if (food.getQuantity() < detail.getQuantity()) {
                 throw new IllegalArgumentException(
                     "Insufficient quantity available for " + food.getFoodName() + 
@@ -80,77 +197,105 @@ public class OrderService implements IOrderService {
                 );
             }
 
-            BigDecimal unit = detail.getUnitPriceDecimal();
+            Money unit = detail.getUnitPriceMoney();
             if (unit == null)
                 throw new IllegalArgumentException("Unit price missing");
 
-            BigDecimal expectedSubtotal = unit.multiply(BigDecimal.valueOf(detail.getQuantity()))
-                                              .setScale(2, RoundingMode.HALF_UP);
+            Money expectedSubtotal = unit.times(detail.getQuantity());
 
-            BigDecimal actualSubtotal = detail.getSubtotalDecimal() != null
-                                        ? detail.getSubtotalDecimal().setScale(2, RoundingMode.HALF_UP)
-                                        : BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+            Money actualSubtotal = detail.getSubtotalMoney() != null
+                                   ? detail.getSubtotalMoney()
+                                   : Money.ZERO;
 
-            if (expectedSubtotal.compareTo(actualSubtotal) != 0) {
+            if (!expectedSubtotal.equals(actualSubtotal)) {
                 throw new IllegalArgumentException(
                     "Order detail subtotal mismatch for item: " +
                     (detail.getFood() != null ? detail.getFood().getFoodId() : "unknown")
                 );
             }
 
-            computedTotal = computedTotal.add(expectedSubtotal);
+            computedTotal = computedTotal.plus(expectedSubtotal);
         }
 
-        computedTotal = computedTotal.setScale(2, RoundingMode.HALF_UP);
-        double totalPrice = computedTotal.doubleValue();
-
-        // Process payment with authentication and get the authenticated payment method
-        PaymentMethod paymentMethod;
+        // Checkout saga: reserve stock, charge, save. Each step is short and registers its undo,
+        // so a failure after the charge refunds it and puts the stock back instead of leaving
+        // the customer charged for an order that does not exist.
+        Money total = computedTotal;
+        Saga saga = new Saga("checkout for customer " + customerId);
         try {
-            // Process payment first - this authenticates the user and deducts the amount
-            paymentService.processPayment(paymentType, identifier, password, totalPrice);
-            
-            // Retrieve the payment method after successful authentication
-            // Based on payment type, use appropriate method to get the payment method
-            if ("Bank".equalsIgnoreCase(paymentType)) {
-                paymentMethod = paymentMethodRepository
-                    .findByCardNumber(identifier)
-                    .orElseThrow(() -> new IllegalArgumentException("Payment method not found after authentication"));
-            } else {
-                paymentMethod = paymentMethodRepository
-                    .findByWalletId(identifier)
-                    .orElseThrow(() -> new IllegalArgumentException("Payment method not found after authentication"));
+            for (OrderDetails detail : orderDetailsList) {
+                int foodId = detail.getFood().getFoodId();
+                int quantity = detail.getQuantity();
+                saga.step("reserve food " + foodId,
+                        () -> reserveStock(detail, customerId),
+                        () -> restoreStock(foodId, quantity));
             }
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Payment failed: " + e.getMessage());
+
+            PaymentResult charge = saga.step("charge " + paymentType,
+                    () -> charge(paymentType, identifier, password, total),
+                    paymentService::refund);
+
+            // Create order using Builder pattern (keeps construction logic centralized)
+            Order order = new Order.Builder()
+                            .orderDate(new Date())
+                            .customer(customer)
+                            .orderDetails(orderDetailsList)
+                            .totalPrice(total)
+                            .paymentMethod(charge.getPaymentMethod())
+                            .status("COMPLETED")
+                            .idempotencyKey(idempotencyKey)
+                            .build();
+
+            // Save order; as the last step it needs no compensation
+            return orderRepository.save(order);
+        } catch (DuplicateOrderException e) {
+            // Another instance saved this key first: undo our charge and hand back its order
+            compensate(saga, customerId);
+            Order original = orderRepository.findByIdempotencyKey(e.getIdempotencyKey())
+                .orElseThrow(() -> new IllegalStateException(e.getMessage()));
+            requireSameCustomer(original, customerId);
+            return original;
+        } catch (RuntimeException e) {
+            compensate(saga, customerId);
+            throw e;
+        }
+    }
+
+    private static void compensate(Saga saga, int customerId) {
+        List<String> uncompensated = saga.compensate();
+        if (!uncompensated.isEmpty()) {
+            LOG.error("Checkout for customer {} failed and could not undo: {}", customerId, uncompensated);
         }
+    }
 
-        // Decrement food quantities after successful payment
-        for (OrderDetails detail : orderDetailsList) {
-            boolean success = foodRepository.decrementQuantity(
-                detail.getFood().getFoodId(), 
-                detail.getQuantity()
+    private void reserveStock(OrderDetails detail, int customerId) {
+        boolean success = foodRepository.decrementQuantity(
+            detail.getFood().getFoodId(), 
+            detail.getQuantity()
+        );
+        if (!success) {
+            LOG.warn("Stock decrement failed for food {} during checkout by customer {}",
+                    detail.getFood().getFoodId(), customerId);
+            throw new IllegalArgumentException(
+                "Failed to update quantity for food: " + detail.getFood().getFoodName() + 
+                ". It may have been sold out."
             );
-            if (!success) {
-                throw new IllegalArgumentException(
-                    "Failed to update quantity for food: " + detail.getFood().getFoodName() + 
-                    ". It may have been sold out."
-                );
-            }
         }
+    }
 
-        // Create order using Builder pattern (keeps construction logic centralized)
-        Order order = new Order.Builder()
-                        .orderDate(new Date())
-                        .customer(customer)
-                        .orderDetails(orderDetailsList)
-                        .totalPrice(BigDecimal.valueOf(totalPrice))
-                        .paymentMethod(paymentMethod)
-                        .status("COMPLETED")
-                        .build();
+    private void restoreStock(int foodId, int quantity) {
+        if (!foodRepository.incrementQuantity(foodId, quantity)) {
+            throw new IllegalStateException("Could not restore " + quantity + " of food " + foodId);
+        }
+    }
 
-        // Save order
-        return orderRepository.save(order);
+    // Process payment: authenticates, debits and returns the same payment method it debited
+    private PaymentResult charge(String paymentType, String identifier, String password, Money amount) {
+        try {
+            return paymentService.processPayment(paymentType, identifier, password, amount);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Payment failed: " + e.getMessage());
+        }
     }
 
     @Override
@@ -158,6 +303,11 @@ public class OrderService implements IOrderService {
         return orderRepository.findAll();
     }
 
+    @Override
+    public List<OrderSummary> getOrderSummaries() {
+        return orderRepository.findAllSummaries();
+    }
+
     @Override
     public List<Order> getOrdersByCustomerId(int customerId) {
         return orderRepository.findByCustomerId(customerId);
@@ -165,11 +315,16 @@ public class OrderService implements IOrderService {
 
     @Override
     public double calculateTotalPrice(List<OrderDetails> orderDetailsList) {
-        double total = 0.0;
+        Money total = Money.ZERO;
         for (OrderDetails detail : orderDetailsList) {
-            total += detail.getSubtotal();
+            total = total.plus(detail.getSubtotalMoney());
         }
-        return total;
+        return total.toDouble();
+    }
+
+    @Override
+    public int backfillOrderLineSnapshots() {
+        return orderRepository.backfillLineSnapshots();
     }
 
     // Builder moved to model.Order for reuse; no internal builder here.
@@ -0,0 +1,121 @@
+package service.impl;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import model.Money;
+import model.PaymentTransaction;
+import model.ReconciliationReport;
+import model.ReconciliationReport.Discrepancy;
+import repository.interfaces.IPaymentMethodRepository;
+import repository.interfaces.IPaymentTransactionRepository;
+import service.interfaces.IPaymentLedgerService;
+import util.logging.Logger;
+import util.logging.LoggerFactory;
+
+public class PaymentLedgerService implements IPaymentLedgerService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PaymentLedgerService.class);
+
+    private final IPaymentTransactionRepository transactionRepository;
+    private final IPaymentMethodRepository paymentMethodRepository;
+
+    public PaymentLedgerService(IPaymentTransactionRepository transactionRepository,
+                                IPaymentMethodRepository paymentMethodRepository) {
+        this.transactionRepository = transactionRepository;
+        this.paymentMethodRepository = paymentMethodRepository;
+    }
+
+    @Override
+    public List<PaymentTransaction> getHistory(int paymentMethodId) {
+        return transactionRepository.findByPaymentMethodId(paymentMethodId);
+    }
+
+    @Override
+    public ReconciliationReport reconcile() {
+        // Balances are one row per account; the ledger is streamed so only one account's state is held
+        Map<Integer, Money> balances = paymentMethodRepository.findAllBalances();
+        LedgerWalk walk = new LedgerWalk(balances);
+        transactionRepository.forEachInAccountOrder(walk);
+        walk.finishAccount();
+
+        List<Integer> unledgered = new ArrayList<>();
+        for (Integer paymentMethodId : balances.keySet()) {
+            if (!walk.seenAccounts.contains(paymentMethodId)) {
+                unledgered.add(paymentMethodId);
+            }
+        }
+        ReconciliationReport report = new ReconciliationReport(balances.size(), walk.entries,
+                unledgered, walk.discrepancies);
+        if (!report.isBalanced()) {
+            LOG.warn("Ledger reconciliation found {} discrepancies", report.getDiscrepancies().size());
+        }
+        return report;
+    }
+
+    @Override
+    public int openUnledgeredAccounts() {
+        ReconciliationReport report = reconcile();
+        if (report.getUnledgeredAccounts().isEmpty()) {
+            return 0;
+        }
+        Map<Integer, Money> balances = paymentMethodRepository.findAllBalances();
+        List<PaymentTransaction> openings = new ArrayList<>();
+        for (Integer paymentMethodId : report.getUnledgeredAccounts()) {
+            Money balance = balances.get(paymentMethodId);
+            if (balance != null) {
+                openings.add(PaymentTransaction.opening(paymentMethodId, balance));
+            }
+        }
+        return transactionRepository.appendAll(openings);
+    }
+
+    //Walks ledger rows in (account, entry) order, checking each entry against the one before it
+    private static final class LedgerWalk implements Consumer<PaymentTransaction> {
+
+        private final Map<Integer, Money> balances;
+        private final Set<Integer> seenAccounts = new HashSet<>();
+        private final List<Discrepancy> discrepancies = new ArrayList<>();
+        private long entries;
+        private Integer currentAccount;
+        private Money runningBalance;
+
+        LedgerWalk(Map<Integer, Money> balances) {
+            this.balances = balances;
+        }
+
+        @Override
+        public void accept(PaymentTransaction transaction) {
+            entries++;
+            if (currentAccount == null || currentAccount != transaction.getPaymentMethodId()) {
+                finishAccount();
+                currentAccount = transaction.getPaymentMethodId();
+                seenAccounts.add(currentAccount);
+            } else if (!transaction.isOpening() && !transaction.getBalanceBefore().equals(runningBalance)) {
+                discrepancies.add(new Discrepancy(currentAccount,
+                        "Ledger entry " + transaction.getTransactionId() + " does not follow the previous balance",
+                        runningBalance, transaction.getBalanceBefore()));
+            }
+            runningBalance = transaction.getBalanceAfter();
+        }
+
+        void finishAccount() {
+            if (currentAccount == null) {
+                return;
+            }
+            Money actual = balances.get(currentAccount);
+            if (actual == null) {
+                discrepancies.add(new Discrepancy(currentAccount,
+                        "Ledger entries for an unknown payment method", runningBalance, null));
+            } else if (!actual.equals(runningBalance)) {
+                discrepancies.add(new Discrepancy(currentAccount,
+                        "Balance does not match the ledger", runningBalance, actual));
+            }
+            currentAccount = null;
+        }
+    }
+}
@@ -1,44 +1,110 @@
 package service.impl;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
 import model.*;
 import repository.interfaces.IPaymentMethodRepository;
+import service.interfaces.IPaymentGateway;
 import service.interfaces.IPaymentService;
+import service.interfaces.PaymentGatewayException;
+import util.CredentialCache;
+import util.ImportPipeline;
+import util.LoginThrottle;
 import util.PasswordUtil;
+import util.logging.Logger;
+import util.logging.LoggerFactory;
+import util.validation.Validator;
+import util.validation.Validators;
 
 public class PaymentService implements IPaymentService {
     
+    private static final Logger LOG = LoggerFactory.getLogger(PaymentService.class);
+    
     private final IPaymentMethodRepository paymentMethodRepository;
+    // External providers keyed by upper-case payment type; types without one are settled locally
+    private final Map<String, IPaymentGateway> gateways;
     
     private static final String PAYMENT_TYPE_BANK = "BANK";
     private static final String PAYMENT_TYPE_TNG = "TNG";
     private static final String PAYMENT_TYPE_GRAB = "GrabPay";
+    // A debit or refund that keeps losing the balance race gives up after this many tries
+    private static final int MAX_BALANCE_ATTEMPTS = 5;
+    private static final int MAX_WALLET_ID_LENGTH = 50;
+
+    // Import rules; types are stored with the spelling already used in payment_methods
+    private static final String[] IMPORT_TYPES = {"TNG", "Grab", "Bank"};
+    private static final Validator<String> IMPORT_TYPE =
+            Validators.oneOfIgnoreCase("Payment type must be TNG, Grab or Bank", IMPORT_TYPES);
+    private static final Validator<String> WALLET_ID = Validators.of(
+            value -> !value.isEmpty() && value.length() <= MAX_WALLET_ID_LENGTH,
+            "Wallet ID is required (at most " + MAX_WALLET_ID_LENGTH + " characters)");
+    private static final Validator<String> CARD_NUMBER = Validators.digits(16, "Card number must be 16 digits");
+    private static final Validator<String> EXPIRY_DATE = Validators.digits(4, "Expiry date must be 4 digits (MMYY)");
+    private static final Validator<String> PASSWORD = Validators.minLength(1, "Password is required");
+
+    // Stored hashes by "CARD:"/"WALLET:" identifier; wrong passwords are rejected here without a query
+    private final CredentialCache<String> credentials = new CredentialCache<>();
+    // Attempts per the same account key, refused before the hash is loaded or checked
+    private final LoginThrottle<String> throttle;
 
     public PaymentService(IPaymentMethodRepository paymentMethodRepository) {
+        this(paymentMethodRepository, Collections.emptyMap());
+    }
+
+    public PaymentService(IPaymentMethodRepository paymentMethodRepository,
+                          Map<String, IPaymentGateway> gateways) {
+        this(paymentMethodRepository, gateways, new LoginThrottle<>());
+    }
+
+    public PaymentService(IPaymentMethodRepository paymentMethodRepository,
+                          Map<String, IPaymentGateway> gateways,
+                          LoginThrottle<String> throttle) {
         this.paymentMethodRepository = paymentMethodRepository;
+        this.throttle = throttle;
+        this.gateways = new HashMap<>();
+        gateways.forEach((type, gateway) -> this.gateways.put(type.toUpperCase(), gateway));
     }
     
+    //No JVM lock is held: applyTransaction only writes if the balance is still the one read,
+    //which also covers debits made by other processes sharing the database
     @Override
-    public Payment processPayment(String paymentType, String identifier, String password, double amount) 
+    public PaymentResult processPayment(String paymentType, String identifier, String password, Money amount) 
             throws IllegalArgumentException {
+        // 1. Verify the password in Java against the cached hash, unless the account is being hammered
+        boolean bank = PAYMENT_TYPE_BANK.equalsIgnoreCase(paymentType);
+        String failure = bank ? "Invalid card number or password" : "Invalid wallet ID or password";
+        String account = (bank ? "CARD:" : "WALLET:") + identifier;
+        if (!throttle.tryAcquire(account)) {
+            throw new IllegalArgumentException("Too many attempts, please try again later");
+        }
+        AtomicReference<PaymentMethod> loaded = new AtomicReference<>();
+        if (!credentials.verify(account, password, () -> {
+                Optional<PaymentMethod> found = findPaymentMethod(bank, identifier);
+                found.ifPresent(loaded::set);
+                return found.map(PaymentMethod::getPassword);
+            })) {
+            throw new IllegalArgumentException(failure);
+        }
+        throttle.refund(account);
         
-        // 1. Hash the password
-        String hashedPassword = PasswordUtil.hashPassword(password);
-        
-        // 2. Authenticate and retrieve payment method based on type
-        PaymentMethod paymentMethod;
-        if (PAYMENT_TYPE_BANK.equalsIgnoreCase(paymentType)) {
-            // For Bank, identifier is card number
-            paymentMethod = paymentMethodRepository
-                .authenticateByCardNumber(identifier, hashedPassword)
-                .orElseThrow(() -> new IllegalArgumentException(
-                    "Invalid card number or password"));
-        } else {
-            // For TNG/Grab, identifier is wallet ID
-            paymentMethod = paymentMethodRepository
-                .authenticateByWalletId(identifier, hashedPassword)
-                .orElseThrow(() -> new IllegalArgumentException(
-                    "Invalid wallet ID or password"));
+        // 2. The payment method, with its current balance: the one just loaded to verify the
+        //    password, or a fresh read when the hash came from the cache
+        PaymentMethod paymentMethod = loaded.get();
+        if (paymentMethod == null) {
+            paymentMethod = findPaymentMethod(bank, identifier)
+                .orElseThrow(() -> new IllegalArgumentException(failure));
         }
+        upgradePassword(account, paymentMethod, password);
         
         // 3. Create Payment Strategy
         Payment payment = createPayment(paymentMethod);
@@ -47,22 +113,190 @@ public class PaymentService implements IPaymentService {
         validateBalance(payment, amount);
         
         // 5. Process Transaction
-        double newBalance = payment.makePayment(amount);
+        Money newBalance = payment.makePayment(amount);
+        
+        Money debited = paymentMethod.getBalanceMoney().minus(newBalance);
+        
+        // 6. Authorize with the external provider, if this type has one
+        String reference = payment.paymentName() + " payment";
+        IPaymentGateway gateway = gateways.get(paymentMethod.getPaymentType().toUpperCase());
+        if (gateway != null) {
+            try {
+                reference = gateway.charge(identifier, debited);
+            } catch (PaymentGatewayException e) {
+                throw new IllegalArgumentException(e.getMessage());
+            }
+        }
+        
+        // 7. Update Persistence - the debit (including any fee) is recorded in the ledger with the balance.
+        //    If the balance moved since it was read, re-read it and try again.
+        try {
+            for (int attempt = 1; ; attempt++) {
+                PaymentTransaction transaction = PaymentTransaction.debit(
+                    paymentMethod.getPaymentMethodId(), debited, newBalance, reference);
+                if (paymentMethodRepository.applyTransaction(transaction)) {
+                    paymentMethod.setBalance(newBalance);
+                    return new PaymentResult(paymentMethod, payment, transaction);
+                }
+                if (attempt == MAX_BALANCE_ATTEMPTS) {
+                    LOG.error("Balance update failed for payment method {}", paymentMethod.getPaymentMethodId());
+                    throw new RuntimeException("System Error: Failed to update balance in database.");
+                }
+                paymentMethod = reload(paymentMethod.getPaymentMethodId());
+                payment = createPayment(paymentMethod);
+                validateBalance(payment, amount);
+                newBalance = payment.makePayment(amount);
+            }
+        } catch (RuntimeException e) {
+            // The provider has already taken the money; hand it back before reporting the failure
+            if (gateway != null) {
+                reverseCharge(gateway, reference, debited, e);
+            }
+            throw e;
+        }
+    }
+    
+    private void reverseCharge(IPaymentGateway gateway, String reference, Money amount, RuntimeException cause) {
+        try {
+            gateway.refund(reference, amount);
+        } catch (RuntimeException e) {
+            LOG.error("Could not reverse {} charge {} of {}: {}", gateway.getName(), reference, amount, e.getMessage());
+            cause.addSuppressed(e);
+        }
+    }
+    
+    private PaymentMethod reload(int paymentMethodId) {
+        return paymentMethodRepository.findById(paymentMethodId)
+            .orElseThrow(() -> new IllegalArgumentException("Payment method not found: " + paymentMethodId));
+    }
+    
+    // For Bank the identifier is the card number, for TNG/Grab the wallet ID
+    private Optional<PaymentMethod> findPaymentMethod(boolean bank, String identifier) {
+        return bank ? paymentMethodRepository.findByCardNumber(identifier)
+                    : paymentMethodRepository.findByWalletId(identifier);
+    }
+    
+    //Replace a legacy or weaker hash now that the plain password is known
+    private void upgradePassword(String account, PaymentMethod paymentMethod, String password) {
+        if (credentials.needsRehash(account)) {
+            String upgraded = PasswordUtil.hash(password);
+            if (paymentMethodRepository.updatePassword(paymentMethod.getPaymentMethodId(), upgraded)) {
+                paymentMethod.setPassword(upgraded);
+                credentials.update(account, upgraded);
+            }
+        }
+    }
+    
+    @Override
+    public Money refund(PaymentResult charge) {
+        PaymentMethod paymentMethod = charge.getPaymentMethod();
+        int paymentMethodId = paymentMethod.getPaymentMethodId();
+        Money amount = charge.getAmountCharged();
+        String chargeReference = charge.getTransaction().getReference();
         
-        // 6. Update Persistence
-        boolean updateSuccess = paymentMethodRepository.updateBalance(
-            paymentMethod.getPaymentMethodId(), newBalance);
-        if (!updateSuccess) {
-            throw new RuntimeException("System Error: Failed to update balance in database.");
+        // 1. Credit the account first; if that fails nothing has been sent back through the provider
+        Money newBalance = adjustBalance(paymentMethodId, amount, true, "Refund of " + chargeReference);
+        if (newBalance == null) {
+            LOG.error("Refund failed for payment method {}", paymentMethodId);
+            throw new RuntimeException("System Error: Failed to refund payment.");
         }
         
-        return payment;
+        // 2. Return the money through the provider that approved the charge
+        IPaymentGateway gateway = gateways.get(paymentMethod.getPaymentType().toUpperCase());
+        if (gateway != null) {
+            try {
+                gateway.refund(chargeReference, amount);
+            } catch (RuntimeException e) {
+                // Take the local credit back so the balance does not show money the provider kept
+                if (adjustBalance(paymentMethodId, amount, false, "Reversal of refund of " + chargeReference) == null) {
+                    LOG.error("Could not reverse refund credit of {} on payment method {}", amount, paymentMethodId);
+                }
+                if (e instanceof PaymentGatewayException) {
+                    throw new IllegalArgumentException(e.getMessage());
+                }
+                throw e;
+            }
+        }
+        paymentMethod.setBalance(newBalance);
+        return newBalance;
+    }
+    
+    //Credit or debit an exact amount against the current balance; the new balance, or null if it never applied
+    private Money adjustBalance(int paymentMethodId, Money amount, boolean credit, String reference) {
+        for (int attempt = 1; attempt <= MAX_BALANCE_ATTEMPTS; attempt++) {
+            // Re-read: the balance may have moved since the charge
+            Money current = reload(paymentMethodId).getBalanceMoney();
+            PaymentTransaction transaction = credit
+                ? PaymentTransaction.credit(paymentMethodId, amount, current.plus(amount), reference)
+                : PaymentTransaction.debit(paymentMethodId, amount, current.minus(amount), reference);
+            if (paymentMethodRepository.applyTransaction(transaction)) {
+                return transaction.getBalanceAfter();
+            }
+        }
+        return null;
+    }
+    
+    @Override
+    public ImportReport importPaymentMethods(Reader source, Writer rejects) throws IOException {
+        // Accounts seen earlier in this file, by the same keys the credential cache uses
+        Set<String> seenAccounts = new HashSet<>();
+        ImportPipeline<PaymentMethod> pipeline = new ImportPipeline<PaymentMethod>(
+                List.of("payment_type", "wallet_id", "card_number", "expiry_date", "password", "balance"),
+                ImportPipeline.DEFAULT_CHUNK_SIZE)
+                .redact("password");
+        return pipeline.run(source, rejects, row -> {
+            String type = row.get("payment_type");
+            IMPORT_TYPE.check(type);
+            PaymentMethod paymentMethod = new PaymentMethod();
+            for (String canonical : IMPORT_TYPES) {
+                if (canonical.equalsIgnoreCase(type)) {
+                    paymentMethod.setPaymentType(canonical);
+                }
+            }
+            boolean bank = PAYMENT_TYPE_BANK.equalsIgnoreCase(type);
+            String identifier;
+            if (bank) {
+                identifier = row.get("card_number");
+                CARD_NUMBER.check(identifier);
+                EXPIRY_DATE.check(row.get("expiry_date"));
+                paymentMethod.setCardNumber(identifier);
+                paymentMethod.setExpiryDate(row.get("expiry_date"));
+            } else {
+                identifier = row.get("wallet_id");
+                WALLET_ID.check(identifier);
+                paymentMethod.setWalletId(identifier);
+            }
+            PASSWORD.check(row.get("password"));
+            paymentMethod.setPassword(row.get("password"));
+            Money balance = Money.parse(row.get("balance"));
+            if (balance.isNegative()) {
+                throw new IllegalArgumentException("Balance cannot be negative");
+            }
+            paymentMethod.setBalance(balance);
+
+            String account = (bank ? "CARD:" : "WALLET:") + identifier;
+            if (!seenAccounts.add(account) || findPaymentMethod(bank, identifier).isPresent()) {
+                throw new IllegalArgumentException(bank ? "Card number already registered" : "Wallet ID already registered");
+            }
+            return paymentMethod;
+        }, this::storeImported);
+    }
+
+    //Hash a chunk's passwords on all cores (PBKDF2 dominates the cost), then insert it as one batch
+    private void storeImported(List<PaymentMethod> chunk) {
+        chunk.parallelStream().forEach(method -> method.setPassword(PasswordUtil.hash(method.getPassword())));
+        paymentMethodRepository.saveAll(chunk);
+        for (PaymentMethod method : chunk) {
+            // An identifier tried before it existed is cached as unknown
+            credentials.invalidate(method.getCardNumber() != null
+                    ? "CARD:" + method.getCardNumber() : "WALLET:" + method.getWalletId());
+        }
     }
     
     @Override
     public Payment createPayment(PaymentMethod paymentMethod) {
         String type = paymentMethod.getPaymentType().toUpperCase();
-        double balance = paymentMethod.getBalance();
+        Money balance = paymentMethod.getBalanceMoney();
         
         // Factory Logic - encapsulated creation
         switch (type) {
@@ -84,7 +318,7 @@ public class PaymentService implements IPaymentService {
     /**
      * Checks if the payment source has enough funds.
      */
-    private void validateBalance(Payment payment, double amount) {
+    private void validateBalance(Payment payment, Money amount) {
         if (!payment.checkAmount(amount)) {
             throw new IllegalArgumentException("Insufficient balance");
         }
@@ -0,0 +1,151 @@
+package service.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import model.Money;
+import service.interfaces.IPaymentGateway;
+import service.interfaces.PaymentGatewayException;
+import util.CircuitBreaker;
+import util.ThreadSupport;
+import util.logging.Logger;
+import util.logging.LoggerFactory;
+
+/**
+ * Wraps one gateway with a timeout, a bulkhead and a circuit breaker.
+ * The bulkhead caps how many checkouts can wait on this provider at once,
+ * the timeout bounds how long each waits, and the breaker fails fast while
+ * the provider keeps failing, so one degraded gateway cannot tie up the
+ * threads serving the others.
+ */
+public class ResilientPaymentGateway implements IPaymentGateway {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResilientPaymentGateway.class);
+
+    private final IPaymentGateway delegate;
+    private final long timeoutMillis;
+    private final int maxConcurrent;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final ExecutorService executor;
+
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder declines = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder rejectedByBulkhead = new LongAdder();
+    private final LongAdder rejectedByCircuit = new LongAdder();
+
+    public ResilientPaymentGateway(IPaymentGateway delegate, long timeoutMillis, int maxConcurrent,
+                                   CircuitBreaker circuitBreaker) {
+        if (timeoutMillis <= 0 || maxConcurrent < 1) {
+            throw new IllegalArgumentException("timeoutMillis must be > 0 and maxConcurrent >= 1");
+        }
+        this.delegate = delegate;
+        this.timeoutMillis = timeoutMillis;
+        this.maxConcurrent = maxConcurrent;
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.circuitBreaker = circuitBreaker;
+        this.executor = ThreadSupport.newPerTaskExecutor("gateway-" + delegate.getName());
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public String charge(String identifier, Money amount) {
+        // Bulkhead first, so a rejected call never takes the breaker's half-open trial slot
+        if (!bulkhead.tryAcquire()) {
+            rejectedByBulkhead.increment();
+            throw new PaymentGatewayException(getName() + " gateway is busy, please try again");
+        }
+        try {
+            if (!circuitBreaker.tryAcquire()) {
+                rejectedByCircuit.increment();
+                throw new PaymentGatewayException(getName() + " gateway is temporarily unavailable");
+            }
+            return call(identifier, amount);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    //Refunds are compensations, so they skip the bulkhead and breaker but are still time-bounded
+    @Override
+    public void refund(String reference, Money amount) {
+        Future<?> future = executor.submit(() -> delegate.refund(reference, amount));
+        try {
+            future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new PaymentGatewayException(getName() + " refund timed out after " + timeoutMillis + " ms");
+        } catch (ExecutionException e) {
+            throw new PaymentGatewayException(getName() + " refund failed: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException(getName() + " refund interrupted");
+        }
+    }
+
+    private String call(String identifier, Money amount) {
+        Future<String> future = executor.submit(() -> delegate.charge(identifier, amount));
+        try {
+            String reference = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            circuitBreaker.onSuccess();
+            successes.increment();
+            return reference;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeouts.increment();
+            circuitBreaker.onFailure();
+            LOG.warn("{} gateway timed out after {} ms", getName(), timeoutMillis);
+            throw new PaymentGatewayException(getName() + " gateway timed out after " + timeoutMillis + " ms");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof PaymentGatewayException && ((PaymentGatewayException) cause).isDeclined()) {
+                // A decline is a healthy answer, it must not trip the breaker
+                circuitBreaker.onSuccess();
+                declines.increment();
+                throw (PaymentGatewayException) cause;
+            }
+            failures.increment();
+            circuitBreaker.onFailure();
+            LOG.warn("{} gateway call failed: {}", getName(), cause.getMessage());
+            throw new PaymentGatewayException(cause instanceof PaymentGatewayException
+                    ? cause.getMessage() : getName() + " gateway error: " + cause.getMessage());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            circuitBreaker.onFailure();
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException(getName() + " gateway call interrupted");
+        }
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    //Counters for load tests and the HTTP /metrics endpoint
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("circuit", circuitBreaker.getState().name());
+        stats.put("inFlight", maxConcurrent - bulkhead.availablePermits());
+        stats.put("successes", successes.sum());
+        stats.put("declines", declines.sum());
+        stats.put("failures", failures.sum());
+        stats.put("timeouts", timeouts.sum());
+        stats.put("rejectedByBulkhead", rejectedByBulkhead.sum());
+        stats.put("rejectedByCircuit", rejectedByCircuit.sum());
+        return stats;
+    }
+}
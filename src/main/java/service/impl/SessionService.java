@@ -0,0 +1,117 @@
+package service.impl;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import model.Customer;
+import service.interfaces.ISessionService;
+
+/**
+ * In-memory login sessions.
+ * Tokens are 256 random bits, so they are opaque and cannot be guessed.
+ * Each maps to a password-free copy of the customer, so requests carrying
+ * a token are authenticated without touching the database. Expiry is
+ * sliding: every successful authenticate() restarts the idle timeout.
+ */
+public class SessionService implements ISessionService {
+
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private static final int TOKEN_BYTES = 32;
+    //Expired sessions are swept out every this many opens
+    private static final int SWEEP_INTERVAL = 256;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    private final AtomicInteger opensSinceSweep = new AtomicInteger();
+    private final long idleTimeoutNanos;
+    private final LongSupplier clock;
+
+    public SessionService() {
+        this(DEFAULT_IDLE_TIMEOUT_MILLIS, System::nanoTime);
+    }
+
+    public SessionService(long idleTimeoutMillis, LongSupplier nanoClock) {
+        if (idleTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Idle timeout must be positive");
+        }
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.clock = nanoClock;
+    }
+
+    @Override
+    public String open(Customer customer) {
+        if (customer == null) {
+            throw new IllegalArgumentException("Customer cannot be null");
+        }
+        if (opensSinceSweep.incrementAndGet() >= SWEEP_INTERVAL) {
+            opensSinceSweep.set(0);
+            sweep();
+        }
+        // The principal never carries the password hash
+        Customer principal = new Customer(customer.getCustomerId(), customer.getName(), customer.getAge(),
+                customer.getPhoneNumber(), customer.getGender(), null);
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = encoder.encodeToString(bytes);
+        principal.setSessionToken(token);
+        sessions.put(token, new Session(principal, clock.getAsLong()));
+        return token;
+    }
+
+    @Override
+    public Optional<Customer> authenticate(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return Optional.empty();
+        }
+        long now = clock.getAsLong();
+        if (now - session.lastAccess > idleTimeoutNanos) {
+            sessions.remove(token, session);
+            return Optional.empty();
+        }
+        session.lastAccess = now;
+        return Optional.of(session.customer);
+    }
+
+    @Override
+    public boolean close(String token) {
+        if (token == null) {
+            return false;
+        }
+        Session session = sessions.remove(token);
+        return session != null && clock.getAsLong() - session.lastAccess <= idleTimeoutNanos;
+    }
+
+    @Override
+    public int getActiveSessionCount() {
+        sweep();
+        return sessions.size();
+    }
+
+    private void sweep() {
+        long now = clock.getAsLong();
+        sessions.values().removeIf(session -> now - session.lastAccess > idleTimeoutNanos);
+    }
+
+    private static final class Session {
+
+        private final Customer customer;
+        private volatile long lastAccess;
+
+        Session(Customer customer, long lastAccess) {
+            this.customer = customer;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
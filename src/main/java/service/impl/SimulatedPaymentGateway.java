@@ -0,0 +1,73 @@
+package service.impl;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import model.Money;
+import service.interfaces.IPaymentGateway;
+import service.interfaces.PaymentGatewayException;
+
+/**
+ * Local stand-in for an external payment provider.
+ * Each charge sleeps for latency +/- jitter and fails with the configured
+ * probability, so checkout can be load-tested offline against slow or
+ * flaky gateways. Settings can be changed while it is in use to simulate
+ * a provider degrading mid-run.
+ */
+public class SimulatedPaymentGateway implements IPaymentGateway {
+
+    private final String name;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private volatile long latencyMillis;
+    private volatile long jitterMillis;
+    private volatile double failureRate;
+
+    public SimulatedPaymentGateway(String name, long latencyMillis, long jitterMillis, double failureRate) {
+        this.name = name;
+        configure(latencyMillis, jitterMillis, failureRate);
+    }
+
+    //Change behaviour on the fly; failureRate is a probability between 0 and 1
+    public void configure(long latencyMillis, long jitterMillis, double failureRate) {
+        if (latencyMillis < 0 || jitterMillis < 0 || failureRate < 0 || failureRate > 1) {
+            throw new IllegalArgumentException("Latency and jitter must be >= 0 and failureRate within [0, 1]");
+        }
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String charge(String identifier, Money amount) {
+        simulateCall();
+        return name + "-" + sequence.incrementAndGet();
+    }
+
+    @Override
+    public void refund(String reference, Money amount) {
+        simulateCall();
+    }
+
+    private void simulateCall() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long jitter = jitterMillis;
+        long delay = latencyMillis + (jitter > 0 ? random.nextLong(-jitter, jitter + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PaymentGatewayException(name + " gateway call interrupted");
+            }
+        }
+        if (random.nextDouble() < failureRate) {
+            throw new PaymentGatewayException(name + " gateway returned an error");
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package service.interfaces;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.util.Optional;
 
 import model.Customer;
+import model.ImportReport;
 
 public interface ICustomerService {
     
     //register new customer
     Customer registerCustomer(Customer customer) throws IllegalArgumentException;
     
+    //register customers from CSV (name,age,phone_number,gender,password); bad rows go to rejects
+    ImportReport importCustomers(Reader source, Writer rejects) throws IOException;
+    
     // Authenticate customer login
     Optional<Customer> login(int customerId, String password);
     
@@ -1,9 +1,17 @@
 package service.interfaces;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import model.Food;
+import model.ImportReport;
+import model.MenuChanges;
 
 public interface IFoodService {
     
@@ -13,12 +21,30 @@ public interface IFoodService {
     //Update an existing food item
     Food updateFood(Food food) throws IllegalArgumentException;
     
+    //Import new foods from CSV (food_name, food_price, food_type, optional quantity); bad rows go to rejects
+    ImportReport importFoods(Reader source, Writer rejects) throws IOException;
+    
+    //Change the prices of the given foods by a percentage (10 raises by 10%, -15 cuts by 15%); returns foods changed
+    int changePrices(Collection<Integer> foodIds, double percent) throws IllegalArgumentException;
+    
+    //Add stock to many foods (food ID to quantity added); returns foods changed
+    int restockFoods(Map<Integer, Integer> quantities) throws IllegalArgumentException;
+    
     //Delete a food item
     boolean deleteFood(int foodId);
     
     //Get all food items
     List<Food> getAllFoods();
     
+    //Current menu version; changes whenever any food (its stock included) changes
+    long getMenuVersion();
+    
+    //Foods changed since a menu version, or the whole menu when only a full reload is correct
+    MenuChanges getMenuChangesSince(long version);
+    
+    //Foods written at or after a time (with a small overlap for writes still committing); deleted foods are not reported
+    List<Food> getFoodsChangedSince(Instant since);
+    
     //Get food by ID
     Optional<Food> getFoodById(int foodId);
     
@@ -4,17 +4,44 @@ import java.util.List;
 
 import model.Order;
 import model.OrderDetails;
+import model.OrderSummary;
 
 public interface IOrderService {
     
+    /**
+     * Create an order. Submitting again with the same idempotency key returns the
+     * original order without charging or reserving stock again; a null key disables this.
+     */
     Order createOrder(int customerId, List<OrderDetails> orderDetailsList, 
-                     String paymentType, String identifier, String password) throws IllegalArgumentException;
+                     String paymentType, String identifier, String password,
+                     String idempotencyKey) throws IllegalArgumentException;
+    
+    /**
+     * Create an order for the customer behind a login session. The session is
+     * verified from memory, so the customer is not looked up again.
+     */
+    Order createOrderInSession(String sessionToken, List<OrderDetails> orderDetailsList, 
+                     String paymentType, String identifier, String password,
+                     String idempotencyKey) throws IllegalArgumentException;
+    
+    /**
+     * Create an order without an idempotency key
+     */
+    default Order createOrder(int customerId, List<OrderDetails> orderDetailsList, 
+                     String paymentType, String identifier, String password) throws IllegalArgumentException {
+        return createOrder(customerId, orderDetailsList, paymentType, identifier, password, null);
+    }
     
     /**
      * Get all orders
      */
     List<Order> getAllOrders();
     
+    /**
+     * Get a summary row per order for reports, without loading order lines
+     */
+    List<OrderSummary> getOrderSummaries();
+    
     /**
      * Get orders by customer ID
      */
@@ -24,4 +51,10 @@ public interface IOrderService {
      * Calculate total price for order details
      */
     double calculateTotalPrice(List<OrderDetails> orderDetailsList);
+    
+    /**
+     * Fill in the food name and type on order lines saved before lines stored
+     * them. Lines whose food has since been deleted cannot be filled and stay blank.
+     */
+    int backfillOrderLineSnapshots();
 }
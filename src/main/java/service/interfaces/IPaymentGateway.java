@@ -0,0 +1,26 @@
+package service.interfaces;
+
+import model.Money;
+
+/**
+ * External wallet or card provider that has to approve a charge
+ * before the local balance is debited.
+ */
+public interface IPaymentGateway {
+
+    //Provider name used in messages and metrics, e.g. "TNG"
+    String getName();
+
+    /**
+     * Ask the provider to charge the account
+     * @return the provider's authorization reference
+     * @throws PaymentGatewayException if the charge was declined or the provider failed
+     */
+    String charge(String identifier, Money amount) throws PaymentGatewayException;
+
+    /**
+     * Return a previously authorized charge
+     * @throws PaymentGatewayException if the provider could not process the refund
+     */
+    void refund(String reference, Money amount) throws PaymentGatewayException;
+}
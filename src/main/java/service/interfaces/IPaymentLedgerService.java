@@ -0,0 +1,18 @@
+package service.interfaces;
+
+import java.util.List;
+
+import model.PaymentTransaction;
+import model.ReconciliationReport;
+
+public interface IPaymentLedgerService {
+
+    //Ledger entries for one payment method, oldest first
+    List<PaymentTransaction> getHistory(int paymentMethodId);
+
+    //Stream the ledger and check every account's chain and final balance against payment_methods
+    ReconciliationReport reconcile();
+
+    //Write an opening entry (in one batch) for every account that has no ledger entries yet
+    int openUnledgeredAccounts();
+}
@@ -1,15 +1,49 @@
 package service.interfaces;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+import model.ImportReport;
+import model.Money;
 import model.Payment;
 import model.PaymentMethod;
+import model.PaymentResult;
 
 public interface IPaymentService {
     
-    Payment processPayment(String paymentType, String identifier, String password, double amount) 
+    /**
+     * Authenticate the payment method and debit it.
+     * The result carries the authenticated method (with its new balance),
+     * so callers never need to look it up again.
+     */
+    PaymentResult processPayment(String paymentType, String identifier, String password, Money amount) 
             throws IllegalArgumentException;
+
+    /**
+     * Process payment for a double amount (rounded to the nearest sen)
+     */
+    default PaymentResult processPayment(String paymentType, String identifier, String password, double amount)
+            throws IllegalArgumentException {
+        return processPayment(paymentType, identifier, password, Money.of(amount));
+    }
+    
+    /**
+     * Give back everything a successful processPayment took, fee included,
+     * recording a credit in the ledger
+     * @return the balance after the refund
+     */
+    Money refund(PaymentResult charge);
     
     /**
      * Create payment instance from payment method
      */
     Payment createPayment(PaymentMethod paymentMethod);
+    
+    /**
+     * Create payment methods from CSV
+     * (payment_type,wallet_id,card_number,expiry_date,password,balance);
+     * rows that fail validation or duplicate an existing account go to rejects
+     */
+    ImportReport importPaymentMethods(Reader source, Writer rejects) throws IOException;
 }
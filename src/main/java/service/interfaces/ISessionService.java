@@ -0,0 +1,20 @@
+package service.interfaces;
+
+import java.util.Optional;
+
+import model.Customer;
+
+public interface ISessionService {
+
+    //Issue an opaque token for a customer who has just logged in
+    String open(Customer customer);
+
+    //Customer behind a live token, from memory; each use pushes the expiry back
+    Optional<Customer> authenticate(String token);
+
+    //End a session; false if the token was unknown or already expired
+    boolean close(String token);
+
+    //Sessions that have not expired yet
+    int getActiveSessionCount();
+}
@@ -0,0 +1,30 @@
+package service.interfaces;
+
+/**
+ * Raised when a payment gateway does not approve a charge.
+ * A decline is a valid answer from a healthy provider; anything else
+ * (errors, timeouts, open circuit, full bulkhead) means the provider is unavailable.
+ */
+public class PaymentGatewayException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean declined;
+
+    public PaymentGatewayException(String message) {
+        this(message, false);
+    }
+
+    private PaymentGatewayException(String message, boolean declined) {
+        super(message);
+        this.declined = declined;
+    }
+
+    public static PaymentGatewayException declined(String message) {
+        return new PaymentGatewayException(message, true);
+    }
+
+    public boolean isDeclined() {
+        return declined;
+    }
+}
@@ -0,0 +1,161 @@
+package util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Stored password hashes by account, verified in Java.
+ * Each hash is loaded once and kept for a while, so logins stop sending
+ * passwords (or their hashes) to the database, and an account that does not
+ * exist is remembered too. Passwords that recently failed against an account
+ * are remembered as keyed fingerprints, so repeating the same wrong password
+ * is rejected from memory without a query or another PBKDF2 run.
+ */
+public class CredentialCache<K> {
+
+    public static final int DEFAULT_MAX_ACCOUNTS = 10_000;
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    //Wrong passwords remembered per account; older ones fall off
+    private static final int FAILURES_PER_ACCOUNT = 8;
+    private static final String FINGERPRINT_ALGORITHM = "HmacSHA256";
+
+    private final LruCache<K, Entry> entries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    // Random per process: fingerprints cannot be compared against anything outside this cache
+    private final SecretKeySpec fingerprintKey;
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder rejectedFromMemory = new LongAdder();
+
+    public CredentialCache() {
+        this(DEFAULT_MAX_ACCOUNTS, DEFAULT_TTL_MILLIS, System::nanoTime);
+    }
+
+    public CredentialCache(int maxAccounts, long ttlMillis, LongSupplier nanoClock) {
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("ttlMillis must be positive");
+        }
+        this.entries = new LruCache<>(maxAccounts);
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.clock = nanoClock;
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.fingerprintKey = new SecretKeySpec(key, FINGERPRINT_ALGORITHM);
+    }
+
+    /**
+     * Check a password for an account.
+     *
+     * @param account Account key (customer ID, admin name, wallet ID...)
+     * @param password Plain text password from the user
+     * @param loadHash Reads the stored hash; empty if the account does not exist.
+     *                 If the store cannot be read it must throw rather than return empty;
+     *                 the exception reaches the caller and nothing is cached for the account
+     * @return true if the password matches the stored hash
+     */
+    public boolean verify(K account, String password, Supplier<Optional<String>> loadHash) {
+        if (account == null || password == null) {
+            return false;
+        }
+        Entry entry = entries.get(account).filter(e -> clock.getAsLong() - e.loadedAt < ttlNanos).orElse(null);
+        if (entry == null) {
+            loads.increment();
+            entry = new Entry(loadHash.get().orElse(null), clock.getAsLong());
+            entries.put(account, entry);
+        }
+        if (entry.storedHash == null) {
+            rejectedFromMemory.increment();
+            return false;
+        }
+
+        byte[] fingerprint = fingerprint(password);
+        if (entry.hasFailed(fingerprint)) {
+            rejectedFromMemory.increment();
+            return false;
+        }
+        if (PasswordUtil.verifyPassword(password, entry.storedHash)) {
+            return true;
+        }
+        entry.recordFailure(fingerprint);
+        return false;
+    }
+
+    //Whether the cached hash for an account should be upgraded (see PasswordUtil.needsRehash)
+    public boolean needsRehash(K account) {
+        return entries.get(account)
+                .map(entry -> entry.storedHash != null && PasswordUtil.needsRehash(entry.storedHash))
+                .orElse(false);
+    }
+
+    //Record a hash the caller just stored (e.g. after upgrading it); forgets earlier failures
+    public void update(K account, String storedHash) {
+        entries.put(account, new Entry(storedHash, clock.getAsLong()));
+    }
+
+    //Drop what is known about an account, e.g. after it was created or its password changed
+    public void invalidate(K account) {
+        entries.remove(account);
+    }
+
+    //Number of times a stored hash was read from the store
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    //Attempts rejected without touching the store or running the hash
+    public long getRejectedFromMemory() {
+        return rejectedFromMemory.sum();
+    }
+
+    private byte[] fingerprint(String password) {
+        try {
+            Mac mac = Mac.getInstance(FINGERPRINT_ALGORITHM);
+            mac.init(fingerprintKey);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException(FINGERPRINT_ALGORITHM + " not available", e);
+        }
+    }
+
+    private static final class Entry {
+
+        private final String storedHash;
+        private final long loadedAt;
+        private final Deque<byte[]> failures = new ArrayDeque<>();
+
+        Entry(String storedHash, long loadedAt) {
+            this.storedHash = storedHash;
+            this.loadedAt = loadedAt;
+        }
+
+        synchronized boolean hasFailed(byte[] fingerprint) {
+            for (byte[] failed : failures) {
+                if (MessageDigest.isEqual(failed, fingerprint)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized void recordFailure(byte[] fingerprint) {
+            if (failures.size() == FAILURES_PER_ACCOUNT) {
+                failures.removeFirst();
+            }
+            failures.addLast(fingerprint);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import model.ImportReport;
+
+/**
+ * Streams a CSV file through parse, then store-in-chunks.
+ * The first record is the header; columns are found by name, so their order
+ * does not matter. Each data row is parsed on its own: a row whose parser
+ * throws IllegalArgumentException is written to the rejects file with the
+ * reason and the import carries on. Parsed rows are handed to the store step
+ * `chunkSize` at a time (one transaction each); if a chunk fails, all of its
+ * rows are rejected with that error. Memory use is bounded by one chunk.
+ * Redacted columns (passwords) are blanked in the rejects file.
+ */
+public class ImportPipeline<T> {
+
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    private final List<String> columns;
+    private final int chunkSize;
+    private final List<String> redacted = new ArrayList<>();
+
+    /**
+     * @param columns Header names every file must have (case-insensitive)
+     * @param chunkSize Rows stored per transaction
+     */
+    public ImportPipeline(List<String> columns, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be at least 1");
+        }
+        this.columns = List.copyOf(columns);
+        this.chunkSize = chunkSize;
+    }
+
+    //Columns whose values must not be copied into the rejects file
+    public ImportPipeline<T> redact(String... columnNames) {
+        redacted.addAll(Arrays.asList(columnNames));
+        return this;
+    }
+
+    /**
+     * Run the import.
+     *
+     * @param source CSV input, header first
+     * @param rejects Receives the header plus an "error" column, then every rejected row
+     * @param parser Turns a row into a record, or throws IllegalArgumentException with the reason
+     * @param store Stores a chunk of records atomically; throwing rejects the whole chunk
+     * @throws IllegalArgumentException if the header lacks a required column
+     */
+    public ImportReport run(Reader source, Writer rejects, RowParser<T> parser,
+                            Consumer<List<T>> store) throws IOException {
+        long start = System.nanoTime();
+        CsvReader reader = new CsvReader(source);
+        CsvWriter rejectWriter = new CsvWriter(rejects);
+        String[] header = reader.next();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            index.putIfAbsent(header[i].trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : columns) {
+            if (!index.containsKey(column.toLowerCase(Locale.ROOT))) {
+                throw new IllegalArgumentException("CSV header is missing column '" + column + "'");
+            }
+        }
+        String[] rejectHeader = Arrays.copyOf(header, header.length + 1);
+        rejectHeader[header.length] = "error";
+        rejectWriter.writeRecord(rejectHeader);
+        int[] blanked = redacted.stream()
+                .map(column -> index.get(column.toLowerCase(Locale.ROOT)))
+                .filter(i -> i != null)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        Rejects out = new Rejects(rejectWriter, header.length, blanked);
+
+        long rowsRead = 0;
+        long imported = 0;
+        long rejected = 0;
+        int chunks = 0;
+        List<T> records = new ArrayList<>(chunkSize);
+        List<String[]> rawRows = new ArrayList<>(chunkSize);
+        String[] fields;
+        while ((fields = reader.next()) != null) {
+            if (isBlank(fields)) {
+                continue;
+            }
+            rowsRead++;
+            try {
+                records.add(parser.parse(new Row(fields, index, reader.getRecordLine())));
+                rawRows.add(fields);
+            } catch (IllegalArgumentException e) {
+                out.write(fields, e.getMessage());
+                rejected++;
+                continue;
+            }
+            if (records.size() == chunkSize) {
+                int stored = storeChunk(store, records, rawRows, out);
+                imported += stored;
+                rejected += records.size() - stored;
+                chunks += stored > 0 ? 1 : 0;
+                records.clear();
+                rawRows.clear();
+            }
+        }
+        if (!records.isEmpty()) {
+            int stored = storeChunk(store, records, rawRows, out);
+            imported += stored;
+            rejected += records.size() - stored;
+            chunks += stored > 0 ? 1 : 0;
+        }
+        rejectWriter.flush();
+        return new ImportReport(rowsRead, imported, rejected, chunks, System.nanoTime() - start);
+    }
+
+    //Number of rows stored: all of them, or none if the chunk failed
+    private int storeChunk(Consumer<List<T>> store, List<T> records, List<String[]> rawRows,
+                           Rejects out) throws IOException {
+        try {
+            store.accept(records);
+            return records.size();
+        } catch (RuntimeException e) {
+            for (String[] raw : rawRows) {
+                out.write(raw, "Chunk not stored: " + e.getMessage());
+            }
+            return 0;
+        }
+    }
+
+    //Rejected rows: the original fields (redacted ones blanked) plus the reason
+    private static final class Rejects {
+
+        private final CsvWriter writer;
+        private final int width;
+        private final int[] blanked;
+
+        Rejects(CsvWriter writer, int width, int[] blanked) {
+            this.writer = writer;
+            this.width = width;
+            this.blanked = blanked;
+        }
+
+        void write(String[] fields, String reason) throws IOException {
+            String[] row = Arrays.copyOf(fields, Math.max(width, fields.length) + 1);
+            for (int i : blanked) {
+                row[i] = "";
+            }
+            row[row.length - 1] = reason;
+            writer.writeRecord(row);
+        }
+    }
+
+    private static boolean isBlank(String[] fields) {
+        for (String field : fields) {
+            if (!field.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Turns one CSV row into a record.
+     */
+    @FunctionalInterface
+    public interface RowParser<T> {
+        T parse(Row row) throws IllegalArgumentException;
+    }
+
+    /**
+     * One data row with its fields looked up by header name.
+     */
+    public static final class Row {
+
+        private final String[] fields;
+        private final Map<String, Integer> index;
+        private final long lineNumber;
+
+        Row(String[] fields, Map<String, Integer> index, long lineNumber) {
+            this.fields = fields;
+            this.index = index;
+            this.lineNumber = lineNumber;
+        }
+
+        //Trimmed value of a column; empty if the column or the field is missing
+        public String get(String column) {
+            Integer i = index.get(column.toLowerCase(Locale.ROOT));
+            return i == null || i >= fields.length ? "" : fields[i].trim();
+        }
+
+        public int getInt(String column) {
+            String value = get(column);
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(column + " must be a whole number: '" + value + "'");
+            }
+        }
+
+        public long getLineNumber() {
+            return lineNumber;
+        }
+    }
+}
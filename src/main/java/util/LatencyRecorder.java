@@ -0,0 +1,108 @@
+package util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram keyed by operation name.
+ * Samples fall into fixed buckets so recording is a few atomic adds,
+ * and percentiles are reported as the upper bound of the matching bucket.
+ */
+public class LatencyRecorder {
+
+    //Bucket upper bounds in microseconds; the last bucket is open-ended
+    private static final long[] BOUNDS_MICROS = {
+            100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000,
+            100_000, 250_000, 500_000, 1_000_000, 2_500_000, 5_000_000
+    };
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    //Record one sample for the named operation
+    public void record(String name, long elapsedNanos) {
+        histograms.computeIfAbsent(name, k -> new Histogram()).record(elapsedNanos);
+    }
+
+    public long getCount(String name) {
+        Histogram histogram = histograms.get(name);
+        return histogram == null ? 0 : histogram.count.sum();
+    }
+
+    //Upper bound (in microseconds) of the bucket holding the given percentile, or 0 with no samples
+    public long percentileMicros(String name, double percentile) {
+        Histogram histogram = histograms.get(name);
+        return histogram == null ? 0 : histogram.percentileMicros(percentile);
+    }
+
+    //Point-in-time view of every operation, sorted by name, ready for JSON output
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new TreeMap<>();
+        histograms.forEach((name, histogram) -> result.put(name, histogram.toMap()));
+        return result;
+    }
+
+    public void reset() {
+        histograms.clear();
+    }
+
+    private static final class Histogram {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS_MICROS.length + 1);
+
+        void record(long elapsedNanos) {
+            long nanos = Math.max(0, elapsedNanos);
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            buckets.incrementAndGet(bucketFor(TimeUnit.NANOSECONDS.toMicros(nanos)));
+        }
+
+        private static int bucketFor(long micros) {
+            for (int i = 0; i < BOUNDS_MICROS.length; i++) {
+                if (micros <= BOUNDS_MICROS[i]) {
+                    return i;
+                }
+            }
+            return BOUNDS_MICROS.length;
+        }
+
+        long percentileMicros(double percentile) {
+            long total = count.sum();
+            if (total == 0) {
+                return 0;
+            }
+            long maxMicros = TimeUnit.NANOSECONDS.toMicros(maxNanos.get());
+            long rank = (long) Math.ceil(total * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < BOUNDS_MICROS.length; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    // Never report more than was actually observed
+                    return Math.min(BOUNDS_MICROS[i], maxMicros);
+                }
+            }
+            return maxMicros;
+        }
+
+        Map<String, Object> toMap() {
+            long samples = count.sum();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("count", samples);
+            map.put("meanMicros", samples == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalNanos.sum() / samples));
+            map.put("p50Micros", percentileMicros(50));
+            map.put("p95Micros", percentileMicros(95));
+            map.put("p99Micros", percentileMicros(99));
+            map.put("maxMicros", TimeUnit.NANOSECONDS.toMicros(maxNanos.get()));
+            return map;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets for login attempts, checked before any hash or query runs.
+ * Keys (customer ID, admin name, wallet or card identifier) hash onto a fixed
+ * array of stripes, so memory stays constant however many accounts are tried.
+ * Each stripe is one long holding the time its bucket is full again
+ * (the "theoretical arrival time" form of a token bucket), updated with CAS,
+ * so concurrent attempts never block each other. Keys that share a stripe
+ * share a bucket; the hash is seeded per process, so apart from keys with
+ * equal hash codes, which accounts share a stripe changes from run to run.
+ */
+public class LoginThrottle<K> {
+
+    public static final int DEFAULT_BURST = 10;
+    public static final long DEFAULT_REFILL_MILLIS = TimeUnit.SECONDS.toMillis(6);
+    public static final int DEFAULT_STRIPES = 4096;
+
+    private final AtomicLongArray stripes;
+    private final int mask;
+    private final long intervalNanos;
+    //How far ahead of now a stripe may run before attempts are refused (burst * interval)
+    private final long toleranceNanos;
+    private final LongSupplier clock;
+    private final int seed = ThreadLocalRandom.current().nextInt();
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+
+    public LoginThrottle() {
+        this(DEFAULT_BURST, DEFAULT_REFILL_MILLIS, DEFAULT_STRIPES, System::nanoTime);
+    }
+
+    /**
+     * @param burst Attempts allowed back to back on a full bucket
+     * @param refillMillis Time for one attempt to be given back
+     * @param stripes Number of buckets; rounded up to a power of two
+     * @param nanoClock Time source, injectable for tests
+     */
+    public LoginThrottle(int burst, long refillMillis, int stripes, LongSupplier nanoClock) {
+        if (burst < 1 || refillMillis <= 0 || stripes < 1) {
+            throw new IllegalArgumentException("burst, refillMillis and stripes must be positive");
+        }
+        this.stripes = new AtomicLongArray(stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1);
+        this.mask = this.stripes.length() - 1;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(refillMillis);
+        this.toleranceNanos = intervalNanos * burst;
+        this.clock = nanoClock;
+        // Start every bucket full
+        long start = nanoClock.getAsLong();
+        for (int i = 0; i < this.stripes.length(); i++) {
+            this.stripes.set(i, start);
+        }
+    }
+
+    /**
+     * Take one attempt for a key.
+     *
+     * @return false if the key's bucket is empty and the attempt must be refused
+     */
+    public boolean tryAcquire(K key) {
+        int stripe = stripeFor(key);
+        while (true) {
+            long now = clock.getAsLong();
+            long current = stripes.get(stripe);
+            // A stripe in the past has a full bucket; each attempt pushes it one interval further
+            long next = (current - now > 0 ? current : now) + intervalNanos;
+            if (next - now > toleranceNanos) {
+                throttled.increment();
+                return false;
+            }
+            if (stripes.compareAndSet(stripe, current, next)) {
+                allowed.increment();
+                return true;
+            }
+        }
+    }
+
+    //Give back the attempt taken by a successful login, so an owner's own logins do not drain the bucket
+    public void refund(K key) {
+        int stripe = stripeFor(key);
+        while (true) {
+            long now = clock.getAsLong();
+            long current = stripes.get(stripe);
+            if (current - now <= 0) {
+                return;
+            }
+            long next = current - intervalNanos;
+            if (stripes.compareAndSet(stripe, current, next - now > 0 ? next : now)) {
+                return;
+            }
+        }
+    }
+
+    //Attempts let through
+    public long getAllowed() {
+        return allowed.sum();
+    }
+
+    //Attempts refused before hashing or querying
+    public long getThrottled() {
+        return throttled.sum();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("allowed", getAllowed());
+        stats.put("throttled", getThrottled());
+        return stats;
+    }
+
+    private int stripeFor(K key) {
+        int h = (key == null ? 0 : key.hashCode()) ^ seed;
+        h *= 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
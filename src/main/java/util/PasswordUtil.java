@@ -1,57 +1,173 @@
 package util;
 
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Base64;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
 
 /**
  * Password Utility Class
- * Provides SHA-256 password hashing functionality
+ * New hashes use salted PBKDF2-HMAC-SHA256 in a versioned format:
+ *   pbkdf2-sha256$<iterations>$<salt>$<hash>   (salt and hash unpadded Base64)
+ * Unsalted SHA-256 hex from before is still verified, and needsRehash
+ * reports it (or a lower iteration count) so logins can upgrade the stored hash.
  * Follows SOLID: Single Responsibility Principle
  */
 public class PasswordUtil {
 
+    public static final String PBKDF2_PREFIX = "pbkdf2-sha256";
+
+    //Iteration count for new hashes; override with -Dapp.password.iterations
+    public static final int DEFAULT_ITERATIONS = 100_000;
+    public static final int MIN_ITERATIONS = 1_000;
+
+    private static final String PBKDF2_ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder B64_ENCODER = Base64.getEncoder().withoutPadding();
+    private static final Base64.Decoder B64_DECODER = Base64.getDecoder();
+
+    //MessageDigest is not thread-safe; one per thread avoids a provider lookup per call
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // This should ideally not happen as SHA-256 is a standard algorithm
+            throw new RuntimeException("SHA-256 algorithm not found", e);
+        }
+    });
+
+    private static volatile int iterations = Integer.getInteger("app.password.iterations", DEFAULT_ITERATIONS);
+
     /**
-     * Hashes a plain text password using SHA-256.
+     * Hashes a plain text password using unsalted SHA-256 (the legacy format).
+     * Only kept for verifying and looking up hashes stored before PBKDF2; use hash() for new ones.
      *
      * @param password The plain text password.
      * @return The SHA-256 hashed password as a hexadecimal string.
-     * @throws RuntimeException if SHA-256 algorithm is not available.
      */
     public static String hashPassword(String password) {
         if (password == null) {
             throw new IllegalArgumentException("Password cannot be null");
         }
-        
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(password.getBytes());
-            // Convert byte array to hexadecimal string
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            // This should ideally not happen as SHA-256 is a standard algorithm
-            throw new RuntimeException("SHA-256 algorithm not found", e);
+        MessageDigest digest = SHA256.get();
+        byte[] hash = digest.digest(password.getBytes(StandardCharsets.UTF_8));
+        // Convert byte array to hexadecimal string
+        char[] hex = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            hex[i * 2] = HEX[(hash[i] >> 4) & 0xf];
+            hex[i * 2 + 1] = HEX[hash[i] & 0xf];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Hashes a password with a fresh salt at the configured iteration count.
+     *
+     * @param password The plain text password.
+     * @return The versioned PBKDF2 hash to store.
+     */
+    public static String hash(String password) {
+        return hash(password, iterations);
+    }
+
+    //Same as hash(password) with an explicit cost, e.g. for benchmarking
+    public static String hash(String password, int iterations) {
+        if (password == null) {
+            throw new IllegalArgumentException("Password cannot be null");
         }
+        checkIterations(iterations);
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] derived = pbkdf2(password, salt, iterations, HASH_BITS);
+        return PBKDF2_PREFIX + '$' + iterations + '$' + B64_ENCODER.encodeToString(salt)
+                + '$' + B64_ENCODER.encodeToString(derived);
     }
 
     /**
-     * Verifies a plain text password against a stored SHA-256 hash.
+     * Verifies a plain text password against a stored hash in either format.
+     * The final comparison is constant-time so timing does not leak how much matched.
      *
      * @param inputPassword The plain text password provided by the user.
-     * @param storedHash The SHA-256 hash retrieved from the database.
-     * @return true if the hashed input password matches the stored hash, false otherwise.
+     * @param storedHash The hash retrieved from the database.
+     * @return true if the password matches, false otherwise (including malformed hashes).
      */
     public static boolean verifyPassword(String inputPassword, String storedHash) {
         if (inputPassword == null || storedHash == null) {
             return false;
         }
-        String hashedInputPassword = hashPassword(inputPassword);
-        return hashedInputPassword.equals(storedHash);
+        if (!storedHash.startsWith(PBKDF2_PREFIX + '$')) {
+            return MessageDigest.isEqual(
+                    hashPassword(inputPassword).getBytes(StandardCharsets.US_ASCII),
+                    storedHash.getBytes(StandardCharsets.US_ASCII));
+        }
+        String[] parts = storedHash.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            byte[] salt = B64_DECODER.decode(parts[2]);
+            byte[] expected = B64_DECODER.decode(parts[3]);
+            if (storedIterations < 1 || expected.length == 0) {
+                return false;
+            }
+            byte[] actual = pbkdf2(inputPassword, salt, storedIterations, expected.length * 8);
+            return MessageDigest.isEqual(actual, expected);
+        } catch (IllegalArgumentException e) {
+            // Bad number or Base64 in the stored value
+            return false;
+        }
     }
-}
 
+    /**
+     * Whether a stored hash should be replaced after a successful login:
+     * it is in the legacy format or uses fewer iterations than currently configured.
+     */
+    public static boolean needsRehash(String storedHash) {
+        if (storedHash == null || !storedHash.startsWith(PBKDF2_PREFIX + '$')) {
+            return true;
+        }
+        String[] parts = storedHash.split("\\$");
+        try {
+            return parts.length != 4 || Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    public static int getIterations() {
+        return iterations;
+    }
+
+    //Change the cost of new hashes; existing hashes are upgraded as their owners log in
+    public static void setIterations(int newIterations) {
+        checkIterations(newIterations);
+        iterations = newIterations;
+    }
+
+    private static void checkIterations(int count) {
+        if (count < MIN_ITERATIONS) {
+            throw new IllegalArgumentException("Iterations must be at least " + MIN_ITERATIONS);
+        }
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int count, int bits) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, count, bits);
+        try {
+            return SecretKeyFactory.getInstance(PBKDF2_ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+            throw new RuntimeException(PBKDF2_ALGORITHM + " not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import util.logging.Logger;
+import util.logging.LoggerFactory;
+
+/**
+ * Lightweight saga step executor.
+ * Each step runs immediately and registers how to undo it; if a later step
+ * fails the caller runs compensate(), which undoes the completed steps newest
+ * first. Steps stay short and hold no locks or transactions between them.
+ */
+public class Saga {
+
+    private static final Logger LOG = LoggerFactory.getLogger(Saga.class);
+
+    private final String name;
+    private final Deque<Compensation> completed = new ArrayDeque<>();
+
+    public Saga(String name) {
+        this.name = name;
+    }
+
+    //Run a step that produces a value; the compensation receives that value
+    public <T> T step(String stepName, Supplier<T> action, Consumer<T> compensation) {
+        T result = action.get();
+        completed.push(new Compensation(stepName, () -> compensation.accept(result)));
+        return result;
+    }
+
+    //Run a step with no result
+    public void step(String stepName, Runnable action, Runnable compensation) {
+        action.run();
+        completed.push(new Compensation(stepName, compensation));
+    }
+
+    /**
+     * Undo every completed step, newest first. A compensation that throws is
+     * logged and skipped so the remaining ones still run.
+     * @return names of the steps that could not be compensated
+     */
+    public List<String> compensate() {
+        List<String> failed = new ArrayList<>();
+        while (!completed.isEmpty()) {
+            Compensation compensation = completed.pop();
+            try {
+                compensation.undo.run();
+            } catch (RuntimeException e) {
+                LOG.error("Saga '{}' could not compensate step '{}': {}", name, compensation.stepName, e.getMessage());
+                failed.add(compensation.stepName);
+            }
+        }
+        return failed;
+    }
+
+    //Names of completed steps still awaiting completion or compensation, oldest first
+    public List<String> getCompletedSteps() {
+        List<String> steps = new ArrayList<>();
+        completed.descendingIterator().forEachRemaining(c -> steps.add(c.stepName));
+        return steps;
+    }
+
+    private static final class Compensation {
+
+        private final String stepName;
+        private final Runnable undo;
+
+        Compensation(String stepName, Runnable undo) {
+            this.stepName = stepName;
+            this.undo = undo;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package util.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands events to a background thread through a pre-allocated ring buffer.
+ * Producers claim a slot with a CAS, copy the raw template and arguments into
+ * the recycled event and return immediately; formatting and I/O happen on the
+ * worker thread. When the buffer is full the event is dropped and counted
+ * rather than blocking the caller.
+ */
+public class AsyncAppender implements LogAppender {
+
+    //Producers unpark the worker, so this is only a safety net against a missed wake-up
+    private static final long IDLE_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+    //How often a flushing caller re-checks progress while it waits for the worker
+    private static final long FLUSH_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final LogAppender delegate;
+    private final LogEvent[] ring;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread worker;
+
+    private volatile long consumed;
+    private volatile boolean running = true;
+
+    public AsyncAppender(LogAppender delegate, int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two >= 2");
+        }
+        this.delegate = delegate;
+        this.ring = new LogEvent[capacity];
+        this.published = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new LogEvent();
+            published.set(i, -1L);
+        }
+        this.worker = new Thread(this::drainLoop, "async-log-appender");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public void append(LogEvent event) {
+        long seq;
+        do {
+            seq = claimed.get();
+            if (!running || seq - consumed >= ring.length) {
+                dropped.increment();
+                return;
+            }
+        } while (!claimed.compareAndSet(seq, seq + 1));
+
+        int index = (int) (seq & mask);
+        ring[index].copyFrom(event);
+        published.set(index, seq);
+        LockSupport.unpark(worker);
+    }
+
+    //Wait until everything appended so far has reached the delegate, then flush it
+    @Override
+    public void flush() {
+        long target = claimed.get();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (consumed < target && worker.isAlive() && System.nanoTime() < deadline) {
+            LockSupport.unpark(worker);
+            LockSupport.parkNanos(this, FLUSH_POLL_NANOS);
+        }
+        delegate.flush();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        delegate.close();
+    }
+
+    //Events rejected because the ring buffer was full or the appender closed
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public LogAppender getDelegate() {
+        return delegate;
+    }
+
+    private void drainLoop() {
+        boolean unflushed = false;
+        while (true) {
+            long next = consumed;
+            int index = (int) (next & mask);
+            if (published.get(index) == next) {
+                LogEvent event = ring[index];
+                try {
+                    delegate.append(event);
+                } catch (RuntimeException e) {
+                    System.err.println("Log appender failed: " + e.getMessage());
+                }
+                event.clear();
+                consumed = next + 1;
+                unflushed = true;
+            } else if (!running && next >= claimed.get()) {
+                break;
+            } else if (unflushed) {
+                // Batch drained; push it out once before waiting
+                delegate.flush();
+                unflushed = false;
+            } else {
+                // Idle; the next producer unparks us
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+        delegate.flush();
+    }
+}
@@ -0,0 +1,26 @@
+package util.logging;
+
+import java.io.PrintStream;
+
+/**
+ * Writes events to standard error.
+ * System.err is looked up on every write so redirection (e.g. in tests)
+ * is honoured even after the appender has been created.
+ */
+public class ConsoleAppender implements LogAppender {
+
+    private final StringBuilder buffer = new StringBuilder(256);
+
+    @Override
+    public synchronized void append(LogEvent event) {
+        buffer.setLength(0);
+        LogLayout.format(event, buffer);
+        PrintStream err = System.err;
+        err.print(buffer);
+    }
+
+    @Override
+    public synchronized void flush() {
+        System.err.flush();
+    }
+}
@@ -0,0 +1,17 @@
+package util.logging;
+
+//Destination for log events
+public interface LogAppender {
+
+    //Write one event; the event may be recycled after this call returns
+    void append(LogEvent event);
+
+    //Push buffered output to the underlying sink
+    default void flush() {
+    }
+
+    //Release resources held by the appender
+    default void close() {
+        flush();
+    }
+}
@@ -0,0 +1,87 @@
+package util.logging;
+
+/**
+ * Mutable log record.
+ * Holds the message template and raw arguments so formatting happens only
+ * when an appender actually writes the event. Instances are reused by the
+ * async ring buffer, so appenders must not keep a reference after append.
+ */
+public final class LogEvent {
+
+    private LogLevel level;
+    private String loggerName;
+    private long timestamp;
+    private String template;
+    private Object arg0;
+    private Object arg1;
+    private Object[] args;
+    private int argCount;
+
+    LogEvent() {
+    }
+
+    void set(LogLevel level, String loggerName, long timestamp, String template,
+             int argCount, Object arg0, Object arg1, Object[] args) {
+        this.level = level;
+        this.loggerName = loggerName;
+        this.timestamp = timestamp;
+        this.template = template;
+        this.argCount = argCount;
+        this.arg0 = arg0;
+        this.arg1 = arg1;
+        this.args = args;
+    }
+
+    void copyFrom(LogEvent other) {
+        set(other.level, other.loggerName, other.timestamp, other.template,
+                other.argCount, other.arg0, other.arg1, other.args);
+    }
+
+    //Drop argument references so recycled slots do not pin objects in memory
+    void clear() {
+        template = null;
+        arg0 = null;
+        arg1 = null;
+        args = null;
+        argCount = 0;
+    }
+
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    public String getLoggerName() {
+        return loggerName;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    //Append the formatted message (and trailing throwable, if any) to the buffer
+    public void formatMessage(StringBuilder out) {
+        switch (argCount) {
+            case 0:
+                MessageFormatter.format(out, template);
+                break;
+            case 1:
+                MessageFormatter.format(out, template, arg0);
+                break;
+            case 2:
+                MessageFormatter.format(out, template, arg0, arg1);
+                break;
+            default:
+                MessageFormatter.format(out, template, args);
+        }
+    }
+
+    public String getFormattedMessage() {
+        StringBuilder sb = new StringBuilder();
+        formatMessage(sb);
+        return sb.toString();
+    }
+}
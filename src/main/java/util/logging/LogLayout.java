@@ -0,0 +1,26 @@
+package util.logging;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+//Shared single-line layout: "yyyy-MM-dd HH:mm:ss.SSS LEVEL [logger] message"
+final class LogLayout {
+
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private LogLayout() {
+    }
+
+    static void format(LogEvent event, StringBuilder out) {
+        TIMESTAMP.formatTo(Instant.ofEpochMilli(event.getTimestamp()), out);
+        out.append(' ').append(event.getLevel().name());
+        if (event.getLevel().name().length() < 5) {
+            out.append(' ');
+        }
+        out.append(" [").append(event.getLoggerName()).append("] ");
+        event.formatMessage(out);
+        out.append(System.lineSeparator());
+    }
+}
@@ -0,0 +1,28 @@
+package util.logging;
+
+//Severity levels in ascending order; OFF disables all output
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    OFF;
+
+    //Check whether a message at this level passes the given threshold
+    public boolean isAtLeast(LogLevel threshold) {
+        return threshold != OFF && ordinal() >= threshold.ordinal();
+    }
+
+    //Parse a level name, falling back to the default when unknown
+    public static LogLevel parse(String name, LogLevel defaultLevel) {
+        if (name == null || name.trim().isEmpty()) {
+            return defaultLevel;
+        }
+        for (LogLevel level : values()) {
+            if (level.name().equalsIgnoreCase(name.trim())) {
+                return level;
+            }
+        }
+        return defaultLevel;
+    }
+}
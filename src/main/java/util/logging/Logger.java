@@ -0,0 +1,105 @@
+package util.logging;
+
+/**
+ * Logging facade handed out by LoggerFactory.
+ * Level checks happen before anything is allocated and arguments are only
+ * formatted by the appender, so disabled or buffered calls stay cheap.
+ * Use "{}" placeholders instead of string concatenation.
+ */
+public final class Logger {
+
+    private final String name;
+
+    Logger(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isEnabled(LogLevel level) {
+        return level.isAtLeast(LoggerFactory.getLevel());
+    }
+
+    public boolean isDebugEnabled() {
+        return isEnabled(LogLevel.DEBUG);
+    }
+
+    public void debug(String message) {
+        log(LogLevel.DEBUG, message, 0, null, null, null);
+    }
+
+    public void debug(String template, Object arg) {
+        log(LogLevel.DEBUG, template, 1, arg, null, null);
+    }
+
+    public void debug(String template, Object arg0, Object arg1) {
+        log(LogLevel.DEBUG, template, 2, arg0, arg1, null);
+    }
+
+    public void debug(String template, Object... args) {
+        log(LogLevel.DEBUG, template, args.length, null, null, args);
+    }
+
+    public void info(String message) {
+        log(LogLevel.INFO, message, 0, null, null, null);
+    }
+
+    public void info(String template, Object arg) {
+        log(LogLevel.INFO, template, 1, arg, null, null);
+    }
+
+    public void info(String template, Object arg0, Object arg1) {
+        log(LogLevel.INFO, template, 2, arg0, arg1, null);
+    }
+
+    public void info(String template, Object... args) {
+        log(LogLevel.INFO, template, args.length, null, null, args);
+    }
+
+    public void warn(String message) {
+        log(LogLevel.WARN, message, 0, null, null, null);
+    }
+
+    public void warn(String template, Object arg) {
+        log(LogLevel.WARN, template, 1, arg, null, null);
+    }
+
+    public void warn(String template, Object arg0, Object arg1) {
+        log(LogLevel.WARN, template, 2, arg0, arg1, null);
+    }
+
+    public void warn(String template, Object... args) {
+        log(LogLevel.WARN, template, args.length, null, null, args);
+    }
+
+    public void error(String message) {
+        log(LogLevel.ERROR, message, 0, null, null, null);
+    }
+
+    public void error(String template, Object arg) {
+        log(LogLevel.ERROR, template, 1, arg, null, null);
+    }
+
+    public void error(String template, Object arg0, Object arg1) {
+        log(LogLevel.ERROR, template, 2, arg0, arg1, null);
+    }
+
+    public void error(String template, Object... args) {
+        log(LogLevel.ERROR, template, args.length, null, null, args);
+    }
+
+    private void log(LogLevel level, String template, int argCount, Object arg0, Object arg1, Object[] args) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        LogEvent event = LoggerFactory.borrowEvent();
+        event.set(level, name, System.currentTimeMillis(), template, argCount, arg0, arg1, args);
+        try {
+            LoggerFactory.getAppender().append(event);
+        } finally {
+            event.clear();
+        }
+    }
+}
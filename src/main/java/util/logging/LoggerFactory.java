@@ -0,0 +1,91 @@
+package util.logging;
+
+import java.nio.file.Paths;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Creates loggers and holds the process-wide logging configuration.
+ *
+ * Defaults come from system properties:
+ *   app.log.level          DEBUG, INFO, WARN, ERROR or OFF (default INFO)
+ *   app.log.file           log to this file instead of the console
+ *   app.log.file.maxBytes  rotate after this many bytes (default 10 MB)
+ *   app.log.file.backups   number of rotated files to keep (default 5)
+ *   app.log.async          false to write on the calling thread (default true)
+ *   app.log.bufferSize     ring buffer slots, power of two (default 8192)
+ */
+public final class LoggerFactory {
+
+    private static final ConcurrentMap<String, Logger> LOGGERS = new ConcurrentHashMap<>();
+
+    //Scratch event per thread; appenders copy or consume it synchronously
+    private static final ThreadLocal<LogEvent> SCRATCH = ThreadLocal.withInitial(LogEvent::new);
+
+    private static volatile LogLevel level;
+    private static volatile LogAppender appender;
+
+    static {
+        level = LogLevel.parse(System.getProperty("app.log.level"), LogLevel.INFO);
+        appender = createDefaultAppender();
+        Runtime.getRuntime().addShutdownHook(new Thread(LoggerFactory::shutdown, "log-shutdown"));
+    }
+
+    private LoggerFactory() {
+    }
+
+    public static Logger getLogger(Class<?> type) {
+        return getLogger(type.getSimpleName());
+    }
+
+    public static Logger getLogger(String name) {
+        return LOGGERS.computeIfAbsent(name, Logger::new);
+    }
+
+    public static LogLevel getLevel() {
+        return level;
+    }
+
+    public static void setLevel(LogLevel newLevel) {
+        level = newLevel;
+    }
+
+    public static LogAppender getAppender() {
+        return appender;
+    }
+
+    //Swap the active appender and return the previous one (not closed)
+    public static LogAppender setAppender(LogAppender newAppender) {
+        LogAppender previous = appender;
+        appender = newAppender;
+        return previous;
+    }
+
+    //Flush and close the active appender; used at JVM exit
+    public static void shutdown() {
+        LogAppender current = appender;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    static LogEvent borrowEvent() {
+        return SCRATCH.get();
+    }
+
+    private static LogAppender createDefaultAppender() {
+        LogAppender sink;
+        String file = System.getProperty("app.log.file");
+        if (file != null && !file.trim().isEmpty()) {
+            long maxBytes = Long.getLong("app.log.file.maxBytes", 10L * 1024 * 1024);
+            int backups = Integer.getInteger("app.log.file.backups", 5);
+            sink = new RollingFileAppender(Paths.get(file.trim()), maxBytes, backups);
+        } else {
+            sink = new ConsoleAppender();
+        }
+        if (!Boolean.parseBoolean(System.getProperty("app.log.async", "true"))) {
+            return sink;
+        }
+        return new AsyncAppender(sink, Integer.getInteger("app.log.bufferSize", 8192));
+    }
+}
@@ -0,0 +1,79 @@
+package util.logging;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/**
+ * Substitutes "{}" placeholders in a log template.
+ * A trailing Throwable that is not consumed by a placeholder is appended
+ * as a stack trace, matching the usual logging facade convention.
+ */
+public final class MessageFormatter {
+
+    private static final String PLACEHOLDER = "{}";
+
+    private MessageFormatter() {
+    }
+
+    public static void format(StringBuilder out, String template) {
+        out.append(template);
+    }
+
+    public static void format(StringBuilder out, String template, Object arg) {
+        int consumed = substitute(out, template, arg, null, null, 1);
+        appendUnconsumedThrowable(out, consumed, 1, arg);
+    }
+
+    public static void format(StringBuilder out, String template, Object arg0, Object arg1) {
+        int consumed = substitute(out, template, arg0, arg1, null, 2);
+        appendUnconsumedThrowable(out, consumed, 2, arg1);
+    }
+
+    public static void format(StringBuilder out, String template, Object[] args) {
+        if (args == null || args.length == 0) {
+            out.append(template);
+            return;
+        }
+        int consumed = substitute(out, template, null, null, args, args.length);
+        appendUnconsumedThrowable(out, consumed, args.length, args[args.length - 1]);
+    }
+
+    //Convenience for callers that want a String
+    public static String format(String template, Object... args) {
+        StringBuilder sb = new StringBuilder();
+        format(sb, template, args);
+        return sb.toString();
+    }
+
+    //Copy the template into out, replacing placeholders; returns arguments consumed
+    private static int substitute(StringBuilder out, String template, Object arg0, Object arg1,
+                                  Object[] args, int argCount) {
+        if (template == null) {
+            out.append("null");
+            return 0;
+        }
+        int start = 0;
+        int used = 0;
+        while (used < argCount) {
+            int idx = template.indexOf(PLACEHOLDER, start);
+            if (idx < 0) {
+                break;
+            }
+            out.append(template, start, idx);
+            Object value = args != null ? args[used] : (used == 0 ? arg0 : arg1);
+            out.append(value);
+            used++;
+            start = idx + PLACEHOLDER.length();
+        }
+        out.append(template, start, template.length());
+        return used;
+    }
+
+    private static void appendUnconsumedThrowable(StringBuilder out, int consumed, int argCount, Object last) {
+        if (consumed < argCount && last instanceof Throwable) {
+            StringWriter trace = new StringWriter();
+            ((Throwable) last).printStackTrace(new PrintWriter(trace));
+            out.append(System.lineSeparator()).append(trace);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package util.logging;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends events to a file and rotates it by size.
+ * When the active file exceeds maxBytes it is renamed to file.1, older
+ * backups shift up by one and anything beyond maxBackups is deleted.
+ */
+public class RollingFileAppender implements LogAppender {
+
+    private final Path file;
+    private final long maxBytes;
+    private final int maxBackups;
+    private final StringBuilder buffer = new StringBuilder(256);
+
+    private BufferedWriter writer;
+    private long currentSize;
+
+    public RollingFileAppender(Path file, long maxBytes, int maxBackups) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        if (maxBackups < 0) {
+            throw new IllegalArgumentException("maxBackups cannot be negative");
+        }
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.maxBackups = maxBackups;
+    }
+
+    @Override
+    public synchronized void append(LogEvent event) {
+        buffer.setLength(0);
+        LogLayout.format(event, buffer);
+        try {
+            ensureOpen();
+            // Log lines are ASCII in practice; char count is a cheap size estimate
+            writer.append(buffer);
+            currentSize += buffer.length();
+            if (currentSize >= maxBytes) {
+                rotate();
+            }
+        } catch (IOException e) {
+            System.err.println("Log file write failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (writer != null) {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                System.err.println("Log file flush failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                System.err.println("Log file close failed: " + e.getMessage());
+            }
+            writer = null;
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (writer == null) {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            currentSize = Files.size(file);
+        }
+    }
+
+    private void rotate() throws IOException {
+        writer.close();
+        writer = null;
+        if (maxBackups == 0) {
+            Files.deleteIfExists(file);
+        } else {
+            Files.deleteIfExists(backup(maxBackups));
+            for (int i = maxBackups - 1; i >= 1; i--) {
+                Path source = backup(i);
+                if (Files.exists(source)) {
+                    Files.move(source, backup(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(file, backup(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        currentSize = 0;
+    }
+
+    private Path backup(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
@@ -0,0 +1,21 @@
+package util.validation;
+
+/**
+ * Validator for a primitive double, so numeric fields such as prices are
+ * checked without boxing.
+ */
+@FunctionalInterface
+public interface DoubleValidator {
+
+    boolean isValid(double value);
+
+    default String message() {
+        return "Invalid value";
+    }
+
+    default void check(double value) throws IllegalArgumentException {
+        if (!isValid(value)) {
+            throw new IllegalArgumentException(message());
+        }
+    }
+}
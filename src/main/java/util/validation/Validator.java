@@ -0,0 +1,24 @@
+package util.validation;
+
+/**
+ * One input rule with the message shown when it fails.
+ * Implementations are stateless and thread-safe, so a single instance
+ * can check any number of records (console input, HTTP bodies, bulk imports).
+ */
+@FunctionalInterface
+public interface Validator<T> {
+
+    boolean isValid(T value);
+
+    //Message for a failed check; rules built by Validators carry their own
+    default String message() {
+        return "Invalid value";
+    }
+
+    //Throws IllegalArgumentException with message() if the value fails the rule
+    default void check(T value) throws IllegalArgumentException {
+        if (!isValid(value)) {
+            throw new IllegalArgumentException(message());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package util.validation;
+
+import java.util.function.DoublePredicate;
+import java.util.function.Predicate;
+
+/**
+ * Precompiled rules for customer and food input.
+ * The character-class checks are hand-written loops equivalent to the
+ * regular expressions they replace, so a check scans the string once and
+ * allocates nothing (String.matches compiles a Pattern and builds a Matcher
+ * on every call).
+ */
+public final class Validators {
+
+    private Validators() {
+    }
+
+    /**
+     * Same as value.matches("^[a-zA-Z\\s]+$") with at least one letter,
+     * i.e. ASCII letters and whitespace, not blank.
+     */
+    public static boolean isLettersAndSpaces(CharSequence value) {
+        if (value == null) {
+            return false;
+        }
+        boolean letter = false;
+        for (int i = 0, n = value.length(); i < n; i++) {
+            char c = value.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                letter = true;
+            } else if (!isRegexWhitespace(c)) {
+                return false;
+            }
+        }
+        return letter;
+    }
+
+    //Same as value.matches("^01\\d{8,9}$"): a Malaysian mobile number, 10 or 11 digits
+    public static boolean isMobileNumber(CharSequence value) {
+        if (value == null) {
+            return false;
+        }
+        int n = value.length();
+        if (n < 10 || n > 11 || value.charAt(0) != '0' || value.charAt(1) != '1') {
+            return false;
+        }
+        for (int i = 2; i < n; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //Exactly `length` ASCII digits, e.g. card numbers and MMYY expiry dates
+    public static boolean isDigits(CharSequence value, int length) {
+        if (value == null || value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isOneOfIgnoreCase(String value, String... options) {
+        if (value == null) {
+            return false;
+        }
+        for (String option : options) {
+            if (option.equalsIgnoreCase(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //Names: ASCII letters and spaces, not blank
+    public static Validator<String> lettersAndSpaces(String message) {
+        return of(Validators::isLettersAndSpaces, message);
+    }
+
+    public static Validator<String> mobileNumber(String message) {
+        return of(Validators::isMobileNumber, message);
+    }
+
+    public static Validator<String> digits(int length, String message) {
+        return of(value -> isDigits(value, length), message);
+    }
+
+    public static Validator<String> oneOfIgnoreCase(String message, String... options) {
+        String[] copy = options.clone();
+        return of(value -> isOneOfIgnoreCase(value, copy), message);
+    }
+
+    public static Validator<String> minLength(int length, String message) {
+        return of(value -> value != null && value.length() >= length, message);
+    }
+
+    //Prices and other amounts: at least `min` (NaN never passes)
+    public static DoubleValidator atLeast(double min, String message) {
+        return ofDouble(value -> value >= min, message);
+    }
+
+    public static <T> Validator<T> of(Predicate<T> rule, String message) {
+        return new Validator<>() {
+            @Override
+            public boolean isValid(T value) {
+                return rule.test(value);
+            }
+
+            @Override
+            public String message() {
+                return message;
+            }
+        };
+    }
+
+    public static DoubleValidator ofDouble(DoublePredicate rule, String message) {
+        return new DoubleValidator() {
+            @Override
+            public boolean isValid(double value) {
+                return rule.test(value);
+            }
+
+            @Override
+            public String message() {
+                return message;
+            }
+        };
+    }
+
+    //The characters \s matches in java.util.regex without UNICODE_CHARACTER_CLASS
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -0,0 +1,14 @@
+-- Ledger of every balance change: one row per debit, credit or opening balance
+CREATE TABLE IF NOT EXISTS payment_transactions (
+    transaction_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    payment_method_id INT NOT NULL,
+    transaction_type VARCHAR(10) NOT NULL,
+    amount DECIMAL(10,2) NOT NULL,
+    balance_after DECIMAL(10,2) NOT NULL,
+    reference VARCHAR(100),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Reconciliation and statements walk one account's rows in insertion order
+CREATE INDEX idx_payment_transactions_account
+    ON payment_transactions (payment_method_id, transaction_id);
@@ -0,0 +1,5 @@
+-- Client-supplied key that makes order submission safe to retry
+ALTER TABLE orders ADD COLUMN idempotency_key VARCHAR(64);
+
+-- One order per key; NULL keys (submissions without one) are not constrained
+CREATE UNIQUE INDEX uk_orders_idempotency_key ON orders (idempotency_key);
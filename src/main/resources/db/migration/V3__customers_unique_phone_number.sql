@@ -0,0 +1,6 @@
+-- Registration and import check phone numbers through this index, and it
+-- settles two registrations racing for the same number.
+-- Existing duplicates make this fail; find them first with
+--   SELECT phone_number, COUNT(*) FROM customers GROUP BY phone_number HAVING COUNT(*) > 1
+-- and resolve them before rerunning the migration.
+CREATE UNIQUE INDEX uk_customers_phone_number ON customers (phone_number);
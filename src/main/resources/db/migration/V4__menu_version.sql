@@ -0,0 +1,13 @@
+-- Menu version each food was last written at, so sessions fetch only what changed
+ALTER TABLE foods ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_foods_version ON foods (version);
+
+-- Single-row menu version: bumped by every foods write, removed_version marks the last delete
+CREATE TABLE IF NOT EXISTS menu_version (
+    id INT PRIMARY KEY,
+    version BIGINT NOT NULL,
+    removed_version BIGINT NOT NULL
+);
+
+INSERT INTO menu_version (id, version, removed_version) VALUES (1, 0, 0);
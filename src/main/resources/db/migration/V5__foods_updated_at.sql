@@ -0,0 +1,6 @@
+-- When each food was last written (millisecond precision), for GET /api/menu?changedSince=
+-- Existing foods are stamped with the migration time, so the first changedSince poll
+-- after it returns the whole menu once
+ALTER TABLE foods ADD COLUMN updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3);
+
+CREATE INDEX idx_foods_updated_at ON foods (updated_at);
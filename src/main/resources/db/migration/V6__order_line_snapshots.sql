@@ -0,0 +1,14 @@
+-- Order lines keep the food name and type as ordered, so history survives renames and deletes
+ALTER TABLE order_details ADD COLUMN food_name VARCHAR(100);
+
+ALTER TABLE order_details ADD COLUMN food_type VARCHAR(50);
+
+CREATE INDEX idx_order_details_order ON order_details (order_id);
+
+-- Fill existing lines from the current menu; lines whose food was already deleted stay blank.
+-- On a large table, skip this and run the batched "--backfill-order-lines" instead.
+UPDATE order_details SET
+    food_name = (SELECT f.food_name FROM foods f WHERE f.food_id = order_details.food_id),
+    food_type = (SELECT f.food_type FROM foods f WHERE f.food_id = order_details.food_id)
+WHERE food_name IS NULL
+    AND EXISTS (SELECT 1 FROM foods f WHERE f.food_id = order_details.food_id);
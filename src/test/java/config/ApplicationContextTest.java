@@ -0,0 +1,153 @@
+package config;
+
+import controller.FoodController;
+import controller.OrderController;
+import model.Customer;
+import model.Food;
+import model.Order;
+import model.OrderDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationContextTest {
+
+    private static final String H2_URL = "jdbc:h2:mem:contexttest;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    private ConnectionPool pool;
+    private ApplicationContext context;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = new ConnectionPool(H2_URL, "sa", "", 8);
+        TestDatabaseSetup.initializeSchema(pool);
+        context = new ApplicationContext(pool);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        TestDatabaseSetup.cleanup(pool);
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Every component is built once and handed out as the same instance")
+    void shouldExposeSingleInstances() {
+        assertSame(pool, context.getConnectionProvider());
+        assertNotNull(context.getAdminRepository());
+        assertNotNull(context.getOrderRepository());
+        assertNotNull(context.getAdminService());
+        assertNotNull(context.getPaymentController());
+        assertSame(context.getPaymentMethodRepository(), context.getPaymentMethodRepository());
+        assertSame(context.getFoodService(), context.getFoodService());
+        assertSame(context.getOrderService(), context.getOrderService());
+        assertSame(context.getAdminController(), context.getAdminController());
+        assertSame(context.getCustomerController(), context.getCustomerController());
+        assertSame(context.getFoodController(), context.getFoodController());
+        assertSame(context.getOrderController(), context.getOrderController());
+        assertSame(context.getCustomerService(), context.getCustomerService());
+        assertSame(context.getPaymentService(), context.getPaymentService());
+        assertSame(context.getCustomerRepository(), context.getCustomerRepository());
+        assertSame(context.getFoodRepository(), context.getFoodRepository());
+    }
+
+    @Test
+    @DisplayName("A null connection provider is rejected")
+    void shouldRejectNullProvider() {
+        assertThrows(IllegalArgumentException.class, () -> new ApplicationContext(null));
+    }
+
+    @Test
+    @DisplayName("Default controller constructors use the shared default context")
+    void shouldBackDefaultConstructors() {
+        ApplicationContext previous = ApplicationContext.setDefault(context);
+        try {
+            assertSame(context, ApplicationContext.getDefault());
+            List<Food> foods = new FoodController().getAllFoods();
+            assertEquals(3, foods.size());
+            assertTrue(new OrderController().getOrdersByCustomerId(1000).isEmpty());
+        } finally {
+            ApplicationContext.setDefault(previous);
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent first use of the default context creates exactly one")
+    void shouldCreateDefaultOnce() throws Exception {
+        ApplicationContext previous = ApplicationContext.setDefault(null);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ApplicationContext>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(ApplicationContext::getDefault));
+            }
+            Set<ApplicationContext> seen = ConcurrentHashMap.newKeySet();
+            for (Future<ApplicationContext> result : results) {
+                seen.add(result.get(30, TimeUnit.SECONDS));
+            }
+            assertEquals(1, seen.size());
+        } finally {
+            executor.shutdown();
+            ApplicationContext.setDefault(previous);
+        }
+    }
+
+    @Test
+    @DisplayName("Shared services handle concurrent logins, registrations and orders")
+    void shouldServeConcurrentCallers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            final int n = i;
+            Callable<Boolean> task = () -> {
+                switch (n % 4) {
+                    case 0:
+                        return context.getCustomerController().login(1000, "password123") != null;
+                    case 1:
+                        Customer customer = new Customer(0, "Thread User", 30,
+                                "015" + String.format("%07d", n), "Female", "secret1");
+                        return context.getCustomerController().registerCustomer(customer) != null;
+                    case 2:
+                        return context.getFoodController().getAllFoods().size() == 3;
+                    default:
+                        Food food = context.getFoodController().getFoodById(2001);
+                        List<OrderDetails> details = new ArrayList<>();
+                        details.add(new OrderDetails(food, 1));
+                        Order order = context.getOrderController()
+                                .createOrder(1000, details, "Bank", "1234567890123456", "bank789");
+                        return order != null;
+                }
+            };
+            results.add(executor.submit(task));
+        }
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        assertEquals(20, context.getFoodController().getFoodById(2001).getQuantity());
+        assertEquals(10, context.getOrderController().getOrdersByCustomerId(1000).size());
+        // 10 debits of 8.00 plus the 1.00 bank fee each, none lost to interleaving
+        assertEquals(0, new java.math.BigDecimal("110.00").compareTo(
+                context.getPaymentMethodRepository().findByCardNumber("1234567890123456").get().getBalanceDecimal()));
+        try (java.sql.Connection conn = pool.getConnection();
+             java.sql.ResultSet rs = conn.createStatement().executeQuery("SELECT COUNT(*) FROM customers")) {
+            assertTrue(rs.next());
+            assertEquals(2 + 10, rs.getInt(1));
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import repository.impl.FoodRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolTest {
+
+    private static final String H2_URL = "jdbc:h2:mem:pooltest;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = new ConnectionPool(H2_URL, "sa", "", 3, 200);
+        TestDatabaseSetup.initializeSchema(pool);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        TestDatabaseSetup.cleanup(pool);
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Closing a borrowed connection returns it to the pool")
+    void shouldReuseConnections() throws SQLException {
+        try (Connection conn = pool.getConnection()) {
+            assertFalse(conn.isClosed());
+        }
+        try (Connection conn = pool.getConnection()) {
+            assertFalse(conn.isClosed());
+        }
+        assertEquals(1, pool.getPhysicalCount());
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    @DisplayName("A returned proxy rejects further use and double close is harmless")
+    void shouldRejectUseAfterClose() throws SQLException {
+        Connection conn = pool.getConnection();
+        conn.close();
+        conn.close();
+        assertTrue(conn.isClosed());
+        assertThrows(SQLException.class, conn::createStatement);
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    @DisplayName("Borrowers time out when every connection is in use")
+    void shouldTimeOutWhenExhausted() throws SQLException {
+        List<Connection> held = new ArrayList<>();
+        for (int i = 0; i < pool.getMaxSize(); i++) {
+            held.add(pool.getConnection());
+        }
+        assertThrows(SQLException.class, pool::getConnection);
+        for (Connection conn : held) {
+            conn.close();
+        }
+        try (Connection conn = pool.getConnection()) {
+            assertNotNull(conn);
+        }
+    }
+
+    @Test
+    @DisplayName("Uncommitted work is rolled back before the connection is reused")
+    void shouldRollbackOnReturn() throws SQLException {
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            conn.setAutoCommit(false);
+            stmt.executeUpdate("DELETE FROM foods");
+        }
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM foods")) {
+            assertTrue(conn.getAutoCommit());
+            assertTrue(rs.next());
+            assertEquals(3, rs.getInt(1));
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent repository calls never exceed the pool size")
+    void shouldServeConcurrentRepositoryCalls() throws Exception {
+        FoodRepository repository = new FoodRepository(pool);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger found = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            futures.add(executor.submit(() -> {
+                if (repository.findById(2000).isPresent()) {
+                    found.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(200, found.get());
+        assertTrue(pool.getPhysicalCount() <= pool.getMaxSize());
+    }
+
+    @Test
+    @DisplayName("A closed pool refuses new borrowers")
+    void shouldRejectAfterClose() throws SQLException {
+        Connection borrowed = pool.getConnection();
+        pool.close();
+        borrowed.close();
+        assertThrows(SQLException.class, pool::getConnection);
+        assertEquals(0, pool.getPhysicalCount());
+        pool = new ConnectionPool(H2_URL, "sa", "", 1);
+    }
+
+    @Test
+    @DisplayName("Pool size must be positive")
+    void shouldValidateSize() {
+        assertThrows(IllegalArgumentException.class, () -> new ConnectionPool(H2_URL, "sa", "", 0));
+        assertEquals(4, ConnectionPool.createDefault(4).getMaxSize());
+    }
+
+    @Test
+    @DisplayName("Proxy identity methods do not touch the physical connection")
+    void shouldImplementIdentityMethods() throws SQLException {
+        try (Connection conn = pool.getConnection()) {
+            assertEquals(conn, conn);
+            assertEquals(System.identityHashCode(conn), conn.hashCode());
+            assertTrue(conn.toString().startsWith("PooledConnection["));
+        }
+    }
+}
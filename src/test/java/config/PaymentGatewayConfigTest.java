@@ -0,0 +1,42 @@
+package config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import service.impl.ResilientPaymentGateway;
+import service.interfaces.IPaymentGateway;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentGatewayConfigTest {
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty("app.gateway.simulate");
+        System.clearProperty("app.gateway.tng.latencyMs");
+        System.clearProperty("app.gateway.tng.jitterMs");
+    }
+
+    @Test
+    @DisplayName("No gateways unless simulation is switched on")
+    void testDisabledByDefault() {
+        assertTrue(PaymentGatewayConfig.fromSystemProperties().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Simulation builds a guarded gateway for every payment type")
+    void testSimulatedGateways() {
+        System.setProperty("app.gateway.simulate", "true");
+        System.setProperty("app.gateway.tng.latencyMs", "0");
+        System.setProperty("app.gateway.tng.jitterMs", "0");
+
+        Map<String, IPaymentGateway> gateways = PaymentGatewayConfig.fromSystemProperties();
+
+        assertEquals(3, gateways.size());
+        assertTrue(gateways.keySet().containsAll(java.util.List.of("TNG", "GRAB", "BANK")));
+        assertTrue(gateways.get("TNG") instanceof ResilientPaymentGateway);
+        assertEquals("TNG-1", gateways.get("TNG").charge("TNG001", model.Money.ofCents(100)));
+    }
+}
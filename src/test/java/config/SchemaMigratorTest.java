@@ -0,0 +1,168 @@
+package config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Schema Migrator Test
+ * Runs the shipped migrations against the schema the application started from
+ */
+class SchemaMigratorTest {
+
+    private static final String H2_URL = "jdbc:h2:mem:migrationtest;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = new ConnectionPool(H2_URL, "sa", "", 2);
+        createBaselineSchema();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        execute("DROP ALL OBJECTS");
+        pool.close();
+    }
+
+    //Tables as they were before any migration existed
+    private void createBaselineSchema() throws SQLException {
+        execute("CREATE TABLE customers (" +
+                "customer_id INT PRIMARY KEY AUTO_INCREMENT, name VARCHAR(100) NOT NULL, age INT NOT NULL, " +
+                "phone_number VARCHAR(11) NOT NULL, gender VARCHAR(10) NOT NULL, password VARCHAR(100) NOT NULL)");
+        execute("CREATE TABLE foods (" +
+                "food_id INT PRIMARY KEY AUTO_INCREMENT, food_name VARCHAR(100) NOT NULL, " +
+                "food_price DECIMAL(10,2) NOT NULL, food_type VARCHAR(20) NOT NULL, quantity INT NOT NULL DEFAULT 0)");
+        execute("CREATE TABLE payment_methods (" +
+                "payment_method_id INT PRIMARY KEY AUTO_INCREMENT, password VARCHAR(255) NOT NULL, " +
+                "payment_type VARCHAR(20) NOT NULL, wallet_id VARCHAR(50), balance DECIMAL(10,2) NOT NULL DEFAULT 0.00, " +
+                "card_number VARCHAR(16), expiry_date VARCHAR(4))");
+        execute("CREATE TABLE orders (" +
+                "order_id INT PRIMARY KEY AUTO_INCREMENT, customer_id INT NOT NULL, " +
+                "order_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP, total_price DECIMAL(10,2) NOT NULL, " +
+                "payment_method_id INT NOT NULL, payment_type VARCHAR(20) NOT NULL, status VARCHAR(20) NOT NULL)");
+        execute("CREATE TABLE order_details (" +
+                "order_detail_id INT PRIMARY KEY AUTO_INCREMENT, order_id INT NOT NULL, food_id INT NOT NULL, " +
+                "quantity INT NOT NULL, unit_price DECIMAL(10,2) NOT NULL, subtotal DECIMAL(10,2) NOT NULL)");
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private long count(String sql) throws SQLException {
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Every migration applies once, in order, and is recorded")
+    void shouldApplyPendingMigrationsOnce() throws SQLException {
+        SchemaMigrator migrator = new SchemaMigrator(pool);
+
+        assertEquals(SchemaMigrator.MIGRATIONS.size(), migrator.migrate());
+        assertEquals(0, migrator.migrate());
+        assertEquals(SchemaMigrator.MIGRATIONS.size(), count("SELECT COUNT(*) FROM schema_version"));
+        assertEquals(SchemaMigrator.MIGRATIONS.size(), count("SELECT MAX(version) FROM schema_version"));
+    }
+
+    @Test
+    @DisplayName("Migrated schema has the payment ledger")
+    void shouldCreatePaymentLedger() throws SQLException {
+        new SchemaMigrator(pool).migrate();
+
+        execute("INSERT INTO payment_transactions (payment_method_id, transaction_type, amount, balance_after, reference) " +
+                "VALUES (1, 'DEBIT', 10.00, 90.00, 'TNG payment')");
+        assertEquals(1, count("SELECT COUNT(*) FROM payment_transactions WHERE payment_method_id = 1"));
+    }
+
+    @Test
+    @DisplayName("Migrated orders accept one order per idempotency key")
+    void shouldEnforceIdempotencyKeys() throws SQLException {
+        new SchemaMigrator(pool).migrate();
+
+        String insert = "INSERT INTO orders (customer_id, total_price, payment_method_id, payment_type, status, idempotency_key) " +
+                "VALUES (1000, 10.00, 1, 'TNG', 'COMPLETED', ";
+        execute(insert + "'key-1')");
+        execute(insert + "NULL)");
+        execute(insert + "NULL)");
+        assertThrows(SQLException.class, () -> execute(insert + "'key-1')"));
+    }
+
+    @Test
+    @DisplayName("Migrated customers cannot share a phone number")
+    void shouldEnforceUniquePhoneNumbers() throws SQLException {
+        new SchemaMigrator(pool).migrate();
+
+        String insert = "INSERT INTO customers (name, age, phone_number, gender, password) VALUES ";
+        execute(insert + "('John Doe', 25, '0123456789', 'Male', 'x')");
+        assertThrows(SQLException.class,
+                () -> execute(insert + "('Jane Smith', 30, '0123456789', 'Female', 'x')"));
+    }
+
+    @Test
+    @DisplayName("Migrated menu is versioned from zero, existing foods included")
+    void shouldVersionMenu() throws SQLException {
+        execute("INSERT INTO foods (food_id, food_name, food_price, food_type, quantity) VALUES (2000, 'Chicken Rice', 10.50, 'Set', 50)");
+
+        new SchemaMigrator(pool).migrate();
+
+        assertEquals(0, count("SELECT version FROM foods WHERE food_id = 2000"));
+        assertEquals(0, count("SELECT version FROM menu_version WHERE id = 1"));
+        assertEquals(0, count("SELECT removed_version FROM menu_version WHERE id = 1"));
+    }
+
+    @Test
+    @DisplayName("Migrated foods carry a write time, existing foods included")
+    void shouldStampFoods() throws SQLException {
+        execute("INSERT INTO foods (food_id, food_name, food_price, food_type, quantity) VALUES (2000, 'Chicken Rice', 10.50, 'Set', 50)");
+
+        new SchemaMigrator(pool).migrate();
+
+        assertEquals(1, count("SELECT COUNT(*) FROM foods WHERE updated_at IS NOT NULL"));
+        execute("UPDATE foods SET updated_at = TIMESTAMP '2026-01-01 00:00:00.123' WHERE food_id = 2000");
+        assertEquals(1, count("SELECT COUNT(*) FROM foods WHERE updated_at >= TIMESTAMP '2026-01-01 00:00:00.123'"));
+        assertEquals(0, count("SELECT COUNT(*) FROM foods WHERE updated_at >= TIMESTAMP '2026-01-01 00:00:00.124'"));
+    }
+
+    @Test
+    @DisplayName("Migrated order lines carry the food name and type, existing lines filled")
+    void shouldSnapshotOrderLines() throws SQLException {
+        execute("INSERT INTO foods (food_id, food_name, food_price, food_type, quantity) VALUES (2000, 'Chicken Rice', 10.50, 'Set', 50)");
+        execute("INSERT INTO order_details (order_id, food_id, quantity, unit_price, subtotal) VALUES (1, 2000, 2, 10.50, 21.00)");
+        execute("INSERT INTO order_details (order_id, food_id, quantity, unit_price, subtotal) VALUES (1, 2001, 1, 8.00, 8.00)");
+
+        new SchemaMigrator(pool).migrate();
+
+        assertEquals(1, count("SELECT COUNT(*) FROM order_details WHERE food_name = 'Chicken Rice' AND food_type = 'Set'"));
+        assertEquals(1, count("SELECT COUNT(*) FROM order_details WHERE food_id = 2001 AND food_name IS NULL"));
+    }
+
+    @Test
+    @DisplayName("Scripts split into statements without comment lines")
+    void shouldSplitStatements() {
+        List<String> statements = SchemaMigrator.statements(
+                "-- first\nCREATE TABLE a (id INT);\n\n-- second; with a semicolon\nCREATE INDEX i ON a (id);\n");
+
+        assertEquals(List.of("CREATE TABLE a (id INT)", "CREATE INDEX i ON a (id)"), statements);
+        assertEquals(12, SchemaMigrator.versionOf("V12__add_thing.sql"));
+        assertEquals("add thing", SchemaMigrator.descriptionOf("V12__add_thing.sql"));
+    }
+}
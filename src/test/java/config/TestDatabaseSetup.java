@@ -31,6 +31,7 @@ public class TestDatabaseSetup {
                     "gender VARCHAR(10) NOT NULL, " +
                     "password VARCHAR(100) NOT NULL" +
                     ")");
+            stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS uk_customers_phone_number ON customers (phone_number)");
             
             // Create foods table with quantity field
             stmt.execute("CREATE TABLE IF NOT EXISTS foods (" +
@@ -38,7 +39,18 @@ public class TestDatabaseSetup {
                     "food_name VARCHAR(100) NOT NULL, " +
                     "food_price DECIMAL(10,2) NOT NULL, " +
                     "food_type VARCHAR(20) NOT NULL, " +
-                    "quantity INT NOT NULL DEFAULT 0" +
+                    "quantity INT NOT NULL DEFAULT 0, " +
+                    "version BIGINT NOT NULL DEFAULT 0, " +
+                    "updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)" +
+                    ")");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_foods_version ON foods (version)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_foods_updated_at ON foods (updated_at)");
+            
+            // Single-row menu version: bumped by every foods write, removed_version marks the last delete
+            stmt.execute("CREATE TABLE IF NOT EXISTS menu_version (" +
+                    "id INT PRIMARY KEY, " +
+                    "version BIGINT NOT NULL, " +
+                    "removed_version BIGINT NOT NULL" +
                     ")");
             
             // Create payment_methods table (new schema without customer_id)
@@ -60,8 +72,10 @@ public class TestDatabaseSetup {
                     "total_price DECIMAL(10,2) NOT NULL, " +
                     "payment_method_id INT NOT NULL, " +
                     "payment_type VARCHAR(20) NOT NULL, " +
-                    "status VARCHAR(20) NOT NULL" +
+                    "status VARCHAR(20) NOT NULL, " +
+                    "idempotency_key VARCHAR(64)" +
                     ")");
+            stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS uk_orders_idempotency_key ON orders (idempotency_key)");
             
             // Create order_details table
             stmt.execute("CREATE TABLE IF NOT EXISTS order_details (" +
@@ -70,15 +84,34 @@ public class TestDatabaseSetup {
                     "food_id INT NOT NULL, " +
                     "quantity INT NOT NULL, " +
                     "unit_price DECIMAL(10,2) NOT NULL, " +
-                    "subtotal DECIMAL(10,2) NOT NULL" +
+                    "subtotal DECIMAL(10,2) NOT NULL, " +
+                    "food_name VARCHAR(100), " +
+                    "food_type VARCHAR(50)" +
+                    ")");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_order_details_order ON order_details (order_id)");
+            
+            // Create payment_transactions ledger table (one row per debit/credit)
+            stmt.execute("CREATE TABLE IF NOT EXISTS payment_transactions (" +
+                    "transaction_id BIGINT PRIMARY KEY AUTO_INCREMENT, " +
+                    "payment_method_id INT NOT NULL, " +
+                    "transaction_type VARCHAR(10) NOT NULL, " +
+                    "amount DECIMAL(10,2) NOT NULL, " +
+                    "balance_after DECIMAL(10,2) NOT NULL, " +
+                    "reference VARCHAR(100), " +
+                    "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
                     ")");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_payment_transactions_account " +
+                    "ON payment_transactions (payment_method_id, transaction_id)");
             
             // Clear existing test data
+            stmt.execute("DELETE FROM payment_transactions");
             stmt.execute("DELETE FROM order_details");
             stmt.execute("DELETE FROM orders");
             stmt.execute("DELETE FROM payment_methods");
             stmt.execute("DELETE FROM foods");
             stmt.execute("DELETE FROM customers");
+            stmt.execute("DELETE FROM menu_version");
+            stmt.execute("INSERT INTO menu_version (id, version, removed_version) VALUES (1, 0, 0)");
             
             // Insert test data
             insertTestData(stmt);
@@ -132,6 +165,7 @@ public class TestDatabaseSetup {
         try (Connection conn = connectionProvider.getConnection();
              Statement stmt = conn.createStatement()) {
             // Only delete from test data tables - do NOT touch admins table
+            stmt.execute("DELETE FROM payment_transactions");
             stmt.execute("DELETE FROM order_details");
             stmt.execute("DELETE FROM orders");
             stmt.execute("DELETE FROM payment_methods");
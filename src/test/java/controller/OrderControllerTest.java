@@ -78,6 +78,18 @@ public class OrderControllerTest {
         verify(serviceMock).getAllOrders();
     }
 
+    // --- getOrderSummaries ---
+    @Test
+    @DisplayName("Get order summaries")
+    void getOrderSummaries() {
+        List<model.OrderSummary> summaries = List.of(
+                new model.OrderSummary(1, 1000, "TNG", new java.math.BigDecimal("21.00")));
+        when(serviceMock.getOrderSummaries()).thenReturn(summaries);
+
+        assertEquals(summaries, controller.getOrderSummaries());
+        verify(serviceMock).getOrderSummaries();
+    }
+
     // --- getOrdersByCustomerId ---
     @Test
     @DisplayName("Get orders by customer ID")
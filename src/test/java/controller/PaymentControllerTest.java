@@ -27,7 +27,9 @@ public class PaymentControllerTest {
     @DisplayName("Test processPayment - TNG success")
     void testProcessPayment_TNG_Success() {
         Payment payment = new TNGPayment(100.00);
-        when(mockService.processPayment("TNG", "TNG001", "tng123", 50.00)).thenReturn(payment);
+        when(mockService.processPayment("TNG", "TNG001", "tng123", 50.00))
+            .thenReturn(new PaymentResult(new PaymentMethod(), payment,
+                PaymentTransaction.debit(1, Money.ofCents(100), payment.getBalanceMoney(), null)));
         
         Payment result = controller.processPayment("TNG", "TNG001", "tng123", 50.00);
         assertNotNull(result);
@@ -38,7 +40,9 @@ public class PaymentControllerTest {
     @DisplayName("Test processPayment - Grab success")
     void testProcessPayment_Grab_Success() {
         Payment payment = new GrabPayment(75.00);
-        when(mockService.processPayment("Grab", "GRAB001", "grab456", 30.00)).thenReturn(payment);
+        when(mockService.processPayment("Grab", "GRAB001", "grab456", 30.00))
+            .thenReturn(new PaymentResult(new PaymentMethod(), payment,
+                PaymentTransaction.debit(1, Money.ofCents(100), payment.getBalanceMoney(), null)));
         
         Payment result = controller.processPayment("Grab", "GRAB001", "grab456", 30.00);
         assertNotNull(result);
@@ -50,7 +54,8 @@ public class PaymentControllerTest {
     void testProcessPayment_Bank_Success() {
         Payment payment = new BankPayment(200.00);
         when(mockService.processPayment("Bank", "1234567890123456", "bank789", 100.00))
-            .thenReturn(payment);
+            .thenReturn(new PaymentResult(new PaymentMethod(), payment,
+                PaymentTransaction.debit(1, Money.ofCents(100), payment.getBalanceMoney(), null)));
         
         Payment result = controller.processPayment("Bank", "1234567890123456", "bank789", 100.00);
         assertNotNull(result);
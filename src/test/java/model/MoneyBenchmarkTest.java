@@ -0,0 +1,77 @@
+package model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Money vs the previous BigDecimal/double mix for order totals.
+ * Run with: mvn -Pbenchmark test
+ */
+@Tag("benchmark")
+class MoneyBenchmarkTest {
+
+    private static final int ITEMS = 10;
+    private static final int ORDERS = 200_000;
+    private static final int ROUNDS = 5;
+
+    @Test
+    @DisplayName("Order total: long-cents Money vs BigDecimal subtotals with double round trip")
+    void compareTotals() {
+        Random random = new Random(42);
+        BigDecimal[] decimalPrices = new BigDecimal[ITEMS];
+        Money[] moneyPrices = new Money[ITEMS];
+        int[] quantities = new int[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            long cents = 100 + random.nextInt(5_000);
+            decimalPrices[i] = BigDecimal.valueOf(cents, 2);
+            moneyPrices[i] = Money.ofCents(cents);
+            quantities[i] = 1 + random.nextInt(5);
+        }
+
+        double legacy = 0;
+        long money = 0;
+        long legacyNanos = Long.MAX_VALUE;
+        long moneyNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int o = 0; o < ORDERS; o++) {
+                legacy += legacyTotal(decimalPrices, quantities);
+            }
+            legacyNanos = Math.min(legacyNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int o = 0; o < ORDERS; o++) {
+                money += moneyTotal(moneyPrices, quantities).getCents();
+            }
+            moneyNanos = Math.min(moneyNanos, System.nanoTime() - start);
+        }
+
+        System.out.printf("Order totals (%d orders x %d items): BigDecimal/double %.1f ns/order, Money %.1f ns/order%n",
+                ORDERS, ITEMS, (double) legacyNanos / ORDERS, (double) moneyNanos / ORDERS);
+        assertEquals(Math.round(legacy * 100 / ROUNDS), money / ROUNDS);
+    }
+
+    // What OrderService did before: BigDecimal per subtotal, rescale, then doubleValue()
+    private static double legacyTotal(BigDecimal[] prices, int[] quantities) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < prices.length; i++) {
+            total = total.add(prices[i].multiply(BigDecimal.valueOf(quantities[i])).setScale(2, RoundingMode.HALF_UP));
+        }
+        return total.setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    private static Money moneyTotal(Money[] prices, int[] quantities) {
+        Money total = Money.ZERO;
+        for (int i = 0; i < prices.length; i++) {
+            total = total.plus(prices[i].times(quantities[i]));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,129 @@
+package model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    @DisplayName("Conversions round to the nearest sen")
+    void shouldConvertExactly() {
+        assertEquals(1010, Money.of(10.1).getCents());
+        assertEquals(1050, Money.of(new BigDecimal("10.5")).getCents());
+        assertEquals(1, Money.of(new BigDecimal("0.005")).getCents());
+        assertEquals(-1, Money.of(new BigDecimal("-0.005")).getCents());
+        assertEquals(1999, Money.parse(" 19.99 ").getCents());
+        assertSame(Money.ZERO, Money.ofCents(0));
+    }
+
+    @Test
+    @DisplayName("Invalid inputs are rejected")
+    void shouldRejectInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> Money.of((BigDecimal) null));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(Double.POSITIVE_INFINITY));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("abc"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse(null));
+    }
+
+    @Test
+    @DisplayName("Arithmetic is exact where double is not")
+    void shouldAddExactly() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < 10; i++) {
+            total = total.plus(Money.of(0.1));
+        }
+        assertEquals(Money.ofCents(100), total);
+        assertEquals(Money.ofCents(3150), Money.parse("10.50").times(3));
+        assertEquals(Money.ofCents(-50), Money.ofCents(100).minus(Money.ofCents(150)));
+    }
+
+    @Test
+    @DisplayName("Overflow fails loudly instead of wrapping")
+    void shouldDetectOverflow() {
+        Money huge = Money.ofCents(Long.MAX_VALUE);
+        assertThrows(ArithmeticException.class, () -> huge.plus(Money.ofCents(1)));
+        assertThrows(ArithmeticException.class, () -> huge.times(2));
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MIN_VALUE).minus(Money.ofCents(1)));
+    }
+
+    @Test
+    @DisplayName("Comparisons and predicates")
+    void shouldCompare() {
+        Money five = Money.ofCents(500);
+        Money ten = Money.ofCents(1000);
+        assertTrue(five.isLessThan(ten));
+        assertFalse(ten.isLessThan(five));
+        assertTrue(ten.isGreaterThanOrEqual(ten));
+        assertFalse(five.isGreaterThanOrEqual(ten));
+        assertTrue(five.compareTo(ten) < 0);
+        assertTrue(Money.ZERO.isZero());
+        assertFalse(five.isZero());
+        assertTrue(Money.ofCents(-1).isNegative());
+        assertFalse(five.isNegative());
+    }
+
+    @Test
+    @DisplayName("Formatting and edge conversions")
+    void shouldFormat() {
+        assertEquals("12.50", Money.ofCents(1250).toString());
+        assertEquals("0.05", Money.ofCents(5).toString());
+        assertEquals("-3.07", Money.ofCents(-307).toString());
+        assertEquals(new BigDecimal("12.50"), Money.ofCents(1250).toBigDecimal());
+        assertEquals(12.5, Money.ofCents(1250).toDouble(), 0.0);
+    }
+
+    @Test
+    @DisplayName("Value equality")
+    void shouldHaveValueEquality() {
+        Money a = Money.parse("1.00");
+        Money b = Money.ofCents(100);
+        assertEquals(a, a);
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertNotEquals(a, Money.ofCents(101));
+        assertNotEquals(a, null);
+        assertNotEquals(a, "1.00");
+    }
+
+    @Test
+    @DisplayName("Payments debit exact amounts, including the bank fee")
+    void shouldDebitPaymentsExactly() {
+        Payment tng = new TNGPayment(Money.parse("0.30"));
+        assertTrue(tng.checkAmount(Money.parse("0.10").plus(Money.parse("0.20"))));
+        assertEquals(Money.ZERO, tng.makePayment(Money.parse("0.30")));
+
+        BankPayment bank = new BankPayment(Money.parse("10.00"));
+        assertEquals(Money.ofCents(100), bank.getTransactionFeeMoney());
+        assertFalse(bank.checkAmount(Money.parse("9.01")));
+        assertEquals(Money.parse("0.00"), bank.makePayment(Money.parse("9.00")));
+        assertEquals(Money.ZERO, bank.getBalanceMoney());
+        assertEquals(Money.ZERO, bank.makePayment(Money.parse("5.00")));
+    }
+
+    @Test
+    @DisplayName("Order and detail money accessors stay consistent with the decimal ones")
+    void shouldExposeMoneyOnOrders() {
+        OrderDetails detail = new OrderDetails(new Food(1, "Tea", 1.10, "Drink"), 3);
+        assertEquals(Money.parse("3.30"), detail.getSubtotalMoney());
+        detail.setUnitPriceMoney(Money.parse("2.05"));
+        assertEquals(Money.parse("6.15"), detail.getSubtotalMoney());
+        detail.setSubtotalMoney(Money.parse("1.00"));
+        assertEquals(new BigDecimal("1.00"), detail.getSubtotalDecimal());
+        detail.setSubtotal((BigDecimal) null);
+        assertNull(detail.getSubtotalDecimal());
+
+        Order order = new Order.Builder().totalPrice(Money.parse("6.15")).build();
+        assertEquals(new BigDecimal("6.15"), order.getTotalPriceDecimal());
+        assertEquals(Money.parse("6.15"), order.getTotalPriceMoney());
+        assertNull(new Order.Builder().totalPrice((BigDecimal) null).build().getTotalPriceDecimal());
+
+        PaymentMethod method = new PaymentMethod();
+        method.setBalance(Money.parse("7.25"));
+        assertEquals(Money.parse("7.25"), method.getBalanceMoney());
+    }
+}
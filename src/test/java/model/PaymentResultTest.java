@@ -0,0 +1,37 @@
+package model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentResultTest {
+
+    @Test
+    @DisplayName("Result exposes the method, the payment and the ledger entry")
+    void testGetters() {
+        PaymentMethod method = new PaymentMethod("TNG001", "TNG", "hash", 40.00);
+        method.setPaymentMethodId(1);
+        Payment payment = new TNGPayment(Money.ofCents(4000));
+        PaymentTransaction debit = PaymentTransaction.debit(1, Money.ofCents(6000), Money.ofCents(4000), "TNG-1");
+
+        PaymentResult result = new PaymentResult(method, payment, debit);
+
+        assertSame(method, result.getPaymentMethod());
+        assertSame(payment, result.getPayment());
+        assertSame(debit, result.getTransaction());
+        assertEquals(Money.ofCents(6000), result.getAmountCharged());
+        assertEquals(Money.ofCents(4000), result.getNewBalance());
+        assertTrue(result.toString().contains("charged=60.00, newBalance=40.00"));
+    }
+
+    @Test
+    @DisplayName("Method, payment and transaction are required")
+    void testRejectsNulls() {
+        Payment payment = new TNGPayment(10.00);
+        PaymentTransaction debit = PaymentTransaction.debit(1, Money.ofCents(100), Money.ofCents(1000), null);
+        assertThrows(IllegalArgumentException.class, () -> new PaymentResult(null, payment, debit));
+        assertThrows(IllegalArgumentException.class, () -> new PaymentResult(new PaymentMethod(), null, debit));
+        assertThrows(IllegalArgumentException.class, () -> new PaymentResult(new PaymentMethod(), payment, null));
+    }
+}
@@ -0,0 +1,39 @@
+package model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentTransactionTest {
+
+    @Test
+    @DisplayName("Balance before is derived from the entry type")
+    void testBalanceBefore() {
+        assertEquals(Money.ofCents(10000),
+                PaymentTransaction.debit(1, Money.ofCents(2500), Money.ofCents(7500), null).getBalanceBefore());
+        assertEquals(Money.ofCents(5000),
+                PaymentTransaction.credit(1, Money.ofCents(2500), Money.ofCents(7500), null).getBalanceBefore());
+        assertEquals(Money.ZERO, PaymentTransaction.opening(1, Money.ofCents(7500)).getBalanceBefore());
+    }
+
+    @Test
+    @DisplayName("Unknown types, negative amounts and missing balances are rejected")
+    void testValidation() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PaymentTransaction(1, "REFUND", Money.ofCents(100), Money.ZERO, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> PaymentTransaction.debit(1, Money.ofCents(-100), Money.ZERO, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> PaymentTransaction.debit(1, Money.ofCents(100), null, null));
+    }
+
+    @Test
+    @DisplayName("toString names the account, type and amounts")
+    void testToString() {
+        PaymentTransaction tx = PaymentTransaction.debit(3, Money.ofCents(2100), Money.ofCents(17900), "Bank payment");
+        tx.setTransactionId(9);
+        assertEquals("PaymentTransaction{transactionId=9, paymentMethodId=3, type=DEBIT, amount=21.00, balanceAfter=179.00}",
+                tx.toString());
+    }
+}
@@ -83,13 +83,13 @@ class AdminHandlerTest {
 
         when(inputHandler.readInt(anyString())).thenReturn(2, 0);
         
-        when(orderController.getAllOrders()).thenReturn(new ArrayList<>());
+        when(orderController.getOrderSummaries()).thenReturn(new ArrayList<>());
 
         // Execute
         adminHandler.handleAdminMenu(orderHandler, currentCustomer);
 
         //Verify report was requested
-        verify(orderController).getAllOrders();
+        verify(orderController).getOrderSummaries();
     }
 
     @Test
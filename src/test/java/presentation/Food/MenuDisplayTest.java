@@ -3,6 +3,7 @@ package presentation.Food;
 import model.Customer;
 import model.Food;
 import model.Order;
+import model.OrderSummary;
 import model.PaymentMethod;
 import org.junit.jupiter.api.*;
 
@@ -137,6 +138,18 @@ class MenuDisplayTest {
             );
         }
 
+        @Test
+        @DisplayName("Should display a report from summary rows")
+        void shouldDisplayOrderSummaries() {
+            MenuDisplay.displayOrderSummaries(List.of(
+                    new OrderSummary(7, 1000, "GrabPay", new java.math.BigDecimal("12.5"))));
+            String output = outputCaptor.toString();
+
+            assertTrue(output.contains("7\t\t1000"));
+            assertTrue(output.contains("GrabPay"));
+            assertTrue(output.contains("RM 12.50"));
+        }
+
         @Test
         @DisplayName("Should display report headers even if order list is empty")
         void shouldHandleEmptyOrderList() {
@@ -0,0 +1,65 @@
+package presentation.General;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrameCacheTest {
+
+    @Test
+    @DisplayName("A frame is rendered once per version")
+    void shouldReuseFrameForSameVersion() {
+        FrameCache cache = new FrameCache(8);
+        int[] renders = {0};
+
+        String first = cache.get("menu", 1, () -> "frame " + ++renders[0]);
+        String second = cache.get("menu", 1, () -> "frame " + ++renders[0]);
+        String third = cache.get("menu", 2, () -> "frame " + ++renders[0]);
+
+        assertEquals("frame 1", first);
+        assertSame(first, second);
+        assertEquals("frame 2", third);
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+
+        cache.clear();
+        assertEquals("frame 3", cache.get("menu", 1, () -> "frame " + ++renders[0]));
+    }
+
+    @Test
+    @DisplayName("Different screens do not share frames")
+    void shouldKeySeparatelyByName() {
+        FrameCache cache = new FrameCache(8);
+
+        assertEquals("a", cache.get("order-menu", 1, () -> "a"));
+        assertEquals("b", cache.get("food-menu", 1, () -> "b"));
+    }
+
+    @Test
+    @DisplayName("Variants of one version are cached separately")
+    void shouldKeySeparatelyByVariant() {
+        FrameCache cache = new FrameCache(8);
+
+        assertEquals("empty cart", cache.get("order-menu", 3, Map.of(), () -> "empty cart"));
+        assertEquals("holding rice", cache.get("order-menu", 3, Map.of(2000, 2), () -> "holding rice"));
+        assertEquals("empty cart", cache.get("order-menu", 3, Map.of(), () -> "rendered again"));
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    @DisplayName("Unversioned data is rendered every time")
+    void shouldNotCacheUnversionedFrames() {
+        FrameCache cache = new FrameCache(8);
+        int[] renders = {0};
+
+        cache.get("menu", -1, () -> "frame " + ++renders[0]);
+        String second = cache.get("menu", -1, () -> "frame " + ++renders[0]);
+
+        assertEquals("frame 2", second);
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+}
@@ -0,0 +1,134 @@
+package presentation.General;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScreenRendererTest {
+
+    private static final String NL = System.lineSeparator();
+
+    private final PrintStream standardOut = System.out;
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(standardOut);
+    }
+
+    @Test
+    @DisplayName("A screen is written to the writer in one call")
+    void shouldWriteWholeScreenOnce() {
+        int[] writes = {0};
+        StringWriter target = new StringWriter();
+        Writer counting = new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) {
+                target.write(cbuf, off, len);
+            }
+
+            @Override
+            public void write(String str) {
+                writes[0]++;
+                target.write(str);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        ScreenRenderer screen = new ScreenRenderer(counting);
+
+        screen.line("Title").format("%-5s|%5.2f%n", "Rice", 10.5).append("end").line();
+        screen.render();
+
+        assertEquals(1, writes[0]);
+        assertEquals("Title" + NL + "Rice |10.50" + NL + "end" + NL, target.toString());
+        assertEquals(0, screen.length());
+    }
+
+    @Test
+    @DisplayName("Without a writer the screen goes to System.out at render time")
+    void shouldRenderToCurrentSystemOut() {
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(captured));
+
+        ScreenRenderer.begin().line("Hello").render();
+
+        assertEquals("Hello" + NL, captured.toString());
+    }
+
+    @Test
+    @DisplayName("begin() discards a screen that was never rendered")
+    void shouldDiscardUnfinishedScreen() {
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(captured));
+
+        ScreenRenderer.begin().line("half a receipt");
+        ScreenRenderer.begin().line("menu").render();
+
+        assertEquals("menu" + NL, captured.toString());
+    }
+
+    @Test
+    @DisplayName("drain() returns the text without writing it")
+    void shouldDrainWithoutWriting() {
+        StringWriter target = new StringWriter();
+        ScreenRenderer screen = new ScreenRenderer(target);
+
+        assertEquals("frame" + NL, screen.line("frame").drain());
+        screen.render();
+
+        assertEquals("", target.toString());
+    }
+
+    @Test
+    @DisplayName("Large screens still render and the buffer is released")
+    void shouldHandleLargeScreens() {
+        StringWriter target = new StringWriter();
+        ScreenRenderer screen = new ScreenRenderer(target);
+        String row = "x".repeat(99);
+        for (int i = 0; i < 2000; i++) {
+            screen.line(row);
+        }
+        screen.render();
+        screen.line("next").render();
+
+        assertEquals(2000 * (row.length() + NL.length()) + ("next" + NL).length(), target.toString().length());
+        assertTrue(target.toString().endsWith("next" + NL));
+    }
+
+    @Test
+    @DisplayName("Writer failures surface as UncheckedIOException")
+    void shouldWrapWriterFailure() {
+        ScreenRenderer screen = new ScreenRenderer(new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+                throw new IOException("closed");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        assertThrows(UncheckedIOException.class, () -> screen.line("lost").render());
+        assertEquals(0, screen.length());
+    }
+}
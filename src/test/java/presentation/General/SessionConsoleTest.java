@@ -0,0 +1,107 @@
+package presentation.General;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionConsoleTest {
+
+    private final PrintStream originalOut = System.out;
+    private ByteArrayOutputStream consoleContent;
+
+    @BeforeEach
+    void setUp() {
+        consoleContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(consoleContent, true));
+        SessionConsole.install();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SessionConsole.unbind();
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Unbound threads still write to the original console")
+    void shouldFallBackToConsole() {
+        assertTrue(SessionConsole.isInstalled());
+        System.out.println("hello console");
+        assertTrue(consoleContent.toString().contains("hello console"));
+    }
+
+    @Test
+    @DisplayName("Bound threads write only to their own stream")
+    void shouldRouteBoundThread() throws InterruptedException {
+        ByteArrayOutputStream session = new ByteArrayOutputStream();
+        Thread worker = new Thread(() -> {
+            SessionConsole.bind(new PrintStream(session, true));
+            System.out.println("session line");
+            SessionConsole.unbind();
+        });
+        worker.start();
+        worker.join();
+
+        assertTrue(session.toString().contains("session line"));
+        assertFalse(consoleContent.toString().contains("session line"));
+    }
+
+    @Test
+    @DisplayName("Every print overload is forwarded")
+    void shouldForwardAllOverloads() {
+        ByteArrayOutputStream session = new ByteArrayOutputStream();
+        PrintStream target = new PrintStream(session, true);
+        SessionConsole.bind(target);
+        PrintStream out = System.out;
+        out.print(true);
+        out.print('c');
+        out.print(1);
+        out.print(2L);
+        out.print(1.5f);
+        out.print(2.5d);
+        out.print(new char[] {'x', 'y'});
+        out.print("s");
+        out.print((Object) "o");
+        out.println();
+        out.println(false);
+        out.println('d');
+        out.println(3);
+        out.println(4L);
+        out.println(3.5f);
+        out.println(4.5d);
+        out.println(new char[] {'z'});
+        out.println("line");
+        out.println((Object) "obj");
+        out.printf("%d|", 7);
+        out.printf(Locale.ROOT, "%d|", 8);
+        out.format("%d|", 9);
+        out.format(Locale.ROOT, "%d|", 10);
+        out.append("ab").append("xcdx", 1, 3).append('e');
+        out.write('!');
+        out.write("bytes".getBytes(), 0, 5);
+        out.flush();
+        assertFalse(out.checkError());
+        out.close();
+        assertSame(target, SessionConsole.current());
+
+        String text = session.toString();
+        assertTrue(text.startsWith("truec121.52.5xyso"));
+        assertTrue(text.contains("7|8|9|10|abcde!bytes"));
+        assertEquals("", consoleContent.toString());
+    }
+
+    @Test
+    @DisplayName("current() reports the console when nothing is bound")
+    void shouldReportFallbackStream() {
+        PrintStream current = SessionConsole.current();
+        current.print("direct");
+        assertTrue(consoleContent.toString().contains("direct"));
+    }
+}
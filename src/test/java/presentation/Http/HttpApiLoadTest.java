@@ -0,0 +1,92 @@
+package presentation.Http;
+
+import config.ConnectionPool;
+import config.TestDatabaseSetup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test for the HTTP API. Run with: mvn -Pbenchmark test
+ */
+@Tag("benchmark")
+class HttpApiLoadTest {
+
+    private static final String H2_URL = "jdbc:h2:mem:httpload;DB_CLOSE_DELAY=-1;MODE=MySQL";
+    private static final int REQUESTS = 5_000;
+    private static final int CONCURRENCY = 64;
+
+    private ConnectionPool pool;
+    private HttpApiServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pool = new ConnectionPool(H2_URL, "sa", "", 16);
+        TestDatabaseSetup.initializeSchema(pool);
+        server = HttpApiServer.create(0, pool);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        server.close();
+        TestDatabaseSetup.cleanup(pool);
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Menu and login under concurrent load")
+    void shouldSustainConcurrentLoad() throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        URI menu = URI.create("http://localhost:" + server.getPort() + "/api/menu");
+        URI login = URI.create("http://localhost:" + server.getPort() + "/api/customers/login");
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int w = 0; w < CONCURRENCY; w++) {
+            workers.add(CompletableFuture.runAsync(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < REQUESTS) {
+                    HttpRequest request = i % 4 == 0
+                            ? HttpRequest.newBuilder(login).POST(HttpRequest.BodyPublishers.ofString(
+                                    "{\"customerId\":1000,\"password\":\"password123\"}")).build()
+                            : HttpRequest.newBuilder(menu).GET().build();
+                    try {
+                        if (client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        CompletableFuture.allOf(workers.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("HTTP load: %d requests, concurrency %d, %.0f req/s%n",
+                REQUESTS, CONCURRENCY, REQUESTS / seconds);
+        System.out.println("Latency: " + server.getLatencyRecorder().snapshot());
+
+        assertEquals(0, failures.get());
+        assertEquals(REQUESTS, server.getLatencyRecorder().getCount("GET /api/menu")
+                + server.getLatencyRecorder().getCount("POST /api/customers/login"));
+    }
+}
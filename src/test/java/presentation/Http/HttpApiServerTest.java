@@ -0,0 +1,334 @@
+package presentation.Http;
+
+import config.ApplicationContext;
+import config.ConnectionPool;
+import config.TestDatabaseSetup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import util.Json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpApiServerTest {
+
+    private static final String H2_URL = "jdbc:h2:mem:httptest;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    private ConnectionPool pool;
+    private HttpApiServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pool = new ConnectionPool(H2_URL, "sa", "", 4);
+        TestDatabaseSetup.initializeSchema(pool);
+        server = HttpApiServer.create(0, pool);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        server.close();
+        TestDatabaseSetup.cleanup(pool);
+        pool.close();
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String error(HttpResponse<String> response) {
+        return (String) Json.parseObject(response.body()).get("error");
+    }
+
+    @Test
+    @DisplayName("GET /api/menu lists every food")
+    void shouldListMenu() throws Exception {
+        HttpResponse<String> response = get("/api/menu");
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("application/json"));
+        List<?> foods = (List<?>) Json.parse(response.body());
+        assertEquals(3, foods.size());
+        assertTrue(response.body().contains("\"name\":\"Chicken Rice\""));
+        assertTrue(response.body().contains("\"price\":10.5"));
+    }
+
+    @Test
+    @DisplayName("GET /api/menu?changedSince returns only foods written since then")
+    void shouldListMenuChangesSince() throws Exception {
+        try (var conn = pool.getConnection();
+             var stmt = conn.createStatement()) {
+            stmt.execute("UPDATE foods SET updated_at = TIMESTAMP '2020-01-01 00:00:00'");
+            stmt.execute("UPDATE foods SET quantity = 10, updated_at = CURRENT_TIMESTAMP(3) WHERE food_id = 2001");
+        }
+
+        HttpResponse<String> response = get("/api/menu?changedSince=2021-01-01T00:00:00Z");
+
+        assertEquals(200, response.statusCode());
+        List<?> foods = (List<?>) Json.parse(response.body());
+        assertEquals(1, foods.size());
+        Map<?, ?> food = (Map<?, ?>) foods.get(0);
+        assertEquals("Nasi Lemak", food.get("name"));
+        assertNotNull(food.get("updatedAt"));
+
+        HttpResponse<String> invalid = get("/api/menu?changedSince=yesterday");
+        assertEquals(400, invalid.statusCode());
+        assertTrue(error(invalid).contains("ISO-8601"));
+    }
+
+    @Test
+    @DisplayName("Login succeeds with valid credentials and never returns the password")
+    void shouldLogin() throws Exception {
+        HttpResponse<String> ok = post("/api/customers/login", "{\"customerId\":1000,\"password\":\"password123\"}");
+        assertEquals(200, ok.statusCode());
+        assertEquals("John Doe", Json.parseObject(ok.body()).get("name"));
+        assertFalse(ok.body().contains("password"));
+
+        HttpResponse<String> denied = post("/api/customers/login", "{\"customerId\":1000,\"password\":\"nope\"}");
+        assertEquals(401, denied.statusCode());
+    }
+
+    @Test
+    @DisplayName("Registration returns 201 or the validation message")
+    void shouldRegister() throws Exception {
+        HttpResponse<String> created = post("/api/customers",
+                "{\"name\":\"Ali Ahmad\",\"age\":22,\"phoneNumber\":\"0199999999\",\"gender\":\"Male\",\"password\":\"secret1\"}");
+        assertEquals(201, created.statusCode());
+        assertEquals("Ali Ahmad", Json.parseObject(created.body()).get("name"));
+
+        HttpResponse<String> duplicate = post("/api/customers",
+                "{\"name\":\"Ali Ahmad\",\"age\":22,\"phoneNumber\":\"0199999999\",\"gender\":\"Male\",\"password\":\"secret1\"}");
+        assertEquals(400, duplicate.statusCode());
+        assertTrue(error(duplicate).contains("Phone number already registered"));
+    }
+
+    @Test
+    @DisplayName("Order creation charges the wallet and shows up in history")
+    @SuppressWarnings("unchecked")
+    void shouldCreateOrderAndListHistory() throws Exception {
+        String token = login();
+        HttpResponse<String> created = send("POST", "/api/orders",
+                "{\"customerId\":1000,\"items\":[{\"foodId\":2000,\"quantity\":2}],"
+                + "\"paymentType\":\"TNG\",\"identifier\":\"TNG001\",\"password\":\"tng123\"}", token);
+        assertEquals(201, created.statusCode(), created.body());
+        Map<String, Object> order = Json.parseObject(created.body());
+        assertEquals(0, new BigDecimal("21.00").compareTo((BigDecimal) order.get("totalPrice")));
+        assertEquals("COMPLETED", order.get("status"));
+
+        HttpResponse<String> history = send("GET", "/api/customers/1000/orders", null, token);
+        assertEquals(200, history.statusCode());
+        List<Object> orders = (List<Object>) Json.parse(history.body());
+        assertEquals(1, orders.size());
+        List<Object> items = (List<Object>) ((Map<String, Object>) orders.get(0)).get("items");
+        assertEquals("Chicken Rice", ((Map<String, Object>) items.get(0)).get("foodName"));
+    }
+
+    @Test
+    @DisplayName("Replaying an Idempotency-Key returns the first order without charging again")
+    void shouldReplayOrderWithSameIdempotencyKey() throws Exception {
+        String token = login();
+        String body = "{\"customerId\":1000,\"items\":[{\"foodId\":2000,\"quantity\":1}],"
+                + "\"paymentType\":\"TNG\",\"identifier\":\"TNG001\",\"password\":\"tng123\"}";
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + server.getPort() + "/api/orders"))
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", "checkout-42")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+
+        HttpResponse<String> first = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> replay = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(201, first.statusCode(), first.body());
+        assertEquals(201, replay.statusCode(), replay.body());
+        assertEquals(Json.parseObject(first.body()).get("orderId"), Json.parseObject(replay.body()).get("orderId"));
+        List<?> orders = (List<?>) Json.parse(send("GET", "/api/customers/1000/orders", null, token).body());
+        assertEquals(1, orders.size());
+    }
+
+    private HttpResponse<String> send(String method, String path, String body, String token)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String login() throws IOException, InterruptedException {
+        HttpResponse<String> response = post("/api/customers/login", "{\"customerId\":1000,\"password\":\"password123\"}");
+        return (String) Json.parseObject(response.body()).get("token");
+    }
+
+    @Test
+    @DisplayName("A session token from login places orders for its own customer only")
+    void shouldOrderWithSessionToken() throws Exception {
+        String token = login();
+        assertNotNull(token);
+        String items = "\"items\":[{\"foodId\":2000,\"quantity\":1}],"
+                + "\"paymentType\":\"TNG\",\"identifier\":\"TNG001\",\"password\":\"tng123\"}";
+
+        HttpResponse<String> created = send("POST", "/api/orders", "{" + items, token);
+        assertEquals(201, created.statusCode(), created.body());
+        assertEquals(1000, ((BigDecimal) Json.parseObject(created.body()).get("customerId")).intValue());
+
+        HttpResponse<String> otherCustomer = send("POST", "/api/orders", "{\"customerId\":1001," + items, token);
+        assertEquals(403, otherCustomer.statusCode());
+        HttpResponse<String> badToken = send("POST", "/api/orders", "{" + items, "not-a-token");
+        assertEquals(401, badToken.statusCode());
+
+        assertEquals(200, send("GET", "/api/customers/1000/orders", null, token).statusCode());
+        assertEquals(403, send("GET", "/api/customers/1001/orders", null, token).statusCode());
+    }
+
+    @Test
+    @DisplayName("Order history and order creation require a session")
+    void shouldRequireSessionForOrders() throws Exception {
+        String order = "{\"customerId\":1000,\"items\":[{\"foodId\":2000,\"quantity\":1}],"
+                + "\"paymentType\":\"TNG\",\"identifier\":\"TNG001\",\"password\":\"tng123\"}";
+
+        HttpResponse<String> history = get("/api/customers/1000/orders");
+        assertEquals(401, history.statusCode());
+        assertEquals("Authentication required", error(history));
+        HttpResponse<String> created = post("/api/orders", order);
+        assertEquals(401, created.statusCode());
+        assertEquals("Authentication required", error(created));
+
+        // Nothing was charged or recorded
+        String token = login();
+        List<?> orders = (List<?>) Json.parse(send("GET", "/api/customers/1000/orders", null, token).body());
+        assertTrue(orders.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Logout ends the session")
+    void shouldLogout() throws Exception {
+        String token = login();
+
+        assertEquals(200, send("POST", "/api/customers/logout", null, token).statusCode());
+        assertEquals(401, send("POST", "/api/customers/logout", null, token).statusCode());
+        assertEquals(401, send("GET", "/api/customers/1000/orders", null, token).statusCode());
+        assertEquals(401, send("POST", "/api/customers/logout", null, null).statusCode());
+    }
+
+    @Test
+    @DisplayName("Failed payments surface the controller's reason")
+    void shouldReportOrderFailure() throws Exception {
+        HttpResponse<String> response = send("POST", "/api/orders",
+                "{\"customerId\":1000,\"items\":[{\"foodId\":2000,\"quantity\":2}],"
+                + "\"paymentType\":\"TNG\",\"identifier\":\"TNG001\",\"password\":\"wrong\"}", login());
+        assertEquals(400, response.statusCode());
+        assertTrue(error(response).startsWith("Order creation failed"));
+    }
+
+    @Test
+    @DisplayName("Malformed requests are rejected with 400")
+    void shouldRejectBadRequests() throws Exception {
+        String token = login();
+        assertEquals(400, post("/api/customers/login", "not json").statusCode());
+        assertEquals("customerId must be a number",
+                error(post("/api/customers/login", "{\"password\":\"x\"}")));
+        assertEquals("customerId must be a whole number",
+                error(post("/api/customers/login", "{\"customerId\":1.5,\"password\":\"x\"}")));
+        assertEquals("password is required",
+                error(post("/api/customers/login", "{\"customerId\":1000}")));
+        assertEquals("items must be a non-empty array",
+                error(send("POST", "/api/orders", "{\"customerId\":1000,\"items\":[]}", token)));
+        assertEquals("Each item must be an object",
+                error(send("POST", "/api/orders", "{\"customerId\":1000,\"items\":[1]}", token)));
+        assertEquals("Food item not found: 9",
+                error(send("POST", "/api/orders", "{\"customerId\":1000,\"items\":[{\"foodId\":9,\"quantity\":1}]}", token)));
+        assertEquals("Request body too large",
+                error(post("/api/customers/login", "{\"x\":\"" + "a".repeat(70_000) + "\"}")));
+    }
+
+    @Test
+    @DisplayName("Unknown paths and wrong methods get 404 and 405")
+    void shouldRejectUnknownRoutes() throws Exception {
+        assertEquals(404, get("/api/nothing").statusCode());
+        assertEquals(405, post("/api/menu", "{}").statusCode());
+        assertEquals(405, get("/api/orders").statusCode());
+    }
+
+    @Test
+    @DisplayName("/metrics reports latency per route")
+    @SuppressWarnings("unchecked")
+    void shouldExposeMetrics() throws Exception {
+        get("/api/menu");
+        get("/api/menu");
+
+        HttpResponse<String> response = get("/metrics");
+        assertEquals(200, response.statusCode());
+        Map<String, Object> menu = (Map<String, Object>) Json.parseObject(response.body()).get("GET /api/menu");
+        assertEquals(0, new BigDecimal("2").compareTo((BigDecimal) menu.get("count")));
+        assertEquals(2, server.getLatencyRecorder().getCount("GET /api/menu"));
+    }
+
+    @Test
+    @DisplayName("/metrics reports login throttling")
+    @SuppressWarnings("unchecked")
+    void shouldExposeLoginThrottleMetrics() throws Exception {
+        login();
+
+        Map<String, Object> throttle = (Map<String, Object>) Json.parseObject(get("/metrics").body()).get("loginThrottle");
+        assertNotNull(throttle);
+        assertEquals(0, BigDecimal.ONE.compareTo((BigDecimal) throttle.get("allowed")));
+        assertEquals(0, BigDecimal.ZERO.compareTo((BigDecimal) throttle.get("throttled")));
+    }
+
+    @Test
+    @DisplayName("/metrics reports the payment gateways of the context")
+    @SuppressWarnings("unchecked")
+    void shouldExposeGatewayMetrics() throws Exception {
+        System.setProperty("app.gateway.simulate", "true");
+        HttpApiServer gatewayServer;
+        try {
+            gatewayServer = HttpApiServer.create(0, new ApplicationContext(pool));
+        } finally {
+            System.clearProperty("app.gateway.simulate");
+        }
+        try (gatewayServer) {
+            gatewayServer.start();
+            HttpRequest request = HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + gatewayServer.getPort() + "/metrics")).GET().build();
+            Map<String, Object> metrics = Json.parseObject(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+
+            Map<String, Object> tng = (Map<String, Object>) metrics.get("gateway.TNG");
+            assertNotNull(tng);
+            assertEquals("CLOSED", tng.get("circuit"));
+            assertTrue(metrics.containsKey("gateway.BANK"));
+        }
+    }
+
+    @Test
+    @DisplayName("Starting twice is rejected and close is idempotent")
+    void shouldGuardLifecycle() {
+        assertThrows(IllegalStateException.class, server::start);
+        server.close();
+        server.close();
+    }
+}
@@ -0,0 +1,130 @@
+package presentation.Order;
+
+import controller.FoodController;
+import model.Food;
+import model.MenuChanges;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class MenuSnapshotTest {
+
+    private FoodController foodController;
+    private MenuSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        foodController = mock(FoodController.class);
+        snapshot = new MenuSnapshot(foodController);
+    }
+
+    private static List<Food> menu() {
+        return List.of(new Food(2000, "Chicken Rice", 10.50, "Set", 50),
+                new Food(2001, "Nasi Lemak", 8.00, "Set", 30));
+    }
+
+    @Test
+    @DisplayName("An unchanged version costs no food query")
+    void shouldReuseMenuWhileVersionIsUnchanged() {
+        when(foodController.getMenuVersion()).thenReturn(4L);
+        when(foodController.getAllFoods()).thenReturn(menu());
+
+        assertEquals(2, snapshot.refresh().size());
+        assertEquals(2, snapshot.refresh().size());
+
+        verify(foodController, times(1)).getAllFoods();
+        verify(foodController, never()).getMenuChangesSince(anyLong());
+        assertEquals(4, snapshot.getVersion());
+    }
+
+    @Test
+    @DisplayName("A new version merges only the changed foods")
+    void shouldMergeDelta() {
+        when(foodController.getMenuVersion()).thenReturn(4L, 6L);
+        when(foodController.getAllFoods()).thenReturn(menu());
+        when(foodController.getMenuChangesSince(4L)).thenReturn(MenuChanges.delta(6L, List.of(
+                new Food(2001, "Nasi Lemak", 8.00, "Set", 29),
+                new Food(1999, "Teh Tarik", 3.00, "A la carte", 10))));
+
+        snapshot.refresh();
+        List<Food> foods = snapshot.refresh();
+
+        assertEquals(List.of(1999, 2000, 2001), foods.stream().map(Food::getFoodId).toList());
+        assertEquals(29, foods.get(2).getQuantity());
+        assertEquals(6, snapshot.getVersion());
+        verify(foodController, times(1)).getAllFoods();
+    }
+
+    @Test
+    @DisplayName("A full reload replaces the menu, dropping removed foods")
+    void shouldReplaceOnFullReload() {
+        when(foodController.getMenuVersion()).thenReturn(4L, 5L);
+        when(foodController.getAllFoods()).thenReturn(menu());
+        when(foodController.getMenuChangesSince(4L)).thenReturn(MenuChanges.full(5L, List.of(menu().get(0))));
+
+        snapshot.refresh();
+        List<Food> foods = snapshot.refresh();
+
+        assertEquals(1, foods.size());
+        assertEquals(2000, foods.get(0).getFoodId());
+    }
+
+    @Test
+    @DisplayName("Unversioned stores are reloaded every time")
+    void shouldReloadWhenUnversioned() {
+        when(foodController.getMenuVersion()).thenReturn(MenuChanges.UNVERSIONED);
+        when(foodController.getAllFoods()).thenReturn(menu());
+
+        snapshot.refresh();
+        snapshot.refresh();
+
+        verify(foodController, times(2)).getAllFoods();
+    }
+
+    @Test
+    @DisplayName("The exact version is withheld while a write landed mid-read")
+    void shouldReportExactVersionOnlyWhenNoWriteLandedMidRead() {
+        // Version 4 read before the foods, 5 after: the foods may already hold part of 5
+        when(foodController.getMenuVersion()).thenReturn(4L, 5L, 5L, 5L, 5L);
+        when(foodController.getAllFoods()).thenReturn(menu());
+        when(foodController.getMenuChangesSince(4L)).thenReturn(MenuChanges.delta(5L, List.of()));
+
+        snapshot.refresh();
+        assertEquals(4, snapshot.getVersion());
+        assertEquals(MenuChanges.UNVERSIONED, snapshot.getExactVersion());
+
+        snapshot.refresh();
+        assertEquals(5, snapshot.getExactVersion());
+
+        snapshot.refresh();
+        assertEquals(5, snapshot.getExactVersion());
+    }
+
+    @Test
+    @DisplayName("Unversioned stores never report an exact version")
+    void shouldNotReportExactVersionWhenUnversioned() {
+        when(foodController.getMenuVersion()).thenReturn(MenuChanges.UNVERSIONED);
+        when(foodController.getAllFoods()).thenReturn(menu());
+
+        snapshot.refresh();
+
+        assertEquals(MenuChanges.UNVERSIONED, snapshot.getExactVersion());
+    }
+
+    @Test
+    @DisplayName("Callers get copies they can adjust")
+    void shouldHandOutCopies() {
+        when(foodController.getMenuVersion()).thenReturn(1L);
+        when(foodController.getAllFoods()).thenReturn(menu());
+
+        snapshot.refresh().get(0).setQuantity(0);
+
+        assertEquals(50, snapshot.refresh().get(0).getQuantity());
+    }
+}
@@ -62,7 +62,7 @@ class OrderHandlerTest {
 
         verify(foodController, times(1)).getAllFoods();
         // no orders should be created
-        verify(orderController, never()).createOrder(anyInt(), anyList(), any(), any(), any());
+        verify(orderController, never()).createOrder(anyInt(), anyList(), any(), any(), any(), any());
     }
 
     // ---------- handleOrder: user exits immediately ----------
@@ -73,7 +73,7 @@ class OrderHandlerTest {
 
         orderHandler.handleOrder(customer);
 
-        verify(orderController, never()).createOrder(anyInt(), anyList(), any(), any(), any());
+        verify(orderController, never()).createOrder(anyInt(), anyList(), any(), any(), any(), any());
     }
 @Test
 @DisplayName("handleOrder handles invalid food choice then exit")
@@ -86,7 +86,7 @@ void handleOrder_invalidFoodChoice() {
 
     orderHandler.handleOrder(customer);
 
-    verify(orderController, never()).createOrder(anyInt(), anyList(), any(), any(), any());
+    verify(orderController, never()).createOrder(anyInt(), anyList(), any(), any(), any(), any());
 }
 
 @Test
@@ -109,16 +109,43 @@ void handleOrder_mergeSameFood() {
 
     orderHandler.handleOrder(customer);
 
-    verify(orderController, never()).createOrder(anyInt(), anyList(), any(), any(), any());
+    verify(orderController, never()).createOrder(anyInt(), anyList(), any(), any(), any(), any());
 }
 @Test
 @DisplayName("processOrder does nothing when order list is empty")
 void processOrder_emptyOrderList() {
     orderHandler.processOrder(customer, new ArrayList<>());
 
-    verify(orderController, never()).createOrder(anyInt(), anyList(), any(), any(), any());
+    verify(orderController, never()).createOrder(anyInt(), anyList(), any(), any(), any(), any());
 }
 
+    // ---------- processOrder: logged-in session ----------
+    @Test
+    void processOrder_usesSessionTokenWhenPresent() {
+        customer.setSessionToken("token-1");
+        Food food = sampleFoods().get(0);
+        List<OrderDetails> details = new ArrayList<>(List.of(new OrderDetails(food, 1)));
+        model.Order order = new model.Order.Builder()
+            .orderId(1)
+            .orderDate(new Date())
+            .customer(customer)
+            .orderDetails(details)
+            .totalPrice(new BigDecimal("10.50"))
+            .paymentMethod(new PaymentMethod("TNG001", "TNG", "tng123", 89.50))
+            .status("COMPLETED")
+            .build();
+        when(inputHandler.readInt(anyString())).thenReturn(1);
+        when(inputHandler.readString(anyString())).thenReturn("TNG001");
+        when(inputHandler.readPassword(anyString())).thenReturn("tng123");
+        when(orderController.createOrderInSession(eq("token-1"), anyList(), eq("TNG"), eq("TNG001"), eq("tng123"), anyString()))
+            .thenReturn(order);
+
+        orderHandler.processOrder(customer, details);
+
+        verify(orderController).createOrderInSession(eq("token-1"), anyList(), any(), any(), any(), anyString());
+        verify(orderController, never()).createOrder(anyInt(), anyList(), any(), any(), any(), any());
+    }
+
     // ---------- displayReceipt: just runs ----------
     @Test
     void displayReceipt_runsWithoutException() {
@@ -0,0 +1,68 @@
+package presentation.Replay;
+
+import config.ApplicationContext;
+import config.ConnectionPool;
+import config.TestDatabaseSetup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end console throughput. Run with: mvn -Pbenchmark test
+ */
+@Tag("benchmark")
+class SessionReplayBenchmarkTest {
+
+    private static final String H2_URL = "jdbc:h2:mem:replaybench;DB_CLOSE_DELAY=-1;MODE=MySQL";
+    private static final int SCRIPTS = 1_000;
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = new ConnectionPool(H2_URL, "sa", "", 16);
+        TestDatabaseSetup.initializeSchema(pool);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        TestDatabaseSetup.cleanup(pool);
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Replay login, browse and exit flows in parallel")
+    void shouldReplayAtFullSpeed() throws InterruptedException {
+        List<ReplayScript> scripts = new ArrayList<>();
+        for (int i = 0; i < SCRIPTS; i++) {
+            switch (i % 3) {
+                case 0:
+                    scripts.add(ReplayScript.ofLines("login-" + i, "1", "1000", "password123", "0", "4"));
+                    break;
+                case 1:
+                    scripts.add(ReplayScript.ofLines("bad-login-" + i, "1", "1001", "wrong", "4"));
+                    break;
+                default:
+                    scripts.add(ReplayScript.ofLines("menu-" + i, "9", "4"));
+            }
+        }
+        SessionReplayer replayer = new SessionReplayer(new ApplicationContext(pool),
+                Runtime.getRuntime().availableProcessors(), false);
+
+        long start = System.nanoTime();
+        List<ReplayResult> results = replayer.replay(scripts);
+        long wall = System.nanoTime() - start;
+
+        String report = SessionReplayer.formatReport(results, wall);
+        System.out.println(report.substring(report.indexOf("Scripts:")));
+        assertTrue(results.stream().allMatch(ReplayResult::isCompleted));
+    }
+}
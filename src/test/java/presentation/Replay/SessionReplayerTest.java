@@ -0,0 +1,133 @@
+package presentation.Replay;
+
+import config.ApplicationContext;
+import config.ConnectionPool;
+import config.TestDatabaseSetup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionReplayerTest {
+
+    private static final String H2_URL = "jdbc:h2:mem:replaytest;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    private final PrintStream originalOut = System.out;
+    private ByteArrayOutputStream consoleContent;
+    private ConnectionPool pool;
+    private ApplicationContext context;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        consoleContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(consoleContent, true));
+        pool = new ConnectionPool(H2_URL, "sa", "", 4);
+        TestDatabaseSetup.initializeSchema(pool);
+        context = new ApplicationContext(pool);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        TestDatabaseSetup.cleanup(pool);
+        pool.close();
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("A complete script runs to Exit with its output captured")
+    void shouldReplayCompleteScript() {
+        SessionReplayer replayer = new SessionReplayer(context, 1, true);
+
+        ReplayResult result = replayer.replayOne(
+                ReplayScript.ofLines("login", "1", "1000", "password123", "0", "4"));
+
+        assertTrue(result.isCompleted(), result.getError());
+        assertNull(result.getError());
+        assertEquals("login", result.getScriptName());
+        assertTrue(result.getOutput().contains("Welcome John Doe"));
+        assertTrue(result.getOutput().contains("Exiting Program...."));
+        assertEquals(result.getOutput().getBytes(StandardCharsets.UTF_8).length, result.getOutputBytes());
+        assertTrue(result.getElapsedNanos() > 0);
+        assertEquals("", consoleContent.toString(), "replayed output must not reach the console");
+    }
+
+    @Test
+    @DisplayName("A script that stops early is reported, not thrown")
+    void shouldReportTruncatedScript() {
+        SessionReplayer replayer = new SessionReplayer(context, 1, true);
+
+        ReplayResult result = replayer.replayOne(ReplayScript.ofLines("short", "2", "Ali"));
+
+        assertFalse(result.isCompleted());
+        assertEquals("Script ended before the session exited", result.getError());
+    }
+
+    @Test
+    @DisplayName("Parallel replay keeps input order and can discard output")
+    void shouldReplayInParallel() throws InterruptedException {
+        List<ReplayScript> scripts = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            scripts.add(i % 2 == 0
+                    ? ReplayScript.ofLines("john-" + i, "1", "1000", "password123", "0", "4")
+                    : ReplayScript.ofLines("jane-" + i, "1", "1001", "pass456", "0", "4"));
+        }
+        SessionReplayer replayer = new SessionReplayer(context, 4, false);
+
+        List<ReplayResult> results = replayer.replay(scripts);
+
+        assertEquals(20, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            ReplayResult result = results.get(i);
+            assertEquals(scripts.get(i).getName(), result.getScriptName());
+            assertTrue(result.isCompleted(), result.getError());
+            assertNull(result.getOutput());
+            assertTrue(result.getOutputBytes() > 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Report lists every script and the totals")
+    void shouldFormatReport() {
+        SessionReplayer replayer = new SessionReplayer(context, 1, false);
+        List<ReplayResult> results = List.of(
+                replayer.replayOne(ReplayScript.ofLines("exit", "4")),
+                replayer.replayOne(ReplayScript.ofLines("broken", "1")));
+
+        String report = SessionReplayer.formatReport(results, 2_000_000);
+
+        assertTrue(report.contains("exit"));
+        assertTrue(report.contains("OK"));
+        assertTrue(report.contains("broken"));
+        assertTrue(report.contains("FAILED (Script ended before the session exited)"));
+        assertTrue(report.contains("Scripts: 2, completed: 1"));
+        assertTrue(report.contains("Per-script p50"));
+        assertTrue(SessionReplayer.formatReport(List.of(), 0).contains("Scripts: 0"));
+    }
+
+    @Test
+    @DisplayName("Scripts load from files and reject missing content")
+    void shouldLoadScripts(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("exit.txt");
+        Files.writeString(file, "4\n");
+
+        ReplayScript script = ReplayScript.load(file);
+
+        assertEquals("exit.txt", script.getName());
+        assertEquals("4\n", script.getInput());
+        assertThrows(IllegalArgumentException.class, () -> new ReplayScript(null, "4"));
+        assertThrows(IllegalArgumentException.class, () -> new ReplayScript("x", null));
+        assertThrows(IllegalArgumentException.class, () -> new SessionReplayer(context, 0, true));
+    }
+}
@@ -0,0 +1,210 @@
+package presentation.Server;
+
+import config.ConnectionPool;
+import config.TestDatabaseSetup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionServerTest {
+
+    private static final String H2_URL = "jdbc:h2:mem:sessiontest;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    private final PrintStream originalOut = System.out;
+    private ByteArrayOutputStream consoleContent;
+    private ConnectionPool pool;
+    private SessionServer server;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        consoleContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(consoleContent, true));
+        pool = new ConnectionPool(H2_URL, "sa", "", 4);
+        TestDatabaseSetup.initializeSchema(pool);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (server != null) {
+            server.close();
+        }
+        TestDatabaseSetup.cleanup(pool);
+        pool.close();
+        System.setOut(originalOut);
+    }
+
+    //Send the whole script, then read everything the session prints until it hangs up
+    private static String converse(int port, String input) throws IOException {
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setSoTimeout(10_000);
+            OutputStream out = socket.getOutputStream();
+            out.write(input.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            socket.shutdownOutput();
+            InputStream in = socket.getInputStream();
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    @DisplayName("A session sees the main menu and exits cleanly")
+    void shouldServeSingleSession() throws IOException {
+        server = SessionServer.create(0, 4, pool);
+        server.start();
+
+        String transcript = converse(server.getPort(), "4\n");
+
+        assertTrue(transcript.contains("JB Food Ordering System"));
+        assertTrue(transcript.contains("Exiting Program...."));
+        assertFalse(consoleContent.toString().contains("JB Food Ordering System"),
+                "session output must not leak to the server console");
+    }
+
+    @Test
+    @DisplayName("Password prompts switch the telnet client's echo off and back on")
+    void shouldSuppressEchoForPasswords() throws IOException {
+        server = SessionServer.create(0, 4, pool);
+        server.start();
+
+        // A telnet client answers WILL ECHO with DO ECHO and ends lines with CR NUL
+        ByteArrayOutputStream script = new ByteArrayOutputStream();
+        script.writeBytes("1\n1000\n".getBytes(StandardCharsets.UTF_8));
+        script.writeBytes(new byte[] {(byte) 255, (byte) 253, 1});
+        script.writeBytes("password123\r\0".getBytes(StandardCharsets.UTF_8));
+        script.writeBytes(new byte[] {(byte) 255, (byte) 253, 1});
+        script.writeBytes("0\n4\n".getBytes(StandardCharsets.UTF_8));
+
+        byte[] reply;
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            socket.setSoTimeout(10_000);
+            socket.getOutputStream().write(script.toByteArray());
+            socket.shutdownOutput();
+            reply = socket.getInputStream().readAllBytes();
+        }
+
+        int willEcho = indexOf(reply, new byte[] {(byte) 255, (byte) 251, 1});
+        int wontEcho = indexOf(reply, new byte[] {(byte) 255, (byte) 252, 1});
+        assertTrue(willEcho >= 0, "server must offer to echo before the password");
+        assertTrue(wontEcho > willEcho, "server must hand echo back after the password");
+        String transcript = new String(reply, StandardCharsets.ISO_8859_1);
+        assertTrue(transcript.contains("Welcome John Doe"), transcript);
+        assertFalse(transcript.contains("password123"));
+    }
+
+    private static int indexOf(byte[] haystack, byte[] needle) {
+        outer:
+        for (int i = 0; i + needle.length <= haystack.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    @Test
+    @DisplayName("Concurrent sessions log in independently against shared controllers")
+    void shouldServeConcurrentSessions() throws Exception {
+        server = SessionServer.create(0, 8, pool);
+        server.start();
+        int port = server.getPort();
+
+        ExecutorService clients = Executors.newFixedThreadPool(4);
+        List<Future<String>> transcripts = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String script = i % 2 == 0
+                    ? "1\n1000\npassword123\n0\n4\n"
+                    : "1\n1001\npass456\n0\n4\n";
+            Callable<String> client = () -> converse(port, script);
+            transcripts.add(clients.submit(client));
+        }
+        for (int i = 0; i < transcripts.size(); i++) {
+            String transcript = transcripts.get(i).get(20, TimeUnit.SECONDS);
+            String expected = i % 2 == 0 ? "Welcome John Doe" : "Welcome Jane Smith";
+            assertTrue(transcript.contains(expected), transcript);
+            assertTrue(transcript.contains("Stop order !!!"));
+            assertTrue(transcript.contains("Exiting Program...."));
+        }
+        clients.shutdown();
+    }
+
+    @Test
+    @DisplayName("A client hanging up mid-session ends that session only")
+    void shouldSurviveDisconnect() throws Exception {
+        server = SessionServer.create(0, 2, pool);
+        server.start();
+
+        String partial = converse(server.getPort(), "2\nAli\n");
+        assertTrue(partial.contains("Enter your age"));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (server.getCompletedSessions() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, server.getActiveSessions());
+        assertTrue(converse(server.getPort(), "4\n").contains("Exiting Program...."));
+    }
+
+    @Test
+    @DisplayName("Connections beyond maxSessions are turned away")
+    void shouldRejectWhenFull() throws Exception {
+        server = SessionServer.create(0, 1, pool);
+        server.start();
+
+        try (Socket holder = new Socket("localhost", server.getPort())) {
+            holder.setSoTimeout(5_000);
+            // Wait for the main menu so the first session is definitely running
+            byte[] buf = new byte[256];
+            assertTrue(holder.getInputStream().read(buf) > 0);
+
+            String rejected = converse(server.getPort(), "4\n");
+            assertTrue(rejected.contains("Server busy"));
+        }
+    }
+
+    @Test
+    @DisplayName("Start twice and invalid limits are rejected")
+    void shouldValidateLifecycle() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> SessionServer.create(0, 0, pool));
+        server = SessionServer.create(0, 1, pool);
+        server.start();
+        assertTrue(server.isRunning());
+        assertThrows(IllegalStateException.class, server::start);
+        server.close();
+        assertFalse(server.isRunning());
+        server.close();
+    }
+
+    @Test
+    @DisplayName("awaitTermination returns once the server is closed")
+    void shouldAwaitTermination() throws Exception {
+        server = SessionServer.create(0, 1, pool);
+        server.start();
+        Thread closer = new Thread(() -> server.close());
+        closer.start();
+        server.awaitTermination();
+        closer.join();
+        assertFalse(server.isRunning());
+    }
+}
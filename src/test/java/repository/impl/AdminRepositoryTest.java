@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.sql.Connection;
 import java.sql.Statement;
+import java.util.Optional;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -66,44 +67,33 @@ class AdminRepositoryTest {
     // Test Cases
 
     @Test
-    @DisplayName("Authenticate - Success (Correct Username & Hashed Password)")
-    void testAuthenticate_Success() {
-        //repository now expects hashed password
-        String hashedPassword = PasswordUtil.hashPassword("123");
-        boolean result = adminRepository.authenticate("admin", hashedPassword);
-        assertTrue(result, "Should return true for valid credentials");
+    @DisplayName("Find password hash - Success (stored hash verifies the password)")
+    void testFindPasswordHash_Success() {
+        //repository returns the stored hash; verification happens in the service
+        Optional<String> hash = adminRepository.findPasswordHash("admin");
+        assertTrue(hash.isPresent(), "Should find the admin's hash");
+        assertTrue(PasswordUtil.verifyPassword("123", hash.get()));
     }
     
     @Test
-    @DisplayName("Authenticate - Failure (Wrong Username)")
-    void testAuthenticate_WrongUsername() {
-        String hashedPassword = PasswordUtil.hashPassword("123");
-        boolean result = adminRepository.authenticate("unknown", hashedPassword);
-        assertFalse(result, "Should return false for unknown username");
+    @DisplayName("Find password hash - Failure (Wrong Username)")
+    void testFindPasswordHash_WrongUsername() {
+        assertFalse(adminRepository.findPasswordHash("unknown").isPresent(), "Should be empty for unknown username");
     }
 
     @Test
-    @DisplayName("Authenticate - Failure (SQL Injection Attempt)")
-    void testAuthenticate_SQLInjection() {
-        String hashedPassword = PasswordUtil.hashPassword("123");
-        boolean result = adminRepository.authenticate("admin' OR '1'='1", hashedPassword);
-        assertFalse(result, "Should prevent SQL injection");
+    @DisplayName("Find password hash - Failure (SQL Injection Attempt)")
+    void testFindPasswordHash_SQLInjection() {
+        assertFalse(adminRepository.findPasswordHash("admin' OR '1'='1").isPresent(), "Should prevent SQL injection");
     }
 
     @Test
-    @DisplayName("Authenticate - Exception Handling (Invalid Connection)")
-    void testAuthenticate_Exception() throws Exception {
-        
-        String hashedPassword = PasswordUtil.hashPassword("123");
-        boolean result1 = adminRepository.authenticate(null, hashedPassword);
-        assertFalse(result1, "Should return false for null username");
-        
-        boolean result2 = adminRepository.authenticate("admin", null);
-        assertFalse(result2, "Should return false for null password");
-        
-        //test non-existent admin to verify normal error handling
-        String wrongHashedPassword = PasswordUtil.hashPassword("wrong");
-        boolean result3 = adminRepository.authenticate("nonexistent", wrongHashedPassword);
-        assertFalse(result3, "Should return false for non-existent admin");
+    @DisplayName("Update password - replaces the stored hash")
+    void testUpdatePassword() {
+        String upgraded = PasswordUtil.hash("123");
+        assertTrue(adminRepository.updatePassword("admin", upgraded));
+        assertEquals(Optional.of(upgraded), adminRepository.findPasswordHash("admin"));
+        assertFalse(adminRepository.updatePassword("nonexistent", upgraded));
+        assertFalse(adminRepository.findPasswordHash(null).isPresent(), "Should be empty for null username");
     }
-}
\ No newline at end of file
+}
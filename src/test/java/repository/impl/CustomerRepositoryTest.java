@@ -7,9 +7,12 @@ import model.Customer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import repository.interfaces.DuplicatePhoneNumberException;
 import util.PasswordUtil;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -85,20 +88,36 @@ public class CustomerRepositoryTest {
     //Auth Methods
 
     @Test
-    void testAuthenticate_Valid() {
-        // Repository checks against hashed password in DB
-        String hashedPassword = util.PasswordUtil.hashPassword("password123");
-        Optional<Customer> customer = repository.authenticate(1000, hashedPassword);
+    void testFindPasswordHash_Existing() {
+        // Repository returns the stored hash; the caller verifies it
+        Optional<String> hash = repository.findPasswordHash(1000);
         
-        assertTrue(customer.isPresent());
-        assertEquals("John Doe", customer.get().getName());
+        assertTrue(hash.isPresent());
+        assertTrue(util.PasswordUtil.verifyPassword("password123", hash.get()));
+        assertFalse(util.PasswordUtil.verifyPassword("wrongpassword", hash.get()));
     }
     
     @Test
-    void testAuthenticate_Invalid() {
-        String hashedPassword = util.PasswordUtil.hashPassword("wrongpassword");
-        Optional<Customer> customer = repository.authenticate(1000, hashedPassword);
-        assertFalse(customer.isPresent());
+    void testFindPasswordHash_NonExisting() {
+        assertFalse(repository.findPasswordHash(9999).isPresent());
+    }
+    
+    @Test
+    void testFindPasswordHash_DatabaseDown() {
+        // A failed read must not look like an unknown customer
+        CustomerRepository down = new CustomerRepository(() -> {
+            throw new SQLException("Connection refused");
+        });
+        
+        assertThrows(RuntimeException.class, () -> down.findPasswordHash(1000));
+    }
+    
+    @Test
+    void testUpdatePassword() {
+        String upgraded = util.PasswordUtil.hash("password123");
+        assertTrue(repository.updatePassword(1000, upgraded));
+        assertEquals(upgraded, repository.findById(1000).get().getPassword());
+        assertFalse(repository.updatePassword(9999, upgraded));
     }
     
     //Save Methods
@@ -122,7 +141,7 @@ public class CustomerRepositoryTest {
         Customer customer = new Customer();
         customer.setName("Complete User");
         customer.setAge(35);
-        customer.setPhoneNumber("0111111111");
+        customer.setPhoneNumber("0112222222");
         customer.setGender("Female");
         customer.setPassword("completepass");
         
@@ -223,6 +242,24 @@ public class CustomerRepositoryTest {
         assertFalse(repository.existsByPhoneNumber("9999999999"));
     }
 
+    @Test
+    void testForEachPhoneNumber() {
+        List<String> phones = new ArrayList<>();
+        repository.forEachPhoneNumber(phones::add);
+
+        assertEquals(2, phones.size());
+        assertTrue(phones.containsAll(List.of("0123456789", "0111111111")));
+    }
+
+    @Test
+    void testSave_DuplicatePhoneRejectedByUniqueIndex() {
+        Customer duplicate = new Customer(0, "Copy Cat", 30, "0123456789", "Male", PasswordUtil.hash("secret1"));
+
+        DuplicatePhoneNumberException e = assertThrows(DuplicatePhoneNumberException.class,
+                () -> repository.save(duplicate));
+        assertEquals("0123456789", e.getPhoneNumber());
+    }
+
     @Test
     void testDefaultConstructor() {
         CustomerRepository repo = new CustomerRepository();
@@ -247,6 +284,25 @@ public class CustomerRepositoryTest {
         assertEquals(64, c.getPassword().length()); 
     }
 
+    @Test
+    void testSaveAll_AssignsIds() {
+        List<Customer> batch = List.of(createCustomer("Batch One", "0171111111"), createCustomer("Batch Two", "0172222222"));
+
+        repository.saveAll(batch);
+
+        assertTrue(batch.get(0).getCustomerId() > 0);
+        assertNotEquals(batch.get(0).getCustomerId(), batch.get(1).getCustomerId());
+        assertEquals("Batch Two", repository.findById(batch.get(1).getCustomerId()).get().getName());
+    }
+
+    @Test
+    void testSaveAll_DuplicatePhoneRollsBackBatch() {
+        List<Customer> batch = List.of(createCustomer("Batch One", "0171111111"), createCustomer("Taken", "0123456789"));
+
+        assertThrows(DuplicatePhoneNumberException.class, () -> repository.saveAll(batch));
+        assertFalse(repository.existsByPhoneNumber("0171111111"));
+    }
+
     //Helpers
 
     private Customer createCustomer(String name, String phone) {
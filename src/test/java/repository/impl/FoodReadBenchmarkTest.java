@@ -0,0 +1,115 @@
+package repository.impl;
+
+import config.ConnectionPool;
+import config.TestDatabaseSetup;
+import model.Food;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reading a large menu: SELECT * mapped by column name vs the repository's
+ * explicit column list mapped by index. Run with: mvn -Pbenchmark test
+ */
+@Tag("benchmark")
+class FoodReadBenchmarkTest {
+
+    private static final String H2_URL = "jdbc:h2:mem:foodreadbench;DB_CLOSE_DELAY=-1;MODE=MySQL";
+    private static final int ROWS = 100_000;
+    private static final int ROUNDS = 5;
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = new ConnectionPool(H2_URL, "sa", "", 2);
+        TestDatabaseSetup.initializeSchema(pool);
+        try (Connection conn = pool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT INTO foods (food_name, food_price, food_type, quantity) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                stmt.setString(1, "Food " + i);
+                stmt.setBigDecimal(2, BigDecimal.valueOf(100 + i % 5_000, 2));
+                stmt.setString(3, i % 2 == 0 ? "Set" : "A la carte");
+                stmt.setInt(4, i % 100);
+                stmt.addBatch();
+                if (i % 1_000 == 999) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        TestDatabaseSetup.cleanup(pool);
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("findAll over 100k foods: name lookups with SELECT * vs index mapping")
+    void compareMapping() throws SQLException {
+        FoodRepository repository = new FoodRepository(pool);
+        int expected = ROWS + 3;
+
+        long legacyNanos = Long.MAX_VALUE;
+        long indexedNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            List<Food> legacy = legacyFindAll();
+            legacyNanos = Math.min(legacyNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            List<Food> indexed = repository.findAll();
+            indexedNanos = Math.min(indexedNanos, System.nanoTime() - start);
+
+            assertEquals(expected, legacy.size());
+            assertEquals(expected, indexed.size());
+            assertEquals(legacy.get(expected - 1).getFoodName(), indexed.get(expected - 1).getFoodName());
+            assertEquals(legacy.get(expected - 1).getQuantity(), indexed.get(expected - 1).getQuantity());
+        }
+
+        System.out.printf("Food reads (%d rows): SELECT * by name %.1f ms (%.0f ns/row), columns by index %.1f ms (%.0f ns/row)%n",
+                expected, legacyNanos / 1e6, (double) legacyNanos / expected,
+                indexedNanos / 1e6, (double) indexedNanos / expected);
+    }
+
+    // What FoodRepository did before: SELECT *, a name lookup per column, and a per-row try/catch on quantity
+    private List<Food> legacyFindAll() throws SQLException {
+        List<Food> foods = new ArrayList<>();
+        try (Connection conn = pool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT * FROM foods ORDER BY food_id");
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                Food food = new Food();
+                food.setFoodId(rs.getInt("food_id"));
+                food.setFoodName(rs.getString("food_name"));
+                food.setFoodPrice(rs.getBigDecimal("food_price").doubleValue());
+                food.setFoodType(rs.getString("food_type"));
+                Timestamp updatedAt = rs.getTimestamp("updated_at");
+                food.setUpdatedAt(updatedAt == null ? null : updatedAt.toInstant());
+                try {
+                    food.setQuantity(rs.getInt("quantity"));
+                } catch (SQLException e) {
+                    food.setQuantity(0);
+                }
+                foods.add(food);
+            }
+        }
+        return foods;
+    }
+}
@@ -83,6 +83,14 @@ public class FoodRepositoryTest {
             );
         }
 
+        @Test
+        @DisplayName("Find By ID: Should keep the stored price exactly")
+        void shouldKeepStoredPriceScale() {
+            Food f = repository.findById(2000).orElseThrow();
+
+            assertEquals(new java.math.BigDecimal("10.50"), f.getFoodPriceDecimal());
+        }
+
         @Test
         @DisplayName("Find By ID: Should return empty for non-existent ID")
         void shouldReturnEmptyWhenIdNotFound() {
@@ -358,6 +366,183 @@ public class FoodRepositoryTest {
             assertFalse(repository.deleteById(9999));
             assertFalse(repository.deleteById(99999));
         }
+
+        @Test
+        @DisplayName("Quantity: Decrement then increment restores stock")
+        void shouldRestoreQuantityAfterDecrement() {
+            assertTrue(repository.decrementQuantity(2000, 5));
+            assertEquals(45, repository.findById(2000).get().getQuantity());
+
+            assertTrue(repository.incrementQuantity(2000, 5));
+            assertEquals(50, repository.findById(2000).get().getQuantity());
+        }
+
+        @Test
+        @DisplayName("Quantity: Increment of unknown food returns false")
+        void shouldNotIncrementUnknownFood() {
+            assertFalse(repository.incrementQuantity(9999, 1));
+        }
+
+        @Test
+        @DisplayName("Save All: Should insert a batch and assign IDs")
+        void shouldSaveAllInOneBatch() {
+            List<Food> foods = List.of(new Food("Roti Canai", 2.50, "A la carte", 40), new Food("Teh Tarik", 3.00, "A la carte"));
+
+            repository.saveAll(foods);
+
+            assertNotEquals(foods.get(0).getFoodId(), foods.get(1).getFoodId());
+            assertEquals(40, repository.findById(foods.get(0).getFoodId()).get().getQuantity());
+            assertEquals("Teh Tarik", repository.findById(foods.get(1).getFoodId()).get().getFoodName());
+        }
+
+        @Test
+        @DisplayName("Multiply Prices: Should update the whole set in one statement")
+        void shouldMultiplyPrices() {
+            assertEquals(2, repository.multiplyPrices(List.of(2000, 2002, 9999), new java.math.BigDecimal("1.10")));
+
+            assertEquals(11.55, repository.findById(2000).get().getFoodPrice(), 0.001);
+            assertEquals(8.00, repository.findById(2001).get().getFoodPrice(), 0.001);
+            assertEquals(13.20, repository.findById(2002).get().getFoodPrice(), 0.001);
+
+            repository.multiplyPrices(List.of(2001), new java.math.BigDecimal("0.0001"));
+            assertEquals(0.01, repository.findById(2001).get().getFoodPrice(), 0.001);
+            assertEquals(0, repository.multiplyPrices(List.of(), java.math.BigDecimal.ONE));
+        }
+
+        @Test
+        @DisplayName("Restock: Should add different quantities in one statement")
+        void shouldRestockMany() {
+            java.util.Map<Integer, Integer> quantities = new java.util.LinkedHashMap<>();
+            quantities.put(2000, 10);
+            quantities.put(2002, 5);
+            quantities.put(9999, 1);
+
+            assertEquals(2, repository.restock(quantities));
+
+            assertEquals(60, repository.findById(2000).get().getQuantity());
+            assertEquals(30, repository.findById(2001).get().getQuantity());
+            assertEquals(30, repository.findById(2002).get().getQuantity());
+            assertEquals(0, repository.restock(java.util.Map.of()));
+        }
+    }
+
+    // =========================================================================
+    // Menu Version Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Menu Version")
+    class MenuVersionTests {
+
+        @Test
+        @DisplayName("Version: Every kind of write bumps it once")
+        void shouldBumpOnEveryWrite() {
+            assertEquals(0, repository.getMenuVersion());
+
+            Food food = repository.save(new Food("Roti Canai", 2.50, "A la carte", 40));
+            assertEquals(1, repository.getMenuVersion());
+            food.setFoodPrice(3.00);
+            repository.update(food);
+            assertEquals(2, repository.getMenuVersion());
+            assertTrue(repository.decrementQuantity(2000, 1));
+            assertTrue(repository.incrementQuantity(2000, 1));
+            assertEquals(4, repository.getMenuVersion());
+            repository.multiplyPrices(List.of(2000, 2001), java.math.BigDecimal.ONE);
+            repository.restock(java.util.Map.of(2000, 1, 2001, 1));
+            repository.saveAll(List.of(new Food("Teh Tarik", 3.00, "A la carte")));
+            assertEquals(7, repository.getMenuVersion());
+            assertTrue(repository.deleteById(food.getFoodId()));
+            assertEquals(8, repository.getMenuVersion());
+        }
+
+        @Test
+        @DisplayName("Version: Writes that change nothing do not bump it")
+        void shouldNotBumpOnNoOp() {
+            assertFalse(repository.decrementQuantity(2000, 999));
+            assertFalse(repository.incrementQuantity(9999, 1));
+            assertFalse(repository.deleteById(9999));
+            repository.update(new Food(9999, "Ghost", 1.00, "Set"));
+
+            assertEquals(0, repository.getMenuVersion());
+            assertEquals(50, repository.findById(2000).get().getQuantity());
+        }
+
+        @Test
+        @DisplayName("Changes: Only foods written after the version are returned")
+        void shouldReturnDeltaSinceVersion() {
+            repository.decrementQuantity(2000, 5);
+            long version = repository.getMenuVersion();
+            repository.decrementQuantity(2002, 5);
+
+            model.MenuChanges changes = repository.findMenuChanges(version);
+
+            assertFalse(changes.isFullReload());
+            assertEquals(version + 1, changes.getVersion());
+            assertEquals(1, changes.getFoods().size());
+            assertEquals(2002, changes.getFoods().get(0).getFoodId());
+            assertEquals(20, changes.getFoods().get(0).getQuantity());
+            assertTrue(repository.findMenuChanges(changes.getVersion()).getFoods().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Changes: Deletes, unknown and future versions give the whole menu")
+        void shouldReturnFullMenuWhenDeltaIsNotEnough() {
+            long before = repository.getMenuVersion();
+            repository.deleteById(2001);
+
+            model.MenuChanges afterDelete = repository.findMenuChanges(before);
+            assertTrue(afterDelete.isFullReload());
+            assertEquals(2, afterDelete.getFoods().size());
+            assertFalse(repository.findMenuChanges(afterDelete.getVersion()).isFullReload());
+
+            assertTrue(repository.findMenuChanges(model.MenuChanges.UNVERSIONED).isFullReload());
+            assertTrue(repository.findMenuChanges(afterDelete.getVersion() + 10).isFullReload());
+        }
+
+        @Test
+        @DisplayName("Version: A missing version row is created by the first write")
+        void shouldCreateMissingVersionRow() throws SQLException {
+            try (var conn = connectionProvider.getConnection();
+                 var stmt = conn.createStatement()) {
+                stmt.execute("DELETE FROM menu_version");
+            }
+            assertEquals(0, repository.getMenuVersion());
+
+            assertTrue(repository.incrementQuantity(2000, 1));
+
+            assertEquals(1, repository.getMenuVersion());
+        }
+
+        @Test
+        @DisplayName("Timestamps: Writes stamp updated_at and only later rows are returned")
+        void shouldFindFoodsChangedSinceTime() throws SQLException {
+            try (var conn = connectionProvider.getConnection();
+                 var stmt = conn.createStatement()) {
+                stmt.execute("UPDATE foods SET updated_at = TIMESTAMP '2020-01-01 00:00:00'");
+            }
+            java.time.Instant since = java.time.Instant.now().minusSeconds(60);
+            assertTrue(repository.findChangedSince(since).isEmpty());
+
+            assertTrue(repository.decrementQuantity(2002, 5));
+            repository.restock(java.util.Map.of(2001, 5));
+
+            List<Food> changed = repository.findChangedSince(since);
+            assertEquals(List.of(2001, 2002), changed.stream().map(Food::getFoodId).toList());
+            assertFalse(changed.get(1).getUpdatedAt().isBefore(since));
+            assertEquals(20, changed.get(1).getQuantity());
+            assertEquals(3, repository.findChangedSince(java.time.Instant.EPOCH).size());
+        }
+
+        @Test
+        @DisplayName("Version: Unreadable version means unversioned")
+        void shouldReportUnversionedOnError() {
+            runWithSuppressedError(() -> {
+                FoodRepository repo = new FoodRepository(createMockProviderWithException());
+                assertEquals(model.MenuChanges.UNVERSIONED, repo.getMenuVersion());
+                assertTrue(repo.findMenuChanges(3).isFullReload());
+                assertTrue(repo.findChangedSince(java.time.Instant.EPOCH).isEmpty());
+            });
+        }
     }
 
     // =========================================================================
@@ -561,7 +746,16 @@ public class FoodRepositoryTest {
             PreparedStatement mockStmt = mock(PreparedStatement.class);
             ResultSet mockKeys = mock(ResultSet.class);
             
+            // The menu version bump runs first through plain statements
+            PreparedStatement versionStmt = mock(PreparedStatement.class);
+            ResultSet versionRow = mock(ResultSet.class);
+            
             when(mockProvider.getConnection()).thenReturn(mockConnection);
+            when(mockConnection.prepareStatement(anyString())).thenReturn(versionStmt);
+            when(versionStmt.executeUpdate()).thenReturn(1);
+            when(versionStmt.executeQuery()).thenReturn(versionRow);
+            when(versionRow.next()).thenReturn(true);
+            when(versionRow.getLong(1)).thenReturn(1L);
             when(mockConnection.prepareStatement(anyString(), eq(Statement.RETURN_GENERATED_KEYS))).thenReturn(mockStmt);
             when(mockStmt.executeUpdate()).thenReturn(1); // Rows affected > 0
             when(mockStmt.getGeneratedKeys()).thenReturn(mockKeys);
@@ -1,5 +1,6 @@
 package repository.impl;
 
+import config.ConnectionPool;
 import config.ConnectionProvider;
 import config.DatabaseConnection;
 import config.TestDatabaseSetup;
@@ -8,6 +9,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import repository.interfaces.DuplicateOrderException;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -59,6 +61,68 @@ public class OrderRepositoryTest {
         assertTrue(saved.getOrderId() > 0);
     }
     
+    @Test
+    @DisplayName("Test findByIdempotencyKey - stored key loads the order")
+    void testFindByIdempotencyKey() {
+        Order order = newOrder("key-abc");
+        Order saved = repository.save(order);
+
+        Optional<Order> found = repository.findByIdempotencyKey("key-abc");
+        assertTrue(found.isPresent());
+        assertEquals(saved.getOrderId(), found.get().getOrderId());
+        assertEquals("key-abc", found.get().getIdempotencyKey());
+        assertEquals(1, found.get().getOrderDetails().size());
+        assertFalse(repository.findByIdempotencyKey("key-missing").isPresent());
+    }
+    
+    @Test
+    @DisplayName("Test lookups - an order and its details load on one pooled connection")
+    void testFindOnSingleConnectionPool() {
+        Order saved = repository.save(newOrder("key-pool"));
+
+        // A second borrow would time out and the lookup would come back empty
+        try (ConnectionPool pool = new ConnectionPool(H2_URL, "sa", "", 1, 200)) {
+            OrderRepository pooled = new OrderRepository(pool);
+            assertEquals(1, pooled.findByIdempotencyKey("key-pool").orElseThrow().getOrderDetails().size());
+            assertEquals(1, pooled.findById(saved.getOrderId()).orElseThrow().getOrderDetails().size());
+        }
+    }
+    
+    @Test
+    @DisplayName("Test findByIdempotencyKey - a database error is not reported as no order")
+    void testFindByIdempotencyKey_DatabaseDown() {
+        OrderRepository down = new OrderRepository(() -> {
+            throw new SQLException("Connection refused");
+        });
+
+        assertThrows(RuntimeException.class, () -> down.findByIdempotencyKey("key-abc"));
+    }
+    
+    @Test
+    @DisplayName("Test save - duplicate idempotency key is rejected")
+    void testSave_DuplicateIdempotencyKey() {
+        repository.save(newOrder("key-dup"));
+        
+        DuplicateOrderException e = assertThrows(DuplicateOrderException.class,
+                () -> repository.save(newOrder("key-dup")));
+        assertEquals("key-dup", e.getIdempotencyKey());
+        // Orders without a key never collide
+        repository.save(newOrder(null));
+        repository.save(newOrder(null));
+        assertEquals(3, repository.findByCustomerId(1000).size());
+    }
+    
+    private Order newOrder(String idempotencyKey) {
+        PaymentMethod pm = new PaymentMethod("TNG001", "TNG", "tng123", 100.00);
+        pm.setPaymentMethodId(1);
+        List<OrderDetails> details = new ArrayList<>();
+        details.add(new OrderDetails(new Food(2000, "Chicken Rice", 10.50, "Set"), 1));
+        Order order = new Order(new Date(), new Customer(1000, "John Doe"), details, 10.50, pm);
+        order.setStatus("COMPLETED");
+        order.setIdempotencyKey(idempotencyKey);
+        return order;
+    }
+    
     @Test
     @DisplayName("Test findById - existing order")
     void testFindById_Existing() {
@@ -233,6 +297,88 @@ public class OrderRepositoryTest {
         assertNotNull(orders);
     }
     
+    @Test
+    @DisplayName("Test history - lines keep the food as ordered after it is renamed or deleted")
+    void testFindById_LinesIndependentOfFoods() throws SQLException {
+        Customer customer = new Customer(1000, "John Doe");
+        PaymentMethod pm = new PaymentMethod("TNG001", "TNG", "tng123", 100.00);
+        pm.setPaymentMethodId(1);
+        Food rice = new Food(2000, "Chicken Rice", 10.50, "Set");
+        Food nasi = new Food(2001, "Nasi Lemak", 8.00, "Set");
+        Order order = new Order(new Date(), customer,
+                Arrays.asList(new OrderDetails(rice, 2), new OrderDetails(nasi, 1)), 29.00, pm);
+        order.setStatus("COMPLETED");
+        Order saved = repository.save(order);
+
+        try (var conn = connectionProvider.getConnection();
+             var stmt = conn.createStatement()) {
+            stmt.execute("UPDATE foods SET food_name = 'Ayam Rice', food_price = 99.00 WHERE food_id = 2000");
+            stmt.execute("DELETE FROM foods WHERE food_id = 2001");
+        }
+
+        List<OrderDetails> lines = repository.findById(saved.getOrderId()).orElseThrow().getOrderDetails();
+        assertEquals(2, lines.size());
+        assertEquals("Chicken Rice", lines.get(0).getFood().getFoodName());
+        assertEquals("Set", lines.get(0).getFood().getFoodType());
+        assertEquals(10.50, lines.get(0).getFood().getFoodPrice(), 0.001);
+        assertEquals(21.00, lines.get(0).getSubtotal(), 0.001);
+        assertEquals("Nasi Lemak", lines.get(1).getFood().getFoodName());
+    }
+    
+    @Test
+    @DisplayName("Test backfill - blank lines take the current food name, once")
+    void testBackfillLineSnapshots() throws SQLException {
+        Customer customer = new Customer(1000, "John Doe");
+        PaymentMethod pm = new PaymentMethod("TNG001", "TNG", "tng123", 100.00);
+        pm.setPaymentMethodId(1);
+        Order order = new Order(new Date(), customer, new ArrayList<>(), 0.0, pm);
+        order.setStatus("COMPLETED");
+        int orderId = repository.save(order).getOrderId();
+        try (var conn = connectionProvider.getConnection();
+             var stmt = conn.createStatement()) {
+            //Lines as written before they stored a snapshot; 9999 no longer exists
+            stmt.execute("INSERT INTO order_details (order_id, food_id, quantity, unit_price, subtotal) VALUES ("
+                    + orderId + ", 2001, 1, 8.00, 8.00), (" + orderId + ", 9999, 1, 5.00, 5.00)");
+        }
+
+        assertEquals(1, repository.backfillLineSnapshots());
+        assertEquals(0, repository.backfillLineSnapshots());
+
+        List<OrderDetails> lines = repository.findById(orderId).orElseThrow().getOrderDetails();
+        assertEquals("Nasi Lemak", lines.get(0).getFood().getFoodName());
+        assertEquals("Set", lines.get(0).getFood().getFoodType());
+        assertNull(lines.get(1).getFood().getFoodName());
+    }
+    
+    @Test
+    @DisplayName("Test backfill - nothing to fill")
+    void testBackfillLineSnapshots_NothingBlank() {
+        assertEquals(0, repository.backfillLineSnapshots());
+    }
+    
+    @Test
+    @DisplayName("Test findAllSummaries - one row per order with the report columns")
+    void testFindAllSummaries() {
+        Customer customer = new Customer(1000, "John Doe");
+        PaymentMethod pm = new PaymentMethod("TNG001", "TNG", "tng123", 100.00);
+        pm.setPaymentMethodId(1);
+        Order order = new Order(new Date(), customer,
+                Arrays.asList(new OrderDetails(new Food(2000, "Chicken Rice", 10.50, "Set"), 2)), 21.00, pm);
+        order.setStatus("COMPLETED");
+        Order saved = repository.save(order);
+
+        List<OrderSummary> summaries = repository.findAllSummaries();
+
+        assertEquals(repository.findAll().size(), summaries.size());
+        OrderSummary summary = summaries.stream()
+                .filter(s -> s.orderId() == saved.getOrderId()).findFirst().orElseThrow();
+        assertEquals(1000, summary.customerId());
+        assertEquals("TNG", summary.paymentType());
+        assertEquals(0, new java.math.BigDecimal("21.00").compareTo(summary.totalPrice()));
+        assertEquals(OrderSummary.of(repository.findById(saved.getOrderId()).orElseThrow()).totalPrice(),
+                summary.totalPrice());
+    }
+    
     @Test
     @DisplayName("Test save - order with empty details list")
     void testSave_WithEmptyDetailsList() {
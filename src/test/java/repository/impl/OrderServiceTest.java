@@ -38,7 +38,7 @@ public class OrderServiceTest {
         foodRepository = new MockFoodRepository();
         
         orderService = new OrderService(orderRepository, customerRepository, 
-                                       paymentMethodRepository, paymentService, foodRepository);
+                                       paymentService, foodRepository);
     }
     
     @Test
@@ -79,6 +79,28 @@ public class OrderServiceTest {
         assertEquals("COMPLETED", order.getStatus());
     }
     
+    @Test
+    @DisplayName("Test createOrder - order carries the payment method debited by processPayment")
+    void testCreateOrder_UsesAuthenticatedPaymentMethod() {
+        Customer customer = new Customer(1000, "John Doe", 25, "0123456789", "Male", "password");
+        customerRepository.addCustomer(customer);
+        
+        String hashedPassword = util.PasswordUtil.hashPassword("tng123");
+        PaymentMethod pm = new PaymentMethod("TNG001", "TNG", hashedPassword, 100.00);
+        pm.setPaymentMethodId(1);
+        paymentMethodRepository.addPaymentMethod(pm);
+        
+        Food food = new Food(2000, "Food 1", 10.00, "Set", 10);
+        foodRepository.addFood(food);
+        List<OrderDetails> details = new ArrayList<>();
+        details.add(new OrderDetails(food, 3));
+        
+        Order order = orderService.createOrder(1000, details, "TNG", "TNG001", "tng123");
+        
+        assertEquals(1, order.getPaymentMethod().getPaymentMethodId());
+        assertEquals(Money.ofCents(7000), order.getPaymentMethod().getBalanceMoney());
+    }
+    
     @Test
     @DisplayName("Test createOrder - customer not found")
     void testCreateOrder_CustomerNotFound() {
@@ -135,6 +157,13 @@ public class OrderServiceTest {
         public Optional<Order> findById(int orderId) {
             return Optional.ofNullable(orders.get(orderId));
         }
+
+        @Override
+        public Optional<Order> findByIdempotencyKey(String idempotencyKey) {
+            return orders.values().stream()
+                    .filter(o -> idempotencyKey.equals(o.getIdempotencyKey()))
+                    .findFirst();
+        }
         
         @Override
         public List<Order> findByCustomerId(int customerId) {
@@ -159,6 +188,12 @@ public class OrderServiceTest {
         public int getNextOrderId() {
             return nextId;
         }
+
+        @Override
+        public int backfillLineSnapshots() {
+            //Lines saved here keep their OrderDetails, so none are ever blank
+            return 0;
+        }
     }
     
     private static class MockCustomerRepository implements ICustomerRepository {
@@ -175,10 +210,20 @@ public class OrderServiceTest {
         }
         
         @Override
-        public Optional<Customer> authenticate(int customerId, String password) {
-            return Optional.empty();
+        public Optional<String> findPasswordHash(int customerId) {
+            return Optional.ofNullable(customers.get(customerId)).map(Customer::getPassword);
         }
         
+        @Override
+        public boolean updatePassword(int customerId, String passwordHash) {
+            Customer customer = customers.get(customerId);
+            if (customer == null) {
+                return false;
+            }
+            customer.setPassword(passwordHash);
+            return true;
+        }
+
         @Override
         public Customer save(Customer customer) {
             customers.put(customer.getCustomerId(), customer);
@@ -195,6 +240,11 @@ public class OrderServiceTest {
             return false;
         }
         
+        @Override
+        public void forEachPhoneNumber(java.util.function.Consumer<String> action) {
+            customers.values().forEach(c -> action.accept(c.getPhoneNumber()));
+        }
+        
         public void addCustomer(Customer customer) {
             customers.put(customer.getCustomerId(), customer);
         }
@@ -220,23 +270,7 @@ public class OrderServiceTest {
             return Optional.ofNullable(byCardNumber.get(cardNumber));
         }
         
-        @Override
-        public Optional<PaymentMethod> authenticateByWalletId(String walletId, String hashedPassword) {
-            PaymentMethod pm = byWalletId.get(walletId);
-            if (pm != null && pm.getPassword().equals(hashedPassword)) {
-                return Optional.of(pm);
-            }
-            return Optional.empty();
-        }
         
-        @Override
-        public Optional<PaymentMethod> authenticateByCardNumber(String cardNumber, String hashedPassword) {
-            PaymentMethod pm = byCardNumber.get(cardNumber);
-            if (pm != null && pm.getPassword().equals(hashedPassword)) {
-                return Optional.of(pm);
-            }
-            return Optional.empty();
-        }
         
         @Override
         public PaymentMethod save(PaymentMethod paymentMethod) {
@@ -250,6 +284,23 @@ public class OrderServiceTest {
             return paymentMethod;
         }
         
+        @Override
+        public java.util.Map<Integer, Money> findAllBalances() {
+            java.util.Map<Integer, Money> balances = new java.util.TreeMap<>();
+            paymentMethods.forEach((id, pm) -> balances.put(id, pm.getBalanceMoney()));
+            return balances;
+        }
+        
+        @Override
+        public boolean updatePassword(int paymentMethodId, String passwordHash) {
+            PaymentMethod pm = paymentMethods.get(paymentMethodId);
+            if (pm == null) {
+                return false;
+            }
+            pm.setPassword(passwordHash);
+            return true;
+        }
+
         @Override
         public boolean updateBalance(int paymentMethodId, double newBalance) {
             PaymentMethod pm = paymentMethods.get(paymentMethodId);
@@ -259,6 +310,17 @@ public class OrderServiceTest {
             }
             return false;
         }
+
+        //Compare-and-set on the balance, like the real repository
+        @Override
+        public boolean applyTransaction(PaymentTransaction transaction) {
+            PaymentMethod pm = paymentMethods.get(transaction.getPaymentMethodId());
+            if (pm == null || !pm.getBalanceMoney().equals(transaction.getBalanceBefore())) {
+                return false;
+            }
+            pm.setBalance(transaction.getBalanceAfter());
+            return true;
+        }
         
         public void addPaymentMethod(PaymentMethod pm) {
             paymentMethods.put(pm.getPaymentMethodId(), pm);
@@ -279,33 +341,47 @@ public class OrderServiceTest {
         }
         
         @Override
-        public Payment processPayment(String paymentType, String identifier, String password, double amount) {
-            // Hash password as PaymentService does
-            String hashedPassword = util.PasswordUtil.hashPassword(password);
-            
-            // Authenticate and get payment method
+        public PaymentResult processPayment(String paymentType, String identifier, String password, Money amount) {
+            // Look up the payment method and verify the password as PaymentService does
             Optional<PaymentMethod> pmOpt;
             if ("Bank".equalsIgnoreCase(paymentType)) {
-                pmOpt = repository.authenticateByCardNumber(identifier, hashedPassword);
+                pmOpt = repository.findByCardNumber(identifier);
             } else {
-                pmOpt = repository.authenticateByWalletId(identifier, hashedPassword);
+                pmOpt = repository.findByWalletId(identifier);
             }
+            pmOpt = pmOpt.filter(pm -> util.PasswordUtil.verifyPassword(password, pm.getPassword()));
             
             if (pmOpt.isEmpty()) {
                 throw new IllegalArgumentException("Invalid wallet ID or password");
             }
             
             PaymentMethod pm = pmOpt.get();
-            Payment payment = new TNGPayment(pm.getBalance());
+            Payment payment = new TNGPayment(pm.getBalanceMoney());
             
             if (!payment.checkAmount(amount)) {
                 throw new IllegalArgumentException("Insufficient balance");
             }
             
-            double newBalance = payment.makePayment(amount);
+            Money newBalance = payment.makePayment(amount);
             repository.updateBalance(pm.getPaymentMethodId(), newBalance);
+            pm.setBalance(newBalance);
             
-            return payment;
+            return new PaymentResult(pm, payment,
+                    PaymentTransaction.debit(pm.getPaymentMethodId(), amount, newBalance, null));
+        }
+
+        @Override
+        public model.ImportReport importPaymentMethods(java.io.Reader source, java.io.Writer rejects) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Money refund(PaymentResult charge) {
+            PaymentMethod pm = charge.getPaymentMethod();
+            Money newBalance = pm.getBalanceMoney().plus(charge.getAmountCharged());
+            repository.updateBalance(pm.getPaymentMethodId(), newBalance);
+            pm.setBalance(newBalance);
+            return newBalance;
         }
         
         @Override
@@ -377,6 +453,16 @@ public class OrderServiceTest {
             return false;
         }
         
+        @Override
+        public boolean incrementQuantity(int foodId, int quantityToAdd) {
+            Food food = foods.get(foodId);
+            if (food == null) {
+                return false;
+            }
+            food.setQuantity(food.getQuantity() + quantityToAdd);
+            return true;
+        }
+        
         public void addFood(Food food) {
             foods.put(food.getFoodId(), food);
         }
@@ -3,13 +3,17 @@ package repository.impl;
 import config.ConnectionProvider;
 import config.DatabaseConnection;
 import config.TestDatabaseSetup;
+import model.Money;
 import model.PaymentMethod;
+import model.PaymentTransaction;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
 import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import util.PasswordUtil;
 
@@ -56,12 +60,21 @@ public class PaymentMethodRepositoryTest {
     }
     
     @Test
-    @DisplayName("Test authenticateByWalletId - existing with correct password")
-    void testAuthenticateByWalletId_Existing() {
-        String hashedPassword = PasswordUtil.hashPassword("tng123");
-        Optional<PaymentMethod> pm = repository.authenticateByWalletId("TNG001", hashedPassword);
+    @DisplayName("Test findByWalletId - stored hash verifies the correct password")
+    void testFindByWalletId_PasswordHash() {
+        Optional<PaymentMethod> pm = repository.findByWalletId("TNG001");
         assertTrue(pm.isPresent());
         assertEquals("TNG", pm.get().getPaymentType());
+        assertTrue(PasswordUtil.verifyPassword("tng123", pm.get().getPassword()));
+    }
+    
+    @Test
+    @DisplayName("Test updatePassword - replaces the stored hash")
+    void testUpdatePassword() {
+        String upgraded = PasswordUtil.hash("tng123");
+        assertTrue(repository.updatePassword(1, upgraded));
+        assertEquals(upgraded, repository.findByWalletId("TNG001").get().getPassword());
+        assertFalse(repository.updatePassword(9999, upgraded));
     }
     
     @Test
@@ -132,19 +145,19 @@ public class PaymentMethodRepositoryTest {
     }
     
     @Test
-    @DisplayName("Test authenticateByWalletId - wrong password")
-    void testAuthenticateByWalletId_WrongPassword() {
-        Optional<PaymentMethod> pm = repository.authenticateByWalletId("TNG001", "wrongpassword");
-        assertFalse(pm.isPresent());
+    @DisplayName("Test findByWalletId - stored hash rejects a wrong password")
+    void testFindByWalletId_WrongPassword() {
+        Optional<PaymentMethod> pm = repository.findByWalletId("TNG001");
+        assertFalse(PasswordUtil.verifyPassword("wrongpassword", pm.get().getPassword()));
     }
     
     @Test
-    @DisplayName("Test authenticateByCardNumber - existing")
-    void testAuthenticateByCardNumber_Existing() {
-        String hashedPassword = PasswordUtil.hashPassword("bank789");
-        Optional<PaymentMethod> pm = repository.authenticateByCardNumber("1234567890123456", hashedPassword);
+    @DisplayName("Test findByCardNumber - stored hash verifies the correct password")
+    void testFindByCardNumber_PasswordHash() {
+        Optional<PaymentMethod> pm = repository.findByCardNumber("1234567890123456");
         assertTrue(pm.isPresent());
         assertEquals("Bank", pm.get().getPaymentType());
+        assertTrue(PasswordUtil.verifyPassword("bank789", pm.get().getPassword()));
     }
     
     @Test
@@ -253,4 +266,58 @@ public class PaymentMethodRepositoryTest {
         assertNotNull(p.getPassword());
         assertTrue(p.getBalance() > 0);
     }
-}
\ No newline at end of file
+    
+    @Test
+    @DisplayName("Test applyTransaction - balance and ledger row are written together")
+    void testApplyTransaction_WritesBalanceAndLedger() {
+        PaymentTransaction debit = PaymentTransaction.debit(1, Money.ofCents(2550), Money.ofCents(7450), "TNG payment");
+        
+        assertTrue(repository.applyTransaction(debit));
+        assertTrue(debit.getTransactionId() > 0);
+        assertEquals(74.50, repository.findById(1).get().getBalance(), 0.001);
+        
+        List<PaymentTransaction> ledger = new PaymentTransactionRepository(connectionProvider).findByPaymentMethodId(1);
+        assertEquals(1, ledger.size());
+        assertEquals(Money.ofCents(2550), ledger.get(0).getAmount());
+        assertEquals(Money.ofCents(7450), ledger.get(0).getBalanceAfter());
+    }
+    
+    @Test
+    @DisplayName("Test applyTransaction - stale balance is rejected and nothing is recorded")
+    void testApplyTransaction_StaleBalance() {
+        // Balance is 100.00, but this debit assumes it was 90.00
+        PaymentTransaction debit = PaymentTransaction.debit(1, Money.ofCents(1000), Money.ofCents(8000), null);
+        
+        assertFalse(repository.applyTransaction(debit));
+        assertEquals(100.00, repository.findById(1).get().getBalance(), 0.001);
+        assertTrue(new PaymentTransactionRepository(connectionProvider).findByPaymentMethodId(1).isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Test findAllBalances - every seeded payment method")
+    void testFindAllBalances() {
+        Map<Integer, Money> balances = repository.findAllBalances();
+        assertEquals(4, balances.size());
+        assertEquals(Money.ofCents(10000), balances.get(1));
+        assertEquals(Money.ofCents(20000), balances.get(3));
+    }
+
+    @Test
+    @DisplayName("Test saveAll - wallets and cards inserted in one batch")
+    void testSaveAll() {
+        PaymentMethod wallet = new PaymentMethod("TNG900", "TNG", "hash", 10.0);
+        PaymentMethod card = new PaymentMethod();
+        card.setPaymentType("Bank");
+        card.setCardNumber("9999888877776666");
+        card.setExpiryDate("0128");
+        card.setPassword("hash");
+        card.setBalance(50.0);
+
+        repository.saveAll(List.of(wallet, card));
+
+        assertTrue(wallet.getPaymentMethodId() > 0);
+        assertTrue(card.getPaymentMethodId() > 0);
+        assertEquals(10.0, repository.findByWalletId("TNG900").get().getBalance(), 0.001);
+        assertEquals("0128", repository.findByCardNumber("9999888877776666").get().getExpiryDate());
+    }
+}
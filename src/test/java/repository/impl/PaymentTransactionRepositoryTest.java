@@ -0,0 +1,95 @@
+package repository.impl;
+
+import config.ConnectionProvider;
+import config.DatabaseConnection;
+import config.TestDatabaseSetup;
+import model.Money;
+import model.PaymentTransaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Payment Transaction Repository Test
+ */
+public class PaymentTransactionRepositoryTest {
+
+    private PaymentTransactionRepository repository;
+    private ConnectionProvider connectionProvider;
+    private static final String H2_URL = "jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connectionProvider = DatabaseConnection.createInstance(H2_URL, "sa", "");
+        TestDatabaseSetup.initializeSchema(connectionProvider);
+        repository = new PaymentTransactionRepository(connectionProvider);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        TestDatabaseSetup.cleanup(connectionProvider);
+        if (connectionProvider instanceof DatabaseConnection) {
+            ((DatabaseConnection) connectionProvider).closeConnection();
+        }
+    }
+
+    @Test
+    @DisplayName("Test append - assigns an ID and round-trips every field")
+    void testAppend() {
+        PaymentTransaction appended = repository.append(
+                PaymentTransaction.credit(2, Money.ofCents(500), Money.ofCents(5500), "Refund"));
+
+        assertTrue(appended.getTransactionId() > 0);
+        List<PaymentTransaction> ledger = repository.findByPaymentMethodId(2);
+        assertEquals(1, ledger.size());
+        PaymentTransaction read = ledger.get(0);
+        assertEquals(appended.getTransactionId(), read.getTransactionId());
+        assertEquals(PaymentTransaction.TYPE_CREDIT, read.getTransactionType());
+        assertEquals(Money.ofCents(500), read.getAmount());
+        assertEquals(Money.ofCents(5500), read.getBalanceAfter());
+        assertEquals("Refund", read.getReference());
+        assertNotNull(read.getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("Test appendAll - one batch, oldest first per account")
+    void testAppendAll() {
+        List<PaymentTransaction> batch = new ArrayList<>();
+        batch.add(PaymentTransaction.opening(1, Money.ofCents(10000)));
+        batch.add(PaymentTransaction.debit(1, Money.ofCents(1000), Money.ofCents(9000), null));
+        batch.add(PaymentTransaction.opening(3, Money.ofCents(20000)));
+
+        assertEquals(3, repository.appendAll(batch));
+        List<PaymentTransaction> account1 = repository.findByPaymentMethodId(1);
+        assertEquals(2, account1.size());
+        assertTrue(account1.get(0).isOpening());
+        assertEquals(Money.ofCents(9000), account1.get(1).getBalanceAfter());
+    }
+
+    @Test
+    @DisplayName("Test appendAll - empty or null batch writes nothing")
+    void testAppendAll_Empty() {
+        assertEquals(0, repository.appendAll(new ArrayList<>()));
+        assertEquals(0, repository.appendAll(null));
+    }
+
+    @Test
+    @DisplayName("Test forEachInAccountOrder - streams grouped by account")
+    void testForEachInAccountOrder() {
+        repository.append(PaymentTransaction.opening(3, Money.ofCents(20000)));
+        repository.append(PaymentTransaction.opening(1, Money.ofCents(10000)));
+        repository.append(PaymentTransaction.debit(3, Money.ofCents(900), Money.ofCents(19100), null));
+
+        List<Integer> accounts = new ArrayList<>();
+        repository.forEachInAccountOrder(tx -> accounts.add(tx.getPaymentMethodId()));
+
+        assertEquals(List.of(1, 3, 3), accounts);
+    }
+}
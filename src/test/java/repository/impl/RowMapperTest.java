@@ -0,0 +1,70 @@
+package repository.impl;
+
+import config.ConnectionProvider;
+import config.DatabaseConnection;
+import config.TestDatabaseSetup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Row Mapper Test
+ */
+public class RowMapperTest {
+
+    private ConnectionProvider connectionProvider;
+    private static final String H2_URL = "jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connectionProvider = DatabaseConnection.createInstance(H2_URL, "sa", "");
+        TestDatabaseSetup.initializeSchema(connectionProvider);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        TestDatabaseSetup.cleanup(connectionProvider);
+        if (connectionProvider instanceof DatabaseConnection) {
+            ((DatabaseConnection) connectionProvider).closeConnection();
+        }
+    }
+
+    @Test
+    @DisplayName("Test mapAll - maps every remaining row by position, in order")
+    void testMapAll() throws SQLException {
+        RowMapper<String> mapper = rs -> rs.getInt(1) + ":" + rs.getString(2);
+
+        try (Connection conn = connectionProvider.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT food_id, food_name FROM foods ORDER BY food_id");
+             ResultSet rs = stmt.executeQuery()) {
+
+            assertTrue(rs.next());
+            assertEquals("2000:Chicken Rice", mapper.map(rs));
+            assertEquals(List.of("2001:Nasi Lemak", "2002:Mee Goreng"), mapper.mapAll(rs));
+            assertTrue(mapper.mapAll(rs).isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Test mapAll - a mapper error is not swallowed")
+    void testMapAll_PropagatesErrors() throws SQLException {
+        RowMapper<String> mapper = rs -> rs.getString(9);
+
+        try (Connection conn = connectionProvider.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT food_id FROM foods");
+             ResultSet rs = stmt.executeQuery()) {
+
+            assertThrows(SQLException.class, () -> mapper.mapAll(rs));
+        }
+    }
+}
@@ -3,14 +3,19 @@ package service.impl;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.util.Optional;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import repository.interfaces.IAdminRepository;
+import util.LoginThrottle;
 import util.PasswordUtil;
 
 class AdminServiceTest {
@@ -18,6 +23,10 @@ class AdminServiceTest {
     @Mock
     private IAdminRepository adminRepository;
 
+    //Small burst so throttling shows after a few attempts
+    @Spy
+    private LoginThrottle<String> loginThrottle = new LoginThrottle<>(3, 60_000, 16, System::nanoTime);
+
     @InjectMocks
     private AdminService adminService;
 
@@ -30,32 +39,102 @@ class AdminServiceTest {
     @Test
     @DisplayName("Login - Success")
     void testLogin_Success() {
-        //repository returns true for valid credentials
-        //AdminService hashes the password before calling repository
-        String hashedPassword = PasswordUtil.hashPassword("123");
-        when(adminRepository.authenticate("admin", hashedPassword)).thenReturn(true);
+        //repository returns the stored hash; AdminService verifies it
+        String storedHash = PasswordUtil.hash("123");
+        when(adminRepository.findPasswordHash("admin")).thenReturn(Optional.of(storedHash));
 
         //Execute
         boolean result = adminService.login("admin", "123");
 
         //Verify
-        assertTrue(result, "Login should succeed when repo returns true");
-        verify(adminRepository).authenticate("admin", hashedPassword);
+        assertTrue(result, "Login should succeed when the password matches the stored hash");
+        verify(adminRepository).findPasswordHash("admin");
+        verify(adminRepository, never()).updatePassword(any(), any());
     }
 
     @Test
     @DisplayName("Login - Failure")
     void testLogin_Failure_WrongCredentials() {
-        //Repository returns false for invalid credentials
-        //AdminService hashes the password before calling repository
-        String hashedPassword = PasswordUtil.hashPassword("wrong");
-        when(adminRepository.authenticate("admin", hashedPassword)).thenReturn(false);
+        //Stored hash does not match the given password
+        when(adminRepository.findPasswordHash("admin")).thenReturn(Optional.of(PasswordUtil.hashPassword("123")));
 
         //execute
         boolean result = adminService.login("admin", "wrong");
 
         //Verify
-        assertFalse(result, "Login should fail when repo returns false");
+        assertFalse(result, "Login should fail when the password does not match");
+        verify(adminRepository, never()).updatePassword(any(), any());
+    }
+
+    @Test
+    @DisplayName("Login - Failure (Unknown Name)")
+    void testLogin_UnknownName() {
+        when(adminRepository.findPasswordHash("nobody")).thenReturn(Optional.empty());
+
+        assertFalse(adminService.login("nobody", "123"));
+    }
+
+    @Test
+    @DisplayName("Login - A database error is reported, and the next login still succeeds")
+    void testLogin_DatabaseErrorNotRemembered() {
+        when(adminRepository.findPasswordHash("admin"))
+                .thenThrow(new RuntimeException("Failed to load admin credentials"))
+                .thenReturn(Optional.of(PasswordUtil.hash("123")));
+
+        assertThrows(RuntimeException.class, () -> adminService.login("admin", "123"));
+        assertTrue(adminService.login("admin", "123"));
+        verify(adminRepository, times(2)).findPasswordHash("admin");
+    }
+
+    @Test
+    @DisplayName("Login - Legacy hash is upgraded after a successful login")
+    void testLogin_UpgradesLegacyHash() {
+        when(adminRepository.findPasswordHash("admin")).thenReturn(Optional.of(PasswordUtil.hashPassword("123")));
+
+        assertTrue(adminService.login("admin", "123"));
+
+        ArgumentCaptor<String> upgraded = ArgumentCaptor.forClass(String.class);
+        verify(adminRepository).updatePassword(eq("admin"), upgraded.capture());
+        assertTrue(upgraded.getValue().startsWith(PasswordUtil.PBKDF2_PREFIX + "$"));
+        assertTrue(PasswordUtil.verifyPassword("123", upgraded.getValue()));
+    }
+
+    @Test
+    @DisplayName("Login - Repeated wrong password is rejected without another lookup")
+    void testLogin_RepeatedFailureFromMemory() {
+        when(adminRepository.findPasswordHash("admin")).thenReturn(Optional.of(PasswordUtil.hash("123")));
+
+        assertFalse(adminService.login("admin", "wrong"));
+        assertFalse(adminService.login("admin", "wrong"));
+        assertTrue(adminService.login("admin", "123"));
+
+        verify(adminRepository, times(1)).findPasswordHash("admin");
+    }
+
+    @Test
+    @DisplayName("Login - Attempts over the limit are refused before the hash is checked")
+    void testLogin_Throttled() {
+        when(adminRepository.findPasswordHash("admin")).thenReturn(Optional.of(PasswordUtil.hash("123")));
+
+        assertFalse(adminService.login("admin", "wrong1"));
+        assertFalse(adminService.login("admin", "wrong2"));
+        assertFalse(adminService.login("admin", "wrong3"));
+        assertFalse(adminService.login("admin", "123"), "The correct password is refused while throttled");
+
+        assertEquals(1, loginThrottle.getThrottled());
+        verify(adminRepository, times(1)).findPasswordHash("admin");
+    }
+
+    @Test
+    @DisplayName("Login - Successful logins give their attempt back")
+    void testLogin_SuccessDoesNotDrainBucket() {
+        when(adminRepository.findPasswordHash("admin")).thenReturn(Optional.of(PasswordUtil.hash("123")));
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(adminService.login("admin", "123"));
+        }
+        assertEquals(0, loginThrottle.getThrottled());
+        verify(loginThrottle, times(5)).refund("ADMIN:admin");
     }
 
     @Test
@@ -66,7 +145,7 @@ class AdminServiceTest {
 
         // verify result is false
         assertFalse(result);
-        verify(adminRepository, never()).authenticate(any(), any());
+        verify(adminRepository, never()).findPasswordHash(any());
     }
 
     @Test
@@ -77,6 +156,6 @@ class AdminServiceTest {
 
         //Verify result is false
         assertFalse(result);
-        verify(adminRepository, never()).authenticate(any(), any());
+        verify(adminRepository, never()).findPasswordHash(any());
     }
-}
\ No newline at end of file
+}
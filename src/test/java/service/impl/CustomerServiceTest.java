@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
+import repository.interfaces.DuplicatePhoneNumberException;
 import repository.interfaces.ICustomerRepository;
 import util.PasswordUtil;
 
@@ -168,6 +169,59 @@ public class CustomerServiceTest {
             assertEquals("Phone number already registered! Please use a different number.", ex.getMessage());
         }
 
+        @Test
+        void testRegisterCustomer_NewPhoneSkipsExistsQuery() {
+            customerService.registerCustomer(createValidCustomer());
+
+            // The phone filter answers "not registered" from memory
+            assertEquals(0, mockRepository.existsQueries);
+            assertEquals(1, mockRepository.phoneScans);
+        }
+
+        @Test
+        void testRegisterCustomer_DuplicateOfNumberSavedAfterFilterLoaded() {
+            customerService.registerCustomer(createValidCustomer());
+
+            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
+                customerService.registerCustomer(createValidCustomer()));
+            assertEquals("Phone number already registered! Please use a different number.", ex.getMessage());
+            assertTrue(customerService.isPhoneNumberRegistered("0123456789"));
+            assertFalse(customerService.isPhoneNumberRegistered("0199999999"));
+            assertFalse(customerService.isPhoneNumberRegistered(null));
+            assertEquals(1, mockRepository.phoneScans);
+        }
+
+        @Test
+        void testRegisterCustomer_UniqueIndexRejectsRace() {
+            customerService = new CustomerService(new MockCustomerRepository() {
+                @Override
+                public Customer save(Customer customer) {
+                    throw new DuplicatePhoneNumberException(customer.getPhoneNumber());
+                }
+            });
+
+            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
+                customerService.registerCustomer(createValidCustomer()));
+            assertEquals("Phone number already registered! Please use a different number.", ex.getMessage());
+        }
+
+        @Test
+        void testIsPhoneNumberRegistered_FallsBackWhenFilterCannotLoad() {
+            MockCustomerRepository failing = new MockCustomerRepository() {
+                @Override
+                public void forEachPhoneNumber(java.util.function.Consumer<String> action) {
+                    throw new RuntimeException("database down");
+                }
+            };
+            Customer existing = createValidCustomer();
+            failing.save(existing);
+            customerService = new CustomerService(failing);
+
+            assertTrue(customerService.isPhoneNumberRegistered("0123456789"));
+            assertFalse(customerService.isPhoneNumberRegistered("0199999999"));
+            assertEquals(2, failing.existsQueries);
+        }
+
         @Test
         void testLogin_Success() {
             Customer c = createValidCustomer();
@@ -195,6 +249,49 @@ public class CustomerServiceTest {
             // Wrong ID
             assertFalse(customerService.login(999, "secret123").isPresent());
         }
+
+        @Test
+        void testRegisterCustomer_StoresSaltedHash() {
+            Customer registered = customerService.registerCustomer(createValidCustomer());
+
+            assertTrue(registered.getPassword().startsWith(PasswordUtil.PBKDF2_PREFIX + "$"));
+            assertFalse(PasswordUtil.needsRehash(registered.getPassword()));
+            assertTrue(customerService.login(registered.getCustomerId(), "password123").isPresent());
+        }
+
+        @Test
+        void testLogin_UpgradesLegacyHash() {
+            Customer c = createValidCustomer();
+            c.setCustomerId(100);
+            c.setPassword(PasswordUtil.hashPassword("secret123"));
+            mockRepository.save(c);
+
+            // Failed attempts leave the stored hash alone
+            customerService.login(100, "wrong");
+            assertEquals(PasswordUtil.hashPassword("secret123"), c.getPassword());
+
+            assertTrue(customerService.login(100, "secret123").isPresent());
+            assertTrue(c.getPassword().startsWith(PasswordUtil.PBKDF2_PREFIX + "$"));
+            // The upgraded hash keeps working
+            assertTrue(customerService.login(100, "secret123").isPresent());
+            assertFalse(customerService.login(100, "wrong").isPresent());
+        }
+
+        @Test
+        void testLogin_ThrottledAfterRepeatedFailures() {
+            util.LoginThrottle<String> throttle = new util.LoginThrottle<>(2, 60_000, 16, System::nanoTime);
+            customerService = new CustomerService(mockRepository, throttle);
+            Customer c = createValidCustomer();
+            c.setCustomerId(100);
+            c.setPassword(PasswordUtil.hash("secret123"));
+            mockRepository.save(c);
+
+            assertFalse(customerService.login(100, "wrong1").isPresent());
+            assertFalse(customerService.login(100, "wrong2").isPresent());
+            // Refused before the hash is checked, even with the right password
+            assertFalse(customerService.login(100, "secret123").isPresent());
+            assertEquals(1, throttle.getThrottled());
+        }
     }
 
     //Helpers
@@ -209,9 +306,89 @@ public class CustomerServiceTest {
         return c;
     }
 
+    @Nested
+    @DisplayName("Bulk Import Tests")
+    class ImportTests {
+
+        private static final String HEADER = "name,age,phone_number,gender,password\n";
+
+        private model.ImportReport importCsv(String rows, java.io.StringWriter rejects) throws java.io.IOException {
+            int previous = PasswordUtil.getIterations();
+            PasswordUtil.setIterations(PasswordUtil.MIN_ITERATIONS);
+            try {
+                return customerService.importCustomers(new java.io.StringReader(HEADER + rows), rejects);
+            } finally {
+                PasswordUtil.setIterations(previous);
+            }
+        }
+
+        @Test
+        void testImport_ValidRowsAreHashedAndStored() throws Exception {
+            java.io.StringWriter rejects = new java.io.StringWriter();
+            model.ImportReport report = importCsv("Alice Tan,30,0121111111,Female,secret1\n"
+                    + "Bob Lee,45,0132222222,male,secret2\n", rejects);
+
+            assertEquals(2, report.getImported());
+            assertEquals(0, report.getRejected());
+            Customer alice = mockRepository.findByPhoneNumber("0121111111").orElseThrow();
+            assertNotEquals("secret1", alice.getPassword());
+            assertTrue(PasswordUtil.verifyPassword("secret1", alice.getPassword()));
+            assertTrue(customerService.login(alice.getCustomerId(), "secret1").isPresent());
+            assertTrue(customerService.isPhoneNumberRegistered("0132222222"));
+        }
+
+        @Test
+        void testImport_InvalidRowsGoToRejectsWithoutPasswords() throws Exception {
+            java.io.StringWriter rejects = new java.io.StringWriter();
+            model.ImportReport report = importCsv("John123,30,0121111111,Male,topsecret\n"
+                    + "Alice Tan,ten,0121111112,Female,topsecret\n"
+                    + "Alice Tan,30,12345,Female,topsecret\n"
+                    + "Bob Lee,45,0132222222,Male,secret2\n", rejects);
+
+            assertEquals(1, report.getImported());
+            assertEquals(3, report.getRejected());
+            String output = rejects.toString();
+            assertFalse(output.contains("topsecret"));
+            assertTrue(output.contains("John123,30,0121111111,Male,,"));
+            assertTrue(output.contains("age must be a whole number: 'ten'"));
+        }
+
+        @Test
+        void testImport_DuplicatePhonesAreRejected() throws Exception {
+            mockRepository.save(createValidCustomer());
+            java.io.StringWriter rejects = new java.io.StringWriter();
+            model.ImportReport report = importCsv("Alice Tan,30,0123456789,Female,secret1\n"
+                    + "Bob Lee,45,0132222222,Male,secret2\n"
+                    + "Bob Two,46,0132222222,Male,secret3\n", rejects);
+
+            assertEquals(1, report.getImported());
+            assertEquals(2, report.getRejected());
+            assertEquals(2, rejects.toString().split("Phone number already registered", -1).length - 1);
+            assertEquals("Bob Lee", mockRepository.findByPhoneNumber("0132222222").orElseThrow().getName());
+        }
+
+        @Test
+        void testImport_FailedChunkIsRejected() throws Exception {
+            customerService = new CustomerService(new MockCustomerRepository() {
+                @Override
+                public java.util.List<Customer> saveAll(java.util.List<Customer> customers) {
+                    throw new DuplicatePhoneNumberException(null);
+                }
+            });
+            java.io.StringWriter rejects = new java.io.StringWriter();
+            model.ImportReport report = importCsv("Alice Tan,30,0121111111,Female,secret1\n", rejects);
+
+            assertEquals(0, report.getImported());
+            assertEquals(1, report.getRejected());
+            assertTrue(rejects.toString().contains("Chunk not stored"));
+        }
+    }
+
     private static class MockCustomerRepository implements ICustomerRepository {
         private final Map<Integer, Customer> db = new HashMap<>();
         private int idCounter = 1000;
+        private int existsQueries;
+        private int phoneScans;
 
         @Override
         public Optional<Customer> findById(int customerId) {
@@ -226,12 +403,18 @@ public class CustomerServiceTest {
         }
 
         @Override
-        public Optional<Customer> authenticate(int customerId, String password) {
-            Customer c = db.get(customerId);
-            if (c != null && c.getPassword().equals(password)) {
-                return Optional.of(c);
+        public Optional<String> findPasswordHash(int customerId) {
+            return Optional.ofNullable(db.get(customerId)).map(Customer::getPassword);
+        }
+
+        @Override
+        public boolean updatePassword(int customerId, String passwordHash) {
+            Customer customer = db.get(customerId);
+            if (customer == null) {
+                return false;
             }
-            return Optional.empty();
+            customer.setPassword(passwordHash);
+            return true;
         }
 
         @Override
@@ -251,7 +434,14 @@ public class CustomerServiceTest {
 
         @Override
         public boolean existsByPhoneNumber(String phoneNumber) {
+            existsQueries++;
             return db.values().stream().anyMatch(c -> c.getPhoneNumber().equals(phoneNumber));
         }
+
+        @Override
+        public void forEachPhoneNumber(java.util.function.Consumer<String> action) {
+            phoneScans++;
+            db.values().forEach(c -> action.accept(c.getPhoneNumber()));
+        }
     }
 }
\ No newline at end of file
@@ -207,8 +207,107 @@ class FoodServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Bulk Operations")
+    class BulkTests {
+
+        private static final String HEADER = "food_name,food_price,food_type,quantity\n";
+
+        @Test
+        @DisplayName("Should import valid foods and reject bad or duplicate rows")
+        void shouldImportFoods() throws Exception {
+            fakeRepository.save(new Food("Chicken Rice", 10.50, "Set"));
+            java.io.StringWriter rejects = new java.io.StringWriter();
+
+            model.ImportReport report = foodService.importFoods(new java.io.StringReader(HEADER
+                    + "Roti Canai,2.50,A la carte,40\n"
+                    + "Teh Tarik,3,a la carte,\n"
+                    + "chicken rice,9.00,Set,5\n"
+                    + "Roti Canai,2.00,Set,1\n"
+                    + "Food123,5.00,Set,1\n"
+                    + "Laksa,abc,Set,1\n"
+                    + "Laksa,0,Set,1\n"
+                    + "Laksa,8.00,Buffet,1\n"
+                    + "Laksa,8.00,Set,-1\n"), rejects);
+
+            assertEquals(9, report.getRowsRead());
+            assertEquals(2, report.getImported());
+            assertEquals(7, report.getRejected());
+            assertEquals(40, fakeRepository.findByName("Roti Canai").orElseThrow().getQuantity());
+            assertEquals(0, fakeRepository.findByName("Teh Tarik").orElseThrow().getQuantity());
+            String output = rejects.toString();
+            assertEquals(2, output.split("Food name already exists", -1).length - 1);
+            assertTrue(output.contains("food_price must be a number: 'abc'"));
+            assertTrue(output.contains("Quantity cannot be negative"));
+        }
+
+        @Test
+        @DisplayName("Should change prices by a percentage, rounded to cents")
+        void shouldChangePrices() {
+            Food rice = fakeRepository.save(new Food("Chicken Rice", 10.50, "Set"));
+            Food tea = fakeRepository.save(new Food("Teh Tarik", 3.00, "A la carte"));
+
+            assertEquals(2, foodService.changePrices(List.of(rice.getFoodId(), tea.getFoodId(), 9999), 10));
+            assertEquals(11.55, fakeRepository.findById(rice.getFoodId()).orElseThrow().getFoodPrice(), 0.001);
+            assertEquals(3.30, fakeRepository.findById(tea.getFoodId()).orElseThrow().getFoodPrice(), 0.001);
+
+            assertEquals(1, foodService.changePrices(List.of(tea.getFoodId()), -99.9));
+            assertEquals(0.01, fakeRepository.findById(tea.getFoodId()).orElseThrow().getFoodPrice(), 0.001);
+        }
+
+        @Test
+        @DisplayName("Should reject impossible price changes")
+        void shouldRejectInvalidPriceChange() {
+            assertThrows(IllegalArgumentException.class, () -> foodService.changePrices(List.of(2000), -100));
+            assertThrows(IllegalArgumentException.class, () -> foodService.changePrices(List.of(2000), Double.NaN));
+        }
+
+        @Test
+        @DisplayName("Stores without versions always report the whole menu")
+        void shouldReportFullMenuWhenUnversioned() {
+            fakeRepository.save(new Food("Chicken Rice", 10.50, "Set"));
+
+            assertEquals(model.MenuChanges.UNVERSIONED, foodService.getMenuVersion());
+            model.MenuChanges changes = foodService.getMenuChangesSince(0);
+            assertTrue(changes.isFullReload());
+            assertEquals(1, changes.getFoods().size());
+        }
+
+        @Test
+        @DisplayName("Change queries look back a little and reject a missing time")
+        void shouldQueryChangesWithOverlap() {
+            fakeRepository.save(new Food("Chicken Rice", 10.50, "Set"));
+            java.time.Instant since = java.time.Instant.parse("2026-01-01T00:00:00Z");
+
+            assertEquals(1, foodService.getFoodsChangedSince(since).size());
+            assertTrue(fakeRepository.lastChangedSince.isBefore(since));
+            assertThrows(IllegalArgumentException.class, () -> foodService.getFoodsChangedSince(null));
+        }
+
+        @Test
+        @DisplayName("Should restock many foods and reject non-positive quantities")
+        void shouldRestockFoods() {
+            Food rice = fakeRepository.save(new Food("Chicken Rice", 10.50, "Set", 5));
+            Map<Integer, Integer> quantities = new LinkedHashMap<>();
+            quantities.put(rice.getFoodId(), 20);
+            quantities.put(9999, 3);
+
+            assertEquals(1, foodService.restockFoods(quantities));
+            assertEquals(25, fakeRepository.findById(rice.getFoodId()).orElseThrow().getQuantity());
+            assertThrows(IllegalArgumentException.class,
+                    () -> foodService.restockFoods(Map.of(rice.getFoodId(), 0)));
+        }
+    }
+
     private static class FakeFoodRepository implements IFoodRepository {
         private final Map<Integer, Food> db = new HashMap<>();
+        private java.time.Instant lastChangedSince;
+
+        @Override
+        public List<Food> findChangedSince(java.time.Instant since) {
+            lastChangedSince = since;
+            return IFoodRepository.super.findChangedSince(since);
+        }
 
         @Override
         public Food save(Food food) {
@@ -271,5 +370,15 @@ class FoodServiceTest {
             // Not strictly needed for these service tests, but implemented for interface compliance
             return true; 
         }
+
+        @Override
+        public boolean incrementQuantity(int foodId, int quantityToAdd) {
+            Food food = db.get(foodId);
+            if (food == null) {
+                return false;
+            }
+            food.setQuantity(food.getQuantity() + quantityToAdd);
+            return true;
+        }
     }
 }
\ No newline at end of file
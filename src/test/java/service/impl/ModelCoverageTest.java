@@ -104,11 +104,11 @@ public class ModelCoverageTest {
         Food food = new Food(1, "Test", 12.50, "Set");
         OrderDetails details = new OrderDetails(food, 2);
         
-        assertEquals(BigDecimal.valueOf(12.50), details.getUnitPriceDecimal());
-        assertEquals(BigDecimal.valueOf(25.0), details.getSubtotalDecimal());
+        assertEquals(new BigDecimal("12.50"), details.getUnitPriceDecimal());
+        assertEquals(new BigDecimal("25.00"), details.getSubtotalDecimal());
         
         details.setUnitPrice(BigDecimal.valueOf(10.0));
-        assertEquals(BigDecimal.valueOf(10.0), details.getUnitPriceDecimal());
+        assertEquals(new BigDecimal("10.00"), details.getUnitPriceDecimal());
     }
     
     @Test
@@ -4,6 +4,7 @@ import model.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import repository.interfaces.DuplicateOrderException;
 import repository.interfaces.ICustomerRepository;
 import repository.interfaces.IFoodRepository;
 import repository.interfaces.IOrderRepository;
@@ -12,6 +13,10 @@ import service.interfaces.IPaymentService;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -39,7 +44,6 @@ class OrderServiceTest {
         orderService = new OrderService(
                 orderRepository,
                 customerRepository,
-                paymentMethodRepository,
                 paymentService,
                 foodRepository
         );
@@ -101,6 +105,61 @@ class OrderServiceTest {
         assertEquals(1, orderRepository.findAll().size());
     }
 
+    @Test
+    @DisplayName("Lines given only a food ID take the stored name and type")
+    void createOrder_shouldSnapshotStoredFoodOnLines() {
+        customerRepository.addCustomer(new Customer(1000, "John", 25, "0123456789", "M", "pass"));
+        PaymentMethod pm = new PaymentMethod("TNG001", "TNG", util.PasswordUtil.hashPassword("tng123"), 100.0);
+        pm.setPaymentMethodId(1);
+        paymentMethodRepository.addPaymentMethod(pm);
+        foodRepository.addFood(new Food(2000, "Food", 10.0, "Set", 10));
+
+        Food byId = new Food();
+        byId.setFoodId(2000);
+        byId.setFoodPrice(10.0);
+        Order order = orderService.createOrder(1000, List.of(new OrderDetails(byId, 1)), "TNG", "TNG001", "tng123");
+
+        OrderDetails line = order.getOrderDetails().get(0);
+        assertEquals("Food", line.getFoodName());
+        assertEquals("Set", line.getFoodType());
+        assertNull(byId.getFoodName());
+    }
+
+    @Test
+    @DisplayName("Lines snapshot the stored name and type, not a stale name from the caller")
+    void createOrder_shouldSnapshotStoredFoodOverCallerName() {
+        customerRepository.addCustomer(new Customer(1000, "John", 25, "0123456789", "M", "pass"));
+        PaymentMethod pm = new PaymentMethod("TNG001", "TNG", util.PasswordUtil.hashPassword("tng123"), 100.0);
+        pm.setPaymentMethodId(1);
+        paymentMethodRepository.addPaymentMethod(pm);
+        foodRepository.addFood(new Food(2000, "Nasi Lemak Special", 10.0, "Set", 10));
+
+        Food stale = new Food(2000, "Nasi Lemak", 10.0, "A la carte", 10);
+        Order order = orderService.createOrder(1000, List.of(new OrderDetails(stale, 1)), "TNG", "TNG001", "tng123");
+
+        OrderDetails line = order.getOrderDetails().get(0);
+        assertEquals("Nasi Lemak Special", line.getFoodName());
+        assertEquals("Set", line.getFoodType());
+        assertEquals("Nasi Lemak", stale.getFoodName());
+        assertEquals("A la carte", stale.getFoodType());
+    }
+
+    @Test
+    @DisplayName("Order summaries carry the report columns of each saved order")
+    void getOrderSummaries_shouldSummarizeSavedOrders() {
+        customerRepository.addCustomer(new Customer(1000, "John", 25, "0123456789", "M", "pass"));
+        PaymentMethod pm = new PaymentMethod("TNG001", "TNG", util.PasswordUtil.hashPassword("tng123"), 100.0);
+        pm.setPaymentMethodId(1);
+        paymentMethodRepository.addPaymentMethod(pm);
+        Food food = new Food(2000, "Food", 10.0, "Set", 10);
+        foodRepository.addFood(food);
+        Order order = orderService.createOrder(1000, List.of(new OrderDetails(food, 3)), "TNG", "TNG001", "tng123");
+
+        List<OrderSummary> summaries = orderService.getOrderSummaries();
+
+        assertEquals(List.of(new OrderSummary(order.getOrderId(), 1000, "TNG", order.getTotalPriceDecimal())), summaries);
+    }
+
     
     // Validation: customer & order details
     
@@ -266,16 +325,32 @@ class OrderServiceTest {
 
         @Override
         public Order save(Order order) {
+            if (order.getIdempotencyKey() != null && findByIdempotencyKey(order.getIdempotencyKey()).isPresent()) {
+                throw new DuplicateOrderException(order.getIdempotencyKey());
+            }
             order.setOrderId(nextId++);
             orders.put(order.getOrderId(), order);
             return order;
         }
 
+        @Override
+        public Optional<Order> findByIdempotencyKey(String idempotencyKey) {
+            return orders.values().stream()
+                    .filter(o -> idempotencyKey.equals(o.getIdempotencyKey()))
+                    .findFirst();
+        }
+
         @Override
         public int getNextOrderId() {
             return nextId;
         }
 
+        @Override
+        public int backfillLineSnapshots() {
+            //Lines saved here keep their OrderDetails, so none are ever blank
+            return 0;
+        }
+
         @Override
         public Optional<Order> findById(int orderId) {
             return Optional.ofNullable(orders.get(orderId));
@@ -299,8 +374,18 @@ class OrderServiceTest {
         }
 
         @Override
-        public Optional<Customer> authenticate(int customerId, String password) {
-            return Optional.empty();
+        public Optional<String> findPasswordHash(int customerId) {
+            return Optional.ofNullable(customers.get(customerId)).map(Customer::getPassword);
+        }
+
+        @Override
+        public boolean updatePassword(int customerId, String passwordHash) {
+            Customer customer = customers.get(customerId);
+            if (customer == null) {
+                return false;
+            }
+            customer.setPassword(passwordHash);
+            return true;
         }
 
         @Override
@@ -319,6 +404,11 @@ class OrderServiceTest {
             return false;
         }
 
+        @Override
+        public void forEachPhoneNumber(java.util.function.Consumer<String> action) {
+            customers.values().forEach(c -> action.accept(c.getPhoneNumber()));
+        }
+
         void addCustomer(Customer customer) {
             customers.put(customer.getCustomerId(), customer);
         }
@@ -423,7 +513,6 @@ void createOrder_shouldFail_whenDecrementQuantityFails() {
     orderService = new OrderService(
             orderRepository,
             customerRepository,
-            paymentMethodRepository,
             paymentService,
             foodRepository
     );
@@ -446,6 +535,313 @@ void createOrder_shouldFail_whenDecrementQuantityFails() {
 }
 
 
+@Test
+@DisplayName("Failed order save refunds the payment and restores stock")
+void createOrder_shouldCompensate_whenSaveFails() {
+    orderRepository = new MockOrderRepository() {
+        @Override
+        public Order save(Order order) {
+            throw new RuntimeException("Failed to save order");
+        }
+    };
+    orderService = new OrderService(orderRepository, customerRepository, paymentService, foodRepository);
+
+    customerRepository.addCustomer(new Customer(1000, "John", 25, "0123", "M", "pass"));
+    PaymentMethod pm = new PaymentMethod("TNG001", "TNG", util.PasswordUtil.hashPassword("tng123"), 100.0);
+    pm.setPaymentMethodId(1);
+    paymentMethodRepository.addPaymentMethod(pm);
+    Food food = new Food(2000, "Food", 10.0, "Set", 5);
+    foodRepository.addFood(food);
+
+    assertThrows(RuntimeException.class, () ->
+            orderService.createOrder(1000, List.of(new OrderDetails(food, 3)), "TNG", "TNG001", "tng123"));
+
+    assertEquals(100.0, paymentMethodRepository.findById(1).get().getBalance(), 0.001);
+    assertEquals(5, foodRepository.findById(2000).get().getQuantity());
+}
+
+@Test
+@DisplayName("Failed payment puts reserved stock back")
+void createOrder_shouldRestoreStock_whenPaymentFails() {
+    customerRepository.addCustomer(new Customer(1000, "John", 25, "0123", "M", "pass"));
+    PaymentMethod pm = new PaymentMethod("TNG001", "TNG", util.PasswordUtil.hashPassword("tng123"), 5.0);
+    pm.setPaymentMethodId(1);
+    paymentMethodRepository.addPaymentMethod(pm);
+    Food first = new Food(2000, "Food", 10.0, "Set", 5);
+    Food second = new Food(2001, "Drink", 2.0, "A la carte", 8);
+    foodRepository.addFood(first);
+    foodRepository.addFood(second);
+
+    Exception e = assertThrows(IllegalArgumentException.class, () -> orderService.createOrder(1000,
+            List.of(new OrderDetails(first, 1), new OrderDetails(second, 2)), "TNG", "TNG001", "tng123"));
+
+    assertTrue(e.getMessage().startsWith("Payment failed"));
+    assertEquals(5, foodRepository.findById(2000).get().getQuantity());
+    assertEquals(8, foodRepository.findById(2001).get().getQuantity());
+}
+
+@Test
+@DisplayName("Stock already reserved is restored when a later item is sold out")
+void createOrder_shouldRestoreEarlierItems_whenLaterItemSoldOut() {
+    customerRepository.addCustomer(new Customer(1000, "John", 25, "0123", "M", "pass"));
+    PaymentMethod pm = new PaymentMethod("TNG001", "TNG", util.PasswordUtil.hashPassword("tng123"), 100.0);
+    pm.setPaymentMethodId(1);
+    paymentMethodRepository.addPaymentMethod(pm);
+    Food first = new Food(2000, "Food", 10.0, "Set", 5);
+    Food second = new Food(2001, "Drink", 2.0, "A la carte", 8);
+    foodRepository = new MockFoodRepository() {
+        @Override
+        public boolean decrementQuantity(int foodId, int quantityToDeduct) {
+            return foodId != 2001 && super.decrementQuantity(foodId, quantityToDeduct);
+        }
+    };
+    foodRepository.addFood(first);
+    foodRepository.addFood(second);
+    orderService = new OrderService(orderRepository, customerRepository, paymentService, foodRepository);
+
+    assertThrows(IllegalArgumentException.class, () -> orderService.createOrder(1000,
+            List.of(new OrderDetails(first, 2), new OrderDetails(second, 1)), "TNG", "TNG001", "tng123"));
+
+    assertEquals(5, foodRepository.findById(2000).get().getQuantity());
+    assertEquals(100.0, paymentMethodRepository.findById(1).get().getBalance(), 0.001);
+}
+
+
+// Idempotent submission
+
+private Food seedCheckout() {
+    customerRepository.addCustomer(new Customer(1000, "John", 25, "0123", "M", "pass"));
+    customerRepository.addCustomer(new Customer(1001, "Jane", 30, "0456", "F", "pass"));
+    PaymentMethod pm = new PaymentMethod("TNG001", "TNG", util.PasswordUtil.hashPassword("tng123"), 100.0);
+    pm.setPaymentMethodId(1);
+    paymentMethodRepository.addPaymentMethod(pm);
+    Food food = new Food(2000, "Food", 10.0, "Set", 10);
+    foodRepository.addFood(food);
+    return food;
+}
+
+@Test
+@DisplayName("Resubmitting with the same key returns the original order without charging again")
+void createOrder_shouldReturnOriginal_whenKeyRepeated() {
+    Food food = seedCheckout();
+    List<OrderDetails> details = List.of(new OrderDetails(food, 2));
+
+    Order first = orderService.createOrder(1000, details, "TNG", "TNG001", "tng123", "key-1");
+    Order second = orderService.createOrder(1000, details, "TNG", "TNG001", "tng123", "key-1");
+
+    assertSame(first, second);
+    assertEquals("key-1", first.getIdempotencyKey());
+    assertEquals(1, orderRepository.findAll().size());
+    assertEquals(80.0, paymentMethodRepository.findById(1).get().getBalance(), 0.001);
+    assertEquals(8, foodRepository.findById(2000).get().getQuantity());
+}
+
+@Test
+@DisplayName("A key already stored is found in the repository after a restart")
+void createOrder_shouldFindStoredKey_whenNotCached() {
+    Food food = seedCheckout();
+    List<OrderDetails> details = List.of(new OrderDetails(food, 1));
+    Order first = orderService.createOrder(1000, details, "TNG", "TNG001", "tng123", "key-2");
+
+    OrderService restarted = new OrderService(orderRepository, customerRepository, paymentService, foodRepository);
+    Order replay = restarted.createOrder(1000, details, "TNG", "TNG001", "tng123", " key-2 ");
+
+    assertEquals(first.getOrderId(), replay.getOrderId());
+    assertEquals(90.0, paymentMethodRepository.findById(1).get().getBalance(), 0.001);
+}
+
+@Test
+@DisplayName("Blank keys are ignored and each submission creates an order")
+void createOrder_shouldNotDeduplicate_whenKeyBlank() {
+    Food food = seedCheckout();
+    List<OrderDetails> details = List.of(new OrderDetails(food, 1));
+
+    orderService.createOrder(1000, details, "TNG", "TNG001", "tng123", " ");
+    orderService.createOrder(1000, details, "TNG", "TNG001", "tng123", null);
+
+    assertEquals(2, orderRepository.findAll().size());
+}
+
+@Test
+@DisplayName("A key used by another customer is rejected")
+void createOrder_shouldReject_whenKeyBelongsToAnotherCustomer() {
+    Food food = seedCheckout();
+    List<OrderDetails> details = List.of(new OrderDetails(food, 1));
+    orderService.createOrder(1000, details, "TNG", "TNG001", "tng123", "key-3");
+
+    assertThrows(IllegalArgumentException.class, () ->
+            orderService.createOrder(1001, details, "TNG", "TNG001", "tng123", "key-3"));
+    assertEquals(1, orderRepository.findAll().size());
+}
+
+@Test
+@DisplayName("Keys longer than the column are rejected")
+void createOrder_shouldReject_whenKeyTooLong() {
+    Food food = seedCheckout();
+
+    assertThrows(IllegalArgumentException.class, () -> orderService.createOrder(1000,
+            List.of(new OrderDetails(food, 1)), "TNG", "TNG001", "tng123", "k".repeat(65)));
+    assertEquals(10, foodRepository.findById(2000).get().getQuantity());
+}
+
+@Test
+@DisplayName("A failed submission can be retried with the same key")
+void createOrder_shouldAllowRetry_whenFirstAttemptFailed() {
+    Food food = seedCheckout();
+    List<OrderDetails> details = List.of(new OrderDetails(food, 1));
+
+    assertThrows(IllegalArgumentException.class, () ->
+            orderService.createOrder(1000, details, "TNG", "TNG001", "wrong", "key-4"));
+    Order order = orderService.createOrder(1000, details, "TNG", "TNG001", "tng123", "key-4");
+
+    assertNotNull(order);
+    assertEquals(90.0, paymentMethodRepository.findById(1).get().getBalance(), 0.001);
+}
+
+@Test
+@DisplayName("Losing the unique-key race refunds the charge and returns the stored order")
+void createOrder_shouldCompensate_whenKeySavedElsewhere() {
+    Food food = seedCheckout();
+    List<OrderDetails> details = List.of(new OrderDetails(food, 1));
+    // Another instance saves the key between our lookup and our insert
+    Order stored = new Order.Builder()
+            .customer(customerRepository.findById(1000).get())
+            .orderDetails(details)
+            .totalPrice(10.0)
+            .idempotencyKey("key-5")
+            .build();
+    boolean[] hideNextLookup = {false};
+    orderRepository = new MockOrderRepository() {
+        @Override
+        public Optional<Order> findByIdempotencyKey(String idempotencyKey) {
+            if (hideNextLookup[0]) {
+                hideNextLookup[0] = false;
+                return Optional.empty();
+            }
+            return super.findByIdempotencyKey(idempotencyKey);
+        }
+    };
+    orderRepository.save(stored);
+    hideNextLookup[0] = true;
+    orderService = new OrderService(orderRepository, customerRepository, paymentService, foodRepository);
+
+    Order order = orderService.createOrder(1000, details, "TNG", "TNG001", "tng123", "key-5");
+
+    assertSame(stored, order);
+    assertEquals(1, orderRepository.findAll().size());
+    assertEquals(100.0, paymentMethodRepository.findById(1).get().getBalance(), 0.001);
+    assertEquals(10, foodRepository.findById(2000).get().getQuantity());
+}
+
+@Test
+@DisplayName("Losing the unique-key race to another customer's order is rejected, not returned")
+void createOrder_shouldReject_whenKeySavedElsewhereByAnotherCustomer() {
+    Food food = seedCheckout();
+    List<OrderDetails> details = List.of(new OrderDetails(food, 1));
+    Customer other = new Customer();
+    other.setCustomerId(1001);
+    Order stored = new Order.Builder()
+            .customer(other)
+            .orderDetails(details)
+            .totalPrice(10.0)
+            .idempotencyKey("key-6")
+            .build();
+    boolean[] hideNextLookup = {false};
+    orderRepository = new MockOrderRepository() {
+        @Override
+        public Optional<Order> findByIdempotencyKey(String idempotencyKey) {
+            if (hideNextLookup[0]) {
+                hideNextLookup[0] = false;
+                return Optional.empty();
+            }
+            return super.findByIdempotencyKey(idempotencyKey);
+        }
+    };
+    orderRepository.save(stored);
+    hideNextLookup[0] = true;
+    orderService = new OrderService(orderRepository, customerRepository, paymentService, foodRepository);
+
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () ->
+            orderService.createOrder(1000, details, "TNG", "TNG001", "tng123", "key-6"));
+
+    assertTrue(e.getMessage().contains("another order"));
+    assertEquals(100.0, paymentMethodRepository.findById(1).get().getBalance(), 0.001);
+    assertEquals(10, foodRepository.findById(2000).get().getQuantity());
+}
+
+@Test
+@DisplayName("Concurrent submissions with one key charge once")
+void createOrder_shouldChargeOnce_whenKeySubmittedConcurrently() throws Exception {
+    Food food = seedCheckout();
+    List<OrderDetails> details = List.of(new OrderDetails(food, 1));
+    CountDownLatch paying = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    IPaymentService slowPayment = new MockPaymentService(paymentMethodRepository) {
+        @Override
+        public PaymentResult processPayment(String paymentType, String identifier, String password, Money amount) {
+            paying.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.processPayment(paymentType, identifier, password, amount);
+        }
+    };
+    OrderService service = new OrderService(orderRepository, customerRepository, slowPayment, foodRepository);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+        Future<Order> first = executor.submit(() ->
+                service.createOrder(1000, details, "TNG", "TNG001", "tng123", "key-6"));
+        paying.await();
+        Future<Order> second = executor.submit(() ->
+                service.createOrder(1000, details, "TNG", "TNG001", "tng123", "key-6"));
+        Thread.sleep(50);
+        release.countDown();
+
+        assertSame(first.get(), second.get());
+    } finally {
+        executor.shutdownNow();
+    }
+    assertEquals(1, orderRepository.findAll().size());
+    assertEquals(90.0, paymentMethodRepository.findById(1).get().getBalance(), 0.001);
+}
+
+
+@Test
+@DisplayName("A session order uses the session's customer without looking it up")
+void createOrderInSession_shouldSkipCustomerLookup() {
+    Food food = seedCheckout();
+    SessionService sessions = new SessionService();
+    String token = sessions.open(customerRepository.findById(1000).get());
+    orderService = new OrderService(orderRepository, new MockCustomerRepository(), paymentService,
+            foodRepository, sessions);
+
+    Order order = orderService.createOrderInSession(token, List.of(new OrderDetails(food, 1)),
+            "TNG", "TNG001", "tng123", null);
+
+    assertEquals(1000, order.getCustomer().getCustomerId());
+    assertNull(order.getCustomer().getPassword());
+    assertEquals(90.0, paymentMethodRepository.findById(1).get().getBalance(), 0.001);
+}
+
+@Test
+@DisplayName("Unknown tokens and services without sessions are rejected")
+void createOrderInSession_shouldReject_whenTokenInvalid() {
+    Food food = seedCheckout();
+    List<OrderDetails> details = List.of(new OrderDetails(food, 1));
+
+    IllegalArgumentException disabled = assertThrows(IllegalArgumentException.class, () ->
+            orderService.createOrderInSession("token", details, "TNG", "TNG001", "tng123", null));
+    assertEquals("Sessions are not enabled", disabled.getMessage());
+
+    orderService = new OrderService(orderRepository, customerRepository, paymentService,
+            foodRepository, new SessionService());
+    assertThrows(IllegalArgumentException.class, () ->
+            orderService.createOrderInSession("token", details, "TNG", "TNG001", "tng123", null));
+    assertEquals(100.0, paymentMethodRepository.findById(1).get().getBalance(), 0.001);
+}
+
      // In-memory payment method repository
      
     private static class MockPaymentMethodRepository implements IPaymentMethodRepository {
@@ -468,21 +864,7 @@ void createOrder_shouldFail_whenDecrementQuantityFails() {
             return Optional.ofNullable(byCardNumber.get(cardNumber));
         }
 
-        @Override
-        public Optional<PaymentMethod> authenticateByWalletId(String walletId, String hashedPassword) {
-            PaymentMethod pm = byWalletId.get(walletId);
-            return (pm != null && pm.getPassword().equals(hashedPassword))
-                    ? Optional.of(pm)
-                    : Optional.empty();
-        }
 
-        @Override
-        public Optional<PaymentMethod> authenticateByCardNumber(String cardNumber, String hashedPassword) {
-            PaymentMethod pm = byCardNumber.get(cardNumber);
-            return (pm != null && pm.getPassword().equals(hashedPassword))
-                    ? Optional.of(pm)
-                    : Optional.empty();
-        }
 
         @Override
         public PaymentMethod save(PaymentMethod paymentMethod) {
@@ -496,6 +878,23 @@ void createOrder_shouldFail_whenDecrementQuantityFails() {
             return paymentMethod;
         }
 
+        @Override
+        public java.util.Map<Integer, Money> findAllBalances() {
+            java.util.Map<Integer, Money> balances = new java.util.TreeMap<>();
+            methods.forEach((id, pm) -> balances.put(id, pm.getBalanceMoney()));
+            return balances;
+        }
+
+        @Override
+        public boolean updatePassword(int paymentMethodId, String passwordHash) {
+            PaymentMethod pm = methods.get(paymentMethodId);
+            if (pm == null) {
+                return false;
+            }
+            pm.setPassword(passwordHash);
+            return true;
+        }
+
         @Override
         public boolean updateBalance(int paymentMethodId, double newBalance) {
             PaymentMethod pm = methods.get(paymentMethodId);
@@ -506,6 +905,17 @@ void createOrder_shouldFail_whenDecrementQuantityFails() {
             return false;
         }
 
+        //Compare-and-set on the balance, like the real repository
+        @Override
+        public boolean applyTransaction(PaymentTransaction transaction) {
+            PaymentMethod pm = methods.get(transaction.getPaymentMethodId());
+            if (pm == null || !pm.getBalanceMoney().equals(transaction.getBalanceBefore())) {
+                return false;
+            }
+            pm.setBalance(transaction.getBalanceAfter());
+            return true;
+        }
+
         void addPaymentMethod(PaymentMethod pm) {
             save(pm);
         }
@@ -522,25 +932,39 @@ void createOrder_shouldFail_whenDecrementQuantityFails() {
         }
 
         @Override
-        public Payment processPayment(String paymentType, String identifier, String password, double amount) {
-            String hashedPassword = util.PasswordUtil.hashPassword(password);
-
+        public PaymentResult processPayment(String paymentType, String identifier, String password, Money amount) {
             Optional<PaymentMethod> pmOpt =
-                    "Bank".equalsIgnoreCase(paymentType)
-                            ? repository.authenticateByCardNumber(identifier, hashedPassword)
-                            : repository.authenticateByWalletId(identifier, hashedPassword);
+                    ("Bank".equalsIgnoreCase(paymentType)
+                            ? repository.findByCardNumber(identifier)
+                            : repository.findByWalletId(identifier))
+                            .filter(pm -> util.PasswordUtil.verifyPassword(password, pm.getPassword()));
 
             PaymentMethod pm = pmOpt.orElseThrow(() ->
                     new IllegalArgumentException("Invalid payment credentials"));
 
-            if (pm.getBalance() < amount) {
+            if (pm.getBalanceMoney().isLessThan(amount)) {
                 throw new IllegalArgumentException("Insufficient balance");
             }
 
-            pm.setBalance(pm.getBalance() - amount);
+            pm.setBalance(pm.getBalanceMoney().minus(amount));
             repository.updateBalance(pm.getPaymentMethodId(), pm.getBalance());
 
-            return new TNGPayment(pm.getBalance());
+            return new PaymentResult(pm, new TNGPayment(pm.getBalanceMoney()),
+                    PaymentTransaction.debit(pm.getPaymentMethodId(), amount, pm.getBalanceMoney(), null));
+        }
+
+        @Override
+        public model.ImportReport importPaymentMethods(java.io.Reader source, java.io.Writer rejects) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Money refund(PaymentResult charge) {
+            PaymentMethod pm = charge.getPaymentMethod();
+            Money newBalance = pm.getBalanceMoney().plus(charge.getAmountCharged());
+            repository.updateBalance(pm.getPaymentMethodId(), newBalance);
+            pm.setBalance(newBalance);
+            return newBalance;
         }
 
         @Override
@@ -614,6 +1038,16 @@ void createOrder_shouldFail_whenDecrementQuantityFails() {
             return false;
         }
 
+        @Override
+        public boolean incrementQuantity(int foodId, int quantityToAdd) {
+            Food food = foods.get(foodId);
+            if (food == null) {
+                return false;
+            }
+            food.setQuantity(food.getQuantity() + quantityToAdd);
+            return true;
+        }
+
         void addFood(Food food) {
             foods.put(food.getFoodId(), food);
         }
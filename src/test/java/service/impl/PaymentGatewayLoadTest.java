@@ -0,0 +1,88 @@
+package service.impl;
+
+import model.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import service.interfaces.PaymentGatewayException;
+import util.CircuitBreaker;
+import util.LatencyRecorder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checkout-style load against one degraded and one healthy simulated gateway.
+ * The degraded provider must be cut off by its timeout and then its breaker,
+ * while the healthy provider's latency stays where it was.
+ * Run with: mvn -Pbenchmark test
+ */
+@Tag("benchmark")
+class PaymentGatewayLoadTest {
+
+    private static final int CALLS = 2_000;
+    private static final int THREADS = 64;
+    private static final long TIMEOUT_MILLIS = 200;
+
+    @Test
+    @DisplayName("Degraded TNG gateway does not slow down Bank payments")
+    void degradedGatewayStaysIsolated() throws Exception {
+        SimulatedPaymentGateway tngSimulator = new SimulatedPaymentGateway("TNG", 10, 5, 0.0);
+        ResilientPaymentGateway tng = new ResilientPaymentGateway(tngSimulator, TIMEOUT_MILLIS, 16,
+                new CircuitBreaker(5, 500));
+        ResilientPaymentGateway bank = new ResilientPaymentGateway(
+                new SimulatedPaymentGateway("BANK", 10, 5, 0.0), TIMEOUT_MILLIS, THREADS, new CircuitBreaker(5, 500));
+
+        // TNG degrades badly: every call would take two seconds and a third of them fail
+        tngSimulator.configure(2_000, 500, 0.3);
+
+        LatencyRecorder latency = new LatencyRecorder();
+        AtomicInteger bankFailures = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long wallStart = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLS; i++) {
+                boolean useTng = i % 2 == 0;
+                futures.add(pool.submit(() -> {
+                    ResilientPaymentGateway gateway = useTng ? tng : bank;
+                    long start = System.nanoTime();
+                    try {
+                        gateway.charge("ACC", Money.ofCents(1000));
+                    } catch (PaymentGatewayException e) {
+                        if (!useTng) {
+                            bankFailures.incrementAndGet();
+                        }
+                    }
+                    latency.record(gateway.getName(), System.nanoTime() - start);
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        long wallMillis = (System.nanoTime() - wallStart) / 1_000_000;
+
+        System.out.printf("Gateway load (%d calls, %d threads, %d ms wall): TNG p50 %d us p99 %d us max-bound %d ms %s;"
+                        + " BANK p50 %d us p99 %d us %s%n",
+                CALLS, THREADS, wallMillis,
+                latency.percentileMicros("TNG", 50), latency.percentileMicros("TNG", 99), TIMEOUT_MILLIS, tng.getStats(),
+                latency.percentileMicros("BANK", 50), latency.percentileMicros("BANK", 99), bank.getStats());
+
+        // TNG callers never wait much past the timeout; the bulkhead and breaker turn most away instantly
+        assertTrue(latency.percentileMicros("TNG", 99) <= 2 * TIMEOUT_MILLIS * 1000);
+        assertTrue((long) tng.getStats().get("rejectedByBulkhead") + (long) tng.getStats().get("rejectedByCircuit")
+                > CALLS / 4);
+        // Bank is untouched by TNG's trouble
+        assertEquals(0, bankFailures.get());
+        assertTrue(latency.percentileMicros("BANK", 99) < TIMEOUT_MILLIS * 1000);
+    }
+}
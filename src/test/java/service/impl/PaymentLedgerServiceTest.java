@@ -0,0 +1,147 @@
+package service.impl;
+
+import config.ConnectionProvider;
+import config.DatabaseConnection;
+import config.TestDatabaseSetup;
+import model.Money;
+import model.PaymentTransaction;
+import model.ReconciliationReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import repository.impl.PaymentMethodRepository;
+import repository.impl.PaymentTransactionRepository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Payment Ledger Service Test
+ * Runs against H2 so debits, ledger rows and reconciliation use the real SQL.
+ */
+public class PaymentLedgerServiceTest {
+
+    private static final String H2_URL = "jdbc:h2:mem:ledgertest;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    private ConnectionProvider connectionProvider;
+    private PaymentTransactionRepository transactionRepository;
+    private PaymentService paymentService;
+    private PaymentLedgerService ledgerService;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connectionProvider = DatabaseConnection.createInstance(H2_URL, "sa", "");
+        TestDatabaseSetup.initializeSchema(connectionProvider);
+        PaymentMethodRepository paymentMethodRepository = new PaymentMethodRepository(connectionProvider);
+        transactionRepository = new PaymentTransactionRepository(connectionProvider);
+        paymentService = new PaymentService(paymentMethodRepository);
+        ledgerService = new PaymentLedgerService(transactionRepository, paymentMethodRepository);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        TestDatabaseSetup.cleanup(connectionProvider);
+        ((DatabaseConnection) connectionProvider).closeConnection();
+    }
+
+    @Test
+    @DisplayName("Fresh accounts are unledgered, not discrepancies")
+    void testReconcile_NoLedgerYet() {
+        ReconciliationReport report = ledgerService.reconcile();
+
+        assertTrue(report.isBalanced());
+        assertEquals(4, report.getAccountsChecked());
+        assertEquals(0, report.getEntriesScanned());
+        assertEquals(4, report.getUnledgeredAccounts().size());
+    }
+
+    @Test
+    @DisplayName("Opening entries are written in one batch and only once")
+    void testOpenUnledgeredAccounts() {
+        assertEquals(4, ledgerService.openUnledgeredAccounts());
+        assertEquals(0, ledgerService.openUnledgeredAccounts());
+
+        ReconciliationReport report = ledgerService.reconcile();
+        assertTrue(report.isBalanced());
+        assertTrue(report.getUnledgeredAccounts().isEmpty());
+        assertEquals(4, report.getEntriesScanned());
+    }
+
+    @Test
+    @DisplayName("Every debit lands in the ledger, bank fee included, and reconciles")
+    void testDebitsReconcile() {
+        ledgerService.openUnledgeredAccounts();
+        paymentService.processPayment("TNG", "TNG001", "tng123", Money.ofCents(1050));
+        paymentService.processPayment("TNG", "TNG001", "tng123", Money.ofCents(800));
+        paymentService.processPayment("Bank", "1234567890123456", "bank789", Money.ofCents(2000));
+
+        assertEquals(3, ledgerService.getHistory(1).size());
+        PaymentTransaction bankDebit = ledgerService.getHistory(3).get(1);
+        assertEquals(Money.ofCents(2100), bankDebit.getAmount());
+        assertEquals(Money.ofCents(17900), bankDebit.getBalanceAfter());
+
+        ReconciliationReport report = ledgerService.reconcile();
+        assertTrue(report.isBalanced(), report.toString());
+        assertEquals(7, report.getEntriesScanned());
+    }
+
+    @Test
+    @DisplayName("A refund is recorded as a credit and still reconciles")
+    void testRefundReconciles() {
+        ledgerService.openUnledgeredAccounts();
+        model.PaymentResult charge = paymentService.processPayment("Bank", "1234567890123456", "bank789", Money.ofCents(2000));
+
+        assertEquals(Money.ofCents(20000), paymentService.refund(charge));
+
+        PaymentTransaction credit = ledgerService.getHistory(3).get(2);
+        assertEquals(PaymentTransaction.TYPE_CREDIT, credit.getTransactionType());
+        assertEquals(Money.ofCents(2100), credit.getAmount());
+        assertEquals("Refund of Bank payment", credit.getReference());
+        assertTrue(ledgerService.reconcile().isBalanced());
+    }
+
+    @Test
+    @DisplayName("A balance changed behind the ledger's back is reported")
+    void testReconcile_BalanceMismatch() throws SQLException {
+        ledgerService.openUnledgeredAccounts();
+        paymentService.processPayment("TNG", "TNG002", "tng123", Money.ofCents(500));
+        execute("UPDATE payment_methods SET balance = 999.00 WHERE payment_method_id = 4");
+
+        ReconciliationReport report = ledgerService.reconcile();
+
+        assertFalse(report.isBalanced());
+        assertEquals(1, report.getDiscrepancies().size());
+        ReconciliationReport.Discrepancy discrepancy = report.getDiscrepancies().get(0);
+        assertEquals(4, discrepancy.getPaymentMethodId());
+        assertEquals(Money.ofCents(7000), discrepancy.getExpected());
+        assertEquals(Money.ofCents(99900), discrepancy.getActual());
+        assertTrue(report.toString().contains("Balance does not match the ledger"));
+    }
+
+    @Test
+    @DisplayName("A gap in an account's chain and rows for unknown accounts are reported")
+    void testReconcile_BrokenChainAndUnknownAccount() {
+        transactionRepository.append(PaymentTransaction.opening(2, Money.ofCents(5000)));
+        // Skips a 10.00 debit: previous balance was 50.00, this entry claims 40.00 before
+        transactionRepository.append(PaymentTransaction.debit(2, Money.ofCents(1000), Money.ofCents(3000), null));
+        transactionRepository.append(PaymentTransaction.opening(42, Money.ofCents(100)));
+
+        ReconciliationReport report = ledgerService.reconcile();
+
+        assertEquals(3, report.getDiscrepancies().size());
+        assertTrue(report.getDiscrepancies().get(0).getReason().contains("does not follow"));
+        assertEquals(42, report.getDiscrepancies().get(2).getPaymentMethodId());
+        assertNull(report.getDiscrepancies().get(2).getActual());
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection conn = connectionProvider.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+}
@@ -64,6 +64,22 @@ public class PaymentServiceTest {
     // Test: Process Payment (Main Logic)
     // ==========================================
 
+    @Test
+    @DisplayName("Process: The payment method loaded to check the password is reused")
+    void testProcessPayment_SingleLookup() {
+        PaymentMethod pm = new PaymentMethod("TNG001", "TNG", util.PasswordUtil.hash("tng123"), 100.0);
+        pm.setPaymentMethodId(1);
+        mockRepository.save(pm);
+
+        paymentService.processPayment("TNG", "TNG001", "tng123", 10.0);
+        assertEquals(1, mockRepository.getIdentifierLookups());
+
+        // Hash now cached: one read for the current balance
+        PaymentResult second = paymentService.processPayment("TNG", "TNG001", "tng123", 10.0);
+        assertEquals(2, mockRepository.getIdentifierLookups());
+        assertEquals(Money.ofCents(8000), second.getNewBalance());
+    }
+
     @Test
     @DisplayName("Process: Success TNG Payment")
     void testProcessPayment_Success() {
@@ -73,10 +89,64 @@ public class PaymentServiceTest {
         pm.setPaymentMethodId(1);
         mockRepository.save(pm); // Add to mock DB
 
-        Payment result = paymentService.processPayment("TNG", "TNG001", "tng123", 50.0);
+        PaymentResult result = paymentService.processPayment("TNG", "TNG001", "tng123", 50.0);
         
         assertNotNull(result);
-        assertEquals(50.0, result.getBalance(), 0.01);
+        assertEquals(50.0, result.getPayment().getBalance(), 0.01);
+        assertEquals(Money.ofCents(5000), result.getNewBalance());
+    }
+
+    @Test
+    @DisplayName("Process: Legacy password hash is upgraded after a successful payment")
+    void testProcessPayment_UpgradesLegacyHash() {
+        PaymentMethod pm = new PaymentMethod("TNG001", "TNG", util.PasswordUtil.hashPassword("tng123"), 100.0);
+        pm.setPaymentMethodId(1);
+        mockRepository.save(pm);
+
+        assertThrows(IllegalArgumentException.class, () ->
+            paymentService.processPayment("TNG", "TNG001", "wrong", 10.0));
+        assertEquals(util.PasswordUtil.hashPassword("tng123"), pm.getPassword());
+
+        paymentService.processPayment("TNG", "TNG001", "tng123", 10.0);
+        assertTrue(pm.getPassword().startsWith(util.PasswordUtil.PBKDF2_PREFIX + "$"));
+
+        PaymentResult again = paymentService.processPayment("TNG", "TNG001", "tng123", 10.0);
+        assertEquals(Money.ofCents(8000), again.getNewBalance());
+    }
+
+    @Test
+    @DisplayName("Process: Result carries the authenticated method with its debited balance")
+    void testProcessPayment_ReturnsAuthenticatedMethod() {
+        String hashedPassword = util.PasswordUtil.hashPassword("grab456");
+        PaymentMethod pm = new PaymentMethod("TNG007", "TNG", hashedPassword, 50.0);
+        pm.setPaymentMethodId(7);
+        mockRepository.save(pm);
+
+        PaymentResult result = paymentService.processPayment("TNG", "TNG007", "grab456", 20.0);
+
+        assertEquals(7, result.getPaymentMethod().getPaymentMethodId());
+        assertEquals("TNG007", result.getPaymentMethod().getWalletId());
+        assertEquals(Money.ofCents(3000), result.getPaymentMethod().getBalanceMoney());
+        assertEquals(result.getNewBalance(), result.getPaymentMethod().getBalanceMoney());
+    }
+
+    @Test
+    @DisplayName("Process: Repeated wrong passwords on one wallet are throttled")
+    void testProcessPayment_Throttled() {
+        util.LoginThrottle<String> throttle = new util.LoginThrottle<>(2, 60_000, 16, System::nanoTime);
+        PaymentService service = new PaymentService(mockRepository, java.util.Map.of(), throttle);
+        PaymentMethod pm = new PaymentMethod("TNG001", "TNG", util.PasswordUtil.hash("tng123"), 100.0);
+        pm.setPaymentMethodId(1);
+        mockRepository.save(pm);
+
+        assertThrows(IllegalArgumentException.class, () -> service.processPayment("TNG", "TNG001", "wrong1", 10.0));
+        assertThrows(IllegalArgumentException.class, () -> service.processPayment("TNG", "TNG001", "wrong2", 10.0));
+        Exception e = assertThrows(IllegalArgumentException.class, () ->
+            service.processPayment("TNG", "TNG001", "tng123", 10.0));
+
+        assertEquals("Too many attempts, please try again later", e.getMessage());
+        assertEquals(Money.ofCents(10000), pm.getBalanceMoney());
+        assertEquals(1, throttle.getThrottled());
     }
 
     @Test
@@ -116,6 +186,157 @@ public class PaymentServiceTest {
         assertTrue(e.getMessage().contains("System Error"));
     }
 
+    // ==========================================
+    // Test: External Gateway
+    // ==========================================
+
+    @Test
+    @DisplayName("Gateway: Approved charge debits the local balance")
+    void testProcessPayment_GatewayApproves() {
+        PaymentMethod pm = new PaymentMethod("TNG001", "TNG", util.PasswordUtil.hashPassword("tng123"), 100.0);
+        pm.setPaymentMethodId(1);
+        mockRepository.save(pm);
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway("TNG", 0, 0, 0.0);
+        PaymentService service = new PaymentService(mockRepository, java.util.Map.of("tng", gateway));
+
+        PaymentResult result = service.processPayment("TNG", "TNG001", "tng123", 40.0);
+
+        assertEquals(Money.ofCents(6000), result.getNewBalance());
+        assertEquals(60.0, mockRepository.findById(1).get().getBalance(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Gateway: Failed charge leaves the balance untouched")
+    void testProcessPayment_GatewayFails() {
+        PaymentMethod pm = new PaymentMethod("TNG001", "TNG", util.PasswordUtil.hashPassword("tng123"), 100.0);
+        pm.setPaymentMethodId(1);
+        mockRepository.save(pm);
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway("TNG", 0, 0, 1.0);
+        PaymentService service = new PaymentService(mockRepository, java.util.Map.of("TNG", gateway));
+
+        Exception e = assertThrows(IllegalArgumentException.class, () ->
+            service.processPayment("TNG", "TNG001", "tng123", 40.0));
+        assertTrue(e.getMessage().contains("gateway"));
+        assertEquals(100.0, mockRepository.findById(1).get().getBalance(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Refund: Returns the full charge, bank fee included")
+    void testRefund_ReturnsFullCharge() {
+        PaymentMethod pm = new PaymentMethod();
+        pm.setPaymentMethodId(4);
+        pm.setPaymentType("Bank");
+        pm.setCardNumber("1234567890123456");
+        pm.setPassword(util.PasswordUtil.hashPassword("bank789"));
+        pm.setBalance(200.0);
+        mockRepository.save(pm);
+
+        PaymentResult charge = paymentService.processPayment("Bank", "1234567890123456", "bank789", 50.0);
+        assertEquals(Money.ofCents(5100), charge.getAmountCharged());
+
+        Money restored = paymentService.refund(charge);
+
+        assertEquals(Money.ofCents(20000), restored);
+        assertEquals(200.0, mockRepository.findById(4).get().getBalance(), 0.001);
+        assertEquals(Money.ofCents(20000), charge.getPaymentMethod().getBalanceMoney());
+    }
+
+    @Test
+    @DisplayName("Refund: Goes back through the gateway that approved the charge")
+    void testRefund_ThroughGateway() {
+        PaymentMethod pm = new PaymentMethod("TNG001", "TNG", util.PasswordUtil.hashPassword("tng123"), 100.0);
+        pm.setPaymentMethodId(1);
+        mockRepository.save(pm);
+        java.util.List<String> refunded = new java.util.ArrayList<>();
+        service.interfaces.IPaymentGateway gateway = new service.interfaces.IPaymentGateway() {
+            public String getName() { return "TNG"; }
+            public String charge(String identifier, Money amount) { return "TNG-7"; }
+            public void refund(String reference, Money amount) { refunded.add(reference + " " + amount); }
+        };
+        PaymentService service = new PaymentService(mockRepository, java.util.Map.of("TNG", gateway));
+
+        service.refund(service.processPayment("TNG", "TNG001", "tng123", 30.0));
+
+        assertEquals(java.util.List.of("TNG-7 30.00"), refunded);
+        assertEquals(100.0, mockRepository.findById(1).get().getBalance(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Refund: Database failure surfaces as a system error")
+    void testRefund_DBError() {
+        PaymentMethod pm = new PaymentMethod("TNG001", "TNG", util.PasswordUtil.hashPassword("tng123"), 100.0);
+        pm.setPaymentMethodId(1);
+        mockRepository.save(pm);
+        PaymentResult charge = paymentService.processPayment("TNG", "TNG001", "tng123", 30.0);
+        mockRepository.setShouldFailUpdate(true);
+
+        Exception e = assertThrows(RuntimeException.class, () -> paymentService.refund(charge));
+        assertTrue(e.getMessage().contains("System Error"));
+    }
+
+    // Gateway that approves every charge as "TNG-7" and records refunds, optionally failing them
+    private static service.interfaces.IPaymentGateway recordingGateway(java.util.List<String> refunded, boolean failRefunds) {
+        return new service.interfaces.IPaymentGateway() {
+            public String getName() { return "TNG"; }
+            public String charge(String identifier, Money amount) { return "TNG-7"; }
+            public void refund(String reference, Money amount) {
+                if (failRefunds) {
+                    throw service.interfaces.PaymentGatewayException.declined("TNG refund declined");
+                }
+                refunded.add(reference + " " + amount);
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Gateway: A charge whose balance update fails is refunded at the provider")
+    void testProcessPayment_ReversesChargeWhenBalanceUpdateFails() {
+        PaymentMethod pm = new PaymentMethod("TNG001", "TNG", util.PasswordUtil.hashPassword("tng123"), 100.0);
+        pm.setPaymentMethodId(1);
+        mockRepository.save(pm);
+        mockRepository.setShouldFailUpdate(true);
+        java.util.List<String> refunded = new java.util.ArrayList<>();
+        PaymentService service = new PaymentService(mockRepository, java.util.Map.of("TNG", recordingGateway(refunded, false)));
+
+        Exception e = assertThrows(RuntimeException.class,
+            () -> service.processPayment("TNG", "TNG001", "tng123", 30.0));
+
+        assertTrue(e.getMessage().contains("System Error"));
+        assertEquals(java.util.List.of("TNG-7 30.00"), refunded);
+        assertEquals(100.0, mockRepository.findById(1).get().getBalance(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Refund: Nothing goes back through the gateway if the local credit fails")
+    void testRefund_DBErrorSkipsGateway() {
+        PaymentMethod pm = new PaymentMethod("TNG001", "TNG", util.PasswordUtil.hashPassword("tng123"), 100.0);
+        pm.setPaymentMethodId(1);
+        mockRepository.save(pm);
+        java.util.List<String> refunded = new java.util.ArrayList<>();
+        PaymentService service = new PaymentService(mockRepository, java.util.Map.of("TNG", recordingGateway(refunded, false)));
+        PaymentResult charge = service.processPayment("TNG", "TNG001", "tng123", 30.0);
+        mockRepository.setShouldFailUpdate(true);
+
+        assertThrows(RuntimeException.class, () -> service.refund(charge));
+        assertTrue(refunded.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Refund: A declined provider refund takes the local credit back")
+    void testRefund_GatewayFailsUndoesCredit() {
+        PaymentMethod pm = new PaymentMethod("TNG001", "TNG", util.PasswordUtil.hashPassword("tng123"), 100.0);
+        pm.setPaymentMethodId(1);
+        mockRepository.save(pm);
+        PaymentService service = new PaymentService(mockRepository,
+            java.util.Map.of("TNG", recordingGateway(new java.util.ArrayList<>(), true)));
+        PaymentResult charge = service.processPayment("TNG", "TNG001", "tng123", 30.0);
+
+        Exception e = assertThrows(IllegalArgumentException.class, () -> service.refund(charge));
+
+        assertTrue(e.getMessage().contains("declined"));
+        assertEquals(70.0, mockRepository.findById(1).get().getBalance(), 0.001);
+    }
+
     // ==========================================
     // Test: Bank Validation Logic
     // ==========================================
@@ -133,8 +354,9 @@ public class PaymentServiceTest {
         pm.setBalance(200.0);
         mockRepository.save(pm);
 
-        Payment result = paymentService.processPayment("Bank", "1234567890123456", "bank789", 50.0);
+        PaymentResult result = paymentService.processPayment("Bank", "1234567890123456", "bank789", 50.0);
         assertNotNull(result);
+        assertEquals("Bank", result.getPayment().paymentName());
     }
 
     @Test
@@ -197,6 +419,93 @@ public class PaymentServiceTest {
             paymentService.processPayment("Bank", "1234567890123456", "bank789", 50.0));
     }
     
+    // ==========================================
+    // Test: Bulk Import
+    // ==========================================
+
+    private static final String IMPORT_HEADER = "payment_type,wallet_id,card_number,expiry_date,password,balance\n";
+
+    private ImportReport importCsv(String rows, java.io.StringWriter rejects) throws java.io.IOException {
+        int previous = util.PasswordUtil.getIterations();
+        util.PasswordUtil.setIterations(util.PasswordUtil.MIN_ITERATIONS);
+        try {
+            return paymentService.importPaymentMethods(new java.io.StringReader(IMPORT_HEADER + rows), rejects);
+        } finally {
+            util.PasswordUtil.setIterations(previous);
+        }
+    }
+
+    @Test
+    @DisplayName("Import: Valid wallets and cards are hashed and stored")
+    void testImport_ValidRows() throws Exception {
+        java.io.StringWriter rejects = new java.io.StringWriter();
+        ImportReport report = importCsv("tng,TNG900,,,wallet1,25.50\n"
+                + "Bank,,9999888877776666,0128,card1,300\n", rejects);
+
+        assertEquals(2, report.getImported());
+        assertEquals(0, report.getRejected());
+        PaymentMethod wallet = mockRepository.findByWalletId("TNG900").orElseThrow();
+        assertEquals("TNG", wallet.getPaymentType());
+        assertEquals(Money.parse("25.50"), wallet.getBalanceMoney());
+        assertTrue(util.PasswordUtil.verifyPassword("wallet1", wallet.getPassword()));
+        PaymentMethod card = mockRepository.findByCardNumber("9999888877776666").orElseThrow();
+        assertEquals("0128", card.getExpiryDate());
+
+        PaymentResult result = paymentService.processPayment("TNG", "TNG900", "wallet1", 5.0);
+        assertEquals(Money.parse("20.50"), result.getNewBalance());
+    }
+
+    @Test
+    @DisplayName("Import: Invalid and duplicate rows are rejected without passwords")
+    void testImport_RejectedRows() throws Exception {
+        PaymentMethod existing = new PaymentMethod("TNG001", "TNG", "hash", 100.0);
+        existing.setPaymentMethodId(1);
+        mockRepository.save(existing);
+        java.io.StringWriter rejects = new java.io.StringWriter();
+        ImportReport report = importCsv("Crypto,X1,,,secretA,10\n"
+                + "Bank,,1234,0128,secretB,10\n"
+                + "TNG,TNG002,,,secretC,-1\n"
+                + "TNG,TNG001,,,secretD,10\n"
+                + "Grab,GRAB900,,,secretE,10\n"
+                + "Grab,GRAB900,,,secretF,10\n", rejects);
+
+        assertEquals(1, report.getImported());
+        assertEquals(5, report.getRejected());
+        String output = rejects.toString();
+        assertFalse(output.contains("secret"));
+        assertTrue(output.contains("Payment type must be TNG, Grab or Bank"));
+        assertTrue(output.contains("Balance cannot be negative"));
+        assertEquals(2, output.split("Wallet ID already registered", -1).length - 1);
+    }
+
+    @Test
+    @DisplayName("Process: Re-reads the balance when another debit lands first")
+    void testProcessPayment_RetriesLostBalanceRace() {
+        PaymentMethod pm = new PaymentMethod("TNG001", "TNG", util.PasswordUtil.hashPassword("tng123"), 100.0);
+        pm.setPaymentMethodId(1);
+        mockRepository.save(pm);
+        mockRepository.loseRaces(2);
+
+        PaymentResult result = paymentService.processPayment("TNG", "TNG001", "tng123", 50.0);
+
+        // Two concurrent 1.00 debits got in first; ours still applies on top of them
+        assertEquals(Money.ofCents(4800), result.getNewBalance());
+        assertEquals(Money.ofCents(4800), pm.getBalanceMoney());
+    }
+
+    @Test
+    @DisplayName("Process: Gives up after repeatedly losing the balance race")
+    void testProcessPayment_GivesUpAfterRetries() {
+        PaymentMethod pm = new PaymentMethod("TNG001", "TNG", util.PasswordUtil.hashPassword("tng123"), 100.0);
+        pm.setPaymentMethodId(1);
+        mockRepository.save(pm);
+        mockRepository.loseRaces(10);
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> paymentService.processPayment("TNG", "TNG001", "tng123", 50.0));
+        assertTrue(e.getMessage().contains("System Error"));
+    }
+
     // Note: getPaymentMethod method removed - authentication is now done via processPayment
 
     // ==========================================
@@ -210,37 +519,65 @@ public class PaymentServiceTest {
 
         void setShouldFailUpdate(boolean fail) { this.shouldFailUpdate = fail; }
 
+        private int racesToLose = 0;
+
+        //Let another writer take 1.00 just before each of the next n balance updates
+        void loseRaces(int n) { this.racesToLose = n; }
+
+        //Compare-and-set on the balance, like the real repository
+        @Override
+        public boolean applyTransaction(PaymentTransaction transaction) {
+            PaymentMethod pm = data.get(transaction.getPaymentMethodId());
+            if (shouldFailUpdate || pm == null) return false;
+            if (racesToLose > 0) {
+                racesToLose--;
+                pm.setBalance(pm.getBalanceMoney().minus(Money.ofCents(100)));
+                return false;
+            }
+            if (!pm.getBalanceMoney().equals(transaction.getBalanceBefore())) return false;
+            pm.setBalance(transaction.getBalanceAfter());
+            return true;
+        }
+
         @Override
         public Optional<PaymentMethod> findById(int paymentMethodId) {
             return Optional.ofNullable(data.get(paymentMethodId));
         }
 
+        //Wallet and card lookups made so far
+        private int identifierLookups = 0;
+
+        int getIdentifierLookups() { return identifierLookups; }
+
         @Override
         public Optional<PaymentMethod> findByWalletId(String walletId) {
+            identifierLookups++;
             return Optional.ofNullable(byWalletId.get(walletId));
         }
 
         @Override
         public Optional<PaymentMethod> findByCardNumber(String cardNumber) {
+            identifierLookups++;
             return Optional.ofNullable(byCardNumber.get(cardNumber));
         }
 
+
+
         @Override
-        public Optional<PaymentMethod> authenticateByWalletId(String walletId, String hashedPassword) {
-            PaymentMethod pm = byWalletId.get(walletId);
-            if (pm != null && pm.getPassword().equals(hashedPassword)) {
-                return Optional.of(pm);
-            }
-            return Optional.empty();
+        public java.util.Map<Integer, Money> findAllBalances() {
+            java.util.Map<Integer, Money> balances = new java.util.TreeMap<>();
+            data.forEach((id, pm) -> balances.put(id, pm.getBalanceMoney()));
+            return balances;
         }
 
         @Override
-        public Optional<PaymentMethod> authenticateByCardNumber(String cardNumber, String hashedPassword) {
-            PaymentMethod pm = byCardNumber.get(cardNumber);
-            if (pm != null && pm.getPassword().equals(hashedPassword)) {
-                return Optional.of(pm);
+        public boolean updatePassword(int id, String passwordHash) {
+            PaymentMethod pm = data.get(id);
+            if (pm == null) {
+                return false;
             }
-            return Optional.empty();
+            pm.setPassword(passwordHash);
+            return true;
         }
 
         @Override
@@ -255,6 +592,9 @@ public class PaymentServiceTest {
 
         @Override
         public PaymentMethod save(PaymentMethod pm) {
+            if (pm.getPaymentMethodId() == 0) {
+                pm.setPaymentMethodId(1000 + data.size()); // auto-increment for imported rows
+            }
             data.put(pm.getPaymentMethodId(), pm);
             if (pm.getWalletId() != null) {
                 byWalletId.put(pm.getWalletId(), pm);
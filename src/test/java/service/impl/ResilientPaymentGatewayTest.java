@@ -0,0 +1,157 @@
+package service.impl;
+
+import model.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import service.interfaces.IPaymentGateway;
+import service.interfaces.PaymentGatewayException;
+import util.CircuitBreaker;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilientPaymentGatewayTest {
+
+    private static final Money AMOUNT = Money.ofCents(1000);
+
+    @Test
+    @DisplayName("Successful charge passes the reference through")
+    void testSuccess() {
+        ResilientPaymentGateway gateway = new ResilientPaymentGateway(
+                new SimulatedPaymentGateway("TNG", 0, 0, 0.0), 1000, 2, new CircuitBreaker(3, 1000));
+
+        assertEquals("TNG-1", gateway.charge("TNG001", AMOUNT));
+        assertEquals("TNG", gateway.getName());
+        assertEquals(1L, gateway.getStats().get("successes"));
+        assertEquals(0, gateway.getStats().get("inFlight"));
+    }
+
+    @Test
+    @DisplayName("Slow provider is cut off at the timeout")
+    void testTimeout() {
+        ResilientPaymentGateway gateway = new ResilientPaymentGateway(
+                new SimulatedPaymentGateway("BANK", 5_000, 0, 0.0), 50, 2, new CircuitBreaker(3, 1000));
+
+        long start = System.nanoTime();
+        PaymentGatewayException e = assertThrows(PaymentGatewayException.class,
+                () -> gateway.charge("1234567890123456", AMOUNT));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(e.getMessage().contains("timed out"));
+        assertTrue(elapsedMillis < 2_000, "Took " + elapsedMillis + " ms");
+        assertEquals(1L, gateway.getStats().get("timeouts"));
+    }
+
+    @Test
+    @DisplayName("Repeated failures open the circuit and later calls fail fast")
+    void testCircuitOpens() {
+        AtomicInteger calls = new AtomicInteger();
+        IPaymentGateway failing = new IPaymentGateway() {
+            public String getName() { return "GRAB"; }
+            public String charge(String identifier, Money amount) {
+                calls.incrementAndGet();
+                throw new IllegalStateException("connection reset");
+            }
+            public void refund(String reference, Money amount) { }
+        };
+        ResilientPaymentGateway gateway = new ResilientPaymentGateway(failing, 1000, 2, new CircuitBreaker(2, 60_000));
+
+        PaymentGatewayException first = assertThrows(PaymentGatewayException.class, () -> gateway.charge("GRAB001", AMOUNT));
+        assertTrue(first.getMessage().contains("connection reset"));
+        assertThrows(PaymentGatewayException.class, () -> gateway.charge("GRAB001", AMOUNT));
+        assertEquals(CircuitBreaker.State.OPEN, gateway.getCircuitState());
+
+        PaymentGatewayException rejected = assertThrows(PaymentGatewayException.class, () -> gateway.charge("GRAB001", AMOUNT));
+        assertTrue(rejected.getMessage().contains("temporarily unavailable"));
+        assertEquals(2, calls.get(), "Open circuit must not reach the provider");
+        assertEquals(1L, gateway.getStats().get("rejectedByCircuit"));
+    }
+
+    @Test
+    @DisplayName("Declines are passed through and do not trip the breaker")
+    void testDeclineDoesNotTrip() {
+        IPaymentGateway declining = new IPaymentGateway() {
+            public String getName() { return "TNG"; }
+            public String charge(String identifier, Money amount) {
+                throw PaymentGatewayException.declined("Card declined");
+            }
+            public void refund(String reference, Money amount) { }
+        };
+        ResilientPaymentGateway gateway = new ResilientPaymentGateway(declining, 1000, 2, new CircuitBreaker(1, 60_000));
+
+        for (int i = 0; i < 3; i++) {
+            PaymentGatewayException e = assertThrows(PaymentGatewayException.class, () -> gateway.charge("TNG001", AMOUNT));
+            assertTrue(e.isDeclined());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, gateway.getCircuitState());
+        assertEquals(3L, gateway.getStats().get("declines"));
+    }
+
+    @Test
+    @DisplayName("Full bulkhead rejects instead of queueing")
+    void testBulkheadRejects() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IPaymentGateway blocking = new IPaymentGateway() {
+            public String getName() { return "BANK"; }
+            public String charge(String identifier, Money amount) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "BANK-1";
+            }
+            public void refund(String reference, Money amount) { }
+        };
+        ResilientPaymentGateway gateway = new ResilientPaymentGateway(blocking, 5_000, 1, new CircuitBreaker(3, 1000));
+
+        Thread holder = new Thread(() -> gateway.charge("1234567890123456", AMOUNT));
+        holder.start();
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        PaymentGatewayException e = assertThrows(PaymentGatewayException.class,
+                () -> gateway.charge("1234567890123456", AMOUNT));
+        assertTrue(e.getMessage().contains("busy"));
+        assertEquals(1, gateway.getStats().get("inFlight"));
+
+        release.countDown();
+        holder.join(5_000);
+        assertEquals(1L, gateway.getStats().get("rejectedByBulkhead"));
+        assertEquals(CircuitBreaker.State.CLOSED, gateway.getCircuitState());
+    }
+
+    @Test
+    @DisplayName("Refunds bypass an open circuit but are still time-bounded")
+    void testRefund() {
+        SimulatedPaymentGateway simulator = new SimulatedPaymentGateway("TNG", 0, 0, 1.0);
+        ResilientPaymentGateway gateway = new ResilientPaymentGateway(simulator, 50, 1, new CircuitBreaker(1, 60_000));
+        assertThrows(PaymentGatewayException.class, () -> gateway.charge("TNG001", AMOUNT));
+        assertEquals(CircuitBreaker.State.OPEN, gateway.getCircuitState());
+
+        simulator.configure(0, 0, 0.0);
+        assertDoesNotThrow(() -> gateway.refund("TNG-1", AMOUNT));
+
+        simulator.configure(0, 0, 1.0);
+        PaymentGatewayException failed = assertThrows(PaymentGatewayException.class, () -> gateway.refund("TNG-1", AMOUNT));
+        assertTrue(failed.getMessage().contains("refund failed"));
+
+        simulator.configure(5_000, 0, 0.0);
+        PaymentGatewayException slow = assertThrows(PaymentGatewayException.class, () -> gateway.refund("TNG-1", AMOUNT));
+        assertTrue(slow.getMessage().contains("refund timed out"));
+    }
+
+    @Test
+    @DisplayName("Invalid settings are rejected")
+    void testInvalidSettings() {
+        SimulatedPaymentGateway delegate = new SimulatedPaymentGateway("TNG", 0, 0, 0.0);
+        assertThrows(IllegalArgumentException.class,
+                () -> new ResilientPaymentGateway(delegate, 0, 1, new CircuitBreaker(1, 0)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ResilientPaymentGateway(delegate, 100, 0, new CircuitBreaker(1, 0)));
+    }
+}
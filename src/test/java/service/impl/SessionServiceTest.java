@@ -0,0 +1,102 @@
+package service.impl;
+
+import model.Customer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionServiceTest {
+
+    private static final long IDLE_MILLIS = 1_000;
+
+    private long now;
+    private SessionService sessions;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        now = 0;
+        sessions = new SessionService(IDLE_MILLIS, () -> now);
+        customer = new Customer(1000, "John Doe", 25, "0123456789", "Male", "hash");
+    }
+
+    private void advanceMillis(long millis) {
+        now += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Test
+    @DisplayName("A token resolves to the customer without the password")
+    void shouldAuthenticateOpenedSession() {
+        String token = sessions.open(customer);
+
+        Customer principal = sessions.authenticate(token).orElseThrow();
+        assertEquals(1000, principal.getCustomerId());
+        assertEquals("John Doe", principal.getName());
+        assertNull(principal.getPassword());
+        assertEquals(token, principal.getSessionToken());
+        assertEquals("hash", customer.getPassword());
+    }
+
+    @Test
+    @DisplayName("Tokens are unique and unknown ones are rejected")
+    void shouldIssueDistinctTokens() {
+        String first = sessions.open(customer);
+        String second = sessions.open(customer);
+
+        assertNotEquals(first, second);
+        assertTrue(first.length() >= 43);
+        assertEquals(Optional.empty(), sessions.authenticate("unknown"));
+        assertEquals(Optional.empty(), sessions.authenticate(null));
+    }
+
+    @Test
+    @DisplayName("Each use restarts the idle timeout")
+    void shouldSlideExpiry() {
+        String token = sessions.open(customer);
+
+        advanceMillis(800);
+        assertTrue(sessions.authenticate(token).isPresent());
+        advanceMillis(800);
+        assertTrue(sessions.authenticate(token).isPresent());
+        advanceMillis(1_001);
+        assertTrue(sessions.authenticate(token).isEmpty());
+        assertEquals(0, sessions.getActiveSessionCount());
+    }
+
+    @Test
+    @DisplayName("Closing ends a session once")
+    void shouldClose() {
+        String token = sessions.open(customer);
+
+        assertTrue(sessions.close(token));
+        assertFalse(sessions.close(token));
+        assertFalse(sessions.close(null));
+        assertTrue(sessions.authenticate(token).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Expired sessions are swept from memory")
+    void shouldSweepExpiredSessions() {
+        sessions.open(customer);
+        sessions.open(customer);
+        assertEquals(2, sessions.getActiveSessionCount());
+
+        advanceMillis(IDLE_MILLIS + 1);
+        String fresh = sessions.open(customer);
+
+        assertEquals(1, sessions.getActiveSessionCount());
+        assertTrue(sessions.authenticate(fresh).isPresent());
+    }
+
+    @Test
+    @DisplayName("Invalid arguments are rejected")
+    void shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> sessions.open(null));
+        assertThrows(IllegalArgumentException.class, () -> new SessionService(0, System::nanoTime));
+    }
+}
@@ -0,0 +1,61 @@
+package service.impl;
+
+import model.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import service.interfaces.PaymentGatewayException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatedPaymentGatewayTest {
+
+    @Test
+    @DisplayName("Healthy simulator approves with increasing references")
+    void testApproves() {
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway("TNG", 0, 0, 0.0);
+        assertEquals("TNG", gateway.getName());
+        assertEquals("TNG-1", gateway.charge("TNG001", Money.ofCents(100)));
+        assertEquals("TNG-2", gateway.charge("TNG001", Money.ofCents(100)));
+    }
+
+    @Test
+    @DisplayName("Failure rate of 1 always fails as unavailable, not declined")
+    void testAlwaysFails() {
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway("BANK", 0, 0, 1.0);
+        PaymentGatewayException e = assertThrows(PaymentGatewayException.class,
+                () -> gateway.charge("1234567890123456", Money.ofCents(100)));
+        assertFalse(e.isDeclined());
+    }
+
+    @Test
+    @DisplayName("Latency is applied and can be changed while running")
+    void testLatencyAndReconfigure() {
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway("GRAB", 30, 0, 0.0);
+        long start = System.nanoTime();
+        gateway.charge("GRAB001", Money.ofCents(100));
+        assertTrue(System.nanoTime() - start >= 30_000_000L);
+
+        gateway.configure(0, 0, 1.0);
+        assertThrows(PaymentGatewayException.class, () -> gateway.charge("GRAB001", Money.ofCents(100)));
+    }
+
+    @Test
+    @DisplayName("Interrupted call fails instead of hanging")
+    void testInterrupted() {
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway("TNG", 5_000, 0, 0.0);
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(PaymentGatewayException.class, () -> gateway.charge("TNG001", Money.ofCents(100)));
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    @DisplayName("Invalid settings are rejected")
+    void testInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new SimulatedPaymentGateway("TNG", -1, 0, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> new SimulatedPaymentGateway("TNG", 0, 0, 1.5));
+    }
+}
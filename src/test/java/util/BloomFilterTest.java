@@ -0,0 +1,108 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    private static String phone(int n) {
+        return String.format("01%08d", n);
+    }
+
+    @Test
+    @DisplayName("Added values are always found")
+    void shouldHaveNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(phone(i));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(phone(i)));
+        }
+        assertEquals(10_000, filter.getInsertions());
+        assertFalse(filter.isSaturated());
+    }
+
+    @Test
+    @DisplayName("False positives stay near the configured rate")
+    void shouldKeepFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(phone(i));
+        }
+        int falsePositives = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filter.mightContain(phone(i))) {
+                falsePositives++;
+            }
+        }
+        // 1% of 100k is 1000; allow generous slack
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+        assertEquals(7, filter.getHashCount());
+        assertTrue(filter.getBitCount() >= 95_851);
+    }
+
+    @Test
+    @DisplayName("An empty filter contains nothing")
+    void shouldStartEmpty() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        assertFalse(filter.mightContain("0123456789"));
+        assertFalse(filter.mightContain(""));
+    }
+
+    @Test
+    @DisplayName("Adding past capacity marks the filter saturated")
+    void shouldReportSaturation() {
+        BloomFilter filter = new BloomFilter(2, 0.01);
+        filter.add("a");
+        filter.add("b");
+        assertFalse(filter.isSaturated());
+        filter.add("c");
+        assertTrue(filter.isSaturated());
+    }
+
+    @Test
+    @DisplayName("Concurrent adds lose no bits")
+    void shouldAddConcurrently() throws Exception {
+        BloomFilter filter = new BloomFilter(80_000, 0.01);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int offset = t * 10_000;
+                tasks.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        filter.add(phone(offset + i));
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        for (int i = 0; i < 80_000; i++) {
+            assertTrue(filter.mightContain(phone(i)));
+        }
+    }
+
+    @Test
+    @DisplayName("Invalid sizing is rejected")
+    void shouldRejectInvalidSizing() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 1));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, Double.NaN));
+    }
+}
@@ -0,0 +1,139 @@
+package util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CredentialCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private CredentialCache<Integer> cache;
+    private String storedHash;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CredentialCache<>(100, 1_000, now::get);
+        storedHash = PasswordUtil.hash("secret", PasswordUtil.MIN_ITERATIONS);
+    }
+
+    private Supplier<Optional<String>> store(String hash) {
+        return () -> {
+            loads.incrementAndGet();
+            return Optional.ofNullable(hash);
+        };
+    }
+
+    @Test
+    @DisplayName("The stored hash is loaded once and reused")
+    void shouldLoadHashOnce() {
+        assertTrue(cache.verify(1, "secret", store(storedHash)));
+        assertTrue(cache.verify(1, "secret", store(storedHash)));
+        assertFalse(cache.verify(1, "other", store(storedHash)));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getLoads());
+    }
+
+    @Test
+    @DisplayName("Repeating a wrong password is rejected from memory")
+    void shouldRejectRepeatedFailureFromMemory() {
+        assertFalse(cache.verify(1, "wrong", store(storedHash)));
+        assertEquals(0, cache.getRejectedFromMemory());
+
+        assertFalse(cache.verify(1, "wrong", store(storedHash)));
+        assertFalse(cache.verify(1, "wrong", store(storedHash)));
+        assertEquals(2, cache.getRejectedFromMemory());
+        // The right password still works after failures
+        assertTrue(cache.verify(1, "secret", store(storedHash)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("A failed load is not remembered as an unknown account")
+    void shouldNotCacheFailedLoad() {
+        Supplier<Optional<String>> down = () -> {
+            loads.incrementAndGet();
+            throw new RuntimeException("Failed to load customer credentials");
+        };
+
+        assertThrows(RuntimeException.class, () -> cache.verify(1, "secret", down));
+        assertTrue(cache.verify(1, "secret", store(storedHash)));
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.getRejectedFromMemory());
+    }
+
+    @Test
+    @DisplayName("Unknown accounts are remembered until invalidated")
+    void shouldRememberUnknownAccounts() {
+        assertFalse(cache.verify(7, "secret", store(null)));
+        assertFalse(cache.verify(7, "secret", store(null)));
+        assertEquals(1, loads.get());
+        assertEquals(2, cache.getRejectedFromMemory());
+
+        cache.invalidate(7);
+        assertTrue(cache.verify(7, "secret", store(storedHash)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Entries expire after the TTL and are reloaded")
+    void shouldReloadAfterTtl() {
+        assertTrue(cache.verify(1, "secret", store(storedHash)));
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_000));
+
+        String changed = PasswordUtil.hash("changed", PasswordUtil.MIN_ITERATIONS);
+        assertFalse(cache.verify(1, "secret", store(changed)));
+        assertTrue(cache.verify(1, "changed", store(changed)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Updating a hash replaces it and clears remembered failures")
+    void shouldUpdateHash() {
+        String legacy = PasswordUtil.hashPassword("secret");
+        assertFalse(cache.verify(1, "wrong", store(legacy)));
+        assertTrue(cache.needsRehash(1));
+
+        String upgraded = PasswordUtil.hash("secret");
+        cache.update(1, upgraded);
+        assertFalse(cache.needsRehash(1));
+        assertFalse(cache.verify(1, "wrong", store(legacy)));
+        assertEquals(0, cache.getRejectedFromMemory());
+        assertTrue(cache.verify(1, "secret", store(legacy)));
+        assertEquals(1, loads.get());
+        assertFalse(cache.needsRehash(99));
+    }
+
+    @Test
+    @DisplayName("Only the most recent wrong passwords are remembered")
+    void shouldBoundRememberedFailures() {
+        for (int i = 0; i < 9; i++) {
+            assertFalse(cache.verify(1, "wrong" + i, store(storedHash)));
+        }
+        // wrong0 fell off, wrong8 is still remembered
+        assertFalse(cache.verify(1, "wrong8", store(storedHash)));
+        assertEquals(1, cache.getRejectedFromMemory());
+        assertFalse(cache.verify(1, "wrong0", store(storedHash)));
+        assertEquals(1, cache.getRejectedFromMemory());
+    }
+
+    @Test
+    @DisplayName("Null accounts, null passwords and bad settings are rejected")
+    void shouldRejectBadInput() {
+        assertFalse(cache.verify(null, "secret", store(storedHash)));
+        assertFalse(cache.verify(1, null, store(storedHash)));
+        assertEquals(0, loads.get());
+        assertThrows(IllegalArgumentException.class, () -> new CredentialCache<>(10, 0, System::nanoTime));
+        assertThrows(IllegalArgumentException.class, () -> new CredentialCache<>(0, 10, System::nanoTime));
+        assertNotNull(new CredentialCache<String>());
+    }
+}
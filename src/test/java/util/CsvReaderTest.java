@@ -0,0 +1,48 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    @Test
+    @DisplayName("Plain records split on commas and line breaks")
+    void shouldReadPlainRecords() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,b,c\r\n1,,3\n"));
+        assertArrayEquals(new String[]{"a", "b", "c"}, reader.next());
+        assertArrayEquals(new String[]{"1", "", "3"}, reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Quoted fields keep commas, doubled quotes and line breaks")
+    void shouldReadQuotedFields() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("\"Doe, John\",\"say \"\"hi\"\"\",\"two\nlines\"\nnext,row"));
+        assertArrayEquals(new String[]{"Doe, John", "say \"hi\"", "two\nlines"}, reader.next());
+        assertEquals(1, reader.getRecordLine());
+        assertArrayEquals(new String[]{"next", "row"}, reader.next());
+        assertEquals(3, reader.getRecordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Records longer than the read buffer are read whole")
+    void shouldReadAcrossBufferBoundaries() throws IOException {
+        String longField = "x".repeat(20_000);
+        CsvReader reader = new CsvReader(new StringReader(longField + ",\"" + longField + "\"\n"));
+        assertArrayEquals(new String[]{longField, longField}, reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("An unterminated quote is an error")
+    void shouldRejectUnterminatedQuote() {
+        CsvReader reader = new CsvReader(new StringReader("a,\"open\n"));
+        assertThrows(IllegalArgumentException.class, reader::next);
+    }
+}
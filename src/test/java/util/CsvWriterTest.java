@@ -0,0 +1,36 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvWriterTest {
+
+    @Test
+    @DisplayName("Fields are quoted only when they need it")
+    void shouldQuoteOnlyWhenNeeded() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out);
+        writer.writeRecord("plain", "a,b", "say \"hi\"", " padded", null);
+        writer.flush();
+        assertEquals("plain,\"a,b\",\"say \"\"hi\"\"\",\" padded\",\n", out.toString());
+    }
+
+    @Test
+    @DisplayName("Written records read back unchanged")
+    void shouldRoundTripThroughReader() throws IOException {
+        String[] record = {"Doe, John", "two\nlines", "\"quoted\"", ""};
+        StringWriter out = new StringWriter();
+        try (CsvWriter writer = new CsvWriter(out)) {
+            writer.writeRecord(record);
+        }
+        CsvReader reader = new CsvReader(new StringReader(out.toString()));
+        assertArrayEquals(record, reader.next());
+        assertNull(reader.next());
+    }
+}
@@ -0,0 +1,107 @@
+package util;
+
+import model.ImportReport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportPipelineTest {
+
+    private final List<List<String>> stored = new ArrayList<>();
+
+    private ImportPipeline<String> pipeline(int chunkSize) {
+        return new ImportPipeline<String>(List.of("name", "secret"), chunkSize).redact("secret");
+    }
+
+    private static String parseName(ImportPipeline.Row row) {
+        String name = row.get("name");
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Name is required");
+        }
+        return name;
+    }
+
+    @Test
+    @DisplayName("Rows are stored in chunks and counted")
+    void shouldStoreInChunks() throws IOException {
+        StringWriter rejects = new StringWriter();
+        ImportReport report = pipeline(2).run(new StringReader("name,secret\na,1\nb,2\n\nc,3\n"), rejects,
+                ImportPipelineTest::parseName, chunk -> stored.add(List.copyOf(chunk)));
+
+        assertEquals(List.of(List.of("a", "b"), List.of("c")), stored);
+        assertEquals(3, report.getRowsRead());
+        assertEquals(3, report.getImported());
+        assertEquals(0, report.getRejected());
+        assertEquals(2, report.getChunks());
+        assertEquals("name,secret,error\n", rejects.toString());
+    }
+
+    @Test
+    @DisplayName("Columns are found by name in any order")
+    void shouldMatchColumnsByName() throws IOException {
+        pipeline(10).run(new StringReader("Secret, Name \nx, Alice \n"), new StringWriter(),
+                ImportPipelineTest::parseName, chunk -> stored.add(List.copyOf(chunk)));
+
+        assertEquals(List.of(List.of("Alice")), stored);
+    }
+
+    @Test
+    @DisplayName("Invalid rows go to the rejects file with redacted columns blanked")
+    void shouldRejectInvalidRows() throws IOException {
+        StringWriter rejects = new StringWriter();
+        ImportReport report = pipeline(10).run(new StringReader("name,secret\n,hunter2\nb,2\n"), rejects,
+                ImportPipelineTest::parseName, chunk -> stored.add(List.copyOf(chunk)));
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertEquals("name,secret,error\n,,Name is required\n", rejects.toString());
+        assertFalse(rejects.toString().contains("hunter2"));
+    }
+
+    @Test
+    @DisplayName("A failed chunk rejects all of its rows and later chunks still run")
+    void shouldRejectFailedChunk() throws IOException {
+        StringWriter rejects = new StringWriter();
+        ImportReport report = pipeline(2).run(new StringReader("name,secret\na,1\nb,2\nc,3\n"), rejects,
+                ImportPipelineTest::parseName, chunk -> {
+                    if (chunk.contains("a")) {
+                        throw new IllegalStateException("duplicate key");
+                    }
+                    stored.add(List.copyOf(chunk));
+                });
+
+        assertEquals(List.of(List.of("c")), stored);
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getRejected());
+        assertEquals(1, report.getChunks());
+        assertTrue(rejects.toString().contains("a,,Chunk not stored: duplicate key"));
+        assertTrue(rejects.toString().contains("b,,Chunk not stored: duplicate key"));
+    }
+
+    @Test
+    @DisplayName("Whole-number columns report bad values")
+    void shouldReportBadNumbers() throws IOException {
+        StringWriter rejects = new StringWriter();
+        new ImportPipeline<Integer>(List.of("age"), 10).run(new StringReader("age\nten\n"), rejects,
+                row -> row.getInt("age"), chunk -> fail("nothing should be stored"));
+
+        assertTrue(rejects.toString().contains("age must be a whole number: 'ten'"));
+    }
+
+    @Test
+    @DisplayName("A missing column or an empty file fails before anything is stored")
+    void shouldRequireHeader() {
+        assertThrows(IllegalArgumentException.class, () -> pipeline(10).run(new StringReader("name\na\n"),
+                new StringWriter(), ImportPipelineTest::parseName, chunk -> fail("nothing should be stored")));
+        assertThrows(IllegalArgumentException.class, () -> pipeline(10).run(new StringReader(""),
+                new StringWriter(), ImportPipelineTest::parseName, chunk -> fail("nothing should be stored")));
+        assertThrows(IllegalArgumentException.class, () -> new ImportPipeline<String>(List.of("name"), 0));
+    }
+}
@@ -0,0 +1,77 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonTest {
+
+    @Test
+    @DisplayName("Parses nested objects, arrays and literals")
+    void shouldParseDocument() {
+        Map<String, Object> doc = Json.parseObject(
+                " { \"id\": 12, \"price\": -10.50, \"ok\": true, \"no\": false, \"none\": null,"
+                + " \"items\": [ {\"q\": 1e2}, [], {} ] } ");
+
+        assertEquals(new BigDecimal("12"), doc.get("id"));
+        assertEquals(new BigDecimal("-10.50"), doc.get("price"));
+        assertEquals(Boolean.TRUE, doc.get("ok"));
+        assertEquals(Boolean.FALSE, doc.get("no"));
+        assertTrue(doc.containsKey("none"));
+        assertNull(doc.get("none"));
+        List<?> items = (List<?>) doc.get("items");
+        assertEquals(3, items.size());
+        assertEquals(0, new BigDecimal("100").compareTo((BigDecimal) ((Map<?, ?>) items.get(0)).get("q")));
+    }
+
+    @Test
+    @DisplayName("Decodes string escapes")
+    void shouldDecodeEscapes() {
+        assertEquals("a\"b\\c/d\b\f\n\r\tA", Json.parse("\"a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\\u0041\""));
+    }
+
+    @Test
+    @DisplayName("Rejects malformed input")
+    void shouldRejectMalformed() {
+        for (String bad : Arrays.asList("", "{", "[1,", "{\"a\" 1}", "{1:2}", "\"open", "\"\\x\"",
+                "\"\\u12\"", "\"\\uzzzz\"", "tru", "-", "1 2", "@", "\"\\")) {
+            assertThrows(IllegalArgumentException.class, () -> Json.parse(bad), bad);
+        }
+        assertThrows(IllegalArgumentException.class, () -> Json.parse(null));
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject("[1]"));
+    }
+
+    @Test
+    @DisplayName("Writes values with escaping and stable key order")
+    void shouldWriteValues() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("s", "q\"\\\n\r\t\b\f\u0001");
+        map.put("i", 3);
+        map.put("d", 2.50);
+        map.put("nan", Double.NaN);
+        map.put("big", new BigDecimal("10.50"));
+        map.put("b", true);
+        map.put("n", null);
+        map.put("list", List.of(1, "x"));
+        map.put("array", new Object[] {false});
+        map.put("other", new StringBuilder("sb"));
+
+        assertEquals("{\"s\":\"q\\\"\\\\\\n\\r\\t\\b\\f\\u0001\",\"i\":3,\"d\":2.5,\"nan\":null,"
+                + "\"big\":10.50,\"b\":true,\"n\":null,\"list\":[1,\"x\"],\"array\":[false],\"other\":\"sb\"}",
+                Json.write(map));
+    }
+
+    @Test
+    @DisplayName("Output of write parses back to the same structure")
+    void shouldRoundTrip() {
+        String text = "{\"a\":[1,2.5,\"three\",null,true],\"b\":{\"c\":\"d\"}}";
+        assertEquals(text, Json.write(Json.parse(text)));
+    }
+}
@@ -0,0 +1,88 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyRecorderTest {
+
+    private static final long MICRO = 1_000L;
+
+    @Test
+    @DisplayName("Percentiles report the upper bound of the matching bucket")
+    void shouldComputePercentiles() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 0; i < 90; i++) {
+            recorder.record("op", 80 * MICRO);
+        }
+        for (int i = 0; i < 10; i++) {
+            recorder.record("op", 4_000 * MICRO);
+        }
+
+        assertEquals(100, recorder.getCount("op"));
+        assertEquals(100, recorder.percentileMicros("op", 50));
+        assertEquals(4_000, recorder.percentileMicros("op", 95));
+        assertEquals(4_000, recorder.percentileMicros("op", 100));
+    }
+
+    @Test
+    @DisplayName("Samples beyond the last bucket report the observed maximum")
+    void shouldReportMaxForOverflow() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record("slow", TimeUnit.SECONDS.toNanos(7));
+        recorder.record("slow", -5);
+        assertEquals(7_000_000, recorder.percentileMicros("slow", 99));
+    }
+
+    @Test
+    @DisplayName("Unknown operations report zero")
+    void shouldHandleUnknown() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        assertEquals(0, recorder.getCount("missing"));
+        assertEquals(0, recorder.percentileMicros("missing", 50));
+    }
+
+    @Test
+    @DisplayName("Snapshot lists every operation with summary fields")
+    @SuppressWarnings("unchecked")
+    void shouldSnapshot() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record("b", 300 * MICRO);
+        recorder.record("a", 200 * MICRO);
+        recorder.record("a", 200 * MICRO);
+
+        Map<String, Object> snapshot = recorder.snapshot();
+        assertEquals("[a, b]", snapshot.keySet().toString());
+        Map<String, Object> a = (Map<String, Object>) snapshot.get("a");
+        assertEquals(2L, a.get("count"));
+        assertEquals(200L, a.get("meanMicros"));
+        assertEquals(200L, a.get("p50Micros"));
+        assertEquals(200L, a.get("maxMicros"));
+
+        recorder.reset();
+        assertTrue(recorder.snapshot().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Concurrent recording loses no samples")
+    void shouldRecordConcurrently() throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    recorder.record("op", i * MICRO);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(80_000, recorder.getCount("op"));
+    }
+}
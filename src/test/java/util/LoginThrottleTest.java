@@ -0,0 +1,131 @@
+package util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private long now;
+    private LoginThrottle<String> throttle;
+
+    @BeforeEach
+    void setUp() {
+        now = 1_000;
+        throttle = new LoginThrottle<>(3, 1_000, 1024, () -> now);
+    }
+
+    private void advanceMillis(long millis) {
+        now += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Test
+    @DisplayName("A full bucket allows the burst, then refuses")
+    void shouldAllowBurstThenThrottle() {
+        assertTrue(throttle.tryAcquire("CUSTOMER:1000"));
+        assertTrue(throttle.tryAcquire("CUSTOMER:1000"));
+        assertTrue(throttle.tryAcquire("CUSTOMER:1000"));
+        assertFalse(throttle.tryAcquire("CUSTOMER:1000"));
+
+        assertEquals(3, throttle.getAllowed());
+        assertEquals(1, throttle.getThrottled());
+        assertEquals(3L, throttle.getStats().get("allowed"));
+        assertEquals(1L, throttle.getStats().get("throttled"));
+    }
+
+    @Test
+    @DisplayName("Attempts come back one refill interval at a time")
+    void shouldRefillOverTime() {
+        for (int i = 0; i < 3; i++) {
+            throttle.tryAcquire("ADMIN:root");
+        }
+        advanceMillis(999);
+        assertFalse(throttle.tryAcquire("ADMIN:root"));
+        advanceMillis(1);
+        assertTrue(throttle.tryAcquire("ADMIN:root"));
+        assertFalse(throttle.tryAcquire("ADMIN:root"));
+
+        // Idle long enough and the bucket is full again, but never fuller
+        advanceMillis(60_000);
+        assertTrue(throttle.tryAcquire("ADMIN:root"));
+        assertTrue(throttle.tryAcquire("ADMIN:root"));
+        assertTrue(throttle.tryAcquire("ADMIN:root"));
+        assertFalse(throttle.tryAcquire("ADMIN:root"));
+    }
+
+    @Test
+    @DisplayName("Keys have their own buckets")
+    void shouldKeepKeysApart() {
+        LoginThrottle<String> wide = new LoginThrottle<>(1, 1_000, 1 << 16, () -> now);
+
+        assertTrue(wide.tryAcquire("WALLET:TNG001"));
+        assertFalse(wide.tryAcquire("WALLET:TNG001"));
+        assertTrue(wide.tryAcquire("WALLET:TNG002"));
+        assertTrue(wide.tryAcquire("CARD:1234567890123456"));
+    }
+
+    @Test
+    @DisplayName("A refund returns one attempt and never overfills")
+    void shouldRefund() {
+        throttle.refund("CUSTOMER:1000");
+        for (int i = 0; i < 3; i++) {
+            assertTrue(throttle.tryAcquire("CUSTOMER:1000"));
+        }
+        assertFalse(throttle.tryAcquire("CUSTOMER:1000"));
+
+        throttle.refund("CUSTOMER:1000");
+        assertTrue(throttle.tryAcquire("CUSTOMER:1000"));
+        assertFalse(throttle.tryAcquire("CUSTOMER:1000"));
+    }
+
+    @Test
+    @DisplayName("Concurrent attempts on one key never exceed the burst")
+    void shouldHoldLimitUnderContention() throws Exception {
+        LoginThrottle<String> shared = new LoginThrottle<>(50, 60_000, 64, System::nanoTime);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 100; i++) {
+                        if (shared.tryAcquire("CUSTOMER:1000")) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> task : tasks) {
+                task.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(50, granted.get());
+        assertEquals(750, shared.getThrottled());
+    }
+
+    @Test
+    @DisplayName("Invalid settings are rejected")
+    void shouldRejectInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new LoginThrottle<String>(0, 1_000, 16, System::nanoTime));
+        assertThrows(IllegalArgumentException.class, () -> new LoginThrottle<String>(1, 0, 16, System::nanoTime));
+        assertThrows(IllegalArgumentException.class, () -> new LoginThrottle<String>(1, 1_000, 0, System::nanoTime));
+        assertTrue(new LoginThrottle<String>(1, 1_000, 1, System::nanoTime).tryAcquire(null));
+    }
+}
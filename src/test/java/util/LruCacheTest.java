@@ -0,0 +1,50 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LruCacheTest {
+
+    @Test
+    @DisplayName("Stored values are returned until removed or cleared")
+    void shouldStoreAndRemove() {
+        LruCache<String, Integer> cache = new LruCache<>(4);
+        cache.put("a", 1);
+        cache.put("b", 2);
+
+        assertEquals(Optional.of(1), cache.get("a"));
+        assertEquals(Optional.empty(), cache.get("missing"));
+        assertEquals(2, cache.size());
+
+        cache.remove("a");
+        assertTrue(cache.get("a").isEmpty());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(4, cache.getMaxEntries());
+    }
+
+    @Test
+    @DisplayName("The least recently used entry is evicted first")
+    void shouldEvictLeastRecentlyUsed() {
+        LruCache<String, Integer> cache = new LruCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+
+        assertTrue(cache.get("b").isEmpty());
+        assertEquals(Optional.of(1), cache.get("a"));
+        assertEquals(Optional.of(3), cache.get("c"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @DisplayName("A cache must hold at least one entry")
+    void shouldRejectNonPositiveSize() {
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<>(0));
+    }
+}
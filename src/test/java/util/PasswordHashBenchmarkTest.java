@@ -0,0 +1,57 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cost of one password verification at several PBKDF2 iteration counts,
+ * next to the legacy unsalted SHA-256. Pick the largest count whose latency
+ * fits the login budget and set it with -Dapp.password.iterations.
+ * Run with: mvn -Pbenchmark test
+ */
+@Tag("benchmark")
+class PasswordHashBenchmarkTest {
+
+    private static final int[] ITERATIONS = {10_000, 50_000, 100_000, 200_000, 400_000};
+    private static final int LEGACY_CALLS = 100_000;
+    private static final int VERIFY_CALLS = 20;
+    private static final int ROUNDS = 3;
+
+    @Test
+    @DisplayName("Verification latency: legacy SHA-256 vs PBKDF2 at increasing cost")
+    void compareCosts() {
+        String password = "password123";
+
+        String legacy = PasswordUtil.hashPassword(password);
+        long legacyNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < LEGACY_CALLS; i++) {
+                assertTrue(PasswordUtil.verifyPassword(password, legacy));
+            }
+            legacyNanos = Math.min(legacyNanos, System.nanoTime() - start);
+        }
+        System.out.printf("legacy sha-256            %10.3f ms/verify%n", legacyNanos / 1e6 / LEGACY_CALLS);
+
+        double previous = 0;
+        for (int iterations : ITERATIONS) {
+            String stored = PasswordUtil.hash(password, iterations);
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                for (int i = 0; i < VERIFY_CALLS; i++) {
+                    assertTrue(PasswordUtil.verifyPassword(password, stored));
+                }
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            double millis = best / 1e6 / VERIFY_CALLS;
+            System.out.printf("pbkdf2-sha256 %7d it   %10.3f ms/verify%n", iterations, millis);
+            // Cost should grow with the iteration count
+            assertTrue(millis > previous * 0.8, "Verification at " + iterations + " iterations got cheaper");
+            previous = millis;
+        }
+    }
+}
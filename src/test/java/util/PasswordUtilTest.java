@@ -256,5 +256,70 @@ public class PasswordUtilTest {
         assertTrue(PasswordUtil.verifyPassword("test\npassword", hash));
         assertFalse(PasswordUtil.verifyPassword("testpassword", hash));
     }
-}
 
+    @Test
+    @DisplayName("Test hash - versioned PBKDF2 format with a fresh salt each time")
+    void testHash_VersionedAndSalted() {
+        String hash1 = PasswordUtil.hash("testPassword");
+        String hash2 = PasswordUtil.hash("testPassword");
+
+        assertTrue(hash1.matches("pbkdf2-sha256\\$\\d+\\$[A-Za-z0-9+/]{22}\\$[A-Za-z0-9+/]{43}"), hash1);
+        assertTrue(hash1.startsWith(PasswordUtil.PBKDF2_PREFIX + "$" + PasswordUtil.getIterations() + "$"));
+        assertNotEquals(hash1, hash2, "Same password should get different salts");
+        assertTrue(PasswordUtil.verifyPassword("testPassword", hash1));
+        assertTrue(PasswordUtil.verifyPassword("testPassword", hash2));
+        assertFalse(PasswordUtil.verifyPassword("testpassword", hash1));
+        assertThrows(IllegalArgumentException.class, () -> PasswordUtil.hash(null));
+    }
+
+    @Test
+    @DisplayName("Test hash - explicit iteration count is recorded and verified")
+    void testHash_ExplicitIterations() {
+        String hash = PasswordUtil.hash("密码123🔒", 2_000);
+
+        assertTrue(hash.startsWith("pbkdf2-sha256$2000$"));
+        assertTrue(PasswordUtil.verifyPassword("密码123🔒", hash));
+        assertThrows(IllegalArgumentException.class, () -> PasswordUtil.hash("x", PasswordUtil.MIN_ITERATIONS - 1));
+    }
+
+    @Test
+    @DisplayName("Test verifyPassword - malformed PBKDF2 hashes never match")
+    void testVerifyPassword_Malformed() {
+        assertFalse(PasswordUtil.verifyPassword("a", "pbkdf2-sha256$"));
+        assertFalse(PasswordUtil.verifyPassword("a", "pbkdf2-sha256$abc$c2FsdA$aGFzaA"));
+        assertFalse(PasswordUtil.verifyPassword("a", "pbkdf2-sha256$0$c2FsdA$aGFzaA"));
+        assertFalse(PasswordUtil.verifyPassword("a", "pbkdf2-sha256$1000$!!$aGFzaA"));
+        assertFalse(PasswordUtil.verifyPassword("a", "pbkdf2-sha256$1000$c2FsdA$"));
+    }
+
+    @Test
+    @DisplayName("Test needsRehash - legacy and weaker hashes need upgrading")
+    void testNeedsRehash() {
+        int current = PasswordUtil.getIterations();
+
+        assertTrue(PasswordUtil.needsRehash(PasswordUtil.hashPassword("pw")));
+        assertTrue(PasswordUtil.needsRehash(null));
+        assertTrue(PasswordUtil.needsRehash("pbkdf2-sha256$x$y$z"));
+        assertTrue(PasswordUtil.needsRehash("pbkdf2-sha256$" + current));
+        assertTrue(PasswordUtil.needsRehash(PasswordUtil.hash("pw", Math.max(PasswordUtil.MIN_ITERATIONS, current / 2))));
+        assertFalse(PasswordUtil.needsRehash(PasswordUtil.hash("pw")));
+    }
+
+    @Test
+    @DisplayName("Test setIterations - raising the cost marks older hashes for upgrade")
+    void testSetIterations() {
+        int original = PasswordUtil.getIterations();
+        try {
+            String older = PasswordUtil.hash("pw", PasswordUtil.MIN_ITERATIONS);
+            PasswordUtil.setIterations(PasswordUtil.MIN_ITERATIONS);
+            assertFalse(PasswordUtil.needsRehash(older));
+
+            PasswordUtil.setIterations(PasswordUtil.MIN_ITERATIONS * 2);
+            assertTrue(PasswordUtil.needsRehash(older));
+            assertTrue(PasswordUtil.verifyPassword("pw", older), "Older hashes still verify");
+            assertThrows(IllegalArgumentException.class, () -> PasswordUtil.setIterations(0));
+        } finally {
+            PasswordUtil.setIterations(original);
+        }
+    }
+}
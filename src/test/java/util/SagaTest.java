@@ -0,0 +1,67 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SagaTest {
+
+    @Test
+    @DisplayName("Steps run immediately and return their results")
+    void testStepsRun() {
+        Saga saga = new Saga("test");
+        List<String> log = new ArrayList<>();
+
+        saga.step("first", () -> log.add("first"), () -> log.add("undo first"));
+        int value = saga.step("second", () -> 42, v -> log.add("undo " + v));
+
+        assertEquals(42, value);
+        assertEquals(List.of("first"), log);
+        assertEquals(List.of("first", "second"), saga.getCompletedSteps());
+    }
+
+    @Test
+    @DisplayName("Compensations run newest first with the step's result")
+    void testCompensateInReverse() {
+        Saga saga = new Saga("test");
+        List<String> log = new ArrayList<>();
+        saga.step("reserve", () -> log.add("reserve"), () -> log.add("release"));
+        saga.step("charge", () -> "CHG-1", ref -> log.add("refund " + ref));
+
+        assertTrue(saga.compensate().isEmpty());
+        assertEquals(List.of("reserve", "refund CHG-1", "release"), log);
+        assertTrue(saga.getCompletedSteps().isEmpty());
+    }
+
+    @Test
+    @DisplayName("A failed step registers no compensation")
+    void testFailedStepNotCompensated() {
+        Saga saga = new Saga("test");
+        List<String> log = new ArrayList<>();
+        saga.step("reserve", () -> log.add("reserve"), () -> log.add("release"));
+
+        assertThrows(IllegalStateException.class, () -> saga.step("charge",
+                () -> { throw new IllegalStateException("declined"); }, () -> log.add("refund")));
+        saga.compensate();
+
+        assertEquals(List.of("reserve", "release"), log);
+    }
+
+    @Test
+    @DisplayName("A throwing compensation is reported and the rest still run")
+    void testFailingCompensation() {
+        Saga saga = new Saga("test");
+        List<String> log = new ArrayList<>();
+        saga.step("reserve", () -> { }, () -> log.add("release"));
+        saga.step("charge", () -> { }, () -> { throw new IllegalStateException("gateway down"); });
+
+        List<String> failed = saga.compensate();
+
+        assertEquals(List.of("charge"), failed);
+        assertEquals(List.of("release"), log);
+    }
+}
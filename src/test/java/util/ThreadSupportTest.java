@@ -0,0 +1,37 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThreadSupportTest {
+
+    @Test
+    @DisplayName("Per-task executor runs submitted work")
+    void shouldRunTasks() throws Exception {
+        ExecutorService executor = ThreadSupport.newPerTaskExecutor("test");
+        Future<String> result = executor.submit(() -> "done");
+        assertEquals("done", result.get(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Daemon factory names threads with the prefix")
+    void shouldCreateNamedDaemonThreads() {
+        Thread thread = ThreadSupport.daemonFactory("worker").newThread(() -> { });
+        assertTrue(thread.isDaemon());
+        assertEquals("worker-1", thread.getName());
+    }
+
+    @Test
+    @DisplayName("Virtual thread detection matches the running JDK")
+    void shouldDetectVirtualThreads() {
+        assertEquals(Runtime.version().feature() >= 21, ThreadSupport.virtualThreadsAvailable());
+    }
+}
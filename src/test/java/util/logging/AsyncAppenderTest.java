@@ -0,0 +1,154 @@
+package util.logging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncAppenderTest {
+
+    private static LogEvent event(String template, Object arg) {
+        LogEvent event = new LogEvent();
+        event.set(LogLevel.INFO, "async", System.currentTimeMillis(), template, 1, arg, null, null);
+        return event;
+    }
+
+    @Test
+    @DisplayName("Events are delivered in order and formatted on the worker thread")
+    void shouldDeliverInOrder() {
+        CapturingAppender sink = new CapturingAppender();
+        AsyncAppender appender = new AsyncAppender(sink, 64);
+        for (int i = 0; i < 50; i++) {
+            appender.append(event("n={}", i));
+        }
+        appender.flush();
+
+        assertEquals(50, sink.lines.size());
+        assertEquals("INFO async n=0", sink.lines.get(0));
+        assertEquals("INFO async n=49", sink.lines.get(49));
+        assertTrue(sink.flushes > 0);
+        appender.close();
+        assertTrue(sink.closed);
+    }
+
+    @Test
+    @DisplayName("An idle worker does not keep flushing the delegate")
+    void shouldNotFlushWhileIdle() throws InterruptedException {
+        CapturingAppender sink = new CapturingAppender();
+        AsyncAppender appender = new AsyncAppender(sink, 8);
+        appender.append(event("n={}", 1));
+        appender.flush();
+        Thread.sleep(20);
+
+        int flushes = sink.flushes;
+        Thread.sleep(100);
+
+        assertEquals(flushes, sink.flushes);
+        appender.close();
+    }
+
+    @Test
+    @DisplayName("Concurrent producers lose nothing when the buffer has room")
+    void shouldAcceptConcurrentProducers() throws InterruptedException {
+        CapturingAppender sink = new CapturingAppender();
+        AsyncAppender appender = new AsyncAppender(sink, 4096);
+        int threads = 4;
+        int perThread = 500;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    appender.append(event("x{}", i));
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        appender.flush();
+
+        assertEquals(threads * perThread, sink.lines.size() + appender.getDroppedCount());
+        appender.close();
+    }
+
+    @Test
+    @DisplayName("A full buffer drops instead of blocking the caller")
+    void shouldDropWhenFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CapturingAppender sink = new CapturingAppender() {
+            @Override
+            public void append(LogEvent event) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.append(event);
+            }
+        };
+        AsyncAppender appender = new AsyncAppender(sink, 4);
+        for (int i = 0; i < 20; i++) {
+            appender.append(event("x{}", i));
+        }
+        assertTrue(appender.getDroppedCount() > 0);
+        release.countDown();
+        appender.close();
+        assertEquals(20, sink.lines.size() + appender.getDroppedCount());
+    }
+
+    @Test
+    @DisplayName("Events appended after close are counted as dropped")
+    void shouldRejectAfterClose() {
+        CapturingAppender sink = new CapturingAppender();
+        AsyncAppender appender = new AsyncAppender(sink, 8);
+        appender.close();
+        appender.append(event("late {}", 1));
+        assertEquals(1, appender.getDroppedCount());
+        assertSame(sink, appender.getDelegate());
+    }
+
+    @Test
+    @DisplayName("Capacity must be a power of two")
+    void shouldRejectInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new AsyncAppender(new CapturingAppender(), 10));
+    }
+
+    @Test
+    @DisplayName("A failing delegate does not stop the worker")
+    void shouldSurviveDelegateFailure() {
+        CapturingAppender sink = new CapturingAppender() {
+            @Override
+            public void append(LogEvent event) {
+                if (event.getFormattedMessage().equals("bad")) {
+                    throw new IllegalStateException("sink failure");
+                }
+                super.append(event);
+            }
+        };
+        AsyncAppender appender = new AsyncAppender(sink, 8);
+        java.io.PrintStream originalErr = System.err;
+        try {
+            System.setErr(new java.io.PrintStream(new java.io.ByteArrayOutputStream()));
+            appender.append(event("{}", "bad"));
+            appender.append(event("{}", "good"));
+            appender.flush();
+        } finally {
+            System.setErr(originalErr);
+        }
+        assertEquals(List.of("INFO async good"), sink.lines);
+        appender.close();
+    }
+}
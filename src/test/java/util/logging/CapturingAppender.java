@@ -0,0 +1,27 @@
+package util.logging;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+//Test appender that records formatted lines
+class CapturingAppender implements LogAppender {
+
+    final List<String> lines = new CopyOnWriteArrayList<>();
+    volatile int flushes;
+    volatile boolean closed;
+
+    @Override
+    public void append(LogEvent event) {
+        lines.add(event.getLevel() + " " + event.getLoggerName() + " " + event.getFormattedMessage());
+    }
+
+    @Override
+    public void flush() {
+        flushes++;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+}
@@ -0,0 +1,119 @@
+package util.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoggerTest {
+
+    private LogAppender originalAppender;
+    private LogLevel originalLevel;
+    private CapturingAppender capture;
+
+    @BeforeEach
+    void setUp() {
+        capture = new CapturingAppender();
+        originalAppender = LoggerFactory.setAppender(capture);
+        originalLevel = LoggerFactory.getLevel();
+        LoggerFactory.setLevel(LogLevel.DEBUG);
+    }
+
+    @AfterEach
+    void tearDown() {
+        LoggerFactory.setAppender(originalAppender);
+        LoggerFactory.setLevel(originalLevel);
+    }
+
+    @Test
+    @DisplayName("Every level overload reaches the appender with formatted text")
+    void shouldLogAllLevels() {
+        Logger log = LoggerFactory.getLogger(LoggerTest.class);
+        log.debug("d");
+        log.debug("d {}", 1);
+        log.debug("d {} {}", 1, 2);
+        log.debug("d {} {} {}", 1, 2, 3);
+        log.info("i");
+        log.info("i {}", 1);
+        log.info("i {} {}", 1, 2);
+        log.info("i {} {} {}", 1, 2, 3);
+        log.warn("w");
+        log.warn("w {}", 1);
+        log.warn("w {} {}", 1, 2);
+        log.warn("w {} {} {}", 1, 2, 3);
+        log.error("e");
+        log.error("e {}", 1);
+        log.error("e {} {}", 1, 2);
+        log.error("e {} {} {}", 1, 2, 3);
+
+        assertEquals(16, capture.lines.size());
+        assertEquals("DEBUG LoggerTest d 1 2 3", capture.lines.get(3));
+        assertEquals("ERROR LoggerTest e 1 2", capture.lines.get(14));
+    }
+
+    @Test
+    @DisplayName("Messages below the threshold are discarded")
+    void shouldFilterByLevel() {
+        LoggerFactory.setLevel(LogLevel.WARN);
+        Logger log = LoggerFactory.getLogger("filter");
+        log.info("hidden {}", 1);
+        log.warn("shown {}", 2);
+
+        assertFalse(log.isDebugEnabled());
+        assertEquals(1, capture.lines.size());
+        assertEquals("WARN filter shown 2", capture.lines.get(0));
+    }
+
+    @Test
+    @DisplayName("OFF disables every level")
+    void shouldDisableWhenOff() {
+        LoggerFactory.setLevel(LogLevel.OFF);
+        LoggerFactory.getLogger("off").error("nothing");
+        assertTrue(capture.lines.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Loggers are cached by name")
+    void shouldReuseLoggerInstances() {
+        assertSame(LoggerFactory.getLogger("same"), LoggerFactory.getLogger("same"));
+        assertEquals("LoggerTest", LoggerFactory.getLogger(LoggerTest.class).getName());
+    }
+
+    @Test
+    @DisplayName("Level names are parsed case-insensitively with a fallback")
+    void shouldParseLevels() {
+        assertEquals(LogLevel.WARN, LogLevel.parse(" warn ", LogLevel.INFO));
+        assertEquals(LogLevel.INFO, LogLevel.parse("verbose", LogLevel.INFO));
+        assertEquals(LogLevel.ERROR, LogLevel.parse(null, LogLevel.ERROR));
+        assertFalse(LogLevel.ERROR.isAtLeast(LogLevel.OFF));
+    }
+
+    @Test
+    @DisplayName("Console appender writes a timestamped line to the current System.err")
+    void shouldWriteToConsole() {
+        PrintStream originalErr = System.err;
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        try {
+            System.setErr(new PrintStream(err));
+            LoggerFactory.setAppender(new ConsoleAppender());
+            LoggerFactory.getLogger("console").error("Error saving food: {}", "disk full");
+            LoggerFactory.getAppender().flush();
+        } finally {
+            System.setErr(originalErr);
+        }
+        String line = err.toString();
+        assertTrue(line.contains("ERROR [console] Error saving food: disk full"), line);
+    }
+
+    @Test
+    @DisplayName("Shutdown closes the active appender")
+    void shouldCloseOnShutdown() {
+        LoggerFactory.shutdown();
+        assertTrue(capture.closed);
+    }
+}
@@ -0,0 +1,55 @@
+package util.logging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageFormatterTest {
+
+    @Test
+    @DisplayName("Placeholders are replaced in order")
+    void shouldSubstitutePlaceholders() {
+        assertEquals("a=1 b=2", MessageFormatter.format("a={} b={}", 1, 2));
+    }
+
+    @Test
+    @DisplayName("Missing arguments leave remaining placeholders untouched")
+    void shouldKeepExtraPlaceholders() {
+        StringBuilder sb = new StringBuilder();
+        MessageFormatter.format(sb, "x={} y={}", "1");
+        assertEquals("x=1 y={}", sb.toString());
+    }
+
+    @Test
+    @DisplayName("Null template and null argument are rendered as null")
+    void shouldHandleNulls() {
+        StringBuilder sb = new StringBuilder();
+        MessageFormatter.format(sb, null, "ignored");
+        assertEquals("null", sb.toString());
+        assertEquals("value null", MessageFormatter.format("value {}", (Object) null));
+    }
+
+    @Test
+    @DisplayName("Unconsumed trailing throwable is appended as a stack trace")
+    void shouldAppendTrailingThrowable() {
+        StringBuilder sb = new StringBuilder();
+        MessageFormatter.format(sb, "failed for {}", "id-7", new IllegalStateException("boom"));
+        String text = sb.toString();
+        assertTrue(text.startsWith("failed for id-7"));
+        assertTrue(text.contains("IllegalStateException: boom"));
+    }
+
+    @Test
+    @DisplayName("Throwable consumed by a placeholder is not expanded")
+    void shouldNotExpandConsumedThrowable() {
+        String text = MessageFormatter.format("error: {}", new IllegalStateException("boom"));
+        assertEquals("error: java.lang.IllegalStateException: boom", text);
+    }
+
+    @Test
+    @DisplayName("Empty argument array returns the template")
+    void shouldReturnTemplateForNoArgs() {
+        assertEquals("plain", MessageFormatter.format("plain"));
+    }
+}
@@ -0,0 +1,76 @@
+package util.logging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollingFileAppenderTest {
+
+    @TempDir
+    Path dir;
+
+    private static LogEvent event(String message) {
+        LogEvent event = new LogEvent();
+        event.set(LogLevel.ERROR, "file", System.currentTimeMillis(), message, 0, null, null, null);
+        return event;
+    }
+
+    @Test
+    @DisplayName("Lines are appended to the log file")
+    void shouldWriteLines() throws IOException {
+        Path file = dir.resolve("logs/app.log");
+        RollingFileAppender appender = new RollingFileAppender(file, 1024 * 1024, 2);
+        appender.append(event("first"));
+        appender.append(event("second"));
+        appender.close();
+
+        String content = Files.readString(file);
+        assertTrue(content.contains("ERROR [file] first"));
+        assertTrue(content.contains("ERROR [file] second"));
+        assertEquals(file, appender.getFile());
+    }
+
+    @Test
+    @DisplayName("File rotates by size and keeps at most maxBackups")
+    void shouldRotate() throws IOException {
+        Path file = dir.resolve("app.log");
+        RollingFileAppender appender = new RollingFileAppender(file, 100, 2);
+        for (int i = 0; i < 20; i++) {
+            appender.append(event("message number " + i));
+        }
+        appender.flush();
+        appender.close();
+
+        assertTrue(Files.exists(dir.resolve("app.log.1")));
+        assertTrue(Files.exists(dir.resolve("app.log.2")));
+        assertFalse(Files.exists(dir.resolve("app.log.3")));
+        assertTrue(Files.readString(dir.resolve("app.log.1")).contains("message number"));
+    }
+
+    @Test
+    @DisplayName("Zero backups truncates the active file on rotation")
+    void shouldDiscardWithoutBackups() throws IOException {
+        Path file = dir.resolve("nobackup.log");
+        RollingFileAppender appender = new RollingFileAppender(file, 50, 0);
+        for (int i = 0; i < 5; i++) {
+            appender.append(event("line " + i + " padded to exceed the limit"));
+        }
+        appender.close();
+
+        assertFalse(Files.exists(dir.resolve("nobackup.log.1")));
+    }
+
+    @Test
+    @DisplayName("Invalid limits are rejected")
+    void shouldValidateArguments() {
+        Path file = dir.resolve("x.log");
+        assertThrows(IllegalArgumentException.class, () -> new RollingFileAppender(file, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RollingFileAppender(file, 10, -1));
+    }
+}
@@ -0,0 +1,83 @@
+package util.validation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Precompiled validators vs String.matches on a bulk-import sized batch
+ * of customer and food records (names, phones, prices, types).
+ * Run with: mvn -Pbenchmark test
+ */
+@Tag("benchmark")
+class ValidationBenchmarkTest {
+
+    private static final int RECORDS = 100_000;
+    private static final int ROUNDS = 5;
+
+    private static final Validator<String> NAME = Validators.lettersAndSpaces("name");
+    private static final Validator<String> PHONE = Validators.mobileNumber("phone");
+    private static final DoubleValidator PRICE = Validators.atLeast(0.01, "price");
+    private static final Validator<String> TYPE = Validators.oneOfIgnoreCase("type", "Set", "A la carte");
+
+    @Test
+    @DisplayName("Record validation: String.matches vs precompiled validators")
+    void compareValidation() {
+        Random random = new Random(42);
+        String[] names = new String[RECORDS];
+        String[] phones = new String[RECORDS];
+        double[] prices = new double[RECORDS];
+        String[] types = new String[RECORDS];
+        for (int i = 0; i < RECORDS; i++) {
+            // About one record in ten is invalid somewhere
+            names[i] = random.nextInt(10) == 0 ? "Guest" + i : "Customer Name " + (char) ('a' + i % 26);
+            phones[i] = String.format(random.nextInt(10) == 0 ? "02%08d" : "01%08d", random.nextInt(100_000_000));
+            prices[i] = random.nextInt(10) == 0 ? 0 : 1 + random.nextInt(5_000) / 100.0;
+            types[i] = random.nextBoolean() ? "Set" : "A la carte";
+        }
+
+        int legacyValid = 0;
+        int fastValid = 0;
+        long legacyNanos = Long.MAX_VALUE;
+        long fastNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            legacyValid = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < RECORDS; i++) {
+                if (legacyRecord(names[i], phones[i], prices[i], types[i])) {
+                    legacyValid++;
+                }
+            }
+            legacyNanos = Math.min(legacyNanos, System.nanoTime() - start);
+
+            fastValid = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < RECORDS; i++) {
+                if (NAME.isValid(names[i]) && PHONE.isValid(phones[i])
+                        && PRICE.isValid(prices[i]) && TYPE.isValid(types[i])) {
+                    fastValid++;
+                }
+            }
+            fastNanos = Math.min(fastNanos, System.nanoTime() - start);
+        }
+
+        System.out.printf("Validation (%d records): String.matches %.1f ns/record (%.0f records/s), "
+                        + "validators %.1f ns/record (%.0f records/s)%n",
+                RECORDS, (double) legacyNanos / RECORDS, RECORDS * 1e9 / legacyNanos,
+                (double) fastNanos / RECORDS, RECORDS * 1e9 / fastNanos);
+        assertEquals(legacyValid, fastValid);
+        assertTrue(fastNanos < legacyNanos, "Precompiled validators should beat String.matches");
+    }
+
+    // What CustomerService/FoodService did before
+    private static boolean legacyRecord(String name, String phone, double price, String type) {
+        return name != null && !name.trim().isEmpty() && name.matches("^[a-zA-Z\\s]+$")
+                && phone != null && phone.matches("^01\\d{8,9}$")
+                && price >= 0.01
+                && type != null && ("Set".equalsIgnoreCase(type) || "A la carte".equalsIgnoreCase(type));
+    }
+}
@@ -0,0 +1,93 @@
+package util.validation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidatorsTest {
+
+    //The expressions the services used before
+    private static boolean legacyName(String value) {
+        return value != null && !value.trim().isEmpty() && value.matches("^[a-zA-Z\\s]+$");
+    }
+
+    private static boolean legacyPhone(String value) {
+        return value != null && value.matches("^01\\d{8,9}$");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"John Doe", "a", " Mary\tJane ", "Nasi Lemak", "", " ", "\t\n", "John123",
+            "O'Brien", "José", "Ａbc", "Mee-Goreng", "x\u000By", "x y", "Ali\r\n"})
+    @DisplayName("Names match the old regular expression")
+    void namesMatchRegex(String value) {
+        assertEquals(legacyName(value), Validators.isLettersAndSpaces(value), "'" + value + "'");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0123456789", "01234567890", "012345678", "012345678901", "0223456789",
+            "1123456789", "01234567a9", "01２3456789", "", "01", "+60123456789", " 0123456789"})
+    @DisplayName("Phone numbers match the old regular expression")
+    void phonesMatchRegex(String value) {
+        assertEquals(legacyPhone(value), Validators.isMobileNumber(value), "'" + value + "'");
+    }
+
+    @Test
+    @DisplayName("Random strings agree with the regular expressions")
+    void randomInputsMatchRegex() {
+        Random random = new Random(7);
+        char[] alphabet = "01239aZz \t\n\u000B\f\r-_é ".toCharArray();
+        for (int i = 0; i < 20_000; i++) {
+            char[] chars = new char[random.nextInt(13)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = alphabet[random.nextInt(alphabet.length)];
+            }
+            if (chars.length > 1 && random.nextBoolean()) {
+                chars[0] = '0';
+                chars[1] = '1';
+            }
+            String value = new String(chars);
+            assertEquals(legacyName(value), Validators.isLettersAndSpaces(value), "'" + value + "'");
+            assertEquals(legacyPhone(value), Validators.isMobileNumber(value), "'" + value + "'");
+        }
+    }
+
+    @Test
+    @DisplayName("Null never passes")
+    void nullIsInvalid() {
+        assertFalse(Validators.isLettersAndSpaces(null));
+        assertFalse(Validators.isMobileNumber(null));
+        assertFalse(Validators.isOneOfIgnoreCase(null, "Set"));
+        assertFalse(Validators.minLength(1, "x").isValid(null));
+    }
+
+    @Test
+    @DisplayName("Rules carry their message into check()")
+    void checkThrowsWithMessage() {
+        Validator<String> type = Validators.oneOfIgnoreCase("Food type must be 'Set' or 'A la carte'", "Set", "A la carte");
+        assertTrue(type.isValid("a LA carte"));
+        assertDoesNotThrow(() -> type.check("SET"));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> type.check("Combo"));
+        assertEquals("Food type must be 'Set' or 'A la carte'", e.getMessage());
+
+        DoubleValidator price = Validators.atLeast(0.01, "Too cheap");
+        assertTrue(price.isValid(0.01));
+        assertFalse(price.isValid(0.0));
+        assertFalse(price.isValid(Double.NaN));
+        assertEquals("Too cheap", assertThrows(IllegalArgumentException.class, () -> price.check(-1)).getMessage());
+    }
+
+    @Test
+    @DisplayName("Lambdas get a generic message")
+    void defaultMessage() {
+        Validator<String> nonEmpty = value -> !value.isEmpty();
+        DoubleValidator positive = value -> value > 0;
+
+        assertEquals("Invalid value", assertThrows(IllegalArgumentException.class, () -> nonEmpty.check("")).getMessage());
+        assertEquals("Invalid value", assertThrows(IllegalArgumentException.class, () -> positive.check(0)).getMessage());
+    }
+}